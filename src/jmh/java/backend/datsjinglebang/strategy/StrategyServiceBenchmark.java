@@ -0,0 +1,97 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomber;
+import backend.datsjinglebang.model.BoosterResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Бенчмарк StrategyService.decideMove и горячих вспомогательных методов на синтетических аренах.
+// Запуск: mvn -Pbenchmark test-compile exec:exec
+// Параметры можно сузить: mvn -Pbenchmark test-compile exec:exec -Djmh.args="-p mapSize=500"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StrategyServiceBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"50", "100", "200", "500"})
+    public int mapSize;
+
+    @Param({"0.1", "0.3"})
+    public double obstacleDensity;
+
+    @Param({"10", "100"})
+    public int bombCount;
+
+    @Param({"5", "20"})
+    public int bomberCount;
+
+    // Логи стратегии пишутся в консоль - по умолчанию глушим, чтобы мерить саму логику
+    @Param({"WARN"})
+    public String logLevel;
+
+    private StrategyService strategy;
+    private ArenaResponse arena;
+    private BoosterResponse boosters;
+    private Bomber firstBomber;
+
+    private final int[][] probeCells = new int[PROBES][];
+    private int probeIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("backend.datsjinglebang"))
+                .setLevel(ch.qos.logback.classic.Level.toLevel(logLevel));
+
+        arena = SyntheticArenas.arena(mapSize, obstacleDensity, bombCount, bomberCount, 42L);
+        boosters = SyntheticArenas.boosters();
+        firstBomber = arena.bombers.get(0);
+
+        Random random = new Random(7);
+        for (int i = 0; i < PROBES; i++) {
+            probeCells[i] = new int[]{random.nextInt(mapSize), random.nextInt(mapSize)};
+        }
+
+        strategy = new StrategyService();
+        // Прогреваем состояние стратегии (сетка тика, карта памяти, трекеры)
+        strategy.decideMove(arena, boosters);
+        strategy.decideMove(arena, boosters);
+    }
+
+    private int[] nextProbe() {
+        probeIndex = (probeIndex + 1) & (PROBES - 1);
+        return probeCells[probeIndex];
+    }
+
+    // Стратегия принимает решение на каждом втором вызове, поэтому одна операция -
+    // пара вызовов (пропущенный тик + тик с решением)
+    @Benchmark
+    public void decideMove(Blackhole blackhole) {
+        blackhole.consume(strategy.decideMove(arena, boosters));
+        blackhole.consume(strategy.decideMove(arena, boosters));
+    }
+
+    @Benchmark
+    public boolean isObstacle() {
+        int[] cell = nextProbe();
+        return strategy.isObstacle(cell[0], cell[1], arena);
+    }
+
+    @Benchmark
+    public boolean isInDangerZone() {
+        return strategy.isInDangerZone(nextProbe(), arena);
+    }
+
+    @Benchmark
+    public int[] findMultiWallBombSpot() {
+        return strategy.findMultiWallBombSpot(firstBomber, arena);
+    }
+}
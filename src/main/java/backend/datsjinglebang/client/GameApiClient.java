@@ -1,53 +1,78 @@
 package backend.datsjinglebang.client;
 
+import backend.datsjinglebang.jfr.HttpRequestEvent;
 import backend.datsjinglebang.model.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-@Component
+// Клиент API одной игровой сессии (см. GameClientFactory)
 public class GameApiClient {
+    // Интервал между запросами одной сессии: сервер пропускает 3 запроса в секунду,
+    // 1/3 с плюс запас на джиттер сети. Общий для цикла, планировщика раундов, журнала и прогрева
+    public static final Duration REQUEST_SPACING = Duration.ofMillis(350);
+
     private final WebClient client;
+    private final MeterRegistry meterRegistry;
+
+    // Таймеры регистрируются один раз, а не на каждый запрос
+    private final Endpoint arenaEndpoint;
+    private final Endpoint moveEndpoint;
+    private final Endpoint boostersEndpoint;
+    private final Endpoint boosterPurchaseEndpoint;
+    private final Endpoint logsEndpoint;
+    private final Endpoint roundsEndpoint;
 
-    public GameApiClient(WebClient client) {
+    public GameApiClient(WebClient client, MeterRegistry meterRegistry) {
         this.client = client;
+        this.meterRegistry = meterRegistry;
+        this.arenaEndpoint = new Endpoint("GET /arena", meterRegistry);
+        this.moveEndpoint = new Endpoint("POST /move", meterRegistry);
+        this.boostersEndpoint = new Endpoint("GET /booster", meterRegistry);
+        this.boosterPurchaseEndpoint = new Endpoint("POST /booster", meterRegistry);
+        this.logsEndpoint = new Endpoint("GET /logs", meterRegistry);
+        this.roundsEndpoint = new Endpoint("GET /rounds", meterRegistry);
     }
 
     // Получение состояния арены
     public Mono<ArenaResponse> getArena() {
-        return client.get()
+        return timed(arenaEndpoint, client.get()
                 .uri("/arena")
                 .retrieve()
-                .bodyToMono(ArenaResponse.class);
+                .bodyToMono(ArenaResponse.class));
     }
 
     // Отправка команд движения
     public Mono<Void> move(MoveRequest request) {
-        return client.post()
+        return timed(moveEndpoint, client.post()
                 .uri("/move")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(Void.class);
+                .bodyToMono(Void.class));
     }
 
     // Получение информации о бустерах
     public Mono<BoosterResponse> getBoosters() {
-        return client.get()
+        return timed(boostersEndpoint, client.get()
                 .uri("/booster")
                 .retrieve()
-                .bodyToMono(BoosterResponse.class);
+                .bodyToMono(BoosterResponse.class));
     }
 
     // НОВЫЙ МЕТОД: Покупка бустера
     public Mono<Void> purchaseBooster(PurchaseBoosterRequest request) {
-        return client.post()
+        return timed(boosterPurchaseEndpoint, client.post()
                 .uri("/booster")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(Void.class);
+                .bodyToMono(Void.class));
     }
 
     // Применение бустера (возможно, это то же самое что и purchaseBooster)
@@ -55,26 +80,105 @@ public class GameApiClient {
         ApplyBoosterRequest request = new ApplyBoosterRequest();
         request.setBooster(boosterType);
 
-        return client.post()
+        return timed(boosterPurchaseEndpoint, client.post()
                 .uri("/booster")
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(ApplyBoosterResponse.class);
+                .bodyToMono(ApplyBoosterResponse.class));
     }
 
     // Получение логов
     public Mono<List<LogEntry>> getLogs() {
-        return client.get()
+        return timed(logsEndpoint, client.get()
                 .uri("/logs")
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<LogEntry>>() {});
+                .bodyToMono(new ParameterizedTypeReference<List<LogEntry>>() {}));
     }
 
     // Получение информации о раундах
     public Mono<RoundsResponse> getRounds() {
-        return client.get()
+        return timed(roundsEndpoint, client.get()
                 .uri("/rounds")
                 .retrieve()
-                .bodyToMono(RoundsResponse.class);
+                .bodyToMono(RoundsResponse.class));
+    }
+
+    // Таймер запроса по эндпоинту и исходу, плюс счетчик ошибок по эндпоинту и HTTP-статусу.
+    // Отсчет идет от подписки, поэтому каждая повторная попытка (retry) замеряется отдельно.
+    // Вызывающий код ставит .timeout() снаружи: по тайм-ауту запрос отменяется, и такой
+    // замер идет с исходом cancelled, а не пропадает. Исход фиксируется ровно один раз.
+    // Тот же интервал пишется в JFR (datsjinglebang.HttpRequest), если идет запись.
+    private <T> Mono<T> timed(Endpoint endpoint, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            HttpRequestEvent event = new HttpRequestEvent();
+            event.begin();
+            AtomicBoolean finished = new AtomicBoolean();
+            return call
+                    .doOnSuccess(v -> {
+                        if (finished.compareAndSet(false, true)) {
+                            sample.stop(endpoint.success);
+                            commit(event, endpoint.name, "success", "200");
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (finished.compareAndSet(false, true)) {
+                            String status = statusOf(e);
+                            sample.stop(endpoint.error);
+                            meterRegistry.counter("game.api.errors", "endpoint", endpoint.name, "status", status)
+                                    .increment();
+                            commit(event, endpoint.name, "error", status);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (finished.compareAndSet(false, true)) {
+                            sample.stop(endpoint.cancelled);
+                            commit(event, endpoint.name, "cancelled", "none");
+                        }
+                    });
+        });
+    }
+
+    private static void commit(HttpRequestEvent event, String endpoint, String outcome, String status) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = endpoint;
+            event.outcome = outcome;
+            event.status = status;
+            event.commit();
+        }
+    }
+
+    private static String statusOf(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return String.valueOf(response.getStatusCode().value());
+        }
+        return "io_error";
+    }
+
+    // Таймеры одного эндпоинта по исходам
+    private static final class Endpoint {
+        final String name;
+        final Timer success;
+        final Timer error;
+        final Timer cancelled;
+
+        Endpoint(String name, MeterRegistry registry) {
+            this.name = name;
+            this.success = requestTimer(name, "success", registry);
+            this.error = requestTimer(name, "error", registry);
+            this.cancelled = requestTimer(name, "cancelled", registry);
+        }
+
+        private static Timer requestTimer(String endpoint, String outcome, MeterRegistry registry) {
+            return Timer.builder("game.api.requests")
+                    .description("Latency of game API calls")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(5))
+                    .maximumExpectedValue(Duration.ofSeconds(5))
+                    .register(registry);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package backend.datsjinglebang.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+// Клиенты API для игровых сессий: у каждой свой адрес и токен, коннектор (пул соединений) общий
+@Component
+public class GameClientFactory {
+    private final ReactorClientHttpConnector connector;
+
+    public GameClientFactory(ReactorClientHttpConnector gameHttpConnector) {
+        this.connector = gameHttpConnector;
+    }
+
+    public GameApiClient create(String baseUrl, String authToken, MeterRegistry meterRegistry) {
+        WebClient client = WebClient.builder()
+                .clientConnector(connector)
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .defaultHeader("X-Auth-Token", authToken)
+                .build();
+        return new GameApiClient(client, meterRegistry);
+    }
+}
@@ -1,27 +1,28 @@
 package backend.datsjinglebang.config;
 
-import org.springframework.beans.factory.annotation.Value;
+import backend.datsjinglebang.session.SessionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+// Один пул соединений на все игровые сессии: аккаунты отличаются только заголовком
+// X-Auth-Token, поэтому keep-alive соединение к серверу годится любой сессии.
+// WebClient каждой сессии собирает GameClientFactory поверх этого коннектора.
 @Configuration
 public class WebClientConfig {
 
-    @Value("${game.base-url}")
-    private String baseUrl;
-
-    @Value("${game.auth-token}")
-    private String authToken;
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider gameConnectionProvider(SessionProperties properties) {
+        return ConnectionProvider.builder("game-api")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .build();
+    }
 
     @Bean
-    public WebClient gameWebClient() {
-        return WebClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .defaultHeader("X-Auth-Token", authToken)
-                .build();
+    public ReactorClientHttpConnector gameHttpConnector(ConnectionProvider gameConnectionProvider) {
+        return new ReactorClientHttpConnector(HttpClient.create(gameConnectionProvider));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package backend.datsjinglebang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Решение стратегии для одного бомбера: выбранное действие и длина отправленного пути
+@Name("datsjinglebang.BomberDecision")
+@Label("Bomber Decision")
+@Category({"DatsJingleBang", "Strategy"})
+@Description("Per-bomber decision with chosen action and path length")
+@StackTrace(false)
+public class BomberDecisionEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(BomberDecisionEvent.class);
+
+    @Label("Strategy Tick")
+    public int tick;
+
+    @Label("Bomber")
+    public String bomberId;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Path Length")
+    public int pathLength;
+
+    @Label("Bombs")
+    public int bombs;
+
+    // Событие создается на каждого бомбера, поэтому без записи JFR не создаем его вовсе,
+    // а не полагаемся на то, что JIT уберет выделение памяти
+    public static boolean isRecording() {
+        return TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,28 @@
+package backend.datsjinglebang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Покупка бустера: от отправки POST /booster до ответа
+@Name("datsjinglebang.BoosterPurchase")
+@Label("Booster Purchase")
+@Category({"DatsJingleBang", "Boosters"})
+@Description("Booster purchase from POST /booster to response")
+@StackTrace(false)
+public class BoosterPurchaseEvent extends Event {
+    @Label("Tick")
+    public int tick;
+
+    @Label("Booster")
+    public String booster;
+
+    @Label("Cost")
+    public int cost;
+
+    @Label("Success")
+    public boolean success;
+}
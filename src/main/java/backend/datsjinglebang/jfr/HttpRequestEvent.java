@@ -0,0 +1,25 @@
+package backend.datsjinglebang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Один запрос к игровому API, от подписки до ответа (каждый повтор - отдельное событие)
+@Name("datsjinglebang.HttpRequest")
+@Label("Game API Request")
+@Category({"DatsJingleBang", "HTTP"})
+@Description("Game API call from subscription to response")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Status")
+    public String status;
+}
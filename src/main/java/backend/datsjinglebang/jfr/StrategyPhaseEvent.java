@@ -0,0 +1,22 @@
+package backend.datsjinglebang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Вызов StrategyService.decideMove внутри тика
+@Name("datsjinglebang.StrategyPhase")
+@Label("Strategy Phase")
+@Category({"DatsJingleBang", "Strategy"})
+@Description("StrategyService.decideMove call within a tick")
+@StackTrace(false)
+public class StrategyPhaseEvent extends Event {
+    @Label("Tick")
+    public int tick;
+
+    @Label("Commands")
+    public int commands;
+}
@@ -0,0 +1,25 @@
+package backend.datsjinglebang.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Весь тик игрового цикла: от запроса арены до паузы после /move, включая повторы
+@Name("datsjinglebang.Tick")
+@Label("Tick")
+@Category({"DatsJingleBang", "Game Loop"})
+@Description("Full game loop tick including retries and pauses")
+@StackTrace(false)
+public class TickEvent extends Event {
+    @Label("Tick")
+    public int tick;
+
+    @Label("Failed")
+    public boolean failed;
+
+    @Label("Total Requests")
+    public int totalRequests;
+}
@@ -0,0 +1,253 @@
+package backend.datsjinglebang.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Асинхронный журнал событий тика. Горячий путь только заполняет заранее выделенное
+// событие (шаблон + аргументы как long или ссылки) - без форматирования строк и без
+// выделения памяти. Форматирование и вывод через SLF4J делает отдельный поток.
+//
+// Фильтрация до захвата слота:
+//  - уровень: логгер категории backend.datsjinglebang.tick.<категория> должен быть включен;
+//  - выборка: событие пишется, если номер тика кратен sampleEvery категории,
+//    так что все строки выбранного тика выводятся вместе.
+// При переполнении кольца событие отбрасывается и считается в dropped.
+//
+// Если событие не будет выведено, claim возвращает общее пустое событие, которое
+// игнорирует аргументы, поэтому вызов всегда записывается одной цепочкой:
+//   eventLog.claim(Category.HTTP, Level.INFO, tick, "[T{}] │ ✓ GET /arena: code={}").arg(arena.code).publish();
+public class TickEventLog implements AutoCloseable {
+    public static final int MAX_ARGS = 8;
+
+    private static final long ABANDONED_EVENT_NANOS = 10_000_000;
+
+    public enum Category {
+        TICK,
+        HTTP,
+        BOOSTERS,
+        SHOP,
+        BOMBER
+    }
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    // Журнал без потока и без вывода - для стратегии вне Spring (реплей, самоигра, тесты)
+    public static final TickEventLog DISABLED = new TickEventLog(2, Map.of(), false);
+
+    private final Event noop = new Event(null);
+    private final Event[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    private final Logger[] loggers = new Logger[CATEGORIES.length];
+    private final int[] sampleEvery = new int[CATEGORIES.length];
+    private final boolean enabled;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Статистика
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder producerNanos = new LongAdder();
+    private final LongAdder tickNanos = new LongAdder();
+
+    public TickEventLog(int capacity, Map<Category, Integer> sampling) {
+        this(capacity, sampling, true);
+    }
+
+    private TickEventLog(int capacity, Map<Category, Integer> sampling, boolean enabled) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        ring = new Event[size];
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new Event(this);
+        }
+
+        Map<Category, Integer> rates = new EnumMap<>(Category.class);
+        rates.putAll(sampling);
+        for (Category category : CATEGORIES) {
+            loggers[category.ordinal()] = LoggerFactory.getLogger(
+                    "backend.datsjinglebang.tick." + category.name().toLowerCase());
+            sampleEvery[category.ordinal()] = Math.max(1, rates.getOrDefault(category, 1));
+        }
+        this.enabled = enabled;
+    }
+
+    public synchronized void start() {
+        if (!enabled || running) return;
+        running = true;
+        writer = new Thread(this::drainLoop, "tick-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Захватывает событие; пустое событие, если оно не будет выведено
+    public Event claim(Category category, Level level, long tick, String template) {
+        if (!running) return noop;
+        int index = category.ordinal();
+        if (!loggers[index].isEnabledForLevel(level)) return noop;
+        if (tick % sampleEvery[index] != 0) {
+            sampledOut.increment();
+            return noop;
+        }
+
+        long started = System.nanoTime();
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= ring.length) {
+                dropped.increment();
+                return noop;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Event event = ring[(int) (sequence & mask)];
+        event.sequence = sequence;
+        event.category = index;
+        event.level = level;
+        event.template = template;
+        event.argCount = 0;
+        event.longMask = 0;
+        event.startNanos = started;
+        return event.arg(tick);
+    }
+
+    public Event info(Category category, long tick, String template) {
+        return claim(category, Level.INFO, tick, template);
+    }
+
+    public Event debug(Category category, long tick, String template) {
+        return claim(category, Level.DEBUG, tick, template);
+    }
+
+    // Время тика - для доли логирования в нем
+    public void tickCompleted(long nanos) {
+        tickNanos.add(nanos);
+    }
+
+    private void drainLoop() {
+        long next = consumed;
+        long waitingSince = 0;
+        while (running || next < claimed.get()) {
+            Event event = ring[(int) (next & mask)];
+            if (event.published != next) {
+                if (next == claimed.get()) {
+                    LockSupport.parkNanos(1_000_000);
+                    continue;
+                }
+                // Слот захвачен, но еще заполняется; если так и не опубликован - пропускаем
+                long now = System.nanoTime();
+                if (waitingSince == 0) {
+                    waitingSince = now;
+                } else if (now - waitingSince > ABANDONED_EVENT_NANOS) {
+                    dropped.increment();
+                    consumed = ++next;
+                    waitingSince = 0;
+                } else {
+                    Thread.onSpinWait();
+                }
+                continue;
+            }
+            waitingSince = 0;
+
+            // Массив аргументов новый на каждое событие: асинхронные аппендеры logback хранят ссылку на него
+            Object[] args = new Object[event.argCount];
+            for (int i = 0; i < event.argCount; i++) {
+                args[i] = (event.longMask & (1 << i)) != 0 ? (Object) event.longs[i] : event.refs[i];
+                event.refs[i] = null;
+            }
+            String template = event.template;
+            Level level = event.level;
+            Logger logger = loggers[event.category];
+            consumed = ++next; // Слот свободен, аргументы уже скопированы
+
+            logger.atLevel(level).log(template, args);
+            emitted.increment();
+        }
+    }
+
+    public long getEmitted() {
+        return emitted.sum();
+    }
+
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getProducerNanos() {
+        return producerNanos.sum();
+    }
+
+    // Доля времени тиков, потраченная на логирование в горячем пути
+    public double getOverheadRatio() {
+        long ticks = tickNanos.sum();
+        return ticks > 0 ? (double) producerNanos.sum() / ticks : 0.0;
+    }
+
+    public static final class Event {
+        private final TickEventLog owner;
+        private final long[] longs = new long[MAX_ARGS];
+        private final Object[] refs = new Object[MAX_ARGS];
+        private volatile long published = -1;
+        private long sequence;
+        private int category;
+        private Level level;
+        private String template;
+        private int argCount;
+        private int longMask;
+        private long startNanos;
+
+        // owner == null - пустое событие
+        private Event(TickEventLog owner) {
+            this.owner = owner;
+        }
+
+        public Event arg(long value) {
+            if (owner != null && argCount < MAX_ARGS) {
+                longs[argCount] = value;
+                longMask |= 1 << argCount;
+                argCount++;
+            }
+            return this;
+        }
+
+        public Event arg(Object value) {
+            if (owner != null && argCount < MAX_ARGS) {
+                refs[argCount] = value;
+                argCount++;
+            }
+            return this;
+        }
+
+        public void publish() {
+            if (owner == null) return;
+            owner.producerNanos.add(System.nanoTime() - startNanos);
+            published = sequence;
+        }
+    }
+}
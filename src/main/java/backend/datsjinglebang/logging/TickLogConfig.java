@@ -0,0 +1,62 @@
+package backend.datsjinglebang.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Асинхронный журнал тиков: настройки game.tick-log.* и метрики game.log.*
+@Configuration
+@EnableConfigurationProperties(TickLogConfig.TickLogProperties.class)
+public class TickLogConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public TickEventLog tickEventLog(TickLogProperties properties, MeterRegistry meterRegistry) {
+        TickEventLog eventLog = new TickEventLog(properties.getCapacity(), properties.getSampleEvery());
+
+        FunctionCounter.builder("game.log.events", eventLog, TickEventLog::getEmitted)
+                .tag("result", "emitted").register(meterRegistry);
+        FunctionCounter.builder("game.log.events", eventLog, TickEventLog::getSampledOut)
+                .tag("result", "sampled_out").register(meterRegistry);
+        FunctionCounter.builder("game.log.events", eventLog, TickEventLog::getDropped)
+                .tag("result", "dropped").register(meterRegistry);
+        FunctionCounter.builder("game.log.producer.seconds", eventLog,
+                        log -> log.getProducerNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("Time spent filling log events on the tick path")
+                .register(meterRegistry);
+        Gauge.builder("game.log.overhead.ratio", eventLog, TickEventLog::getOverheadRatio)
+                .description("Share of tick time spent on logging")
+                .register(meterRegistry);
+        return eventLog;
+    }
+
+    @ConfigurationProperties(prefix = "game.tick-log")
+    public static class TickLogProperties {
+        private int capacity = 4096;
+        // Выводить каждый N-й тик для категории (1 - все)
+        private Map<TickEventLog.Category, Integer> sampleEvery = new EnumMap<>(TickEventLog.Category.class);
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Map<TickEventLog.Category, Integer> getSampleEvery() {
+            return sampleEvery;
+        }
+
+        public void setSampleEvery(Map<TickEventLog.Category, Integer> sampleEvery) {
+            this.sampleEvery = sampleEvery;
+        }
+    }
+}
@@ -0,0 +1,728 @@
+package backend.datsjinglebang.mock;
+
+import backend.datsjinglebang.model.*;
+
+import java.time.Instant;
+import java.util.*;
+
+// Упрощенный движок правил игры для локального мок-сервера и офлайн-симуляций.
+// Поддерживает несколько команд на одной карте: движение по путям, установку бомб,
+// взрывы с цепными реакциями, разрушение препятствий, мобов, очки и бустеры.
+// Не потокобезопасен - вызывающий код сам сериализует доступ.
+public class MockGameEngine {
+    public static final int TICK_MS = 500;
+    public static final int CODE_ACTIVE = 0;
+    public static final int CODE_ROUND_FINISHED = 23;
+
+    private static final byte EMPTY = 0;
+    private static final byte WALL = 1;
+    private static final byte OBSTACLE = 2;
+
+    private static final int MAX_PATH_LENGTH = 30;
+    private static final int SCORE_OBSTACLE = 1;
+    private static final int SCORE_ENEMY_KILL = 10;
+    private static final int SCORE_MOB_KILL = 5;
+    private static final int SPAWN_SAFE_TICKS = 10;
+    private static final int MOB_RESPAWN_TICKS = 20;
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    private final int bombersPerTeam;
+    private final int maxTicks;
+    private final Random random;
+    private final String roundName;
+    private final Instant roundStart;
+
+    private final Map<String, Team> teams = new LinkedHashMap<>();
+    private final List<SimBomb> bombs = new ArrayList<>();
+    private final List<SimMob> mobs = new ArrayList<>();
+
+    // Рабочие буферы: отметки видимости и взрывов без выделения памяти на каждый тик
+    private final int[] stamp;
+    private int stampCounter;
+    private final ArrayDeque<SimBomb> detonationQueue = new ArrayDeque<>();
+
+    private int tick;
+
+    public MockGameEngine(int mapSize, double obstacleDensity, int bombersPerTeam, int mobCount,
+                          int maxTicks, long seed, String roundName, Instant roundStart) {
+        this.width = mapSize;
+        this.height = mapSize;
+        this.cells = new byte[mapSize * mapSize];
+        this.stamp = new int[mapSize * mapSize];
+        this.bombersPerTeam = bombersPerTeam;
+        this.maxTicks = maxTicks;
+        this.random = new Random(seed);
+        this.roundName = roundName;
+        this.roundStart = roundStart;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (x % 2 == 1 && y % 2 == 1) {
+                    cells[y * width + x] = WALL;
+                } else if (random.nextDouble() < obstacleDensity) {
+                    cells[y * width + x] = OBSTACLE;
+                }
+            }
+        }
+
+        for (int i = 0; i < mobCount; i++) {
+            SimMob mob = new SimMob();
+            mob.id = "mob-" + i;
+            mob.type = i % 2 == 0 ? "ghost" : "patrol";
+            int[] pos = randomFreeCell();
+            mob.x = pos[0];
+            mob.y = pos[1];
+            mob.dir = random.nextInt(4);
+            mobs.add(mob);
+        }
+    }
+
+    // --- Команды ---
+
+    public void addTeam(String name) {
+        if (teams.containsKey(name)) return;
+
+        Team team = new Team(name);
+        int[] spawn = randomFreeCell();
+        clearAround(spawn[0], spawn[1]);
+        for (int i = 0; i < bombersPerTeam; i++) {
+            SimBomber bomber = new SimBomber();
+            bomber.id = name + "-" + i;
+            bomber.x = spawn[0];
+            bomber.y = spawn[1];
+            bomber.alive = true;
+            bomber.safeTicks = SPAWN_SAFE_TICKS;
+            team.bombers.add(bomber);
+        }
+        teams.put(name, team);
+    }
+
+    public boolean hasTeam(String name) {
+        return teams.containsKey(name);
+    }
+
+    public Collection<String> getTeamNames() {
+        return Collections.unmodifiableCollection(teams.keySet());
+    }
+
+    // --- Ход ---
+
+    public List<String> submitMove(String teamName, MoveRequest request) {
+        Team team = teams.get(teamName);
+        List<String> errors = new ArrayList<>();
+        if (team == null || request == null || request.getBombers() == null) {
+            errors.add("empty move request");
+            return record(team, errors);
+        }
+
+        for (MoveBomber command : request.getBombers()) {
+            SimBomber bomber = team.findBomber(command.getId());
+            if (bomber == null) {
+                errors.add("bomber " + command.getId() + " not found");
+                continue;
+            }
+            if (!bomber.alive) {
+                errors.add("bomber " + command.getId() + " is dead");
+                continue;
+            }
+            applyCommand(team, bomber, command, errors);
+        }
+        return record(team, errors);
+    }
+
+    private void applyCommand(Team team, SimBomber bomber, MoveBomber command, List<String> errors) {
+        bomber.pathLength = 0;
+        bomber.pathIndex = 0;
+        bomber.plannedBombCount = 0;
+
+        // Клетки не из пары [x, y] отклоняет уже разбор JSON (PackedPath)
+        PackedPath path = command.getPath();
+        int prevX = bomber.x;
+        int prevY = bomber.y;
+        if (path != null) {
+            for (int i = 0; i < path.size(); i++) {
+                int x = path.x(i);
+                int y = path.y(i);
+                if (i == 0 && x == bomber.x && y == bomber.y) continue; // Текущая позиция
+
+                if (bomber.pathLength >= MAX_PATH_LENGTH) {
+                    errors.add("bomber " + bomber.id + ": path clipped to " + MAX_PATH_LENGTH + " cells");
+                    break;
+                }
+                if (Math.abs(x - prevX) + Math.abs(y - prevY) != 1) {
+                    errors.add("bomber " + bomber.id + ": path clipped at step " + i + " (not adjacent)");
+                    break;
+                }
+                if (!isPassable(team, x, y)) {
+                    errors.add("bomber " + bomber.id + ": path clipped at step " + i + " (blocked cell " + x + "," + y + ")");
+                    break;
+                }
+                bomber.pathX[bomber.pathLength] = x;
+                bomber.pathY[bomber.pathLength] = y;
+                bomber.pathLength++;
+                prevX = x;
+                prevY = y;
+            }
+        }
+
+        PackedPath bombCells = command.getBombs();
+        if (bombCells != null) {
+            for (int i = 0; i < bombCells.size(); i++) {
+                int x = bombCells.x(i);
+                int y = bombCells.y(i);
+                if (!isOnPlannedRoute(bomber, x, y)) {
+                    errors.add("bomber " + bomber.id + ": bomb at " + x + "," + y + " is not on the path");
+                    continue;
+                }
+                if (bomber.plannedBombCount < bomber.plannedBombX.length) {
+                    bomber.plannedBombX[bomber.plannedBombCount] = x;
+                    bomber.plannedBombY[bomber.plannedBombCount] = y;
+                    bomber.plannedBombCount++;
+                }
+            }
+        }
+    }
+
+    public boolean purchaseBooster(String teamName, String type) {
+        Team team = teams.get(teamName);
+        if (team == null || type == null) return false;
+
+        int cost = getBoosterCost(type);
+        if (cost < 0 || team.state.getPoints() < cost) {
+            record(team, List.of("cannot purchase booster " + type));
+            return false;
+        }
+
+        BoosterState state = team.state;
+        switch (type) {
+            case "speed" -> state.setSpeed(state.getSpeed() + 1);
+            case "bombs" -> state.setBombs(state.getBombs() + 1);
+            case "bomb_range" -> state.setBombRange(state.getBombRange() + 1);
+            case "view" -> state.setView(state.getView() + 1);
+            case "armor" -> state.setArmor(state.getArmor() + 1);
+            case "bomb_delay" -> state.setBombDelay(Math.max(TICK_MS, state.getBombDelay() - TICK_MS));
+            case "can_pass_bombs" -> state.setCanPassBombs(true);
+            case "can_pass_obstacles" -> state.setCanPassObstacles(true);
+            case "can_pass_walls" -> state.setCanPassWalls(true);
+            default -> {
+                return false;
+            }
+        }
+        state.setPoints(state.getPoints() - cost);
+        return true;
+    }
+
+    private int getBoosterCost(String type) {
+        return switch (type) {
+            case "speed", "bombs", "bomb_range", "view", "bomb_delay" -> 5;
+            case "armor" -> 8;
+            case "can_pass_bombs" -> 10;
+            case "can_pass_obstacles", "can_pass_walls" -> 20;
+            default -> -1;
+        };
+    }
+
+    // --- Симуляция ---
+
+    public void tick() {
+        if (isFinished()) return;
+
+        for (Team team : teams.values()) {
+            int cellsPerTick = Math.max(1, team.state.getSpeed() / 2);
+            for (SimBomber bomber : team.bombers) {
+                if (!bomber.alive) continue;
+                plantPlannedBomb(team, bomber);
+                for (int step = 0; step < cellsPerTick && bomber.pathIndex < bomber.pathLength; step++) {
+                    int nx = bomber.pathX[bomber.pathIndex];
+                    int ny = bomber.pathY[bomber.pathIndex];
+                    if (!isPassable(team, nx, ny)) {
+                        bomber.pathLength = bomber.pathIndex; // Путь перекрыт - стоим
+                        break;
+                    }
+                    bomber.x = nx;
+                    bomber.y = ny;
+                    bomber.pathIndex++;
+                    plantPlannedBomb(team, bomber);
+                }
+            }
+        }
+
+        moveMobs();
+        checkMobContacts();
+        updateBombs();
+
+        for (Team team : teams.values()) {
+            for (SimBomber bomber : team.bombers) {
+                if (bomber.safeTicks > 0) bomber.safeTicks--;
+            }
+        }
+        for (SimMob mob : mobs) {
+            if (mob.respawnTicks > 0 && --mob.respawnTicks == 0) {
+                int[] pos = randomFreeCell();
+                mob.x = pos[0];
+                mob.y = pos[1];
+                mob.alive = true;
+                mob.safeTicks = SPAWN_SAFE_TICKS;
+            } else if (mob.safeTicks > 0) {
+                mob.safeTicks--;
+            }
+        }
+        tick++;
+    }
+
+    private void plantPlannedBomb(Team team, SimBomber bomber) {
+        for (int i = 0; i < bomber.plannedBombCount; i++) {
+            if (bomber.plannedBombX[i] != bomber.x || bomber.plannedBombY[i] != bomber.y) continue;
+
+            // Убираем бомбу из плана в любом случае
+            bomber.plannedBombX[i] = bomber.plannedBombX[bomber.plannedBombCount - 1];
+            bomber.plannedBombY[i] = bomber.plannedBombY[bomber.plannedBombCount - 1];
+            bomber.plannedBombCount--;
+
+            if (bomber.activeBombs >= team.state.getBombs() || bombAt(bomber.x, bomber.y) != null) {
+                return;
+            }
+            SimBomb bomb = new SimBomb();
+            bomb.x = bomber.x;
+            bomb.y = bomber.y;
+            bomb.range = team.state.getBombRange();
+            bomb.ticksLeft = Math.max(1, team.state.getBombDelay() / TICK_MS);
+            bomb.owner = team;
+            bomb.ownerBomber = bomber;
+            bomber.activeBombs++;
+            bombs.add(bomb);
+            return;
+        }
+    }
+
+    private void moveMobs() {
+        for (SimMob mob : mobs) {
+            if (!mob.alive) continue;
+            if (random.nextInt(4) == 0) {
+                mob.dir = random.nextInt(4);
+            }
+            int nx = mob.x + DX[mob.dir];
+            int ny = mob.y + DY[mob.dir];
+            boolean ghost = "ghost".equals(mob.type);
+            if (inBounds(nx, ny) && (ghost || cells[ny * width + nx] == EMPTY) && bombAt(nx, ny) == null) {
+                mob.x = nx;
+                mob.y = ny;
+            } else {
+                mob.dir = random.nextInt(4);
+            }
+        }
+    }
+
+    private void checkMobContacts() {
+        for (SimMob mob : mobs) {
+            if (!mob.alive || mob.safeTicks > 0) continue;
+            for (Team team : teams.values()) {
+                for (SimBomber bomber : team.bombers) {
+                    if (bomber.alive && bomber.x == mob.x && bomber.y == mob.y) {
+                        damageBomber(bomber, null);
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateBombs() {
+        for (SimBomb bomb : bombs) {
+            if (--bomb.ticksLeft <= 0 && !bomb.exploded) {
+                bomb.exploded = true;
+                detonationQueue.add(bomb);
+            }
+        }
+
+        while (!detonationQueue.isEmpty()) {
+            explode(detonationQueue.poll());
+        }
+
+        bombs.removeIf(bomb -> bomb.exploded);
+    }
+
+    private void explode(SimBomb bomb) {
+        bomb.ownerBomber.activeBombs = Math.max(0, bomb.ownerBomber.activeBombs - 1);
+        int mark = ++stampCounter;
+        stamp[bomb.y * width + bomb.x] = mark;
+
+        for (int d = 0; d < 4; d++) {
+            for (int i = 1; i <= bomb.range; i++) {
+                int x = bomb.x + DX[d] * i;
+                int y = bomb.y + DY[d] * i;
+                if (!inBounds(x, y)) break;
+                int idx = y * width + x;
+                if (cells[idx] == WALL) break;
+                stamp[idx] = mark;
+                if (cells[idx] == OBSTACLE) {
+                    cells[idx] = EMPTY;
+                    bomb.owner.addScore(SCORE_OBSTACLE);
+                    break;
+                }
+            }
+        }
+
+        // Цепная реакция
+        for (SimBomb other : bombs) {
+            if (!other.exploded && stamp[other.y * width + other.x] == mark) {
+                other.exploded = true;
+                detonationQueue.add(other);
+            }
+        }
+
+        for (Team team : teams.values()) {
+            for (SimBomber bomber : team.bombers) {
+                if (bomber.alive && stamp[bomber.y * width + bomber.x] == mark) {
+                    boolean killed = damageBomber(bomber, bomb.owner);
+                    if (killed && team != bomb.owner) {
+                        bomb.owner.addScore(SCORE_ENEMY_KILL);
+                    }
+                }
+            }
+        }
+
+        for (SimMob mob : mobs) {
+            if (mob.alive && mob.safeTicks == 0 && stamp[mob.y * width + mob.x] == mark) {
+                mob.alive = false;
+                mob.respawnTicks = MOB_RESPAWN_TICKS;
+                bomb.owner.addScore(SCORE_MOB_KILL);
+            }
+        }
+    }
+
+    // Возвращает true, если бомбер погиб
+    private boolean damageBomber(SimBomber bomber, Team attacker) {
+        if (bomber.safeTicks > 0) return false;
+        if (bomber.armor > 0) {
+            bomber.armor--;
+            bomber.safeTicks = SPAWN_SAFE_TICKS;
+            return false;
+        }
+        bomber.alive = false;
+        bomber.pathLength = 0;
+        return true;
+    }
+
+    public boolean isFinished() {
+        if (tick >= maxTicks) return true;
+        if (teams.size() < 2) return false;
+
+        int teamsAlive = 0;
+        for (Team team : teams.values()) {
+            if (team.hasAliveBombers()) teamsAlive++;
+        }
+        return teamsAlive <= 1;
+    }
+
+    // --- Ответы API ---
+
+    public ArenaResponse arenaFor(String teamName) {
+        Team team = teams.get(teamName);
+        ArenaResponse response = new ArenaResponse();
+        response.player = teamName;
+        response.round = roundName;
+        response.map_size = new int[]{width, height};
+        response.code = isFinished() ? CODE_ROUND_FINISHED : CODE_ACTIVE;
+        response.errors = team != null ? new ArrayList<>(team.lastErrors) : new ArrayList<>();
+        response.raw_score = team != null ? team.score : 0;
+
+        Arena arena = new Arena();
+        arena.walls = new ArrayList<>();
+        arena.obstacles = new ArrayList<>();
+        arena.bombs = new ArrayList<>();
+        response.arena = arena;
+        response.bombers = new ArrayList<>();
+        response.enemies = new ArrayList<>();
+        response.mobs = new ArrayList<>();
+
+        if (team == null) return response;
+
+        // Отмечаем видимые клетки
+        int mark = ++stampCounter;
+        int view = team.state.getView();
+        for (SimBomber bomber : team.bombers) {
+            if (!bomber.alive) continue;
+            for (int y = Math.max(0, bomber.y - view); y <= Math.min(height - 1, bomber.y + view); y++) {
+                int span = view - Math.abs(y - bomber.y);
+                for (int x = Math.max(0, bomber.x - span); x <= Math.min(width - 1, bomber.x + span); x++) {
+                    int idx = y * width + x;
+                    if (stamp[idx] == mark) continue;
+                    stamp[idx] = mark;
+                    if (cells[idx] == WALL) {
+                        arena.walls.add(List.of(x, y));
+                    } else if (cells[idx] == OBSTACLE) {
+                        arena.obstacles.add(List.of(x, y));
+                    }
+                }
+            }
+        }
+
+        for (SimBomb bomb : bombs) {
+            if (stamp[bomb.y * width + bomb.x] != mark) continue;
+            Bomb dto = new Bomb();
+            dto.pos = new int[]{bomb.x, bomb.y};
+            dto.range = bomb.range;
+            dto.timer = bomb.ticksLeft * TICK_MS / 1000.0;
+            arena.bombs.add(dto);
+        }
+
+        for (SimBomber bomber : team.bombers) {
+            Bomber dto = new Bomber();
+            dto.id = bomber.id;
+            dto.alive = bomber.alive;
+            dto.can_move = bomber.alive;
+            dto.bombs_available = Math.max(0, team.state.getBombs() - bomber.activeBombs);
+            dto.armor = bomber.armor;
+            dto.pos = new int[]{bomber.x, bomber.y};
+            dto.safe_time = bomber.safeTicks * TICK_MS;
+            dto.tier = "";
+            response.bombers.add(dto);
+        }
+
+        for (Team other : teams.values()) {
+            if (other == team) continue;
+            for (SimBomber bomber : other.bombers) {
+                if (!bomber.alive || stamp[bomber.y * width + bomber.x] != mark) continue;
+                Enemy dto = new Enemy();
+                dto.id = bomber.id;
+                dto.pos = new int[]{bomber.x, bomber.y};
+                dto.safe_time = bomber.safeTicks * TICK_MS;
+                dto.tier = "";
+                response.enemies.add(dto);
+            }
+        }
+
+        for (SimMob mob : mobs) {
+            if (!mob.alive || stamp[mob.y * width + mob.x] != mark) continue;
+            Mob dto = new Mob();
+            dto.id = mob.id;
+            dto.pos = new int[]{mob.x, mob.y};
+            dto.safe_time = mob.safeTicks * TICK_MS;
+            dto.type = mob.type;
+            response.mobs.add(dto);
+        }
+
+        return response;
+    }
+
+    public BoosterResponse boostersFor(String teamName) {
+        Team team = teams.get(teamName);
+        List<Booster> available = new ArrayList<>();
+        for (String type : List.of("speed", "bombs", "bomb_range", "view", "armor", "bomb_delay",
+                "can_pass_bombs", "can_pass_obstacles", "can_pass_walls")) {
+            available.add(new Booster(getBoosterCost(type), type));
+        }
+        return new BoosterResponse(available, team != null ? copyState(team.state) : new BoosterState());
+    }
+
+    public List<LogEntry> logsFor(String teamName) {
+        Team team = teams.get(teamName);
+        return team == null ? new ArrayList<>() : new ArrayList<>(team.logs);
+    }
+
+    public int getScore(String teamName) {
+        Team team = teams.get(teamName);
+        return team == null ? 0 : team.score;
+    }
+
+    // Живое состояние бустеров команды (не копия) - для тестов правил
+    BoosterState stateOf(String teamName) {
+        Team team = teams.get(teamName);
+        return team == null ? null : team.state;
+    }
+
+    public int getAliveBombers(String teamName) {
+        Team team = teams.get(teamName);
+        if (team == null) return 0;
+        int alive = 0;
+        for (SimBomber bomber : team.bombers) {
+            if (bomber.alive) alive++;
+        }
+        return alive;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getMaxTicks() {
+        return maxTicks;
+    }
+
+    public String getRoundName() {
+        return roundName;
+    }
+
+    public Instant getRoundStart() {
+        return roundStart;
+    }
+
+    public Instant getRoundEnd() {
+        return roundStart.plusMillis((long) maxTicks * TICK_MS);
+    }
+
+    // --- Вспомогательное ---
+
+    private List<String> record(Team team, List<String> errors) {
+        if (team == null) return errors;
+        team.lastErrors = errors;
+        String time = roundStart.plusMillis((long) tick * TICK_MS).toString();
+        for (String error : errors) {
+            LogEntry entry = new LogEntry();
+            entry.setTime(time);
+            entry.setMessage(error);
+            team.logs.add(entry);
+        }
+        // Лог ограничен, как и на настоящем сервере
+        while (team.logs.size() > 200) {
+            team.logs.remove(0);
+        }
+        return errors;
+    }
+
+    private boolean isPassable(Team team, int x, int y) {
+        if (!inBounds(x, y)) return false;
+        byte cell = cells[y * width + x];
+        if (cell == WALL && !team.state.isCanPassWalls()) return false;
+        if (cell == OBSTACLE && !team.state.isCanPassObstacles()) return false;
+        return team.state.isCanPassBombs() || bombAt(x, y) == null;
+    }
+
+    private boolean isOnPlannedRoute(SimBomber bomber, int x, int y) {
+        if (bomber.x == x && bomber.y == y) return true;
+        for (int i = 0; i < bomber.pathLength; i++) {
+            if (bomber.pathX[i] == x && bomber.pathY[i] == y) return true;
+        }
+        return false;
+    }
+
+    private SimBomb bombAt(int x, int y) {
+        for (SimBomb bomb : bombs) {
+            if (!bomb.exploded && bomb.x == x && bomb.y == y) return bomb;
+        }
+        return null;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private int[] randomFreeCell() {
+        for (int attempt = 0; attempt < 10_000; attempt++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            if (cells[y * width + x] == EMPTY) {
+                return new int[]{x, y};
+            }
+        }
+        return new int[]{0, 0};
+    }
+
+    private void clearAround(int cx, int cy) {
+        for (int y = cy - 1; y <= cy + 1; y++) {
+            for (int x = cx - 1; x <= cx + 1; x++) {
+                if (inBounds(x, y) && cells[y * width + x] == OBSTACLE) {
+                    cells[y * width + x] = EMPTY;
+                }
+            }
+        }
+    }
+
+    private static BoosterState copyState(BoosterState state) {
+        BoosterState copy = new BoosterState();
+        copy.setArmor(state.getArmor());
+        copy.setBombDelay(state.getBombDelay());
+        copy.setBombRange(state.getBombRange());
+        copy.setBombers(state.getBombers());
+        copy.setBombs(state.getBombs());
+        copy.setCanPassBombs(state.isCanPassBombs());
+        copy.setCanPassObstacles(state.isCanPassObstacles());
+        copy.setCanPassWalls(state.isCanPassWalls());
+        copy.setPoints(state.getPoints());
+        copy.setSpeed(state.getSpeed());
+        copy.setView(state.getView());
+        return copy;
+    }
+
+    // --- Внутренние сущности ---
+
+    private final class Team {
+        final String name;
+        final List<SimBomber> bombers = new ArrayList<>();
+        final BoosterState state = new BoosterState();
+        final List<LogEntry> logs = new ArrayList<>();
+        List<String> lastErrors = new ArrayList<>();
+        int score;
+
+        Team(String name) {
+            this.name = name;
+            state.setSpeed(2);
+            state.setBombs(1);
+            state.setBombRange(1);
+            state.setView(5);
+            state.setBombDelay(3000);
+            state.setBombers(bombersPerTeam);
+        }
+
+        void addScore(int value) {
+            score += value;
+            state.setPoints(state.getPoints() + value);
+        }
+
+        SimBomber findBomber(String id) {
+            for (SimBomber bomber : bombers) {
+                if (bomber.id.equals(id)) return bomber;
+            }
+            return null;
+        }
+
+        boolean hasAliveBombers() {
+            for (SimBomber bomber : bombers) {
+                if (bomber.alive) return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class SimBomber {
+        String id;
+        int x;
+        int y;
+        boolean alive;
+        int armor;
+        int safeTicks;
+        int activeBombs;
+        final int[] pathX = new int[MAX_PATH_LENGTH];
+        final int[] pathY = new int[MAX_PATH_LENGTH];
+        int pathLength;
+        int pathIndex;
+        final int[] plannedBombX = new int[4];
+        final int[] plannedBombY = new int[4];
+        int plannedBombCount;
+    }
+
+    private static final class SimBomb {
+        int x;
+        int y;
+        int range;
+        int ticksLeft;
+        boolean exploded;
+        Team owner;
+        SimBomber ownerBomber;
+    }
+
+    private static final class SimMob {
+        String id;
+        String type;
+        int x;
+        int y;
+        int dir;
+        int safeTicks;
+        int respawnTicks;
+        boolean alive = true;
+    }
+}
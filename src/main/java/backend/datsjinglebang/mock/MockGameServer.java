@@ -0,0 +1,198 @@
+package backend.datsjinglebang.mock;
+
+import backend.datsjinglebang.model.*;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Состояние мок-сервера: текущий раунд, таймер тиков и счетчики запросов.
+// Раунды идут друг за другом с паузой roundGapMs, как на тестовом сервере.
+@Component
+@Profile("mock")
+public class MockGameServer {
+    private static final Logger log = LoggerFactory.getLogger(MockGameServer.class);
+
+    private final MockServerProperties properties;
+
+    private MockGameEngine engine;
+    private int roundNumber;
+    private Instant nextRoundAt;
+    private Disposable ticker;
+
+    // Статистика для /stats
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong ticks = new AtomicLong();
+
+    public MockGameServer(MockServerProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void start() {
+        startRound();
+        ticker = Flux.interval(Duration.ofMillis(MockGameEngine.TICK_MS))
+                .subscribe(i -> onTick(), error -> log.error("Mock server timer failed", error));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.dispose();
+        }
+    }
+
+    private synchronized void onTick() {
+        if (engine == null) {
+            if (Instant.now().isAfter(nextRoundAt)) {
+                startRound();
+            }
+            return;
+        }
+
+        engine.tick();
+        ticks.incrementAndGet();
+
+        if (engine.isFinished()) {
+            log.info("Mock round {} finished at tick {}", engine.getRoundName(), engine.getTick());
+            for (String team : engine.getTeamNames()) {
+                log.info("  {}: score={}, alive={}", team, engine.getScore(team), engine.getAliveBombers(team));
+            }
+            engine = null;
+            nextRoundAt = Instant.now().plusMillis(properties.getRoundGapMs());
+            // Старт ровно в объявленное в /rounds время, а не на ближайшем тике таймера
+            Mono.delay(Duration.ofMillis(properties.getRoundGapMs()))
+                    .subscribe(v -> startScheduledRound());
+        }
+    }
+
+    private synchronized void startScheduledRound() {
+        if (engine == null) {
+            startRound();
+        }
+    }
+
+    private void startRound() {
+        roundNumber++;
+        engine = new MockGameEngine(
+                properties.getMapSize(),
+                properties.getObstacleDensity(),
+                properties.getBombersPerTeam(),
+                properties.getMobCount(),
+                properties.getRoundTicks(),
+                properties.getSeed() + roundNumber,
+                "mock-round-" + roundNumber,
+                Instant.now());
+        for (String team : properties.getExtraTeams()) {
+            engine.addTeam(team);
+        }
+        log.info("Mock round {} started: map {}x{}", engine.getRoundName(),
+                properties.getMapSize(), properties.getMapSize());
+    }
+
+    // --- Обработка запросов (команда определяется по токену) ---
+
+    public synchronized ArenaResponse arena(String team) {
+        if (engine == null) {
+            ArenaResponse response = new ArenaResponse();
+            response.player = team;
+            response.code = MockGameEngine.CODE_ROUND_FINISHED;
+            response.errors = List.of("no active round");
+            return response;
+        }
+        engine.addTeam(team);
+        return engine.arenaFor(team);
+    }
+
+    public synchronized List<String> move(String team, MoveRequest request) {
+        if (engine == null) return List.of("no active round");
+        engine.addTeam(team);
+        return engine.submitMove(team, request);
+    }
+
+    public synchronized BoosterResponse boosters(String team) {
+        if (engine == null) return new BoosterResponse(new ArrayList<>(), new BoosterState());
+        engine.addTeam(team);
+        return engine.boostersFor(team);
+    }
+
+    public synchronized boolean purchaseBooster(String team, String booster) {
+        if (engine == null) return false;
+        engine.addTeam(team);
+        return engine.purchaseBooster(team, booster);
+    }
+
+    public synchronized List<LogEntry> logs(String team) {
+        return engine == null ? new ArrayList<>() : engine.logsFor(team);
+    }
+
+    public synchronized RoundsResponse rounds() {
+        RoundsResponse response = new RoundsResponse();
+        response.setEventId("mock");
+        response.setNow(Instant.now().toString());
+
+        List<RoundsResponse.RoundInfo> rounds = new ArrayList<>();
+        if (engine != null) {
+            rounds.add(roundInfo(engine.getRoundName(), engine.getRoundStart(), engine.getRoundEnd(), "active"));
+        }
+        Instant nextStart = engine != null
+                ? engine.getRoundEnd().plusMillis(properties.getRoundGapMs())
+                : nextRoundAt;
+        Instant nextEnd = nextStart.plusMillis((long) properties.getRoundTicks() * MockGameEngine.TICK_MS);
+        rounds.add(roundInfo("mock-round-" + (roundNumber + 1), nextStart, nextEnd, "pending"));
+        response.setRounds(rounds);
+        return response;
+    }
+
+    private RoundsResponse.RoundInfo roundInfo(String name, Instant start, Instant end, String status) {
+        RoundsResponse.RoundInfo info = new RoundsResponse.RoundInfo();
+        info.setName(name);
+        info.setStartAt(start.toString());
+        info.setEndAt(end.toString());
+        info.setDuration((int) Duration.between(start, end).toSeconds());
+        info.setStatus(status);
+        info.setRepeat(0);
+        return info;
+    }
+
+    public synchronized MockServerStats stats() {
+        MockServerStats stats = new MockServerStats();
+        stats.setRound(engine != null ? engine.getRoundName() : null);
+        stats.setTick(engine != null ? engine.getTick() : 0);
+        stats.setTotalTicks(ticks.get());
+        stats.setRequests(requests.get());
+        stats.setInjectedErrors(injectedErrors.get());
+        stats.setRateLimited(rateLimited.get());
+        if (engine != null) {
+            for (String team : engine.getTeamNames()) {
+                stats.getScores().put(team, engine.getScore(team));
+            }
+        }
+        return stats;
+    }
+
+    public void countRequest() {
+        requests.incrementAndGet();
+    }
+
+    public void countInjectedError() {
+        injectedErrors.incrementAndGet();
+    }
+
+    public void countRateLimited() {
+        rateLimited.incrementAndGet();
+    }
+}
@@ -0,0 +1,99 @@
+package backend.datsjinglebang.mock;
+
+import backend.datsjinglebang.model.MoveRequest;
+import backend.datsjinglebang.model.PurchaseBoosterRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+
+// Локальный мок игрового API на /mock-api (профиль mock).
+// Запуск: --spring.profiles.active=mock - GameLoopService сам переключится на локальный адрес.
+// Фильтр перед обработчиками имитирует сеть: задержку с джиттером, случайные 5xx и лимит запросов (429).
+@Configuration
+@Profile("mock")
+@EnableConfigurationProperties(MockServerProperties.class)
+public class MockServerConfig {
+    private static final String AUTH_HEADER = "X-Auth-Token";
+
+    // Корзины токенов по X-Auth-Token
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Bean
+    public RouterFunction<ServerResponse> mockApiRoutes(MockGameServer server, MockServerProperties properties) {
+        return RouterFunctions.route()
+                .path("/mock-api", builder -> builder
+                        .GET("/arena", request -> ServerResponse.ok()
+                                .bodyValue(server.arena(team(request))))
+                        .POST("/move", request -> request.bodyToMono(MoveRequest.class)
+                                .flatMap(move -> {
+                                    List<String> errors = server.move(team(request), move);
+                                    return ServerResponse.ok().bodyValue(Map.of("code", 0, "errors", errors));
+                                }))
+                        .GET("/booster", request -> ServerResponse.ok()
+                                .bodyValue(server.boosters(team(request))))
+                        .POST("/booster", request -> request.bodyToMono(PurchaseBoosterRequest.class)
+                                .flatMap(purchase -> server.purchaseBooster(team(request), purchase.getBooster())
+                                        ? ServerResponse.ok().bodyValue(Map.of("code", 0))
+                                        : ServerResponse.badRequest().bodyValue(
+                                                Map.of("code", 400, "errors", List.of("cannot purchase booster")))))
+                        .GET("/logs", request -> ServerResponse.ok()
+                                .bodyValue(server.logs(team(request))))
+                        .GET("/rounds", request -> ServerResponse.ok()
+                                .bodyValue(server.rounds())))
+                .filter((request, next) -> simulateNetwork(request, next, server, properties))
+                .GET("/mock-api/stats", request -> ServerResponse.ok().bodyValue(server.stats()))
+                .build();
+    }
+
+    private Mono<ServerResponse> simulateNetwork(ServerRequest request,
+                                                 HandlerFunction<ServerResponse> next,
+                                                 MockGameServer server,
+                                                 MockServerProperties properties) {
+        server.countRequest();
+
+        if (properties.getRateLimitPerSecond() > 0) {
+            TokenBucket bucket = buckets.computeIfAbsent(team(request),
+                    key -> new TokenBucket(properties.getRateLimitPerSecond(), System.nanoTime()));
+            if (!bucket.tryAcquire()) {
+                server.countRateLimited();
+                return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .bodyValue(Map.of("code", 429, "errors", List.of("rate limit exceeded")));
+            }
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = properties.getLatencyMs();
+        if (properties.getJitterMs() > 0) {
+            delay += random.nextLong(properties.getJitterMs() + 1);
+        }
+
+        Mono<ServerResponse> response;
+        if (random.nextDouble() < properties.getErrorRate()) {
+            server.countInjectedError();
+            response = ServerResponse.status(random.nextBoolean() ? HttpStatus.BAD_GATEWAY : HttpStatus.INTERNAL_SERVER_ERROR)
+                    .bodyValue(Map.of("code", 500, "errors", List.of("injected error")));
+        } else {
+            response = next.handle(request);
+        }
+
+        return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).then(response) : response;
+    }
+
+    private static String team(ServerRequest request) {
+        String token = request.headers().firstHeader(AUTH_HEADER);
+        return token == null || token.isBlank() ? "anonymous" : token;
+    }
+}
@@ -0,0 +1,124 @@
+package backend.datsjinglebang.mock;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Настройки локального мок-сервера (профиль mock)
+@ConfigurationProperties(prefix = "mock-server")
+public class MockServerProperties {
+    // Карта и раунд
+    private int mapSize = 100;
+    private double obstacleDensity = 0.3;
+    private int bombersPerTeam = 6;
+    private int mobCount = 4;
+    private int roundTicks = 600;
+    private long roundGapMs = 5000;
+    private long seed = 42;
+
+    // Соперники без клиента (стоят на месте, но их видно и по ним можно попасть)
+    private List<String> extraTeams = new ArrayList<>(List.of("sparring"));
+
+    // Сетевые условия
+    private long latencyMs = 20;
+    private long jitterMs = 10;
+    private double errorRate = 0.0;
+    private int rateLimitPerSecond = 3;
+
+    public int getMapSize() {
+        return mapSize;
+    }
+
+    public void setMapSize(int mapSize) {
+        this.mapSize = mapSize;
+    }
+
+    public double getObstacleDensity() {
+        return obstacleDensity;
+    }
+
+    public void setObstacleDensity(double obstacleDensity) {
+        this.obstacleDensity = obstacleDensity;
+    }
+
+    public int getBombersPerTeam() {
+        return bombersPerTeam;
+    }
+
+    public void setBombersPerTeam(int bombersPerTeam) {
+        this.bombersPerTeam = bombersPerTeam;
+    }
+
+    public int getMobCount() {
+        return mobCount;
+    }
+
+    public void setMobCount(int mobCount) {
+        this.mobCount = mobCount;
+    }
+
+    public int getRoundTicks() {
+        return roundTicks;
+    }
+
+    public void setRoundTicks(int roundTicks) {
+        this.roundTicks = roundTicks;
+    }
+
+    public long getRoundGapMs() {
+        return roundGapMs;
+    }
+
+    public void setRoundGapMs(long roundGapMs) {
+        this.roundGapMs = roundGapMs;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public List<String> getExtraTeams() {
+        return extraTeams;
+    }
+
+    public void setExtraTeams(List<String> extraTeams) {
+        this.extraTeams = extraTeams;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public long getJitterMs() {
+        return jitterMs;
+    }
+
+    public void setJitterMs(long jitterMs) {
+        this.jitterMs = jitterMs;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+
+    public void setRateLimitPerSecond(int rateLimitPerSecond) {
+        this.rateLimitPerSecond = rateLimitPerSecond;
+    }
+}
@@ -0,0 +1,71 @@
+package backend.datsjinglebang.mock;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ответ /mock-api/stats: счетчики мок-сервера для замеров нагрузки
+public class MockServerStats {
+    private String round;
+    private int tick;
+    private long totalTicks;
+    private long requests;
+    private long injectedErrors;
+    private long rateLimited;
+    private Map<String, Integer> scores = new LinkedHashMap<>();
+
+    public String getRound() {
+        return round;
+    }
+
+    public void setRound(String round) {
+        this.round = round;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public void setTotalTicks(long totalTicks) {
+        this.totalTicks = totalTicks;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public void setRequests(long requests) {
+        this.requests = requests;
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors;
+    }
+
+    public void setInjectedErrors(long injectedErrors) {
+        this.injectedErrors = injectedErrors;
+    }
+
+    public long getRateLimited() {
+        return rateLimited;
+    }
+
+    public void setRateLimited(long rateLimited) {
+        this.rateLimited = rateLimited;
+    }
+
+    public Map<String, Integer> getScores() {
+        return scores;
+    }
+
+    public void setScores(Map<String, Integer> scores) {
+        this.scores = scores;
+    }
+}
@@ -0,0 +1,27 @@
+package backend.datsjinglebang.mock;
+
+// Простая корзина токенов: емкость = лимиту в секунду, пополнение равномерное.
+// Время передается снаружи, чтобы лимит можно было проверить без ожидания.
+final class TokenBucket {
+    private final int capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(int perSecond, long nowNanos) {
+        this.capacity = perSecond;
+        this.tokens = perSecond;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    synchronized boolean tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    synchronized boolean tryAcquire(long nowNanos) {
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) / 1_000_000_000.0 * capacity);
+        lastRefillNanos = nowNanos;
+        if (tokens < 1) return false;
+        tokens -= 1;
+        return true;
+    }
+}
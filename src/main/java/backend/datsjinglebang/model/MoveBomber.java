@@ -1,21 +1,22 @@
 package backend.datsjinglebang.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import java.util.List;
+
+// path и bombs - упакованные клетки (PackedPath), на проводе [[x, y], ...]
 
 public class MoveBomber {
     @JsonProperty("id")
     private String id;
 
     @JsonProperty("path")
-    private List<List<Integer>> path;
+    private PackedPath path;
 
     @JsonProperty("bombs")
-    private List<List<Integer>> bombs;
+    private PackedPath bombs;
 
     public MoveBomber() {}
 
-    public MoveBomber(String id, List<List<Integer>> path, List<List<Integer>> bombs) {
+    public MoveBomber(String id, PackedPath path, PackedPath bombs) {
         this.id = id;
         this.path = path;
         this.bombs = bombs;
@@ -30,19 +31,19 @@ public class MoveBomber {
         this.id = id;
     }
 
-    public List<List<Integer>> getPath() {
+    public PackedPath getPath() {
         return path;
     }
 
-    public void setPath(List<List<Integer>> path) {
+    public void setPath(PackedPath path) {
         this.path = path;
     }
 
-    public List<List<Integer>> getBombs() {
+    public PackedPath getBombs() {
         return bombs;
     }
 
-    public void setBombs(List<List<Integer>> bombs) {
+    public void setBombs(PackedPath bombs) {
         this.bombs = bombs;
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package backend.datsjinglebang.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Список клеток [x, y] пути или бомб без упаковки в объекты: пары x, y подряд в int[].
+// На проводе - тот же формат, что и у List<List<Integer>>: [[x, y], [x, y], ...];
+// сериализатор пишет числа прямо в генератор, без промежуточных списков и Integer.
+@JsonSerialize(using = PackedPath.Serializer.class)
+@JsonDeserialize(using = PackedPath.Deserializer.class)
+public class PackedPath {
+    private static final int[] NO_CELLS = new int[0];
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private int[] coords;
+    private int size;
+
+    public PackedPath() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PackedPath(int capacity) {
+        coords = capacity > 0 ? new int[capacity * 2] : NO_CELLS;
+    }
+
+    // Пустой список без буфера - для команд без бомб
+    public static PackedPath empty() {
+        return new PackedPath(0);
+    }
+
+    public static PackedPath of(int x, int y) {
+        return new PackedPath().add(x, y);
+    }
+
+    public PackedPath add(int x, int y) {
+        if (size * 2 == coords.length) {
+            coords = Arrays.copyOf(coords, Math.max(DEFAULT_CAPACITY * 2, coords.length * 2));
+        }
+        coords[size * 2] = x;
+        coords[size * 2 + 1] = y;
+        size++;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int x(int index) {
+        checkIndex(index);
+        return coords[index * 2];
+    }
+
+    public int y(int index) {
+        checkIndex(index);
+        return coords[index * 2 + 1];
+    }
+
+    // Оставляет первые maxCells клеток
+    public void truncate(int maxCells) {
+        if (maxCells < size) {
+            size = Math.max(0, maxCells);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("cell " + index + " of " + size);
+        }
+    }
+
+    public static PackedPath fromLists(List<List<Integer>> cells) {
+        if (cells == null) return null;
+        PackedPath path = new PackedPath(cells.size());
+        for (List<Integer> cell : cells) {
+            if (cell == null || cell.size() < 2) {
+                throw new IllegalArgumentException("cell must be [x, y]: " + cell);
+            }
+            path.add(cell.get(0), cell.get(1));
+        }
+        return path;
+    }
+
+    public List<List<Integer>> toLists() {
+        List<List<Integer>> cells = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            cells.add(List.of(coords[i * 2], coords[i * 2 + 1]));
+        }
+        return cells;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedPath other) || size != other.size) return false;
+        return Arrays.equals(coords, 0, size * 2, other.coords, 0, size * 2);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size * 2; i++) {
+            result = 31 * result + coords[i];
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('[').append(coords[i * 2]).append(", ").append(coords[i * 2 + 1]).append(']');
+        }
+        return sb.append(']').toString();
+    }
+
+    public static class Serializer extends JsonSerializer<PackedPath> {
+        @Override
+        public void serialize(PackedPath path, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartArray(path, path.size);
+            for (int i = 0; i < path.size; i++) {
+                gen.writeArray(path.coords, i * 2, 2);
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<PackedPath> {
+        @Override
+        public PackedPath deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (PackedPath) ctxt.handleUnexpectedToken(PackedPath.class, p);
+            }
+
+            PackedPath path = new PackedPath();
+            JsonToken token;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_ARRAY) {
+                    return (PackedPath) ctxt.handleUnexpectedToken(PackedPath.class, p);
+                }
+                int x = nextInt(p, ctxt);
+                int y = nextInt(p, ctxt);
+                if (p.nextToken() != JsonToken.END_ARRAY) {
+                    return (PackedPath) ctxt.handleUnexpectedToken(PackedPath.class, p);
+                }
+                path.add(x, y);
+            }
+            return path;
+        }
+
+        private static int nextInt(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+                ctxt.reportInputMismatch(PackedPath.class, "cell must be [x, y]");
+            }
+            return p.getIntValue();
+        }
+    }
+}
@@ -13,7 +13,30 @@ public class RoundsResponse {
     @JsonProperty("rounds")
     private List<RoundInfo> rounds;
 
-    // Getters and Setters...
+    // Getters and Setters
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getNow() {
+        return now;
+    }
+
+    public void setNow(String now) {
+        this.now = now;
+    }
+
+    public List<RoundInfo> getRounds() {
+        return rounds;
+    }
+
+    public void setRounds(List<RoundInfo> rounds) {
+        this.rounds = rounds;
+    }
 
     public static class RoundInfo {
         @JsonProperty("name")
@@ -34,6 +57,53 @@ public class RoundsResponse {
         @JsonProperty("repeat")
         private int repeat;
 
-        // Getters and Setters...
+        // Getters and Setters
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getDuration() {
+            return duration;
+        }
+
+        public void setDuration(int duration) {
+            this.duration = duration;
+        }
+
+        public String getStartAt() {
+            return startAt;
+        }
+
+        public void setStartAt(String startAt) {
+            this.startAt = startAt;
+        }
+
+        public String getEndAt() {
+            return endAt;
+        }
+
+        public void setEndAt(String endAt) {
+            this.endAt = endAt;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public int getRepeat() {
+            return repeat;
+        }
+
+        public void setRepeat(int repeat) {
+            this.repeat = repeat;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package backend.datsjinglebang.recording;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Дельта записи относительно предыдущей записи того же типа: поток команд
+// COPY [смещение в предыдущей][длина] и INSERT [длина][байты], числа - varint.
+// Совпадения ищутся по хэшам блоков по BLOCK байт, выровненных в предыдущей записи,
+// и продлеваются побайтно в обе стороны (как в rsync/xdelta). В отличие от словаря
+// deflate окно не ограничено 32 КБ, так что большие карты тоже пишутся разницей.
+// Кодировщик переиспользует буферы и не потокобезопасен.
+final class PayloadDelta {
+    static final int BLOCK = 16;
+
+    private static final int OP_COPY = 0;
+    private static final int OP_INSERT = 1;
+    private static final int HASH_BASE = 0x01000193;
+    private static final int HASH_BASE_POW; // HASH_BASE^(BLOCK - 1) для скользящего хэша
+
+    static {
+        int pow = 1;
+        for (int i = 1; i < BLOCK; i++) {
+            pow *= HASH_BASE;
+        }
+        HASH_BASE_POW = pow;
+    }
+
+    // Смещение блока + 1 по корзине хэша, 0 - пусто
+    private int[] table = new int[1024];
+    private int tableShift = Integer.SIZE - 10;
+
+    private byte[] out = new byte[64 * 1024];
+    private int outLength;
+
+    // Кодирует current относительно previous (null - первая запись, только вставка).
+    // Результат лежит в buffer() до следующего вызова; возвращает его длину.
+    int encode(byte[] previous, byte[] current) {
+        outLength = 0;
+        int blocks = previous == null ? 0 : previous.length / BLOCK;
+        int n = current.length;
+        int anchor = 0; // Начало еще не закодированных байт current
+
+        if (blocks > 0 && n >= BLOCK) {
+            index(previous, blocks);
+            int i = 0;
+            int hash = hash(current, 0);
+            while (true) {
+                int candidate = table[bucket(hash)] - 1;
+                if (candidate >= 0 && Arrays.equals(previous, candidate, candidate + BLOCK, current, i, i + BLOCK)) {
+                    int start = i;
+                    int source = candidate;
+                    while (start > anchor && source > 0 && previous[source - 1] == current[start - 1]) {
+                        start--;
+                        source--;
+                    }
+                    int end = i + BLOCK;
+                    int sourceEnd = candidate + BLOCK;
+                    while (end < n && sourceEnd < previous.length && previous[sourceEnd] == current[end]) {
+                        end++;
+                        sourceEnd++;
+                    }
+                    writeInsert(current, anchor, start - anchor);
+                    writeCopy(source, end - start);
+                    anchor = end;
+                    i = end;
+                    if (i + BLOCK > n) break;
+                    hash = hash(current, i);
+                    continue;
+                }
+                if (i + BLOCK >= n) break;
+                hash = (hash - current[i] * HASH_BASE_POW) * HASH_BASE + current[i + BLOCK];
+                i++;
+            }
+        }
+        writeInsert(current, anchor, n - anchor);
+        return outLength;
+    }
+
+    byte[] buffer() {
+        return out;
+    }
+
+    // Восстанавливает запись длиной rawLength из предыдущей и дельты
+    static byte[] apply(byte[] previous, byte[] delta, int deltaLength, int rawLength) throws IOException {
+        byte[] result = new byte[rawLength];
+        int written = 0;
+        int[] pos = {0};
+        while (pos[0] < deltaLength) {
+            int op = delta[pos[0]++];
+            int length;
+            if (op == OP_COPY) {
+                int offset = readVarInt(delta, pos, deltaLength);
+                length = readVarInt(delta, pos, deltaLength);
+                if (previous == null || offset + length > previous.length || written + length > rawLength) {
+                    throw new IOException("Delta copy out of range");
+                }
+                System.arraycopy(previous, offset, result, written, length);
+            } else if (op == OP_INSERT) {
+                length = readVarInt(delta, pos, deltaLength);
+                if (pos[0] + length > deltaLength || written + length > rawLength) {
+                    throw new IOException("Delta insert out of range");
+                }
+                System.arraycopy(delta, pos[0], result, written, length);
+                pos[0] += length;
+            } else {
+                throw new IOException("Unknown delta op " + op);
+            }
+            written += length;
+        }
+        if (written != rawLength) {
+            throw new IOException("Delta produced " + written + " bytes instead of " + rawLength);
+        }
+        return result;
+    }
+
+    private void index(byte[] previous, int blocks) {
+        int bits = Math.max(10, Integer.SIZE - Integer.numberOfLeadingZeros(blocks * 2 - 1));
+        if (table.length < 1 << bits) {
+            table = new int[1 << bits];
+        } else {
+            Arrays.fill(table, 0);
+        }
+        tableShift = Integer.SIZE - Integer.numberOfTrailingZeros(table.length);
+        for (int block = 0; block < blocks; block++) {
+            int offset = block * BLOCK;
+            table[bucket(hash(previous, offset))] = offset + 1;
+        }
+    }
+
+    private int bucket(int hash) {
+        return (hash * 0x9E3779B1) >>> tableShift;
+    }
+
+    private static int hash(byte[] data, int offset) {
+        int hash = 0;
+        for (int i = offset; i < offset + BLOCK; i++) {
+            hash = hash * HASH_BASE + data[i];
+        }
+        return hash;
+    }
+
+    private void writeCopy(int offset, int length) {
+        ensureCapacity(11);
+        out[outLength++] = OP_COPY;
+        writeVarInt(offset);
+        writeVarInt(length);
+    }
+
+    private void writeInsert(byte[] data, int offset, int length) {
+        if (length == 0) return;
+        ensureCapacity(6 + length);
+        out[outLength++] = OP_INSERT;
+        writeVarInt(length);
+        System.arraycopy(data, offset, out, outLength, length);
+        outLength += length;
+    }
+
+    private void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            out[outLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[outLength++] = (byte) value;
+    }
+
+    private static int readVarInt(byte[] data, int[] pos, int limit) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (pos[0] >= limit) break;
+            int b = data[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Truncated varint in delta");
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (outLength + bytes > out.length) {
+            out = Arrays.copyOf(out, Math.max(out.length * 2, outLength + bytes));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package backend.datsjinglebang.recording;
+
+// Типы записей журнала сессии. Порядковый номер пишется в файл - новые типы только в конец.
+public enum RecordType {
+    ARENA,
+    BOOSTERS,
+    MOVE,
+    FEEDBACK    // Отказ сервера из GET /logs, переданный стратегии между тиками
+}
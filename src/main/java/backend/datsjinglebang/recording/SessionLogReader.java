@@ -0,0 +1,135 @@
+package backend.datsjinglebang.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+// Последовательное чтение журнала, записанного SessionLogWriter.
+// Файл отображается в память целиком (журналы одного раунда - единицы мегабайт).
+// Читает и текущую версию с дельтами, и старую версию 1 со словарем deflate.
+public class SessionLogReader implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long randomSeed;
+    private final int version;
+
+    private final Inflater inflater = new Inflater();
+    private final byte[][] previous = new byte[RecordType.values().length][];
+    private byte[] compressed = new byte[64 * 1024];
+    private byte[] delta = new byte[64 * 1024];
+
+    // Текущая запись
+    private RecordType type;
+    private int tick;
+    private byte[] payload;
+
+    public SessionLogReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        if (buffer.remaining() < SessionLogWriter.HEADER_SIZE || buffer.getInt() != SessionLogWriter.MAGIC) {
+            throw new IOException("Not a session recording: " + file);
+        }
+        version = buffer.getInt();
+        if (version != SessionLogWriter.VERSION && version != 1) {
+            throw new IOException("Unsupported recording version " + version + ": " + file);
+        }
+        randomSeed = buffer.getLong();
+    }
+
+    // Переходит к следующей записи; false - конец журнала (или оборванная последняя запись)
+    public boolean next() throws IOException {
+        if (buffer.remaining() < 4) return false;
+        int recordLength = buffer.getInt();
+        if (recordLength < SessionLogWriter.RECORD_HEADER_SIZE || buffer.remaining() < recordLength) {
+            return false;
+        }
+
+        type = RecordType.values()[buffer.get()];
+        tick = buffer.getInt();
+        int rawLength = buffer.getInt();
+        int length = recordLength - SessionLogWriter.RECORD_HEADER_SIZE;
+        if (compressed.length < length) {
+            compressed = new byte[Math.max(length, compressed.length * 2)];
+        }
+        buffer.get(compressed, 0, length);
+
+        inflater.reset();
+        inflater.setInput(compressed, 0, length);
+        try {
+            payload = version == 1 ? inflateWithDictionary(rawLength) : inflateDelta(rawLength);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted " + type + " record at tick " + tick, e);
+        }
+
+        previous[type.ordinal()] = payload;
+        return true;
+    }
+
+    private byte[] inflateDelta(int rawLength) throws IOException, DataFormatException {
+        int deltaLength = 0;
+        while (!inflater.finished()) {
+            if (deltaLength == delta.length) {
+                delta = Arrays.copyOf(delta, delta.length * 2);
+            }
+            int n = inflater.inflate(delta, deltaLength, delta.length - deltaLength);
+            if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                throw new IOException("Truncated " + type + " record at tick " + tick);
+            }
+            deltaLength += n;
+        }
+        try {
+            return PayloadDelta.apply(previous[type.ordinal()], delta, deltaLength, rawLength);
+        } catch (IOException e) {
+            throw new IOException("Corrupted " + type + " record at tick " + tick + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Версия 1: предыдущая запись того же типа - словарь deflate
+    private byte[] inflateWithDictionary(int rawLength) throws IOException, DataFormatException {
+        byte[] result = new byte[rawLength];
+        int read = 0;
+        while (read < rawLength) {
+            int n = inflater.inflate(result, read, rawLength - read);
+            if (n == 0 && inflater.needsDictionary()) {
+                byte[] dictionary = previous[type.ordinal()];
+                if (dictionary == null) {
+                    throw new IOException("Missing dictionary for " + type + " record at tick " + tick);
+                }
+                inflater.setDictionary(dictionary);
+            } else if (n == 0) {
+                throw new IOException("Truncated " + type + " record at tick " + tick);
+            }
+            read += n;
+        }
+        return result;
+    }
+
+    public RecordType getType() {
+        return type;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
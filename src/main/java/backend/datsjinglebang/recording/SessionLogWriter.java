@@ -0,0 +1,117 @@
+package backend.datsjinglebang.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+
+// Запись сессии в бинарный журнал только на дозапись.
+// Файл отображается в память окнами по MAP_CHUNK байт; запись - это
+// [int длина][byte тип][int тик][int исходная длина][deflate-данные].
+// Каждая запись кодируется дельтой к предыдущей записи того же типа (PayloadDelta),
+// и уже дельта сжимается deflate: соседние тики почти совпадают, поэтому хранится
+// разница. Версия 1 вместо дельты ставила предыдущую запись словарем deflate, но
+// словарь действует только в пределах окна 32 КБ и на больших картах почти не помогал.
+public class SessionLogWriter implements Closeable {
+    public static final int MAGIC = 0x444A4252; // "DJBR"
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 16;    // magic, version, seed
+    public static final int RECORD_HEADER_SIZE = 9; // тип, тик, исходная длина
+
+    private static final long MAP_CHUNK = 16L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private long position;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final PayloadDelta delta = new PayloadDelta();
+    private final byte[][] previous = new byte[RecordType.values().length][];
+    private byte[] compressed = new byte[64 * 1024];
+
+    private long rawBytes;
+    private int records;
+
+    public SessionLogWriter(Path file, long randomSeed) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        remap(0, HEADER_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(randomSeed);
+        position = HEADER_SIZE;
+    }
+
+    public synchronized void append(RecordType type, int tick, byte[] payload) throws IOException {
+        int deltaLength = delta.encode(previous[type.ordinal()], payload);
+        deflater.reset();
+        deflater.setInput(delta.buffer(), 0, deltaLength);
+        deflater.finish();
+
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                byte[] grown = new byte[compressed.length * 2];
+                System.arraycopy(compressed, 0, grown, 0, length);
+                compressed = grown;
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+
+        int recordLength = RECORD_HEADER_SIZE + length;
+        ensureCapacity(4 + recordLength);
+        buffer.putInt(recordLength);
+        buffer.put((byte) type.ordinal());
+        buffer.putInt(tick);
+        buffer.putInt(payload.length);
+        buffer.put(compressed, 0, length);
+        position += 4 + recordLength;
+
+        previous[type.ordinal()] = payload;
+        rawBytes += payload.length;
+        records++;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > bufferStart + buffer.capacity()) {
+            remap(position, bytes);
+        }
+    }
+
+    private void remap(long start, int minSize) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(MAP_CHUNK, minSize));
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        bufferStart = start;
+    }
+
+    public synchronized long getWrittenBytes() {
+        return position;
+    }
+
+    public synchronized long getRawBytes() {
+        return rawBytes;
+    }
+
+    public synchronized int getRecordCount() {
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+        buffer.force();
+        buffer = null;
+        // Отрезаем неиспользованный хвост последнего окна
+        channel.truncate(position);
+        channel.close();
+        deflater.end();
+    }
+}
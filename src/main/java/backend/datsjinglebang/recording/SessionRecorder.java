@@ -0,0 +1,107 @@
+package backend.datsjinglebang.recording;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.BoosterResponse;
+import backend.datsjinglebang.model.MoveRequest;
+import backend.datsjinglebang.strategy.StrategyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Пишет каждый вызов стратегии (арена, бустеры, ход до обрезки пути) в журнал сессии,
+// а между тиками - отказы сервера из GET /logs, которые меняют решения стратегии.
+// Включается game.recording.enabled=true; файл создается при первом тике.
+// Ошибка записи отключает запись, но не останавливает игровой цикл.
+// Свой у каждой игровой сессии; закрывает его сессия при остановке приложения.
+public class SessionRecorder {
+    private static final Logger log = LoggerFactory.getLogger(SessionRecorder.class);
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ObjectMapper objectMapper;
+    private final StrategyService strategyService;
+    private final String directory;
+    private final String sessionName;
+    private boolean enabled;
+
+    private SessionLogWriter writer;
+    private int tick;
+
+    public SessionRecorder(ObjectMapper objectMapper, StrategyService strategyService,
+                           boolean enabled, String directory, String sessionName) {
+        this.objectMapper = objectMapper;
+        this.strategyService = strategyService;
+        this.enabled = enabled;
+        this.directory = directory;
+        // Имя сессии идет в имя файла
+        this.sessionName = sessionName.replaceAll("[^\\w.-]", "_");
+    }
+
+    public synchronized void record(ArenaResponse arena, BoosterResponse boosters, MoveRequest move) {
+        if (!enabled) return;
+
+        try {
+            if (writer == null) {
+                open();
+            }
+            tick++;
+            writer.append(RecordType.ARENA, tick, objectMapper.writeValueAsBytes(arena));
+            writer.append(RecordType.BOOSTERS, tick, objectMapper.writeValueAsBytes(boosters));
+            writer.append(RecordType.MOVE, tick, objectMapper.writeValueAsBytes(move));
+        } catch (IOException e) {
+            log.error("Session recording disabled: {}", e.getMessage());
+            enabled = false;
+            closeQuietly();
+        }
+    }
+
+    // Сообщение, переданное в CommandFeedback стратегии вне арены (LogPoller)
+    public synchronized void recordFeedback(String message) {
+        if (!enabled) return;
+
+        try {
+            if (writer == null) {
+                open();
+            }
+            writer.append(RecordType.FEEDBACK, tick, objectMapper.writeValueAsBytes(message));
+        } catch (IOException e) {
+            log.error("Session recording disabled: {}", e.getMessage());
+            enabled = false;
+            closeQuietly();
+        }
+    }
+
+    private void open() throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        long seed = strategyService.getRandomSeed();
+        Path file = dir.resolve("session-" + sessionName + "-" + LocalDateTime.now().format(FILE_TIME_FORMAT)
+                + "-" + seed + ".djbr");
+        writer = new SessionLogWriter(file, seed);
+        log.info("Recording session to {}", file.toAbsolutePath());
+    }
+
+    public synchronized void close() {
+        if (writer != null) {
+            log.info("Session recording closed: {} records, {} KB raw -> {} KB on disk",
+                    writer.getRecordCount(), writer.getRawBytes() / 1024, writer.getWrittenBytes() / 1024);
+        }
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        if (writer == null) return;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close session recording: {}", e.getMessage());
+        }
+        writer = null;
+    }
+}
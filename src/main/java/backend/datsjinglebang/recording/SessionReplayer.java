@@ -0,0 +1,108 @@
+package backend.datsjinglebang.recording;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.BoosterResponse;
+import backend.datsjinglebang.model.MoveRequest;
+import backend.datsjinglebang.strategy.StrategyService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Повтор записанной сессии через свежий StrategyService с тем же зерном Random.
+// Отказы из GET /logs подаются в CommandFeedback в том же месте потока, что и вживую.
+// Стратегия детерминирована при одинаковых входах, поэтому каждый ход должен
+// совпасть с записанным байт в байт; расхождение - регрессия (или запись сделана
+// другой версией стратегии). Запуск из командной строки:
+//   java -cp <classpath> backend.datsjinglebang.recording.SessionReplayer <file.djbr>
+public class SessionReplayer {
+    private final ObjectMapper objectMapper;
+
+    public SessionReplayer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ReplayResult replay(Path file) throws IOException {
+        try (SessionLogReader reader = new SessionLogReader(file)) {
+            StrategyService strategy = new StrategyService(reader.getRandomSeed());
+            ReplayResult result = new ReplayResult();
+
+            ArenaResponse arena = null;
+            BoosterResponse boosters = null;
+            while (reader.next()) {
+                switch (reader.getType()) {
+                    case ARENA -> arena = objectMapper.readValue(reader.getPayload(), ArenaResponse.class);
+                    case BOOSTERS -> boosters = objectMapper.readValue(reader.getPayload(), BoosterResponse.class);
+                    case FEEDBACK -> strategy.getCommandFeedback()
+                            .submit(objectMapper.readValue(reader.getPayload(), String.class));
+                    case MOVE -> {
+                        long started = System.nanoTime();
+                        MoveRequest move = strategy.decideMove(arena, boosters);
+                        result.strategyNanos += System.nanoTime() - started;
+                        result.ticks++;
+
+                        byte[] replayed = objectMapper.writeValueAsBytes(move);
+                        if (!Arrays.equals(replayed, reader.getPayload())) {
+                            result.mismatches++;
+                            if (result.firstMismatchTick < 0) {
+                                result.firstMismatchTick = reader.getTick();
+                            }
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    public static final class ReplayResult {
+        private int ticks;
+        private int mismatches;
+        private int firstMismatchTick = -1;
+        private long strategyNanos;
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public int getMismatches() {
+            return mismatches;
+        }
+
+        public int getFirstMismatchTick() {
+            return firstMismatchTick;
+        }
+
+        public long getStrategyNanos() {
+            return strategyNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ticks=%d, mismatches=%d, firstMismatchTick=%d, avg decideMove=%.1f us",
+                    ticks, mismatches, firstMismatchTick,
+                    ticks > 0 ? strategyNanos / 1000.0 / ticks : 0.0);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SessionReplayer <recording.djbr>...");
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        SessionReplayer replayer = new SessionReplayer(objectMapper);
+        boolean failed = false;
+        for (String arg : args) {
+            ReplayResult result = replayer.replay(Paths.get(arg));
+            System.out.println(arg + ": " + result);
+            failed |= result.getMismatches() > 0;
+        }
+        System.exit(failed ? 1 : 0);
+    }
+}
@@ -0,0 +1,93 @@
+package backend.datsjinglebang.selfplay;
+
+import backend.datsjinglebang.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Простые заскриптованные соперники для турнира самоигры
+public final class ScriptedPlayers {
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private ScriptedPlayers() {
+    }
+
+    // Стоит на месте - проверка, что стратегия вообще набирает очки
+    public static SelfPlayPlayer idle() {
+        return (arena, boosters) -> null;
+    }
+
+    // Бродит случайно и ставит бомбу, когда рядом препятствие
+    public static SelfPlayPlayer randomBomber(long seed) {
+        Random random = new Random(seed);
+        return (arena, boosters) -> {
+            if (arena.bombers == null) return null;
+
+            boolean[] blocked = blockedCells(arena);
+            int width = arena.map_size[0];
+            int height = arena.map_size[1];
+
+            List<MoveBomber> commands = new ArrayList<>();
+            for (Bomber bomber : arena.bombers) {
+                if (!bomber.alive || bomber.pos == null) continue;
+                int x = bomber.pos[0];
+                int y = bomber.pos[1];
+
+                PackedPath bombs = PackedPath.empty();
+                if (bomber.bombs_available > 0 && hasObstacleNeighbor(arena, x, y)) {
+                    bombs.add(x, y);
+                }
+
+                // Несколько шагов в случайную сторону, чтобы успеть уйти от своей бомбы
+                PackedPath path = new PackedPath(3);
+                int dir = random.nextInt(4);
+                for (int step = 0; step < 3; step++) {
+                    int nx = x + DX[dir];
+                    int ny = y + DY[dir];
+                    if (nx < 0 || ny < 0 || nx >= width || ny >= height || blocked[ny * width + nx]) {
+                        dir = random.nextInt(4);
+                        continue;
+                    }
+                    x = nx;
+                    y = ny;
+                    path.add(x, y);
+                }
+                commands.add(new MoveBomber(bomber.id, path, bombs));
+            }
+            return new MoveRequest(commands);
+        };
+    }
+
+    private static boolean[] blockedCells(ArenaResponse arena) {
+        int width = arena.map_size[0];
+        boolean[] blocked = new boolean[width * arena.map_size[1]];
+        if (arena.arena == null) return blocked;
+        markAll(blocked, width, arena.arena.walls);
+        markAll(blocked, width, arena.arena.obstacles);
+        if (arena.arena.bombs != null) {
+            for (Bomb bomb : arena.arena.bombs) {
+                blocked[bomb.pos[1] * width + bomb.pos[0]] = true;
+            }
+        }
+        return blocked;
+    }
+
+    private static void markAll(boolean[] blocked, int width, List<List<Integer>> cells) {
+        if (cells == null) return;
+        for (List<Integer> cell : cells) {
+            blocked[cell.get(1) * width + cell.get(0)] = true;
+        }
+    }
+
+    private static boolean hasObstacleNeighbor(ArenaResponse arena, int x, int y) {
+        if (arena.arena == null || arena.arena.obstacles == null) return false;
+        for (List<Integer> obstacle : arena.arena.obstacles) {
+            if (Math.abs(obstacle.get(0) - x) + Math.abs(obstacle.get(1) - y) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
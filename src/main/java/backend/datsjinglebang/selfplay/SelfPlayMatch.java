@@ -0,0 +1,53 @@
+package backend.datsjinglebang.selfplay;
+
+import backend.datsjinglebang.mock.MockGameEngine;
+import backend.datsjinglebang.model.MoveRequest;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Один матч самоигры на MockGameEngine без сети и без задержек между тиками
+public class SelfPlayMatch {
+    private final int mapSize;
+    private final double obstacleDensity;
+    private final int bombersPerTeam;
+    private final int mobCount;
+    private final int maxTicks;
+
+    public SelfPlayMatch(int mapSize, double obstacleDensity, int bombersPerTeam, int mobCount, int maxTicks) {
+        this.mapSize = mapSize;
+        this.obstacleDensity = obstacleDensity;
+        this.bombersPerTeam = bombersPerTeam;
+        this.mobCount = mobCount;
+        this.maxTicks = maxTicks;
+    }
+
+    // Играет матч и возвращает очки команд (в порядке players)
+    public Map<String, Integer> play(Map<String, SelfPlayPlayer> players, long seed) {
+        MockGameEngine engine = new MockGameEngine(mapSize, obstacleDensity, bombersPerTeam, mobCount,
+                maxTicks, seed, "selfplay-" + seed, Instant.EPOCH);
+        for (String team : players.keySet()) {
+            engine.addTeam(team);
+        }
+
+        while (!engine.isFinished()) {
+            for (Map.Entry<String, SelfPlayPlayer> entry : players.entrySet()) {
+                String team = entry.getKey();
+                if (engine.getAliveBombers(team) == 0) continue;
+
+                MoveRequest move = entry.getValue().decide(engine.arenaFor(team), engine.boostersFor(team));
+                if (move != null && move.getBombers() != null && !move.getBombers().isEmpty()) {
+                    engine.submitMove(team, move);
+                }
+            }
+            engine.tick();
+        }
+
+        Map<String, Integer> scores = new LinkedHashMap<>();
+        for (String team : players.keySet()) {
+            scores.put(team, engine.getScore(team));
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,10 @@
+package backend.datsjinglebang.selfplay;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.BoosterResponse;
+import backend.datsjinglebang.model.MoveRequest;
+
+// Участник матча самоигры: по состоянию арены возвращает ход (или null - стоять)
+public interface SelfPlayPlayer {
+    MoveRequest decide(ArenaResponse arena, BoosterResponse boosters);
+}
@@ -0,0 +1,201 @@
+package backend.datsjinglebang.selfplay;
+
+import backend.datsjinglebang.strategy.StrategyService;
+import backend.datsjinglebang.strategy.StrategyTuning;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Безголовый турнир самоигры: варианты настроек StrategyService играют друг с другом
+// и с заскриптованными соперниками на MockGameEngine, матчи идут параллельно на всех ядрах.
+// В каждом матче - два разных варианта стратегии и один заскриптованный соперник.
+// Запуск:
+//   java -cp <classpath> backend.datsjinglebang.selfplay.SelfPlayTournament \
+//       --games=2000 --variants=6 --spread=0.3 --map=40 --ticks=300 --threads=8 --seed=1
+public class SelfPlayTournament {
+    private static final Logger log = LoggerFactory.getLogger(SelfPlayTournament.class);
+    private static final String DEFAULT_VARIANT = "default";
+
+    private final List<String> strategyNames = new ArrayList<>();
+    private final Map<String, StrategyTuning> tunings = new LinkedHashMap<>();
+    private final SelfPlayMatch match;
+    private final int threads;
+
+    public SelfPlayTournament(SelfPlayMatch match, int threads) {
+        this.match = match;
+        this.threads = threads;
+    }
+
+    public void addVariant(String name, StrategyTuning tuning) {
+        strategyNames.add(name);
+        tunings.put(name, tuning);
+    }
+
+    public TournamentResult run(int games, long seed) throws InterruptedException {
+        if (strategyNames.size() < 2) {
+            throw new IllegalStateException("At least two strategy variants are required");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        TournamentResult result = new TournamentResult();
+        long started = System.nanoTime();
+        try {
+            List<Future<Map<String, Integer>>> futures = new ArrayList<>(games);
+            int variants = strategyNames.size();
+            for (int game = 0; game < games; game++) {
+                // Обход всех пар вариантов по кругу
+                int pair = game % (variants * (variants - 1));
+                String first = strategyNames.get(pair / (variants - 1));
+                int secondIndex = pair % (variants - 1);
+                if (secondIndex >= pair / (variants - 1)) secondIndex++;
+                String second = strategyNames.get(secondIndex);
+                String scripted = game % 3 == 0 ? "idle" : "random-bomber";
+                long gameSeed = seed * 1_000_003L + game;
+
+                futures.add(executor.submit(() -> {
+                    Map<String, SelfPlayPlayer> players = new LinkedHashMap<>();
+                    players.put(first, strategyPlayer(first, gameSeed));
+                    players.put(second, strategyPlayer(second, gameSeed + 1));
+                    players.put(scripted, scripted.equals("idle")
+                            ? ScriptedPlayers.idle()
+                            : ScriptedPlayers.randomBomber(gameSeed + 2));
+                    return match.play(players, gameSeed);
+                }));
+            }
+
+            for (Future<Map<String, Integer>> future : futures) {
+                try {
+                    result.add(future.get());
+                } catch (ExecutionException e) {
+                    // Первую ошибку показываем целиком, остальные только считаем
+                    if (result.failedGames++ == 0) {
+                        log.error("Self-play game failed, further failures are only counted", e.getCause());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        result.elapsedNanos = System.nanoTime() - started;
+        return result;
+    }
+
+    private SelfPlayPlayer strategyPlayer(String name, long seed) {
+        StrategyService strategy = new StrategyService(seed, tunings.get(name).copy());
+        return strategy::decideMove;
+    }
+
+    public Map<String, StrategyTuning> getTunings() {
+        return Collections.unmodifiableMap(tunings);
+    }
+
+    public static final class TournamentResult {
+        private final Map<String, List<Integer>> scores = new TreeMap<>();
+        private final Map<String, Integer> wins = new HashMap<>();
+        private int games;
+        private int failedGames;
+        private long elapsedNanos;
+
+        private void add(Map<String, Integer> gameScores) {
+            games++;
+            String winner = null;
+            int best = Integer.MIN_VALUE;
+            boolean tie = false;
+            for (Map.Entry<String, Integer> entry : gameScores.entrySet()) {
+                scores.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry.getValue());
+                if (entry.getValue() > best) {
+                    best = entry.getValue();
+                    winner = entry.getKey();
+                    tie = false;
+                } else if (entry.getValue() == best) {
+                    tie = true;
+                }
+            }
+            if (winner != null && !tie) {
+                wins.merge(winner, 1, Integer::sum);
+            }
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public int getFailedGames() {
+            return failedGames;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos > 0 ? games / (elapsedNanos / 1e9) : 0;
+        }
+
+        public List<Integer> getScores(String entrant) {
+            return scores.getOrDefault(entrant, List.of());
+        }
+
+        public String format(Map<String, StrategyTuning> tunings) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%d games (%d failed) in %.1f s, %.1f games/s%n",
+                    games, failedGames, elapsedNanos / 1e9, getGamesPerSecond()));
+            sb.append(String.format("%-16s %6s %8s %6s %6s %6s %6s %7s%n",
+                    "entrant", "games", "mean", "p10", "p50", "p90", "max", "win%"));
+
+            for (Map.Entry<String, List<Integer>> entry : scores.entrySet()) {
+                List<Integer> sorted = new ArrayList<>(entry.getValue());
+                Collections.sort(sorted);
+                double mean = sorted.stream().mapToInt(Integer::intValue).average().orElse(0);
+                int played = sorted.size();
+                sb.append(String.format("%-16s %6d %8.1f %6d %6d %6d %6d %6.1f%%%n",
+                        entry.getKey(), played, mean,
+                        percentile(sorted, 0.1), percentile(sorted, 0.5), percentile(sorted, 0.9),
+                        sorted.get(played - 1),
+                        100.0 * wins.getOrDefault(entry.getKey(), 0) / played));
+            }
+
+            for (Map.Entry<String, StrategyTuning> entry : tunings.entrySet()) {
+                sb.append(String.format("  %-14s %s%n", entry.getKey(), entry.getValue()));
+            }
+            return sb.toString();
+        }
+
+        private static int percentile(List<Integer> sorted, double p) {
+            return sorted.get(Math.min(sorted.size() - 1, (int) (p * sorted.size())));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int games = Integer.parseInt(options.getOrDefault("games", "1000"));
+        int variants = Integer.parseInt(options.getOrDefault("variants", "4"));
+        double spread = Double.parseDouble(options.getOrDefault("spread", "0.3"));
+        int mapSize = Integer.parseInt(options.getOrDefault("map", "40"));
+        int ticks = Integer.parseInt(options.getOrDefault("ticks", "300"));
+        int bombers = Integer.parseInt(options.getOrDefault("bombers", "4"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+
+        // Логи стратегии на тысячах матчей только мешают
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("backend.datsjinglebang"))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        SelfPlayTournament tournament = new SelfPlayTournament(
+                new SelfPlayMatch(mapSize, 0.3, bombers, 2, ticks), threads);
+        tournament.addVariant(DEFAULT_VARIANT, StrategyTuning.defaults());
+        Random random = new Random(seed);
+        for (int i = 1; i < Math.max(2, variants); i++) {
+            tournament.addVariant("variant-" + i, StrategyTuning.defaults().perturb(random, spread));
+        }
+
+        System.out.printf("Running %d games on %d threads (map %dx%d, %d ticks)%n",
+                games, threads, mapSize, mapSize, ticks);
+        TournamentResult result = tournament.run(games, seed);
+        System.out.print(result.format(tournament.getTunings()));
+    }
+}
@@ -0,0 +1,95 @@
+package backend.datsjinglebang.service;
+
+import backend.datsjinglebang.model.Booster;
+import backend.datsjinglebang.model.BoosterState;
+
+// Одна покупка бустера в полете. Пока покупка не подтверждена свежим состоянием
+// (вырос уровень купленного бустера), новые покупки не начинаются - даже если
+// POST /booster оборвался по таймауту и неизвестно, списал ли сервер очки.
+// Так повтор тика (retry) или следующий тик не купят то же самое второй раз.
+public class BoosterPurchaseTracker {
+    public static final long PENDING_TIMEOUT_MS = 5000;
+
+    public enum Outcome {
+        NONE,       // покупки в полете нет
+        PENDING,    // ждем, пока сервер применит покупку
+        CONFIRMED,  // покупка видна в состоянии
+        EXPIRED     // так и не применилась - считаем, что не прошла
+    }
+
+    private Booster pending;
+    private int levelBefore;
+    private int pointsBefore;
+    private long sentAt;
+    private int confirmed;
+    private long lastConfirmedAt;
+
+    // Занимает слот покупки; false - предыдущая покупка еще не подтверждена
+    public synchronized boolean begin(Booster booster, BoosterState state, long nowMillis) {
+        if (pending != null) return false;
+        pending = booster;
+        levelBefore = level(booster.getType(), state);
+        pointsBefore = state.getPoints();
+        sentAt = nowMillis;
+        return true;
+    }
+
+    // Сервер ответил ошибкой клиента (4xx): покупка точно не применена
+    public synchronized void rejected() {
+        pending = null;
+    }
+
+    // Сверяет свежее состояние бустеров с покупкой в полете
+    public synchronized Outcome reconcile(BoosterState state, long nowMillis) {
+        if (pending == null) return Outcome.NONE;
+
+        if (isApplied(state)) {
+            pending = null;
+            confirmed++;
+            lastConfirmedAt = nowMillis;
+            return Outcome.CONFIRMED;
+        }
+        if (nowMillis - sentAt > PENDING_TIMEOUT_MS) {
+            pending = null;
+            return Outcome.EXPIRED;
+        }
+        return Outcome.PENDING;
+    }
+
+    public synchronized Booster getPending() {
+        return pending;
+    }
+
+    public synchronized int getConfirmed() {
+        return confirmed;
+    }
+
+    public synchronized long getLastConfirmedAt() {
+        return lastConfirmedAt;
+    }
+
+    private boolean isApplied(BoosterState state) {
+        int level = level(pending.getType(), state);
+        if (level != Integer.MIN_VALUE) {
+            return level != levelBefore;
+        }
+        // Неизвестный тип: очки могли только расти, значит покупка списала стоимость
+        return state.getPoints() <= pointsBefore - pending.getCost();
+    }
+
+    private static int level(String type, BoosterState state) {
+        if (type == null) return Integer.MIN_VALUE;
+        return switch (type) {
+            case "speed" -> state.getSpeed();
+            case "bombs" -> state.getBombs();
+            case "bomb_range" -> state.getBombRange();
+            case "view" -> state.getView();
+            case "armor" -> state.getArmor();
+            case "bomb_delay" -> state.getBombDelay();
+            case "can_pass_bombs" -> state.isCanPassBombs() ? 1 : 0;
+            case "can_pass_obstacles" -> state.isCanPassObstacles() ? 1 : 0;
+            case "can_pass_walls" -> state.isCanPassWalls() ? 1 : 0;
+            default -> Integer.MIN_VALUE;
+        };
+    }
+}
@@ -1,331 +1,459 @@
 package backend.datsjinglebang.service;
 
 import backend.datsjinglebang.client.GameApiClient;
+import backend.datsjinglebang.jfr.BoosterPurchaseEvent;
+import backend.datsjinglebang.jfr.StrategyPhaseEvent;
+import backend.datsjinglebang.jfr.TickEvent;
+import backend.datsjinglebang.logging.TickEventLog;
+import backend.datsjinglebang.logging.TickEventLog.Category;
 import backend.datsjinglebang.model.*;
+import backend.datsjinglebang.recording.SessionRecorder;
+import backend.datsjinglebang.strategy.BoosterPlan;
+import backend.datsjinglebang.strategy.BoosterPlanner;
 import backend.datsjinglebang.strategy.StrategyService;
-import jakarta.annotation.PostConstruct;
+import backend.datsjinglebang.trace.TickTraceBuffer;
+import backend.datsjinglebang.trace.TickTraceBuffer.Phase;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
-@Service
+// Игровой цикл одной сессии (аккаунта). Сессии создает и запускает GameSessions;
+// стратегия считается в общем пуле планирования, а не в потоке HTTP-клиента.
 public class GameLoopService {
     private static final Logger log = LoggerFactory.getLogger(GameLoopService.class);
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
 
+    private final String sessionName;
     private final GameApiClient api;
     private final StrategyService strategyService;
-
-    @Value("${game.max-path-length:30}")
-    private int maxPathLength;
+    private final BoosterPlanner boosterPlanner;
+    private final SessionRecorder sessionRecorder;
+    private final TickTraceBuffer tickTrace;
+    // Логи тика пишутся асинхронно (см. TickEventLog), ошибки - сразу через log
+    private final TickEventLog eventLog;
+    private final RoundScheduler roundScheduler;
+    private final LogPoller logPoller;
+    private final Scheduler planningScheduler;
+    private final int maxPathLength;
+
+    // Метрики (Prometheus: /actuator/prometheus)
+    private final Timer decideTimer;
+    private final Timer planningWaitTimer;
+    private final Timer tickSuccessTimer;
+    private final Timer tickFailedTimer;
 
     private final AtomicBoolean started = new AtomicBoolean(false);
     private final AtomicInteger tickCounter = new AtomicInteger(0);
     private final AtomicInteger totalRequests = new AtomicInteger(0);
-    private final AtomicLong lastBoosterPurchaseTime = new AtomicLong(0);
-    private final AtomicInteger totalBoostersPurchased = new AtomicInteger(0);
-    private static final long BOOSTER_PURCHASE_INTERVAL_MS = 20000; // 20 секунд
-
-    public GameLoopService(GameApiClient api, StrategyService strategyService) {
+    // Покупка бустера - этап тика между GET /booster и стратегией, не больше одной в полете
+    private final BoosterPurchaseTracker purchases = new BoosterPurchaseTracker();
+    private static final Duration PURCHASE_TIMEOUT = Duration.ofSeconds(2);
+
+    public GameLoopService(String sessionName, GameApiClient api, StrategyService strategyService,
+                           BoosterPlanner boosterPlanner, SessionRecorder sessionRecorder,
+                           TickTraceBuffer tickTrace, TickEventLog eventLog,
+                           RoundScheduler roundScheduler, LogPoller logPoller,
+                           Scheduler planningScheduler, MeterRegistry meterRegistry, int maxPathLength) {
+        this.sessionName = sessionName;
         this.api = api;
         this.strategyService = strategyService;
+        this.boosterPlanner = boosterPlanner;
+        this.sessionRecorder = sessionRecorder;
+        this.tickTrace = tickTrace;
+        this.eventLog = eventLog;
+        this.roundScheduler = roundScheduler;
+        this.logPoller = logPoller;
+        this.planningScheduler = planningScheduler;
+        this.maxPathLength = maxPathLength;
+
+        this.decideTimer = Timer.builder("game.strategy.decide")
+                .description("StrategyService.decideMove duration")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofMillis(500))
+                .register(meterRegistry);
+        // Очередь общего пула планирования: растет, если сессий больше, чем потоков успевают
+        this.planningWaitTimer = Timer.builder("game.strategy.queue")
+                .description("Time a tick waits for a shared planning thread")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(10_000))
+                .maximumExpectedValue(Duration.ofMillis(500))
+                .register(meterRegistry);
+        this.tickSuccessTimer = tickTimer(meterRegistry, "success");
+        this.tickFailedTimer = tickTimer(meterRegistry, "failed");
+        FunctionCounter.builder("game.boosters.purchased", purchases, BoosterPurchaseTracker::getConfirmed)
+                .description("Boosters purchased since start")
+                .register(meterRegistry);
+    }
+
+    // Полный тик: все запросы, стратегия и паузы между шагами
+    private static Timer tickTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("game.tick")
+                .description("End-to-end tick duration including retries")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(100))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
     }
 
-    @PostConstruct
+    // Вызывает GameSessions после прогрева
     public void start() {
         if (started.getAndSet(true)) {
-            log.error("GameLoopService already started! Skipping...");
+            log.error("Game loop of session {} already started! Skipping...", sessionName);
             return;
         }
 
-        log.info("Starting game loop with FIXED 500ms delays between requests");
-        log.info("Booster purchase interval: {} ms", BOOSTER_PURCHASE_INTERVAL_MS);
-
-        // Запускаем бесконечный цикл правильно
+        log.info("[{}] Starting game loop with FIXED 500ms delays between requests", sessionName);
+        log.info("[{}] Booster purchases: in-tick stage, timeout {} ms, confirmed by GET /booster",
+                sessionName, PURCHASE_TIMEOUT.toMillis());
         startInfiniteLoop();
     }
 
+    public String getSessionName() {
+        return sessionName;
+    }
+
+    public StrategyService getStrategyService() {
+        return strategyService;
+    }
+
     private void startInfiniteLoop() {
-        processTickWithRetry()
+        // defer - каждый повтор собирает тик заново (свой номер, id и трасса);
+        // между раундами цикл спит в RoundScheduler вместо опроса /arena
+        Mono.defer(() -> roundScheduler.awaitRound(tickCounter.get() + 1))
+                .then(Mono.defer(this::processTickWithRetry))
                 .repeat()
                 .subscribe(
                         null,
                         error -> {
-                            log.error("Game loop stopped with error: {}", error.getMessage());
+                            log.error("[{}] Game loop stopped with error: {}", sessionName, error.getMessage());
                             // Перезапускаем через 5 секунд при фатальной ошибке
                             Mono.delay(Duration.ofSeconds(5))
                                     .doOnSuccess(v -> startInfiniteLoop())
                                     .subscribe();
                         },
-                        () -> log.info("Game loop completed (unexpected)")
+                        () -> log.info("[{}] Game loop completed (unexpected)", sessionName)
                 );
     }
 
     private Mono<Void> processTickWithRetry() {
-        int tickNumber = tickCounter.incrementAndGet();
-        String tickId = String.format("%s-T%03d",
-                LocalDateTime.now().format(TIME_FORMATTER), tickNumber);
+        int tick = tickCounter.incrementAndGet();
+        long tickStart = System.nanoTime();
 
-        log.info("[{}] ┌─── Starting tick #{} ───", tickId, tickNumber);
+        tickEvent(Category.TICK, tick, "[T{}][{}] ┌─── Starting tick ───").publish();
 
-        return processTickSequence(tickId)
+        Timer.Sample tickSample = Timer.start();
+        TickEvent tickEvent = new TickEvent();
+        tickEvent.begin();
+        long traceSeq = tickTrace.begin(tick);
+        return processTickSequence(tick, traceSeq)
                 .retry(3) // 3 попытки при ошибке
+                .doOnSuccess(v -> tickSample.stop(tickSuccessTimer))
                 .onErrorResume(e -> {
-                    log.error("[{}] │ ✗ Tick #{} failed after retries: {}",
-                            tickId, tickNumber, e.getMessage());
+                    tickSample.stop(tickFailedTimer);
+                    tickTrace.markFailed(traceSeq);
+                    tickEvent.failed = true;
+                    log.error("[T{}][{}] │ ✗ Tick failed after retries: {}", tick, sessionName, e.getMessage());
                     // Ждем 1 секунду и продолжаем
                     return Mono.delay(Duration.ofSeconds(1)).then();
                 })
                 .doFinally(signal -> {
-                    log.info("[{}] └─── Tick #{} completed (total requests: {}, total boosters purchased: {}) ───",
-                            tickId, tickNumber, totalRequests.get(), totalBoostersPurchased.get());
+                    tickTrace.commit(traceSeq);
+                    tickEvent.end();
+                    if (tickEvent.shouldCommit()) {
+                        tickEvent.tick = tick;
+                        tickEvent.totalRequests = totalRequests.get();
+                        tickEvent.commit();
+                    }
+                    tickEvent(Category.TICK, tick,
+                                    "[T{}][{}] └─── Tick completed (total requests: {}, total boosters purchased: {}) ───")
+                            .arg(totalRequests.get()).arg(purchases.getConfirmed()).publish();
+                    eventLog.tickCompleted(System.nanoTime() - tickStart);
                 });
     }
 
-    private Mono<Void> processTickSequence(String tickId) {
+    private Mono<Void> processTickSequence(int tick, long traceSeq) {
         // Шаг 1: Получаем арену
         return api.getArena()
-                .doOnSubscribe(s -> log.info("[{}] │ Sending GET /arena (request #{})",
-                        tickId, totalRequests.incrementAndGet()))
-                .doOnSuccess(arena -> log.info("[{}] │ ✓ GET /arena: code={}, player={}, round={}",
-                        tickId, arena.code, arena.player, arena.round))
-                .doOnError(e -> log.error("[{}] │ ✗ GET /arena failed: {}", tickId, e.getMessage()))
-                .delayElement(Duration.ofMillis(300))
+                .doOnSubscribe(s -> tickTrace.phaseStart(traceSeq, Phase.ARENA))
+                .doOnSuccess(arena -> {
+                    tickTrace.phaseEnd(traceSeq, Phase.ARENA);
+                    tickTrace.arena(traceSeq, arena);
+                    boosterPlanner.observe(arena, System.currentTimeMillis());
+                })
+                .doOnSubscribe(s -> tickEvent(Category.HTTP, tick, "[T{}][{}] │ Sending GET /arena (request #{})")
+                        .arg(totalRequests.incrementAndGet()).publish())
+                .doOnSuccess(arena -> tickEvent(Category.HTTP, tick, "[T{}][{}] │ ✓ GET /arena: code={}, player={}, round={}")
+                        .arg(arena.code).arg(arena.player).arg(arena.round).publish())
+                .doOnError(e -> log.error("[T{}][{}] │ ✗ GET /arena failed: {}", tick, sessionName, e.getMessage()))
+                .delayElement(GameApiClient.REQUEST_SPACING)
                 .flatMap(arena -> {
                     if (arena.code != 0) {
-                        log.info("[{}] │ Game not active (code={}), skipping booster/move",
-                                tickId, arena.code);
+                        roundScheduler.roundInactive();
+                        tickEvent(Category.TICK, tick, "[T{}][{}] │ Game not active (code={}), skipping booster/move")
+                                .arg(arena.code).publish();
                         return Mono.empty();
                     }
 
                     // Шаг 2: Получаем бустеры
                     return api.getBoosters()
-                            .doOnSubscribe(s -> log.info("[{}] │ Sending GET /booster (request #{})",
-                                    tickId, totalRequests.incrementAndGet()))
+                            .doOnSubscribe(s -> tickTrace.phaseStart(traceSeq, Phase.BOOSTERS))
+                            .doOnSuccess(boosters -> tickTrace.phaseEnd(traceSeq, Phase.BOOSTERS))
+                            .doOnSubscribe(s -> tickEvent(Category.HTTP, tick, "[T{}][{}] │ Sending GET /booster (request #{})")
+                                    .arg(totalRequests.incrementAndGet()).publish())
                             .doOnSuccess(boosters -> {
                                 int availableCount = boosters.getAvailable() != null ?
                                         boosters.getAvailable().size() : 0;
                                 BoosterState state = boosters.getState();
-                                log.info("[{}] │ ✓ GET /booster: available={}, points={}",
-                                        tickId, availableCount, state.getPoints());
+                                tickEvent(Category.HTTP, tick, "[T{}][{}] │ ✓ GET /booster: available={}, points={}")
+                                        .arg(availableCount).arg(state.getPoints()).publish();
 
                                 // Подробный лог текущих характеристик
-                                logBoosterState(state, tickId);
-
-                                // Проверяем, нужно ли покупать бустеры
-                                checkAndPurchaseBooster(boosters, tickId);
+                                logBoosterState(state, tick);
                             })
-                            .doOnError(e -> log.error("[{}] │ ✗ GET /booster failed: {}", tickId, e.getMessage()))
-                            .delayElement(Duration.ofMillis(300))
-                            .flatMap(boosters -> {
-                                // Шаг 3: Генерируем команды
-                                MoveRequest moveRequest = strategyService.decideMove(arena, boosters);
-
+                            .doOnError(e -> log.error("[T{}][{}] │ ✗ GET /booster failed: {}", tick, sessionName, e.getMessage()))
+                            .delayElement(GameApiClient.REQUEST_SPACING)
+                            // Шаг 2.5: Покупаем бустер (если выгодно) и берем обновленное состояние
+                            .flatMap(boosters -> purchaseStage(boosters, tick))
+                            // Шаг 3: Генерируем команды - в общем пуле планирования
+                            .flatMap(boosters -> decide(arena, boosters, tick, traceSeq).flatMap(decision -> {
+                                MoveRequest moveRequest = decision.orElse(null);
                                 if (moveRequest != null && !moveRequest.getBombers().isEmpty()) {
-                                    validateAndFixCommands(moveRequest);
+                                    // Пишем ход стратегии как есть: повтор сравнивает его с decideMove
+                                    // до обрезки пути по пределу сервера
+                                    sessionRecorder.record(arena, boosters, moveRequest);
+                                    validateAndFixCommands(moveRequest, tick);
+                                    tickTrace.decisions(traceSeq, moveRequest, strategyService);
 
-                                    log.info("[{}] │ Generated commands for {} bombers",
-                                            tickId, moveRequest.getBombers().size());
+                                    tickEvent(Category.TICK, tick, "[T{}][{}] │ Generated commands for {} bombers")
+                                            .arg(moveRequest.getBombers().size()).publish();
 
                                     // Шаг 4: Отправляем команды
                                     return api.move(moveRequest)
-                                            .doOnSubscribe(s -> log.info("[{}] │ Sending POST /move (request #{}) for {} bombers",
-                                                    tickId, totalRequests.incrementAndGet(), moveRequest.getBombers().size()))
-                                            .doOnSuccess(v -> log.info("[{}] │ ✓ POST /move successful", tickId))
-                                            .doOnError(e -> log.error("[{}] │ ✗ POST /move failed: {}", tickId, e.getMessage()))
-                                            .delayElement(Duration.ofMillis(300));
+                                            .doOnSubscribe(s -> tickTrace.phaseStart(traceSeq, Phase.MOVE))
+                                            .doOnSuccess(v -> tickTrace.phaseEnd(traceSeq, Phase.MOVE))
+                                            .doOnSubscribe(s -> tickEvent(Category.HTTP, tick,
+                                                            "[T{}][{}] │ Sending POST /move (request #{}) for {} bombers")
+                                                    .arg(totalRequests.incrementAndGet()).arg(moveRequest.getBombers().size()).publish())
+                                            .doOnSuccess(v -> tickEvent(Category.HTTP, tick, "[T{}][{}] │ ✓ POST /move successful").publish())
+                                            .doOnError(e -> log.error("[T{}][{}] │ ✗ POST /move failed: {}", tick, sessionName, e.getMessage()))
+                                            .delayElement(GameApiClient.REQUEST_SPACING);
                                 } else {
-                                    log.info("[{}] │ No commands to send", tickId);
+                                    sessionRecorder.record(arena, boosters, moveRequest);
+                                    tickEvent(Category.TICK, tick, "[T{}][{}] │ No commands to send").publish();
                                     // Все равно ждем 500ms для сохранения ритма
-                                    return Mono.delay(Duration.ofMillis(300)).then();
+                                    return Mono.delay(GameApiClient.REQUEST_SPACING).then();
                                 }
-                            });
+                            }))
+                            // Шаг 5: Журнал отказов - после хода, в своем слоте лимита
+                            .then(Mono.defer(() -> logPoller.pollIfDue(tick)));
                 })
                 .then();
     }
 
+    // Стратегия в общем пуле планирования. Пул - одна FIFO-очередь, а у каждой сессии в ней
+    // не больше одной задачи (тик ждет решения), поэтому сессии обслуживаются по кругу
+    // и ни одна не может занять все потоки. Пустой Optional - в этом тике команд нет.
+    private Mono<Optional<MoveRequest>> decide(ArenaResponse arena, BoosterResponse boosters, int tick, long traceSeq) {
+        return Mono.defer(() -> {
+            long queuedAt = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                planningWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                tickTrace.phaseStart(traceSeq, Phase.DECIDE);
+                StrategyPhaseEvent strategyEvent = new StrategyPhaseEvent();
+                strategyEvent.begin();
+                MoveRequest moveRequest = decideTimer.record(() -> strategyService.decideMove(arena, boosters, tick));
+                strategyEvent.end();
+                tickTrace.phaseEnd(traceSeq, Phase.DECIDE);
+                if (strategyEvent.shouldCommit()) {
+                    strategyEvent.tick = tick;
+                    strategyEvent.commands = moveRequest != null ? moveRequest.getBombers().size() : 0;
+                    strategyEvent.commit();
+                }
+                return Optional.ofNullable(moveRequest);
+            }).subscribeOn(planningScheduler);
+        });
+    }
+
+    // Событие журнала тика с именем сессии вторым аргументом - шаблоны начинаются с "[T{}][{}]",
+    // чтобы строки нескольких аккаунтов в одном процессе можно было различить
+    private TickEventLog.Event tickEvent(Category category, int tick, String template) {
+        return eventLog.info(category, tick, template).arg(sessionName);
+    }
+
     // НОВЫЙ МЕТОД: Логирует текущее состояние бустеров
-    private void logBoosterState(BoosterState state, String tickId) {
-        log.info("[{}] │ 📊 Current stats: ⚡Speed={}, 💣Bombs={}, 🎯Range={}, 👁️View={}, 🛡️Armor={}, ⏱️Delay={}",
-                tickId,
-                state.getSpeed(),
-                state.getBombs(),
-                state.getBombRange(),
-                state.getView(),
-                state.getArmor(),
-                state.getBombDelay());
+    private void logBoosterState(BoosterState state, int tick) {
+        tickEvent(Category.BOOSTERS, tick,
+                        "[T{}][{}] │ 📊 Current stats: ⚡Speed={}, 💣Bombs={}, 🎯Range={}, 👁️View={}, 🛡️Armor={}, ⏱️Delay={}")
+                .arg(state.getSpeed())
+                .arg(state.getBombs())
+                .arg(state.getBombRange())
+                .arg(state.getView())
+                .arg(state.getArmor())
+                .arg(state.getBombDelay())
+                .publish();
 
         if (state.isCanPassBombs() || state.isCanPassObstacles() || state.isCanPassWalls()) {
-            log.info("[{}] │ 🚀 Special abilities: PassBombs={}, PassObstacles={}, PassWalls={}",
-                    tickId,
-                    state.isCanPassBombs() ? "✓" : "✗",
-                    state.isCanPassObstacles() ? "✓" : "✗",
-                    state.isCanPassWalls() ? "✓" : "✗");
+            tickEvent(Category.BOOSTERS, tick, "[T{}][{}] │ 🚀 Special abilities: PassBombs={}, PassObstacles={}, PassWalls={}")
+                    .arg(state.isCanPassBombs() ? "✓" : "✗")
+                    .arg(state.isCanPassObstacles() ? "✓" : "✗")
+                    .arg(state.isCanPassWalls() ? "✓" : "✗")
+                    .publish();
         }
     }
 
-    // НОВЫЙ МЕТОД: Проверяет и покупает бустеры
-    private void checkAndPurchaseBooster(BoosterResponse boosters, String tickId) {
+    // Покупка по плану BoosterPlanner: покупаем, только если лучший план начинается
+    // с доступного сейчас бустера, иначе копим на цель плана.
+    // Этап последовательный: POST /booster -> пауза -> GET /booster, и только потом
+    // стратегия и POST /move, так что покупка не конкурирует с ходом за соединение и лимит.
+    // Возвращает состояние бустеров, актуальное после этапа.
+    private Mono<BoosterResponse> purchaseStage(BoosterResponse boosters, int tick) {
         long currentTime = System.currentTimeMillis();
-        long lastPurchaseTime = lastBoosterPurchaseTime.get();
-
-        // Проверяем, прошло ли 20 секунд с последней покупки
-        if (currentTime - lastPurchaseTime < BOOSTER_PURCHASE_INTERVAL_MS) {
-            long secondsSinceLastPurchase = (currentTime - lastPurchaseTime) / 1000;
-            log.info("[{}] │ ⏳ Last booster purchase was {} seconds ago (need {} seconds)",
-                    tickId, secondsSinceLastPurchase, BOOSTER_PURCHASE_INTERVAL_MS / 1000);
-            return;
+        if (!reconcilePurchase(boosters.getState(), tick, currentTime)) {
+            return Mono.just(boosters);
         }
 
         if (boosters.getAvailable() == null || boosters.getAvailable().isEmpty()) {
-            log.info("[{}] │ 🚫 No boosters available for purchase", tickId);
-            lastBoosterPurchaseTime.set(currentTime); // Обновляем время, чтобы не проверять каждый раз
-            return;
+            tickEvent(Category.SHOP, tick, "[T{}][{}] │ 🚫 No boosters available for purchase").publish();
+            return Mono.just(boosters);
         }
 
         int points = boosters.getState().getPoints();
-        List<Booster> availableBoosters = boosters.getAvailable();
+        BoosterPlan plan = boosterPlanner.plan(boosters, strategyService.getSnapshot(), currentTime);
 
         // Логируем доступные бустеры
-        logAvailableBoosters(availableBoosters, points, tickId);
-
-        // Выбираем лучший бустер для покупки
-        Booster bestBooster = null;
-        int bestPriority = -1;
-
-        for (Booster booster : availableBoosters) {
-            if (booster.getCost() <= points) {
-                int priority = getBoosterPriority(booster.getType());
-                if (priority > bestPriority) {
-                    bestPriority = priority;
-                    bestBooster = booster;
-                }
+        logAvailableBoosters(boosters.getAvailable(), points, plan, tick);
+
+        Booster booster = plan.getBuyNow();
+        if (booster == null) {
+            if (plan.getTarget() != null) {
+                tickEvent(Category.SHOP, tick,
+                                "[T{}][{}] │ 💰 Saving for {} (cost: {}, points: {}, ready in ~{} s at {} points/s)")
+                        .arg(plan.getTarget().getType()).arg(plan.getTarget().getCost()).arg(points)
+                        .arg(Math.round(plan.getEtaSeconds())).arg(Math.round(plan.getScoreRate() * 100) / 100.0)
+                        .publish();
+            } else {
+                tickEvent(Category.SHOP, tick, "[T{}][{}] │ 💰 No booster worth buying (points: {})").arg(points).publish();
             }
+            return Mono.just(boosters);
         }
 
-        if (bestBooster != null) {
-            log.info("[{}] │ 🛒 Attempting to purchase booster: {} (cost: {}, priority: {})",
-                    tickId, bestBooster.getType(), bestBooster.getCost(), bestPriority);
-
-            // Покупаем бустер
-            PurchaseBoosterRequest purchaseRequest = new PurchaseBoosterRequest(bestBooster.getType());
-            Booster finalBestBooster = bestBooster;
-            api.purchaseBooster(purchaseRequest)
-                    .doOnSubscribe(s -> log.info("[{}] │ Sending POST /booster (request #{})",
-                            tickId, totalRequests.incrementAndGet()))
-                    .doOnSuccess(response -> {
-                        log.info("[{}] │ ✅ POST /booster SUCCESSFUL: purchased {} for {} points",
-                                tickId, finalBestBooster.getType(), finalBestBooster.getCost());
-                        // Обновляем время последней покупки
-                        lastBoosterPurchaseTime.set(currentTime);
-                        // Увеличиваем счетчик купленных бустеров
-                        totalBoostersPurchased.incrementAndGet();
-
-                        // Логируем общую статистику
-                        log.info("[{}] │ 🎉 TOTAL BOOSTERS PURCHASED: {}", tickId, totalBoostersPurchased.get());
-                    })
-                    .doOnError(e -> {
-                        log.error("[{}] │ ❌ POST /booster FAILED: {}", tickId, e.getMessage());
-                        // Все равно обновляем время при ошибке, чтобы не зациклиться
-                        lastBoosterPurchaseTime.set(currentTime);
-                    })
-                    .subscribe();
-        } else {
-            int cheapestCost = getCheapestBoosterCost(availableBoosters);
-            log.info("[{}] │ 💰 No affordable boosters (points: {}, cheapest booster cost: {})",
-                    tickId, points, cheapestCost);
-
-            // Логируем сколько не хватает
-            if (points < cheapestCost) {
-                int needed = cheapestCost - points;
-                log.info("[{}] │ 📈 Need {} more points to buy cheapest booster", tickId, needed);
-            }
-
-            // Обновляем время, чтобы не проверять каждый тик
-            lastBoosterPurchaseTime.set(currentTime);
+        if (!purchases.begin(booster, boosters.getState(), currentTime)) {
+            return Mono.just(boosters);
         }
+        tickEvent(Category.SHOP, tick,
+                        "[T{}][{}] │ 🛒 Attempting to purchase booster: {} (cost: {}, expected gain: {} points)")
+                .arg(booster.getType()).arg(booster.getCost()).arg(Math.round(plan.getExpectedGain()))
+                .publish();
+
+        BoosterPurchaseEvent purchaseEvent = new BoosterPurchaseEvent();
+        return api.purchaseBooster(new PurchaseBoosterRequest(booster.getType()))
+                .timeout(PURCHASE_TIMEOUT)
+                .doOnSubscribe(s -> {
+                    purchaseEvent.begin();
+                    tickEvent(Category.HTTP, tick, "[T{}][{}] │ Sending POST /booster (request #{})")
+                            .arg(totalRequests.incrementAndGet()).publish();
+                })
+                .thenReturn(true)
+                .doOnSuccess(sent -> {
+                    commitPurchase(purchaseEvent, tick, booster, true);
+                    tickEvent(Category.SHOP, tick, "[T{}][{}] │ ✅ POST /booster accepted: {} for {} points")
+                            .arg(booster.getType()).arg(booster.getCost()).publish();
+                })
+                .onErrorResume(e -> {
+                    commitPurchase(purchaseEvent, tick, booster, false);
+                    // 4xx - сервер покупку отклонил; таймаут или обрыв - исход неизвестен,
+                    // покупка остается в полете до подтверждения или истечения
+                    if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+                        purchases.rejected();
+                    }
+                    log.error("[T{}][{}] │ ❌ POST /booster FAILED: {}", tick, sessionName, e.getMessage());
+                    return Mono.just(false);
+                })
+                .flatMap(sent -> sent ? refreshBoosters(tick, boosters) : Mono.just(boosters))
+                .delayElement(GameApiClient.REQUEST_SPACING);
     }
 
-    // НОВЫЙ МЕТОД: Логирует доступные бустеры
-    private void logAvailableBoosters(List<Booster> boosters, int points, String tickId) {
-        if (boosters == null || boosters.isEmpty()) {
-            log.info("[{}] │ 📋 Available boosters: NONE", tickId);
-            return;
-        }
-
-        log.info("[{}] │ 📋 Available boosters ({} points available):", tickId, points);
-        for (Booster booster : boosters) {
-            boolean canAfford = booster.getCost() <= points;
-            int priority = getBoosterPriority(booster.getType());
-            log.info("[{}] │   - {}: {} points (affordable: {}, priority: {})",
-                    tickId, booster.getType(), booster.getCost(),
-                    canAfford ? "✓" : "✗", priority);
-        }
+    // Свежее состояние после покупки; если не удалось - работаем со старым,
+    // а покупку подтвердим на следующем тике
+    private Mono<BoosterResponse> refreshBoosters(int tick, BoosterResponse previous) {
+        return api.getBoosters()
+                .delaySubscription(GameApiClient.REQUEST_SPACING)
+                .doOnSubscribe(s -> tickEvent(Category.HTTP, tick, "[T{}][{}] │ Sending GET /booster refresh (request #{})")
+                        .arg(totalRequests.incrementAndGet()).publish())
+                .doOnSuccess(refreshed -> reconcilePurchase(refreshed.getState(), tick, System.currentTimeMillis()))
+                .onErrorResume(e -> {
+                    log.error("[T{}][{}] │ ✗ GET /booster refresh failed: {}", tick, sessionName, e.getMessage());
+                    return Mono.just(previous);
+                });
     }
 
-    // Вспомогательный метод: получает стоимость самого дешевого бустера
-    private int getCheapestBoosterCost(List<Booster> boosters) {
-        if (boosters == null || boosters.isEmpty()) {
-            return Integer.MAX_VALUE;
+    // Сверяет покупку в полете с состоянием; true - можно планировать новую
+    private boolean reconcilePurchase(BoosterState state, int tick, long currentTime) {
+        Booster pending = purchases.getPending();
+        switch (purchases.reconcile(state, currentTime)) {
+            case CONFIRMED -> tickEvent(Category.SHOP, tick, "[T{}][{}] │ 🎉 Booster {} applied, total boosters purchased: {}")
+                    .arg(pending.getType()).arg(purchases.getConfirmed()).publish();
+            case EXPIRED -> log.warn("[T{}][{}] │ Booster {} was not applied within {} ms, treating purchase as failed",
+                    tick, sessionName, pending.getType(), BoosterPurchaseTracker.PENDING_TIMEOUT_MS);
+            case PENDING -> {
+                tickEvent(Category.SHOP, tick, "[T{}][{}] │ ⏳ Waiting for booster {} to be applied")
+                        .arg(pending.getType()).publish();
+                return false;
+            }
+            case NONE -> {
+            }
         }
+        return true;
+    }
 
-        int minCost = Integer.MAX_VALUE;
-        for (Booster booster : boosters) {
-            if (booster.getCost() < minCost) {
-                minCost = booster.getCost();
-            }
+    private static void commitPurchase(BoosterPurchaseEvent event, int tick, Booster booster, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = tick;
+            event.booster = booster.getType();
+            event.cost = booster.getCost();
+            event.success = success;
+            event.commit();
         }
-        return minCost;
     }
 
-    // НОВЫЙ МЕТОД: Определяет приоритет бустеров
-    private int getBoosterPriority(String boosterType) {
-        if (boosterType == null) return 1;
-
-        switch (boosterType.toLowerCase()) {
-            case "armor":
-                return 10; // Самый высокий приоритет - больше бомб
-            case "speed":
-                return 9;  // Скорость
-            case "bombs":
-                return 8;  // Радиус взрыва
-            case "view":
-                return 7;  // Обзор
-            case "bomb_range":
-                return 6;  // Броня
-            case "bomb_delay":
-                return 5;  // Задержка бомбы
-            case "can_pass_bombs":
-                return 4;  // Проход через бомбы
-            case "can_pass_obstacles":
-                return 3;  // Проход через препятствия
-            case "can_pass_walls":
-                return 2;  // Проход через стены
-            default:
-                return 1;
+    // НОВЫЙ МЕТОД: Логирует доступные бустеры с оценкой планировщика
+    private void logAvailableBoosters(List<Booster> boosters, int points, BoosterPlan plan, int tick) {
+        tickEvent(Category.SHOP, tick, "[T{}][{}] │ 📋 Available boosters ({} points available, ~{} s of round left):")
+                .arg(points).arg(Math.round(plan.getRemainingSeconds())).publish();
+        for (Booster booster : boosters) {
+            boolean canAfford = booster.getCost() <= points;
+            tickEvent(Category.SHOP, tick, "[T{}][{}] │   - {}: {} points (affordable: {}, expected gain: {})")
+                    .arg(booster.getType()).arg(booster.getCost()).arg(canAfford ? "✓" : "✗")
+                    .arg(Math.round(plan.getGain(booster.getType()))).publish();
         }
     }
 
-    private void validateAndFixCommands(MoveRequest request) {
+    private void validateAndFixCommands(MoveRequest request, int tick) {
         if (request == null || request.getBombers() == null) return;
 
         for (var bomber : request.getBombers()) {
             if (bomber == null) continue;
 
-            if (bomber.getPath() != null && bomber.getPath().size() > maxPathLength) {
-                bomber.setPath(bomber.getPath().subList(0, maxPathLength));
-                log.warn("Truncated path for bomber {} to {} coordinates",
-                        bomber.getId(), maxPathLength);
+            // Предел - меньший из настроенного и выученного по отказам сервера
+            int limit = strategyService.getCommandFeedback().pathLimit(maxPathLength);
+            if (bomber.getPath() != null && bomber.getPath().size() > limit) {
+                bomber.getPath().truncate(limit);
+                log.warn("[T{}][{}] │ Truncated path for bomber {} to {} coordinates",
+                        tick, sessionName, bomber.getId(), limit);
             }
         }
     }
@@ -333,14 +461,13 @@ public class GameLoopService {
     // Метод для получения статистики (можно использовать для мониторинга)
     public void printBoosterStatistics() {
         long currentTime = System.currentTimeMillis();
-        long lastPurchaseTime = lastBoosterPurchaseTime.get();
-        long secondsSinceLastPurchase = (currentTime - lastPurchaseTime) / 1000;
+        long secondsSinceLastPurchase = (currentTime - purchases.getLastConfirmedAt()) / 1000;
+        Booster pending = purchases.getPending();
 
         log.info("=== BOOSTER STATISTICS ===");
-        log.info("Total boosters purchased: {}", totalBoostersPurchased.get());
+        log.info("Total boosters purchased: {}", purchases.getConfirmed());
         log.info("Seconds since last purchase: {}", secondsSinceLastPurchase);
-        log.info("Next purchase in: {} seconds",
-                Math.max(0, BOOSTER_PURCHASE_INTERVAL_MS/1000 - secondsSinceLastPurchase));
+        log.info("Purchase in flight: {}", pending != null ? pending.getType() : "none");
         log.info("Total API requests made: {}", totalRequests.get());
         log.info("=========================");
     }
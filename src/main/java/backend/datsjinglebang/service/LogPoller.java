@@ -0,0 +1,141 @@
+package backend.datsjinglebang.service;
+
+import backend.datsjinglebang.client.GameApiClient;
+import backend.datsjinglebang.model.LogEntry;
+import backend.datsjinglebang.recording.SessionRecorder;
+import backend.datsjinglebang.strategy.CommandFeedback;
+import backend.datsjinglebang.strategy.StrategyService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Инкрементальное чтение GET /logs: сервер отдает журнал целиком, мы берем только записи
+// новее курсора (time последней прочитанной записи; записи с тем же time различаем по тексту)
+// и передаем отказы в CommandFeedback стратегии (и в запись сессии - для повтора).
+// Запрос не конкурирует с запросами тика за лимит: игровой цикл вызывает pollIfDue
+// в конце тика, после POST /move и паузы, и не чаще раза в pollEveryTicks тиков.
+public class LogPoller {
+    private static final Logger log = LoggerFactory.getLogger(LogPoller.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    private final String sessionName;
+    private final GameApiClient api;
+    private final CommandFeedback feedback;
+    private final SessionRecorder recorder;
+    private final boolean enabled;
+    private final int pollEveryTicks;
+
+    // Курсор; меняется только из цепочки тика, тики идут последовательно
+    private long cursorMillis = Long.MIN_VALUE;
+    private final Set<String> cursorMessages = new HashSet<>();
+    // Первое чтение только ставит курсор: старые записи (прошлый запуск, прошлый раунд) не применяем
+    private boolean primed;
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong entries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public LogPoller(String sessionName, GameApiClient api, StrategyService strategyService, SessionRecorder recorder,
+                     MeterRegistry meterRegistry, boolean enabled, int pollEveryTicks) {
+        this.sessionName = sessionName;
+        this.api = api;
+        this.feedback = strategyService.getCommandFeedback();
+        this.recorder = recorder;
+        this.enabled = enabled;
+        this.pollEveryTicks = Math.max(1, pollEveryTicks);
+
+        FunctionCounter.builder("game.logs.polls", polls, AtomicLong::get)
+                .description("GET /logs requests made by the log poller")
+                .register(meterRegistry);
+        FunctionCounter.builder("game.logs.entries", entries, AtomicLong::get)
+                .description("New /logs entries passed to command feedback")
+                .register(meterRegistry);
+        FunctionCounter.builder("game.logs.failures", failures, AtomicLong::get)
+                .register(meterRegistry);
+        FunctionCounter.builder("game.feedback.unparsed", feedback, CommandFeedback::getUnparsed)
+                .description("Server messages that did not match a known rejection")
+                .register(meterRegistry);
+    }
+
+    // Ошибка чтения журнала не должна ронять тик: тик не повторяется из-за /logs
+    public Mono<Void> pollIfDue(int tick) {
+        if (!enabled || tick % pollEveryTicks != 0) {
+            return Mono.empty();
+        }
+
+        return api.getLogs()
+                .timeout(TIMEOUT)
+                .doOnNext(list -> {
+                    polls.incrementAndGet();
+                    int fresh = ingest(list);
+                    if (fresh > 0) {
+                        log.info("[T{}][{}] │ 📜 /logs: {} new entries, {} cells blocked by rejections",
+                                tick, sessionName, fresh, feedback.getBlockedCells());
+                    }
+                })
+                .onErrorResume(e -> {
+                    failures.incrementAndGet();
+                    log.debug("[T{}][{}] │ GET /logs failed: {}", tick, sessionName, e.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.delay(GameApiClient.REQUEST_SPACING).then());
+    }
+
+    // Возвращает число новых записей
+    int ingest(List<LogEntry> list) {
+        if (list == null) return 0;
+
+        long newCursor = cursorMillis;
+        Set<String> atNewCursor = new HashSet<>();
+        int fresh = 0;
+        for (LogEntry entry : list) {
+            long time = parse(entry.getTime());
+            String message = entry.getMessage();
+            if (time < cursorMillis || time == cursorMillis && cursorMessages.contains(message)) {
+                continue;
+            }
+
+            if (primed) {
+                recorder.recordFeedback(message);
+                feedback.submit(message);
+                fresh++;
+            }
+
+            if (time > newCursor) {
+                newCursor = time;
+                atNewCursor.clear();
+            }
+            if (time == newCursor) {
+                atNewCursor.add(message);
+            }
+        }
+
+        if (newCursor != cursorMillis) {
+            cursorMillis = newCursor;
+            cursorMessages.clear();
+        }
+        cursorMessages.addAll(atNewCursor);
+        primed = true;
+        entries.addAndGet(fresh);
+        return fresh;
+    }
+
+    private static long parse(String time) {
+        if (time == null) return Long.MIN_VALUE;
+        try {
+            return Instant.parse(time).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
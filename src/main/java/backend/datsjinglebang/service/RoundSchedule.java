@@ -0,0 +1,131 @@
+package backend.datsjinglebang.service;
+
+import backend.datsjinglebang.model.RoundsResponse;
+import backend.datsjinglebang.model.RoundsResponse.RoundInfo;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+// Расписание раундов по ответам GET /rounds и смещение часов сервера относительно наших.
+// Смещение оценивается как в NTP: serverNow - середина интервала запроса; из последних
+// SAMPLES замеров берется тот, у которого меньше всего время ответа (меньше всего погрешность).
+// Все времена - миллисекунды эпохи; "локальные" - System.currentTimeMillis().
+public class RoundSchedule {
+    public static final int SAMPLES = 8;
+
+    public enum State {
+        UNKNOWN,  // расписания нет или в нем нет ни текущего, ни будущего раунда
+        ACTIVE,   // раунд идет
+        WAITING   // ждем начала следующего раунда
+    }
+
+    // Замеры смещения: кольцо из SAMPLES
+    private final long[] sampleOffsets = new long[SAMPLES];
+    private final long[] sampleRtts = new long[SAMPLES];
+    private int sampleCount;
+    private int sampleNext;
+    private long offsetMillis;
+
+    private String roundName;
+    private long roundStart;  // по часам сервера
+    private long roundEnd;
+    private State state = State.UNKNOWN;
+
+    // Разбирает ответ; sentAt/receivedAt - локальное время отправки запроса и получения ответа
+    public synchronized State update(RoundsResponse response, long sentAt, long receivedAt) {
+        long serverNow = parse(response.getNow());
+        if (serverNow != Long.MIN_VALUE && receivedAt >= sentAt) {
+            addSample(serverNow - (sentAt + receivedAt) / 2, receivedAt - sentAt);
+        }
+        long now = serverNow != Long.MIN_VALUE ? serverNow : receivedAt + offsetMillis;
+
+        state = State.UNKNOWN;
+        roundName = null;
+        if (response.getRounds() == null) return state;
+
+        // Идущий раунд важнее; иначе - ближайший будущий
+        long bestStart = Long.MAX_VALUE;
+        for (RoundInfo round : response.getRounds()) {
+            long start = parse(round.getStartAt());
+            long end = parse(round.getEndAt());
+            if (start == Long.MIN_VALUE) continue;
+            if (end == Long.MIN_VALUE) {
+                end = round.getDuration() > 0 ? start + round.getDuration() * 1000L : Long.MIN_VALUE;
+            }
+            if (end == Long.MIN_VALUE || end <= now) continue;
+
+            if (start <= now) {
+                select(round.getName(), start, end, State.ACTIVE);
+                return state;
+            }
+            if (start < bestStart) {
+                bestStart = start;
+                select(round.getName(), start, end, State.WAITING);
+            }
+        }
+        return state;
+    }
+
+    private void select(String name, long start, long end, State newState) {
+        roundName = name;
+        roundStart = start;
+        roundEnd = end;
+        state = newState;
+    }
+
+    private void addSample(long offset, long rtt) {
+        sampleOffsets[sampleNext] = offset;
+        sampleRtts[sampleNext] = rtt;
+        sampleNext = (sampleNext + 1) % SAMPLES;
+        sampleCount = Math.min(SAMPLES, sampleCount + 1);
+
+        int best = 0;
+        for (int i = 1; i < sampleCount; i++) {
+            if (sampleRtts[i] < sampleRtts[best]) best = i;
+        }
+        offsetMillis = sampleOffsets[best];
+    }
+
+    // Раунд был, но сервер говорит, что игры нет - расписание устарело
+    public synchronized void invalidate() {
+        state = State.UNKNOWN;
+        roundName = null;
+    }
+
+    // Идет ли раунд по нашим часам с поправкой, без запроса к серверу
+    public synchronized boolean isActiveAt(long localMillis) {
+        long serverNow = localMillis + offsetMillis;
+        return state != State.UNKNOWN && serverNow >= roundStart && serverNow < roundEnd;
+    }
+
+    // Сколько ждать (по нашим часам) до начала раунда; 0 - уже начался
+    public synchronized long millisUntilStart(long localMillis) {
+        if (state == State.UNKNOWN) return 0;
+        return Math.max(0, roundStart - (localMillis + offsetMillis));
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized String getRoundName() {
+        return roundName;
+    }
+
+    public synchronized long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public synchronized int getSampleCount() {
+        return sampleCount;
+    }
+
+    private static long parse(String instant) {
+        if (instant == null || instant.isEmpty()) return Long.MIN_VALUE;
+        try {
+            return Instant.parse(instant).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package backend.datsjinglebang.service;
+
+import backend.datsjinglebang.client.GameApiClient;
+import backend.datsjinglebang.model.RoundsResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Игровой цикл спрашивает awaitRound() перед каждым тиком. Пока раунд идет по нашим часам
+// (с поправкой на часы сервера), ответ мгновенный и без запросов. Между раундами цикл
+// не опрашивает /arena, а спит до начала следующего раунда по GET /rounds:
+//   - за wakeLead до старта просыпается и делает несколько GET /rounds - это заново
+//     открывает соединения (keep-alive мог истечь за время простоя) и уточняет смещение часов;
+//   - затем досыпает до точного старта, чтобы первый тик раунда ушел сразу после него.
+// Если расписания нет или /rounds недоступен - тик идет как обычно, не чаще idlePoll.
+// Свой у каждой игровой сессии (GameSessionFactory): смещение часов меряется своим клиентом.
+public class RoundScheduler {
+    private static final Logger log = LoggerFactory.getLogger(RoundScheduler.class);
+    private static final Duration ROUNDS_TIMEOUT = Duration.ofSeconds(3);
+    private static final int PREWARM_REQUESTS = 2;
+
+    private final String sessionName;
+    private final GameApiClient api;
+    private final RoundSchedule schedule = new RoundSchedule();
+    private final boolean enabled;
+    private final Duration wakeLead;
+    private final Duration startMargin;
+    private final Duration idlePoll;
+
+    public RoundScheduler(String sessionName, GameApiClient api, MeterRegistry meterRegistry,
+                          boolean enabled, Duration wakeLead, Duration startMargin, Duration idlePoll) {
+        this.sessionName = sessionName;
+        this.api = api;
+        this.enabled = enabled;
+        this.wakeLead = wakeLead;
+        this.startMargin = startMargin;
+        this.idlePoll = idlePoll;
+
+        Gauge.builder("game.rounds.clock.offset", schedule, RoundSchedule::getOffsetMillis)
+                .description("Estimated server clock minus local clock, ms")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    // Завершается, когда можно начинать тик; tick - номер ожидающего тика (для логов)
+    public Mono<Void> awaitRound(int tick) {
+        if (!enabled || schedule.isActiveAt(System.currentTimeMillis())) {
+            return Mono.empty();
+        }
+
+        return fetchSchedule()
+                .flatMap(state -> switch (state) {
+                    case ACTIVE -> Mono.<Void>empty();
+                    case WAITING -> sleepUntilStart(tick);
+                    case UNKNOWN -> Mono.delay(idlePoll).then();
+                })
+                .onErrorResume(e -> {
+                    log.warn("[T{}][{}] Round schedule unavailable, polling arena: {}",
+                            tick, sessionName, e.getMessage());
+                    return Mono.delay(idlePoll).then();
+                });
+    }
+
+    // Тик увидел, что игры нет: при следующем awaitRound расписание будет запрошено заново
+    public void roundInactive() {
+        schedule.invalidate();
+    }
+
+    public RoundSchedule getSchedule() {
+        return schedule;
+    }
+
+    private Mono<Void> sleepUntilStart(int tick) {
+        long untilStart = schedule.millisUntilStart(System.currentTimeMillis());
+        log.info("[T{}][{}] 💤 Next round {} starts in {} s (clock offset {} ms), idling",
+                tick, sessionName, schedule.getRoundName(), untilStart / 1000, schedule.getOffsetMillis());
+
+        long untilWake = untilStart - wakeLead.toMillis();
+        Mono<Void> wake = untilWake > 0
+                ? Mono.delay(Duration.ofMillis(untilWake)).then(prewarm(tick))
+                : Mono.empty();
+
+        // Время до старта пересчитываем после пробуждения - по уточненному смещению
+        return wake.then(Mono.defer(() -> {
+            long remaining = schedule.millisUntilStart(System.currentTimeMillis()) + startMargin.toMillis();
+            log.info("[T{}][{}] ⏰ Round {} starts in {} ms", tick, sessionName, schedule.getRoundName(), remaining);
+            return Mono.delay(Duration.ofMillis(Math.max(remaining, GameApiClient.REQUEST_SPACING.toMillis()))).then();
+        }));
+    }
+
+    // Несколько GET /rounds с обычным интервалом: соединения и смещение часов - свежие к старту
+    private Mono<Void> prewarm(int tick) {
+        Mono<Void> requests = Mono.empty();
+        for (int i = 0; i < PREWARM_REQUESTS; i++) {
+            requests = requests.then(fetchSchedule()
+                    .delaySubscription(i == 0 ? Duration.ZERO : GameApiClient.REQUEST_SPACING)
+                    .onErrorResume(e -> {
+                        log.debug("[T{}][{}] Pre-round request failed: {}", tick, sessionName, e.getMessage());
+                        return Mono.empty();
+                    })
+                    .then());
+        }
+        return requests.doOnSuccess(v -> log.info("[T{}][{}] 🔥 Pre-round warm-up done, clock offset {} ms ({} samples)",
+                tick, sessionName, schedule.getOffsetMillis(), schedule.getSampleCount()));
+    }
+
+    private Mono<RoundSchedule.State> fetchSchedule() {
+        return Mono.defer(() -> {
+            long sentAt = System.currentTimeMillis();
+            return api.getRounds()
+                    .timeout(ROUNDS_TIMEOUT)
+                    .map((RoundsResponse response) ->
+                            schedule.update(response, sentAt, System.currentTimeMillis()));
+        });
+    }
+}
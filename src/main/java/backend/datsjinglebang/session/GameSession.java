@@ -0,0 +1,56 @@
+package backend.datsjinglebang.session;
+
+import backend.datsjinglebang.client.GameApiClient;
+import backend.datsjinglebang.recording.SessionRecorder;
+import backend.datsjinglebang.service.GameLoopService;
+import backend.datsjinglebang.strategy.StrategyService;
+import backend.datsjinglebang.trace.TickTraceBuffer;
+
+// Все состояние одной команды: клиент со своим токеном, стратегия, цикл, трасса и запись.
+// Ничего из этого не делится с другими сессиями, кроме пула соединений и пула планирования.
+public final class GameSession {
+    private final String name;
+    private final GameApiClient api;
+    private final StrategyService strategy;
+    private final GameLoopService loop;
+    private final TickTraceBuffer tickTrace;
+    private final SessionRecorder recorder;
+
+    GameSession(String name, GameApiClient api, StrategyService strategy, GameLoopService loop,
+                TickTraceBuffer tickTrace, SessionRecorder recorder) {
+        this.name = name;
+        this.api = api;
+        this.strategy = strategy;
+        this.loop = loop;
+        this.tickTrace = tickTrace;
+        this.recorder = recorder;
+    }
+
+    void start() {
+        loop.start();
+    }
+
+    void close() {
+        recorder.close();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public GameApiClient getApi() {
+        return api;
+    }
+
+    public StrategyService getStrategy() {
+        return strategy;
+    }
+
+    public GameLoopService getLoop() {
+        return loop;
+    }
+
+    public TickTraceBuffer getTickTrace() {
+        return tickTrace;
+    }
+}
@@ -0,0 +1,133 @@
+package backend.datsjinglebang.session;
+
+import backend.datsjinglebang.client.GameApiClient;
+import backend.datsjinglebang.client.GameClientFactory;
+import backend.datsjinglebang.logging.TickEventLog;
+import backend.datsjinglebang.recording.SessionRecorder;
+import backend.datsjinglebang.service.GameLoopService;
+import backend.datsjinglebang.service.LogPoller;
+import backend.datsjinglebang.service.RoundScheduler;
+import backend.datsjinglebang.strategy.BoosterPlanner;
+import backend.datsjinglebang.strategy.EvaluationCache;
+import backend.datsjinglebang.strategy.StrategyService;
+import backend.datsjinglebang.trace.TickTraceBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+
+// Собирает игровые сессии по аккаунтам: все, что раньше было синглтонами одной команды,
+// создается заново для каждой сессии. Общие - пул соединений (GameClientFactory),
+// пул планирования, журнал тиков и реестр метрик; метрики сессии помечены тегом session.
+@Component
+public class GameSessionFactory {
+    private final SessionProperties properties;
+    private final GameClientFactory clients;
+    private final MeterRegistry meterRegistry;
+    private final TickEventLog eventLog;
+    private final ObjectMapper objectMapper;
+    private final Scheduler planningScheduler;
+
+    @Value("${game.base-url}")
+    private String baseUrl;
+
+    @Value("${game.auth-token:}")
+    private String authToken;
+
+    @Value("${game.max-path-length:30}")
+    private int maxPathLength;
+
+    @Value("${game.boosters.horizon-seconds:300}")
+    private double boosterHorizonSeconds;
+
+    @Value("${game.rounds.enabled:true}")
+    private boolean roundsEnabled;
+
+    @Value("${game.rounds.wake-lead:3s}")
+    private Duration roundsWakeLead;
+
+    @Value("${game.rounds.start-margin:50ms}")
+    private Duration roundsStartMargin;
+
+    @Value("${game.rounds.idle-poll:5s}")
+    private Duration roundsIdlePoll;
+
+    @Value("${game.logs.enabled:true}")
+    private boolean logsEnabled;
+
+    @Value("${game.logs.poll-every-ticks:10}")
+    private int logsPollEveryTicks;
+
+    @Value("${game.recording.enabled:false}")
+    private boolean recordingEnabled;
+
+    @Value("${game.recording.dir:recordings}")
+    private String recordingDir;
+
+    public GameSessionFactory(SessionProperties properties, GameClientFactory clients, MeterRegistry meterRegistry,
+                              TickEventLog eventLog, ObjectMapper objectMapper, Scheduler planningScheduler) {
+        this.properties = properties;
+        this.clients = clients;
+        this.meterRegistry = meterRegistry;
+        this.eventLog = eventLog;
+        this.objectMapper = objectMapper;
+        this.planningScheduler = planningScheduler;
+    }
+
+    public List<SessionProperties.Account> accounts() {
+        return properties.resolveAccounts(baseUrl, authToken);
+    }
+
+    // Клиент основной сессии вне самой сессии (HTTP-прогрев); соединения он греет в общем пуле
+    public GameApiClient primaryClient() {
+        SessionProperties.Account account = accounts().get(0);
+        return clients.create(account.getBaseUrl(), account.getAuthToken(), sessionRegistry(account.getName()));
+    }
+
+    public GameSession create(SessionProperties.Account account) {
+        String name = account.getName();
+        MeterRegistry registry = sessionRegistry(name);
+
+        GameApiClient api = clients.create(account.getBaseUrl(), account.getAuthToken(), registry);
+        StrategyService strategy = new StrategyService();
+        strategy.setEventLog(eventLog, name);
+        registerCacheMeters(strategy.getChainEvaluationCache(), registry);
+        BoosterPlanner boosterPlanner = new BoosterPlanner(boosterHorizonSeconds);
+        SessionRecorder recorder = new SessionRecorder(objectMapper, strategy, recordingEnabled, recordingDir, name);
+        TickTraceBuffer tickTrace = new TickTraceBuffer();
+        RoundScheduler roundScheduler = new RoundScheduler(name, api, registry,
+                roundsEnabled, roundsWakeLead, roundsStartMargin, roundsIdlePoll);
+        LogPoller logPoller = new LogPoller(name, api, strategy, recorder, registry, logsEnabled, logsPollEveryTicks);
+
+        GameLoopService loop = new GameLoopService(name, api, strategy, boosterPlanner, recorder, tickTrace, eventLog,
+                roundScheduler, logPoller, planningScheduler, registry, maxPathLength);
+        return new GameSession(name, api, strategy, loop, tickTrace, recorder);
+    }
+
+    // Счетчики читаются при сборе метрик, стратегия их только увеличивает;
+    // hit rate = hits / (hits + misses) считается на стороне мониторинга
+    private static void registerCacheMeters(EvaluationCache cache, MeterRegistry registry) {
+        FunctionCounter.builder("strategy.chain.cache.hits", cache, EvaluationCache::getHits)
+                .description("Bomb spot evaluations served from the chain evaluation cache")
+                .register(registry);
+        FunctionCounter.builder("strategy.chain.cache.misses", cache, EvaluationCache::getMisses)
+                .description("Bomb spot evaluations computed and stored in the cache")
+                .register(registry);
+        FunctionCounter.builder("strategy.chain.cache.evictions", cache, EvaluationCache::getEvictions)
+                .register(registry);
+    }
+
+    // Те же метры в общем реестре, но с тегом session
+    private MeterRegistry sessionRegistry(String session) {
+        CompositeMeterRegistry registry = new CompositeMeterRegistry();
+        registry.config().commonTags("session", session);
+        registry.add(meterRegistry);
+        return registry;
+    }
+}
@@ -0,0 +1,63 @@
+package backend.datsjinglebang.session;
+
+import backend.datsjinglebang.warmup.WarmupService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Игровые сессии процесса: создаются при старте, циклы запускаются после прогрева.
+// Первая сессия - основная (см. SessionProperties).
+@Component
+public class GameSessions {
+    private static final Logger log = LoggerFactory.getLogger(GameSessions.class);
+
+    private final List<GameSession> sessions;
+    private final WarmupService warmup;
+
+    public GameSessions(GameSessionFactory factory, WarmupService warmup) {
+        this.warmup = warmup;
+        List<GameSession> created = new ArrayList<>();
+        for (SessionProperties.Account account : factory.accounts()) {
+            created.add(factory.create(account));
+            log.info("Game session {} configured", account);
+        }
+        this.sessions = Collections.unmodifiableList(created);
+    }
+
+    @PostConstruct
+    public void start() {
+        // Циклы стартуют, когда прогрев JIT и HTTP-клиента закончится
+        if (!warmup.isReady()) {
+            log.info("Waiting for warm-up before the first tick of {} session(s)", sessions.size());
+        }
+        warmup.whenReady().thenRun(() -> sessions.forEach(GameSession::start));
+    }
+
+    @PreDestroy
+    public void close() {
+        sessions.forEach(GameSession::close);
+    }
+
+    public List<GameSession> getAll() {
+        return sessions;
+    }
+
+    public GameSession getPrimary() {
+        return sessions.get(0);
+    }
+
+    // null - основная сессия
+    public GameSession get(String name) {
+        if (name == null) return getPrimary();
+        for (GameSession session : sessions) {
+            if (session.getName().equals(name)) return session;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package backend.datsjinglebang.session;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties(SessionProperties.class)
+public class SessionConfig {
+
+    // Общий пул планирования всех сессий: фиксированные потоки с одной FIFO-очередью.
+    // Справедливость дает сам цикл: сессия ставит следующую задачу только после своей предыдущей.
+    @Bean(destroyMethod = "dispose")
+    public Scheduler planningScheduler(SessionProperties properties) {
+        int threads = properties.resolvePlanningThreads(Math.max(1, properties.getAccounts().size()));
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "planner-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        return Schedulers.fromExecutorService(executor, "planning");
+    }
+}
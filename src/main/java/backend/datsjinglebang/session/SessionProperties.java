@@ -0,0 +1,139 @@
+package backend.datsjinglebang.session;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Игровые сессии одного процесса (game.sessions.*): по сессии на аккаунт.
+// Без списка accounts - одна сессия "main" с game.base-url и game.auth-token, как раньше.
+@ConfigurationProperties(prefix = "game.sessions")
+public class SessionProperties {
+    public static final String DEFAULT_SESSION = "main";
+
+    private List<Account> accounts = new ArrayList<>();
+
+    // Потоки общего пула планирования; 0 - по числу сессий, но не больше числа ядер
+    private int planningThreads = 0;
+
+    // Общий пул соединений: всего и в очереди ожидания соединения
+    private int maxConnections = 64;
+    private int pendingAcquireMaxCount = 256;
+
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(List<Account> accounts) {
+        this.accounts = accounts;
+    }
+
+    public int getPlanningThreads() {
+        return planningThreads;
+    }
+
+    public void setPlanningThreads(int planningThreads) {
+        this.planningThreads = planningThreads;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getPendingAcquireMaxCount() {
+        return pendingAcquireMaxCount;
+    }
+
+    public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) {
+        this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+    }
+
+    // Аккаунты с подставленными значениями по умолчанию; первый - основной
+    // (через него идет HTTP-прогрев, его трасса отдается /actuator/ticktrace без параметра)
+    public List<Account> resolveAccounts(String defaultBaseUrl, String defaultToken) {
+        List<Account> resolved = new ArrayList<>();
+        if (accounts.isEmpty()) {
+            if (isBlank(defaultToken)) {
+                throw new IllegalStateException("game.auth-token is not set and no game.sessions.accounts configured");
+            }
+            resolved.add(new Account(DEFAULT_SESSION, defaultToken, defaultBaseUrl));
+            return resolved;
+        }
+
+        for (int i = 0; i < accounts.size(); i++) {
+            Account account = accounts.get(i);
+            if (isBlank(account.getAuthToken())) {
+                throw new IllegalStateException("game.sessions.accounts[" + i + "].auth-token is not set");
+            }
+            String name = isBlank(account.getName()) ? "session-" + (i + 1) : account.getName();
+            String baseUrl = isBlank(account.getBaseUrl()) ? defaultBaseUrl : account.getBaseUrl();
+            for (Account other : resolved) {
+                if (other.getName().equals(name)) {
+                    throw new IllegalStateException("Duplicate game session name: " + name);
+                }
+            }
+            resolved.add(new Account(name, account.getAuthToken(), baseUrl));
+        }
+        return resolved;
+    }
+
+    // Потоков планирования: стратегия однопоточна внутри сессии, больше сессий - бесполезно
+    public int resolvePlanningThreads(int sessions) {
+        if (planningThreads > 0) return planningThreads;
+        return Math.max(1, Math.min(sessions, Runtime.getRuntime().availableProcessors()));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public static class Account {
+        private String name;
+        private String authToken;
+        // Пусто - game.base-url
+        private String baseUrl;
+
+        public Account() {
+        }
+
+        public Account(String name, String authToken, String baseUrl) {
+            this.name = name;
+            this.authToken = authToken;
+            this.baseUrl = baseUrl;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getAuthToken() {
+            return authToken;
+        }
+
+        public void setAuthToken(String authToken) {
+            this.authToken = authToken;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        // Токен в логах не печатаем
+        @Override
+        public String toString() {
+            return name + "@" + baseUrl;
+        }
+    }
+}
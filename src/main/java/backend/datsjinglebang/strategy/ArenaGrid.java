@@ -0,0 +1,175 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomb;
+import backend.datsjinglebang.model.Bomber;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Сетка текущего тика: флаги содержимого каждой клетки в одном массиве.
+// Строится один раз за тик из списков арены, дальше все проверки - O(1) по индексу.
+// Для кэша оценок окрестностей держит ключи Зобриста по клеткам и таблицу префиксных XOR:
+// хэш любого прямоугольного окна - четыре чтения вместо обхода всех его клеток.
+public class ArenaGrid {
+    public static final byte WALL = 1;       // Неразрушаемая стена (arena.walls)
+    public static final byte OBSTACLE = 2;   // Разрушаемое препятствие (arena.obstacles)
+    public static final byte BOMB = 4;
+    public static final byte BOMBER = 8;     // Живой бомбер нашей команды
+    public static final byte REJECTED = 16;  // Сервер недавно обрезал путь на этой клетке (CommandFeedback)
+
+    public static final int FLAG_COUNT = 5;
+
+    private static final long ZOBRIST_SEED = 0x9E3779B97F4A7C15L;
+
+    private int width;
+    private int height;
+    private byte[] cells = new byte[0];
+
+    // windowXor[(y + 1) * (width + 1) + x + 1] - XOR ключей флагов всех клеток прямоугольника
+    // от (0, 0) до (x, y); пересчитывается лениво после изменения флагов
+    private long[] windowXor = new long[0];
+    private boolean windowXorStale = true;
+
+    // Флаги берутся из неизменяемого снимка тика; своя копия нужна, чтобы поверх
+    // отмечать отказы сервера (markRejected), не трогая общий снимок
+    public void build(ArenaSnapshot snapshot) {
+        resize(snapshot.getWidth(), snapshot.getHeight());
+        snapshot.copyCellsTo(cells);
+        windowXorStale = true;
+    }
+
+    public void build(ArenaResponse arena) {
+        if (arena == null || arena.map_size == null || arena.map_size.length < 2) return;
+
+        if (!resize(arena.map_size[0], arena.map_size[1])) {
+            Arrays.fill(cells, (byte) 0);
+        }
+        windowXorStale = true;
+
+        if (arena.arena != null) {
+            markCells(arena.arena.walls, WALL);
+            markCells(arena.arena.obstacles, OBSTACLE);
+            if (arena.arena.bombs != null) {
+                for (Bomb bomb : arena.arena.bombs) {
+                    if (bomb.pos == null || bomb.pos.length < 2) continue;
+                    mark(bomb.pos[0], bomb.pos[1], BOMB);
+                }
+            }
+        }
+
+        if (arena.bombers != null) {
+            for (Bomber bomber : arena.bombers) {
+                if (!bomber.alive || bomber.pos == null || bomber.pos.length < 2) continue;
+                mark(bomber.pos[0], bomber.pos[1], BOMBER);
+            }
+        }
+    }
+
+    // true, если буфер пересоздан (и уже обнулен)
+    private boolean resize(int w, int h) {
+        if (w == width && h == height) return false;
+        width = w;
+        height = h;
+        cells = new byte[w * h];
+        windowXor = new long[(w + 1) * (h + 1)];
+        return true;
+    }
+
+    private void markCells(List<List<Integer>> list, byte flag) {
+        if (list == null) return;
+        for (List<Integer> cell : list) {
+            if (cell.size() < 2) continue;
+            mark(cell.get(0), cell.get(1), flag);
+        }
+    }
+
+    public void markRejected(int x, int y) {
+        mark(x, y, REJECTED);
+    }
+
+    private void mark(int x, int y, byte flag) {
+        if (inBounds(x, y)) {
+            cells[y * width + x] |= flag;
+            windowXorStale = true;
+        }
+    }
+
+    // Хэш Зобриста окна radius вокруг (cx, cy): XOR ключей всех флагов его клеток внутри карты.
+    // Часть окна за краем карты не дает ничего - различать окна у края должен вызывающий (по позиции)
+    public long windowHash(int cx, int cy, int radius) {
+        int x1 = Math.max(0, cx - radius);
+        int y1 = Math.max(0, cy - radius);
+        int x2 = Math.min(width - 1, cx + radius);
+        int y2 = Math.min(height - 1, cy + radius);
+        if (x1 > x2 || y1 > y2) return 0L;
+        if (windowXorStale) rebuildWindowXor();
+
+        int stride = width + 1;
+        return windowXor[(y2 + 1) * stride + x2 + 1] ^ windowXor[y1 * stride + x2 + 1]
+                ^ windowXor[(y2 + 1) * stride + x1] ^ windowXor[y1 * stride + x1];
+    }
+
+    private void rebuildWindowXor() {
+        int stride = width + 1;
+        for (int y = 0; y < height; y++) {
+            long row = 0L;
+            for (int x = 0; x < width; x++) {
+                row ^= cellKey(y * width + x);
+                windowXor[(y + 1) * stride + x + 1] = windowXor[y * stride + x + 1] ^ row;
+            }
+        }
+        windowXorStale = false;
+    }
+
+    // XOR ключей Зобриста выставленных флагов клетки. Ключ (клетка, флаг) считается на лету:
+    // таблица на всю карту 500x500 заняла бы 10 МБ, а пустых клеток большинство
+    private long cellKey(int cell) {
+        int flags = cells[cell];
+        if (flags == 0) return 0L;
+        long key = 0L;
+        long base = (long) cell * FLAG_COUNT;
+        for (int bit = 0; bit < FLAG_COUNT; bit++) {
+            if ((flags & (1 << bit)) != 0) key ^= mix((base + bit) * ZOBRIST_SEED + ZOBRIST_SEED);
+        }
+        return key;
+    }
+
+    // splitmix64
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // Флаги клетки; за пределами карты - 0
+    public int flags(int x, int y) {
+        return inBounds(x, y) ? cells[y * width + x] : 0;
+    }
+
+    public boolean has(int x, int y, byte flag) {
+        return inBounds(x, y) && (cells[y * width + x] & flag) != 0;
+    }
+
+    // Непроходимая клетка в том же смысле, что и StrategyService.isObstacle
+    public boolean isBlocked(int x, int y) {
+        return isBlocked(x, y, WALL | OBSTACLE | BOMBER);
+    }
+
+    // Непроходимая клетка для бомбера с заданной маской (см. BomberCapabilities.getMovementMask)
+    public boolean isBlocked(int x, int y, int mask) {
+        return !inBounds(x, y) || (cells[y * width + x] & mask) != 0;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
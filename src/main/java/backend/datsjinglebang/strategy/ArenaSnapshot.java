@@ -0,0 +1,498 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomb;
+import backend.datsjinglebang.model.Bomber;
+import backend.datsjinglebang.model.Enemy;
+import backend.datsjinglebang.model.Mob;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Неизменяемый снимок арены одного тика: плоскость местности (стены и препятствия, флаги ArenaGrid),
+// сущности в параллельных массивах по слотам, индекс клетка -> сущность и карты id -> слот.
+// Строится один раз за тик из ответа /arena; все поля final и наружу не отдаются,
+// поэтому снимок можно без блокировок читать из любого числа потоков планировщиков.
+// Местность меняется редко (только когда взрыв разрушает препятствие), поэтому плоскость
+// местности переходит от предыдущего снимка, если списки стен и препятствий не изменились.
+// Бомбы и бомберы на плоскость не наносятся - их флаги берутся из индекса сущностей.
+// Производные представления (карта опасности, поля расстояний) считаются лениво при первом
+// обращении и запоминаются. Гонка двух потоков за одно представление безвредна: оба посчитают
+// одинаковый результат, сохранится один из них.
+public final class ArenaSnapshot {
+    public static final int NO_SLOT = -1;
+    public static final int UNREACHABLE = -1;
+
+    // Виды сущностей в индексе клеток
+    public static final int KIND_BOMBER = 0;
+    public static final int KIND_ENEMY = 1;
+    public static final int KIND_MOB = 2;
+    public static final int KIND_BOMB = 3;
+
+    // Взрыв останавливается на стене или препятствии (препятствие при этом разрушается)
+    private static final int BLAST_STOP = ArenaGrid.WALL | ArenaGrid.OBSTACLE;
+    private static final int[][] DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[] NO_INTS = new int[0];
+    private static final long[] NO_LONGS = new long[0];
+
+    private static final int ENTITY_FLAGS = ArenaGrid.BOMB | ArenaGrid.BOMBER;
+
+    public static final ArenaSnapshot EMPTY =
+            new ArenaSnapshot(new ArenaResponse(), BomberCapabilities.DEFAULT_BLAST_RADIUS, null);
+
+    private final int width;
+    private final int height;
+    private final String round;
+    private final Terrain terrain;
+    private final byte[] cells;
+
+    // Свои бомберы (в том числе мертвые - слот совпадает с индексом в arena.bombers)
+    private final String[] bomberIds;
+    private final int[] bomberCells;
+    private final boolean[] bomberAlive;
+    private final Map<String, Integer> bomberSlots;
+
+    private final String[] enemyIds;
+    private final int[] enemyCells;
+    private final int[] enemySafeTimes;   // Мс неуязвимости после возрождения
+    private final Map<String, Integer> enemySlots;
+
+    private final String[] mobIds;
+    private final int[] mobCells;
+    private final Map<String, Integer> mobSlots;
+
+    // У бомб нет id: слот - индекс в arena.bombs
+    private final int[] bombCells;
+    private final int[] bombRanges;
+    private final double[] bombTimers;
+
+    // Отсортированные ключи (клетка << 32 | вид << 24 | слот) - бинарный поиск по клетке
+    private final long[] entityIndex;
+
+    // Ленивые представления
+    private volatile long[] dangerBits;
+    private final ConcurrentHashMap<Long, DistanceField> distanceFields = new ConcurrentHashMap<>();
+
+    private ArenaSnapshot(ArenaResponse arena, int defaultBlastRadius, ArenaSnapshot previous) {
+        boolean sized = arena.map_size != null && arena.map_size.length >= 2
+                && arena.map_size[0] > 0 && arena.map_size[1] > 0;
+        width = sized ? arena.map_size[0] : 0;
+        height = sized ? arena.map_size[1] : 0;
+        round = arena.round;
+        List<List<Integer>> walls = arena.arena != null ? arena.arena.walls : null;
+        List<List<Integer>> obstacles = arena.arena != null ? arena.arena.obstacles : null;
+        terrain = previous != null && previous.terrain.matches(width, height, walls, obstacles)
+                ? previous.terrain
+                : new Terrain(width, height, walls, obstacles);
+        cells = terrain.cells;
+
+        List<Bomber> bombers = arena.bombers != null ? arena.bombers : List.of();
+        List<Enemy> enemies = arena.enemies != null ? arena.enemies : List.of();
+        List<Mob> mobs = arena.mobs != null ? arena.mobs : List.of();
+        List<Bomb> bombs = arena.arena != null && arena.arena.bombs != null ? arena.arena.bombs : List.of();
+
+        long[] index = new long[bombers.size() + enemies.size() + mobs.size() + bombs.size()];
+        int indexed = 0;
+
+        bomberIds = new String[bombers.size()];
+        bomberCells = new int[bombers.size()];
+        bomberAlive = new boolean[bombers.size()];
+        bomberSlots = new HashMap<>();
+        for (int i = 0; i < bombers.size(); i++) {
+            Bomber bomber = bombers.get(i);
+            bomberIds[i] = bomber.id;
+            bomberCells[i] = cellOf(bomber.pos);
+            bomberAlive[i] = bomber.alive;
+            if (bomber.id != null) bomberSlots.put(bomber.id, i);
+            if (bomber.alive && bomberCells[i] >= 0) {
+                index[indexed++] = key(bomberCells[i], KIND_BOMBER, i);
+            }
+        }
+
+        enemyIds = new String[enemies.size()];
+        enemyCells = new int[enemies.size()];
+        enemySafeTimes = new int[enemies.size()];
+        enemySlots = new HashMap<>();
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            enemyIds[i] = enemy.id;
+            enemyCells[i] = cellOf(enemy.pos);
+            enemySafeTimes[i] = enemy.safe_time;
+            if (enemy.id != null) enemySlots.put(enemy.id, i);
+            if (enemyCells[i] >= 0) index[indexed++] = key(enemyCells[i], KIND_ENEMY, i);
+        }
+
+        mobIds = new String[mobs.size()];
+        mobCells = new int[mobs.size()];
+        mobSlots = new HashMap<>();
+        for (int i = 0; i < mobs.size(); i++) {
+            Mob mob = mobs.get(i);
+            mobIds[i] = mob.id;
+            mobCells[i] = cellOf(mob.pos);
+            if (mob.id != null) mobSlots.put(mob.id, i);
+            if (mobCells[i] >= 0) index[indexed++] = key(mobCells[i], KIND_MOB, i);
+        }
+
+        bombCells = bombs.isEmpty() ? NO_INTS : new int[bombs.size()];
+        bombRanges = bombs.isEmpty() ? NO_INTS : new int[bombs.size()];
+        bombTimers = new double[bombs.size()];
+        for (int i = 0; i < bombs.size(); i++) {
+            Bomb bomb = bombs.get(i);
+            bombCells[i] = cellOf(bomb.pos);
+            // Радиус, если сервер его не прислал, - текущий радиус нашей команды
+            bombRanges[i] = bomb.range > 0 ? bomb.range : defaultBlastRadius;
+            bombTimers[i] = bomb.timer;
+            if (bombCells[i] >= 0) {
+                index[indexed++] = key(bombCells[i], KIND_BOMB, i);
+            }
+        }
+
+        entityIndex = indexed == 0 ? NO_LONGS : Arrays.copyOf(index, indexed);
+        Arrays.sort(entityIndex);
+        if (bombs.isEmpty()) {
+            dangerBits = NO_LONGS;
+        }
+    }
+
+    // defaultBlastRadius - радиус для бомб, у которых сервер не прислал range
+    public static ArenaSnapshot of(ArenaResponse arena, int defaultBlastRadius) {
+        return of(arena, defaultBlastRadius, null);
+    }
+
+    // previous - снимок прошлого тика: его плоскость местности берется, если местность та же
+    public static ArenaSnapshot of(ArenaResponse arena, int defaultBlastRadius, ArenaSnapshot previous) {
+        return arena == null ? EMPTY : new ArenaSnapshot(arena, defaultBlastRadius, previous);
+    }
+
+    // Индекс клетки или -1, если позиции нет или она за картой
+    private int cellOf(int[] pos) {
+        if (pos == null || pos.length < 2 || !inBounds(pos[0], pos[1])) return -1;
+        return pos[1] * width + pos[0];
+    }
+
+    private static long key(int cell, int kind, int slot) {
+        return ((long) cell << 32) | ((long) kind << 24) | slot;
+    }
+
+    // === Сетка ===
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public String getRound() {
+        return round;
+    }
+
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    // Флаги клетки; за пределами карты - 0
+    public int flags(int x, int y) {
+        if (!inBounds(x, y)) return 0;
+        int flags = cells[y * width + x];
+        if (hasEntity(x, y, KIND_BOMB)) flags |= ArenaGrid.BOMB;
+        if (hasEntity(x, y, KIND_BOMBER)) flags |= ArenaGrid.BOMBER;
+        return flags;
+    }
+
+    public boolean has(int x, int y, int mask) {
+        if (!inBounds(x, y)) return false;
+        if ((cells[y * width + x] & mask) != 0) return true;
+        // Флаги сущностей - бинарным поиском, только если о них спросили
+        return (mask & ENTITY_FLAGS) != 0 && (flags(x, y) & mask) != 0;
+    }
+
+    public boolean isBlocked(int x, int y, int mask) {
+        return !inBounds(x, y) || has(x, y, mask);
+    }
+
+    // Полная плоскость флагов в чужой буфер (ArenaGrid переиспользует свой между тиками)
+    void copyCellsTo(byte[] target) {
+        System.arraycopy(cells, 0, target, 0, cells.length);
+        for (int i = 0; i < bombCells.length; i++) {
+            if (bombCells[i] >= 0) target[bombCells[i]] |= ArenaGrid.BOMB;
+        }
+        for (int i = 0; i < bomberCells.length; i++) {
+            if (bomberAlive[i] && bomberCells[i] >= 0) target[bomberCells[i]] |= ArenaGrid.BOMBER;
+        }
+    }
+
+    // Та же плоскость местности, что у другого снимка (без копирования)
+    boolean sharesTerrainWith(ArenaSnapshot other) {
+        return terrain == other.terrain;
+    }
+
+    // === Сущности ===
+
+    // Слот сущности вида kind на клетке (если их несколько - любой) или NO_SLOT
+    public int slotAt(int x, int y, int kind) {
+        if (!inBounds(x, y)) return NO_SLOT;
+        long first = key(y * width + x, kind, 0);
+        int i = Arrays.binarySearch(entityIndex, first);
+        if (i < 0) i = -i - 1;
+        if (i < entityIndex.length && (entityIndex[i] >>> 24) == (first >>> 24)) {
+            return (int) (entityIndex[i] & 0xFFFFFF);
+        }
+        return NO_SLOT;
+    }
+
+    public boolean hasEntity(int x, int y, int kind) {
+        return slotAt(x, y, kind) != NO_SLOT;
+    }
+
+    public int getBomberCount() {
+        return bomberIds.length;
+    }
+
+    public int bomberSlot(String id) {
+        return bomberSlots.getOrDefault(id, NO_SLOT);
+    }
+
+    public String bomberId(int slot) {
+        return bomberIds[slot];
+    }
+
+    public boolean isBomberAlive(int slot) {
+        return bomberAlive[slot];
+    }
+
+    public int bomberX(int slot) {
+        return xOf(bomberCells[slot]);
+    }
+
+    public int bomberY(int slot) {
+        return yOf(bomberCells[slot]);
+    }
+
+    public int getEnemyCount() {
+        return enemyIds.length;
+    }
+
+    public int enemySlot(String id) {
+        return enemySlots.getOrDefault(id, NO_SLOT);
+    }
+
+    public String enemyId(int slot) {
+        return enemyIds[slot];
+    }
+
+    public int enemyX(int slot) {
+        return xOf(enemyCells[slot]);
+    }
+
+    public int enemyY(int slot) {
+        return yOf(enemyCells[slot]);
+    }
+
+    public int enemySafeTime(int slot) {
+        return enemySafeTimes[slot];
+    }
+
+    public int getMobCount() {
+        return mobIds.length;
+    }
+
+    public int mobSlot(String id) {
+        return mobSlots.getOrDefault(id, NO_SLOT);
+    }
+
+    public String mobId(int slot) {
+        return mobIds[slot];
+    }
+
+    public int mobX(int slot) {
+        return xOf(mobCells[slot]);
+    }
+
+    public int mobY(int slot) {
+        return yOf(mobCells[slot]);
+    }
+
+    public int getBombCount() {
+        return bombCells.length;
+    }
+
+    public int bombX(int slot) {
+        return xOf(bombCells[slot]);
+    }
+
+    public int bombY(int slot) {
+        return yOf(bombCells[slot]);
+    }
+
+    public int bombRange(int slot) {
+        return bombRanges[slot];
+    }
+
+    public double bombTimer(int slot) {
+        return bombTimers[slot];
+    }
+
+    // Координаты сущности без позиции (или за картой) - -1
+    private int xOf(int cell) {
+        return cell < 0 ? -1 : cell % width;
+    }
+
+    private int yOf(int cell) {
+        return cell < 0 ? -1 : cell / width;
+    }
+
+    // === Производные представления ===
+
+    // Клетка в кресте взрыва хотя бы одной бомбы (стены и препятствия гасят взрыв дальше себя)
+    public boolean inDanger(int x, int y) {
+        if (!inBounds(x, y)) return false;
+        long[] bits = dangerBits;
+        if (bits == null) {
+            bits = buildDangerBits();
+            dangerBits = bits;
+        }
+        int cell = y * width + x;
+        return bits.length > 0 && (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private long[] buildDangerBits() {
+        long[] bits = new long[(cells.length + 63) >>> 6];
+        for (int i = 0; i < bombCells.length; i++) {
+            int cell = bombCells[i];
+            if (cell < 0) continue;
+            int bx = cell % width;
+            int by = cell / width;
+            bits[cell >>> 6] |= 1L << cell;
+            for (int[] dir : DIRECTIONS) {
+                for (int r = 1; r <= bombRanges[i]; r++) {
+                    int x = bx + dir[0] * r;
+                    int y = by + dir[1] * r;
+                    if (!inBounds(x, y)) break;
+                    int target = y * width + x;
+                    bits[target >>> 6] |= 1L << target;
+                    if ((cells[target] & BLAST_STOP) != 0) break;
+                }
+            }
+        }
+        return bits;
+    }
+
+    // Расстояния в шагах от клетки (x, y) до всех клеток, обход по клеткам без флагов mask.
+    // Поле запоминается по паре (клетка, маска): повторный запрос из любого потока - без BFS.
+    public DistanceField distancesFrom(int x, int y, int mask) {
+        if (!inBounds(x, y)) return DistanceField.NONE;
+        long fieldKey = ((long) (y * width + x) << 32) | (mask & 0xFFFFFFFFL);
+        DistanceField field = distanceFields.get(fieldKey);
+        if (field == null) {
+            field = new DistanceField(width, bfs(y * width + x, mask));
+            DistanceField raced = distanceFields.putIfAbsent(fieldKey, field);
+            if (raced != null) field = raced;
+        }
+        return field;
+    }
+
+    private int[] bfs(int source, int mask) {
+        int[] dist = new int[cells.length];
+        Arrays.fill(dist, UNREACHABLE);
+        int[] queue = new int[cells.length];
+        int head = 0;
+        int tail = 0;
+        dist[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int cell = queue[head++];
+            int cx = cell % width;
+            int cy = cell / width;
+            for (int[] dir : DIRECTIONS) {
+                int nx = cx + dir[0];
+                int ny = cy + dir[1];
+                if (!inBounds(nx, ny)) continue;
+                int next = ny * width + nx;
+                if (dist[next] != UNREACHABLE || has(nx, ny, mask)) continue;
+                dist[next] = dist[cell] + 1;
+                queue[tail++] = next;
+            }
+        }
+        return dist;
+    }
+
+    // Плоскость стен и препятствий; после построения не меняется и делится между снимками
+    private static final class Terrain {
+        private final int width;
+        private final int height;
+        private final byte[] cells;
+        private final int wallCount;
+        private final int obstacleCount;
+
+        Terrain(int width, int height, List<List<Integer>> walls, List<List<Integer>> obstacles) {
+            this.width = width;
+            this.height = height;
+            this.cells = new byte[width * height];
+            this.wallCount = mark(walls, ArenaGrid.WALL);
+            this.obstacleCount = mark(obstacles, ArenaGrid.OBSTACLE);
+        }
+
+        private int mark(List<List<Integer>> list, byte flag) {
+            if (list == null) return 0;
+            for (List<Integer> cell : list) {
+                if (cell.size() < 2) continue;
+                int x = cell.get(0);
+                int y = cell.get(1);
+                if (x >= 0 && x < width && y >= 0 && y < height) {
+                    cells[y * width + x] |= flag;
+                }
+            }
+            return list.size();
+        }
+
+        // Те же размеры и списки той же длины, и каждая клетка списков уже отмечена тем же флагом.
+        // Клетки в списках сервера не повторяются, так что это значит - местность не изменилась.
+        boolean matches(int width, int height, List<List<Integer>> walls, List<List<Integer>> obstacles) {
+            return width == this.width && height == this.height
+                    && size(walls) == wallCount && size(obstacles) == obstacleCount
+                    && allMarked(walls, ArenaGrid.WALL) && allMarked(obstacles, ArenaGrid.OBSTACLE);
+        }
+
+        private static int size(List<List<Integer>> list) {
+            return list == null ? 0 : list.size();
+        }
+
+        private boolean allMarked(List<List<Integer>> list, byte flag) {
+            if (list == null) return true;
+            for (List<Integer> cell : list) {
+                if (cell.size() < 2) continue;
+                int x = cell.get(0);
+                int y = cell.get(1);
+                if (x >= 0 && x < width && y >= 0 && y < height && (cells[y * width + x] & flag) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Поле расстояний от одной клетки; неизменяемо, как и снимок
+    public static final class DistanceField {
+        static final DistanceField NONE = new DistanceField(0, NO_INTS);
+
+        private final int width;
+        private final int[] dist;
+
+        private DistanceField(int width, int[] dist) {
+            this.width = width;
+            this.dist = dist;
+        }
+
+        // Число шагов до (x, y) или UNREACHABLE
+        public int get(int x, int y) {
+            if (x < 0 || y < 0 || x >= width) return UNREACHABLE;
+            int cell = y * width + x;
+            return cell < dist.length ? dist[cell] : UNREACHABLE;
+        }
+    }
+}
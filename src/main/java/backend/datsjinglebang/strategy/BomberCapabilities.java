@@ -0,0 +1,198 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.BoosterResponse;
+import backend.datsjinglebang.model.BoosterState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Возможности бомберов команды по текущему состоянию бустеров: радиус взрыва, обзор,
+// сколько клеток маршрута отправлять за тик, за сколько шагов надо уйти от своей бомбы
+// и какие клетки проходимы. Неизменяемый снимок; стратегия берет его в начале тика,
+// поэтому покупка бустера сразу меняет планирование.
+public final class BomberCapabilities {
+    // Значения по умолчанию - как у команды без бустеров
+    public static final int DEFAULT_BLAST_RADIUS = 1;
+    public static final int DEFAULT_VIEW_RADIUS = 5;
+    public static final int DEFAULT_SPEED = 2;
+    public static final int DEFAULT_BOMB_DELAY_MS = 3000;
+    public static final int DEFAULT_BOMBS = 1;
+
+    public static final int MAX_ROUTE_STEPS = 12;
+    private static final int MAX_SEARCH_RADIUS = 32;
+
+    public static final BomberCapabilities DEFAULTS = new BomberCapabilities(
+            DEFAULT_BLAST_RADIUS, DEFAULT_VIEW_RADIUS, DEFAULT_SPEED, DEFAULT_BOMB_DELAY_MS, DEFAULT_BOMBS,
+            false, false, false);
+
+    // Смещения ромба обзора по радиусу: кольца от ближнего к дальнему
+    private static final ConcurrentHashMap<Integer, int[]> SEARCH_OFFSETS = new ConcurrentHashMap<>();
+
+    private final int blastRadius;
+    private final int viewRadius;
+    private final int speed;
+    private final int bombDelayMillis;
+    private final int bombs;
+    private final boolean canPassBombs;
+    private final boolean canPassObstacles;
+    private final boolean canPassWalls;
+
+    public BomberCapabilities(int blastRadius, int viewRadius, int speed, int bombDelayMillis, int bombs,
+                              boolean canPassBombs, boolean canPassObstacles, boolean canPassWalls) {
+        this.blastRadius = blastRadius;
+        this.viewRadius = viewRadius;
+        this.speed = speed;
+        this.bombDelayMillis = bombDelayMillis;
+        this.bombs = bombs;
+        this.canPassBombs = canPassBombs;
+        this.canPassObstacles = canPassObstacles;
+        this.canPassWalls = canPassWalls;
+    }
+
+    // Поля без значения (0 - сервер их не прислал) берутся по умолчанию
+    public static BomberCapabilities from(BoosterResponse boosters) {
+        if (boosters == null || boosters.getState() == null) return DEFAULTS;
+        BoosterState state = boosters.getState();
+        BomberCapabilities capabilities = new BomberCapabilities(
+                orDefault(state.getBombRange(), DEFAULT_BLAST_RADIUS),
+                orDefault(state.getView(), DEFAULT_VIEW_RADIUS),
+                orDefault(state.getSpeed(), DEFAULT_SPEED),
+                orDefault(state.getBombDelay(), DEFAULT_BOMB_DELAY_MS),
+                orDefault(state.getBombs(), DEFAULT_BOMBS),
+                state.isCanPassBombs(),
+                state.isCanPassObstacles(),
+                state.isCanPassWalls());
+        return capabilities.equals(DEFAULTS) ? DEFAULTS : capabilities;
+    }
+
+    private static int orDefault(int value, int fallback) {
+        return value > 0 ? value : fallback;
+    }
+
+    public int getBlastRadius() {
+        return blastRadius;
+    }
+
+    public int getViewRadius() {
+        return viewRadius;
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
+
+    public int getBombDelayMillis() {
+        return bombDelayMillis;
+    }
+
+    public int getBombs() {
+        return bombs;
+    }
+
+    public boolean isCanPassBombs() {
+        return canPassBombs;
+    }
+
+    public boolean isCanPassObstacles() {
+        return canPassObstacles;
+    }
+
+    public boolean isCanPassWalls() {
+        return canPassWalls;
+    }
+
+    // Клеток маршрута за одну команду: со скоростью 2 - три клетки, как раньше
+    public int getRouteSteps() {
+        return Math.min(MAX_ROUTE_STEPS, speed + 1);
+    }
+
+    // За сколько шагов надо уйти из креста бомбы, которая взорвется через fuseMillis: половина пути,
+    // который бомбер успевает пройти до взрыва (запас на задержку команд)
+    public int getEscapeSteps(int fuseMillis) {
+        return (int) ((long) speed * fuseMillis / 2000);
+    }
+
+    // Флаги ArenaGrid, через которые бомбер не может пройти (без учета своих бомберов);
+    // клетки, на которых сервер отклонил путь, непроходимы при любых бустерах
+    public int getTerrainMask() {
+        int mask = ArenaGrid.REJECTED;
+        if (!canPassWalls) mask |= ArenaGrid.WALL;
+        if (!canPassObstacles) mask |= ArenaGrid.OBSTACLE;
+        if (!canPassBombs) mask |= ArenaGrid.BOMB;
+        return mask;
+    }
+
+    // Клетка занята для шага: местность плюс свои бомберы
+    public int getMovementMask() {
+        return getTerrainMask() | ArenaGrid.BOMBER;
+    }
+
+    // Ключ всего, от чего зависит оценка места для бомбы без чужих бомб рядом (см. ChainReactionEvaluator)
+    public int getEvaluationKey() {
+        int escapeSteps = Math.min(MAX_ROUTE_STEPS, getEscapeSteps(bombDelayMillis));
+        return (blastRadius << 16) | (escapeSteps << 8) | getMovementMask();
+    }
+
+    // Смещения (dx, dy) парами в пределах обзора, по кольцам от 1 до viewRadius;
+    // внутри кольца - в порядке dx, затем dy. Общие для всех с тем же обзором.
+    public int[] getSearchOffsets() {
+        return SEARCH_OFFSETS.computeIfAbsent(Math.min(viewRadius, MAX_SEARCH_RADIUS),
+                BomberCapabilities::buildSearchOffsets);
+    }
+
+    private static int[] buildSearchOffsets(int radius) {
+        List<int[]> offsets = new ArrayList<>();
+        for (int r = 1; r <= radius; r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                for (int dy = -r; dy <= r; dy++) {
+                    if (Math.abs(dx) + Math.abs(dy) == r) {
+                        offsets.add(new int[]{dx, dy});
+                    }
+                }
+            }
+        }
+
+        int[] packed = new int[offsets.size() * 2];
+        for (int i = 0; i < offsets.size(); i++) {
+            packed[i * 2] = offsets.get(i)[0];
+            packed[i * 2 + 1] = offsets.get(i)[1];
+        }
+        return packed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BomberCapabilities other)) return false;
+        return blastRadius == other.blastRadius
+                && viewRadius == other.viewRadius
+                && speed == other.speed
+                && bombDelayMillis == other.bombDelayMillis
+                && bombs == other.bombs
+                && canPassBombs == other.canPassBombs
+                && canPassObstacles == other.canPassObstacles
+                && canPassWalls == other.canPassWalls;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = blastRadius;
+        result = 31 * result + viewRadius;
+        result = 31 * result + speed;
+        result = 31 * result + bombDelayMillis;
+        result = 31 * result + bombs;
+        result = 31 * result + (canPassBombs ? 1 : 0);
+        result = 31 * result + (canPassObstacles ? 1 : 0);
+        result = 31 * result + (canPassWalls ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BomberCapabilities{blast=" + blastRadius + ", view=" + viewRadius + ", speed=" + speed
+                + ", bombDelay=" + bombDelayMillis + ", bombs=" + bombs
+                + ", passBombs=" + canPassBombs + ", passObstacles=" + canPassObstacles
+                + ", passWalls=" + canPassWalls + "}";
+    }
+}
@@ -0,0 +1,58 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Booster;
+
+import java.util.Map;
+
+// Решение BoosterPlanner: что покупать сейчас или на что копить
+public class BoosterPlan {
+    private final Booster target;
+    private final double etaSeconds;
+    private final double expectedGain;
+    private final double scoreRate;
+    private final double remainingSeconds;
+    private final Map<String, Double> gains;
+
+    public BoosterPlan(Booster target, double etaSeconds, double expectedGain, double scoreRate,
+                       double remainingSeconds, Map<String, Double> gains) {
+        this.target = target;
+        this.etaSeconds = etaSeconds;
+        this.expectedGain = expectedGain;
+        this.scoreRate = scoreRate;
+        this.remainingSeconds = remainingSeconds;
+        this.gains = gains;
+    }
+
+    // Бустер, который выгодно купить прямо сейчас, или null
+    public Booster getBuyNow() {
+        return target != null && etaSeconds == 0 ? target : null;
+    }
+
+    // Первая покупка лучшего плана (может быть еще недоступна)
+    public Booster getTarget() {
+        return target;
+    }
+
+    // Через сколько секунд хватит очков на target при текущем темпе
+    public double getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    // Ожидаемые дополнительные очки до конца раунда от лучшего плана
+    public double getExpectedGain() {
+        return expectedGain;
+    }
+
+    public double getScoreRate() {
+        return scoreRate;
+    }
+
+    public double getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    // Дополнительные очки до конца раунда от одной покупки каждого бустера
+    public double getGain(String type) {
+        return gains.getOrDefault(type, 0.0);
+    }
+}
@@ -0,0 +1,261 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Планировщик покупки бустеров вместо фиксированных приоритетов.
+// Каждый тик observe() копит статистику текущего раунда: темп набора очков (EWMA по raw_score)
+// и риск гибели бомбера в секунду - только счетчики, без обхода списков карты.
+// Плотность препятствий вокруг своих бомберов считает plan() по окнам снимка арены
+// (чтение флагов клеток, O(бомберы * окно)), один раз на снимок.
+// plan() оценивает, во сколько раз бустер ускорит набор очков (простая модель цикла
+// "дойти - поставить бомбу - дождаться взрыва"), и перебирает планы из двух покупок:
+// купить X сейчас или копить на X, затем Y. Если лучший план начинается с недоступного
+// бустера - копим. Перебор 9x9 пар, дешевле одного тика стратегии.
+public class BoosterPlanner {
+    // Темп очков до первых наблюдений (очков в секунду)
+    private static final double PRIOR_SCORE_RATE = 0.5;
+    private static final double RATE_SMOOTHING = 0.2;
+    private static final double PRIOR_OBSTACLE_DENSITY = 0.3;
+    private static final double MIN_REMAINING_SECONDS = 30;
+
+    // Модель цикла бомбера
+    private static final double TRAVEL_SHARE = 0.5;     // доля времени на ходьбу
+    private static final double TRAVEL_MILLIS = 2000;   // ходьба до следующей цели
+    private static final int BOMBS_SATURATION = 4;      // больше бомб одновременно не успеваем ставить
+    private static final double VIEW_GAIN = 0.15;
+    private static final double PASS_BOMBS_GAIN = 0.05;
+    private static final double PASS_WALLS_GAIN = 0.15;
+    private static final int DENSITY_RADIUS = 5;
+
+    private final double horizonSeconds;
+
+    // Статистика текущего раунда
+    private String round;
+    private long roundStartMillis;
+    private long lastMillis;
+    private int lastScore;
+    private double scoreRate = PRIOR_SCORE_RATE;
+    private int aliveBombers;
+    private int deaths;
+    private double bomberSeconds;
+    private double obstacleDensity = PRIOR_OBSTACLE_DENSITY;
+    private ArenaSnapshot densitySnapshot;
+
+    public BoosterPlanner(double horizonSeconds) {
+        this.horizonSeconds = horizonSeconds;
+    }
+
+    public synchronized void observe(ArenaResponse arena, long nowMillis) {
+        if (arena == null || arena.code != 0) return;
+
+        int alive = 0;
+        if (arena.bombers != null) {
+            for (Bomber bomber : arena.bombers) {
+                if (bomber.alive) alive++;
+            }
+        }
+
+        if (!Objects.equals(round, arena.round)) {
+            round = arena.round;
+            roundStartMillis = nowMillis;
+            scoreRate = PRIOR_SCORE_RATE;
+            deaths = 0;
+            bomberSeconds = 0;
+        } else if (nowMillis > lastMillis) {
+            double seconds = (nowMillis - lastMillis) / 1000.0;
+            double observedRate = Math.max(0, arena.raw_score - lastScore) / seconds;
+            scoreRate += RATE_SMOOTHING * (observedRate - scoreRate);
+            bomberSeconds += aliveBombers * seconds;
+            deaths += Math.max(0, aliveBombers - alive);
+        }
+
+        lastMillis = nowMillis;
+        lastScore = arena.raw_score;
+        aliveBombers = alive;
+    }
+
+    public BoosterPlan plan(BoosterResponse boosters, long nowMillis) {
+        return plan(boosters, null, nowMillis);
+    }
+
+    // snapshot - последний снимок стратегии (может отставать на тик, для плотности это неважно);
+    // null - оставить прежнюю оценку плотности
+    public synchronized BoosterPlan plan(BoosterResponse boosters, ArenaSnapshot snapshot, long nowMillis) {
+        if (snapshot != null && snapshot != densitySnapshot) {
+            densitySnapshot = snapshot;
+            obstacleDensity = estimateDensity(snapshot);
+        }
+        BoosterState state = boosters.getState();
+        List<Booster> available = boosters.getAvailable();
+        int points = state.getPoints();
+        double remaining = Math.max(MIN_REMAINING_SECONDS, horizonSeconds - (nowMillis - roundStartMillis) / 1000.0);
+        double rate = Math.max(scoreRate, 0.01);
+        Levels base = new Levels(state);
+
+        Map<String, Double> gains = new LinkedHashMap<>();
+        Booster bestFirst = null;
+        double bestGain = 0;
+        double bestEta = 0;
+
+        for (Booster first : available) {
+            double firstRatio = ratio(first.getType(), base, remaining);
+            double firstDelta = rate * (firstRatio - 1);
+            double firstEta = Math.max(0, first.getCost() - points) / rate;
+            double firstGain = firstDelta * Math.max(0, remaining - firstEta);
+            gains.put(first.getType(), firstGain);
+            if (firstDelta <= 0) continue;
+
+            // Лучшая вторая покупка после first (в том числе тот же бустер еще раз)
+            Levels after = base.with(first.getType());
+            double rateAfter = rate + firstDelta;
+            double pointsAfter = points + rate * firstEta - first.getCost();
+            double followUp = 0;
+            for (Booster second : available) {
+                double secondDelta = rateAfter * (ratio(second.getType(), after, remaining) - 1);
+                if (secondDelta <= 0) continue;
+                double secondEta = firstEta + Math.max(0, second.getCost() - pointsAfter) / rateAfter;
+                followUp = Math.max(followUp, secondDelta * Math.max(0, remaining - secondEta));
+            }
+
+            double planGain = firstGain + followUp;
+            if (planGain > bestGain) {
+                bestGain = planGain;
+                bestFirst = first;
+                bestEta = firstEta;
+            }
+        }
+
+        return new BoosterPlan(bestFirst, bestEta, bestGain, scoreRate, remaining, gains);
+    }
+
+    // Во сколько раз бустер ускорит набор очков при текущих уровнях
+    private double ratio(String type, Levels levels, double remaining) {
+        if (type == null) return 1;
+        double d = obstacleDensity;
+        switch (type) {
+            case "bomb_range": {
+                double now = 1 - Math.pow(1 - d, Math.max(1, levels.bombRange));
+                double next = 1 - Math.pow(1 - d, Math.max(1, levels.bombRange) + 1);
+                return now > 0 ? next / now : 1;
+            }
+            case "bombs": {
+                int now = Math.min(Math.max(1, levels.bombs), BOMBS_SATURATION);
+                int next = Math.min(Math.max(1, levels.bombs) + 1, BOMBS_SATURATION);
+                return (double) next / now;
+            }
+            case "speed": {
+                int speed = Math.max(1, levels.speed);
+                return cycle(speed) / cycle(speed + 1);
+            }
+            case "bomb_delay": {
+                double delay = Math.max(500, levels.bombDelay);
+                double next = Math.max(500, delay - 500);
+                return (TRAVEL_MILLIS + delay) / (TRAVEL_MILLIS + next);
+            }
+            case "view":
+                return 1 + VIEW_GAIN / (Math.max(1, levels.view) + 1);
+            case "armor": {
+                // Ожидаемые гибели до конца раунда; одна броня спасает одну жизнь
+                if (aliveBombers == 0) return 1;
+                double hazard = bomberSeconds > 0 ? deaths / bomberSeconds : 0;
+                double expectedDeaths = aliveBombers * hazard * remaining;
+                double saved = Math.min(1, expectedDeaths) / (levels.armor + 1);
+                // Спасенный бомбер в среднем играет половину оставшегося времени
+                return 1 + saved / aliveBombers / 2;
+            }
+            case "can_pass_bombs":
+                return levels.passBombs ? 1 : 1 + PASS_BOMBS_GAIN;
+            case "can_pass_obstacles":
+                return levels.passObstacles ? 1 : 1 + d / 2;
+            case "can_pass_walls":
+                return levels.passWalls ? 1 : 1 + PASS_WALLS_GAIN;
+            default:
+                return 1;
+        }
+    }
+
+    private static double cycle(int speed) {
+        return TRAVEL_SHARE / speed + (1 - TRAVEL_SHARE);
+    }
+
+    // Доля препятствий в квадратах вокруг своих бомберов (то, что они скоро будут взрывать)
+    private static double estimateDensity(ArenaSnapshot snapshot) {
+        int cells = 0;
+        int obstacles = 0;
+        for (int slot = 0; slot < snapshot.getBomberCount(); slot++) {
+            int bx = snapshot.bomberX(slot);
+            int by = snapshot.bomberY(slot);
+            if (!snapshot.isBomberAlive(slot) || bx < 0) continue;
+            int x2 = Math.min(snapshot.getWidth() - 1, bx + DENSITY_RADIUS);
+            int y2 = Math.min(snapshot.getHeight() - 1, by + DENSITY_RADIUS);
+            for (int y = Math.max(0, by - DENSITY_RADIUS); y <= y2; y++) {
+                for (int x = Math.max(0, bx - DENSITY_RADIUS); x <= x2; x++) {
+                    cells++;
+                    if (snapshot.has(x, y, ArenaGrid.OBSTACLE)) obstacles++;
+                }
+            }
+        }
+        return cells > 0 ? (double) obstacles / cells : PRIOR_OBSTACLE_DENSITY;
+    }
+
+    // Уровни бустеров, достаточные для модели; with() - после еще одной покупки
+    private static final class Levels {
+        int speed;
+        int bombs;
+        int bombRange;
+        int view;
+        int armor;
+        int bombDelay;
+        boolean passBombs;
+        boolean passObstacles;
+        boolean passWalls;
+
+        Levels(BoosterState state) {
+            speed = state.getSpeed();
+            bombs = state.getBombs();
+            bombRange = state.getBombRange();
+            view = state.getView();
+            armor = state.getArmor();
+            bombDelay = state.getBombDelay();
+            passBombs = state.isCanPassBombs();
+            passObstacles = state.isCanPassObstacles();
+            passWalls = state.isCanPassWalls();
+        }
+
+        private Levels(Levels other) {
+            speed = other.speed;
+            bombs = other.bombs;
+            bombRange = other.bombRange;
+            view = other.view;
+            armor = other.armor;
+            bombDelay = other.bombDelay;
+            passBombs = other.passBombs;
+            passObstacles = other.passObstacles;
+            passWalls = other.passWalls;
+        }
+
+        Levels with(String type) {
+            Levels next = new Levels(this);
+            if (type == null) return next;
+            switch (type) {
+                case "speed" -> next.speed++;
+                case "bombs" -> next.bombs++;
+                case "bomb_range" -> next.bombRange++;
+                case "view" -> next.view++;
+                case "armor" -> next.armor++;
+                case "bomb_delay" -> next.bombDelay = Math.max(500, bombDelay - 500);
+                case "can_pass_bombs" -> next.passBombs = true;
+                case "can_pass_obstacles" -> next.passObstacles = true;
+                case "can_pass_walls" -> next.passWalls = true;
+                default -> {
+                }
+            }
+            return next;
+        }
+    }
+}
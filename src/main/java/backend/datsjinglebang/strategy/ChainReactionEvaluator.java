@@ -0,0 +1,440 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.PackedPath;
+
+import java.util.Arrays;
+
+// Оценка места для бомбы с учетом цепной реакции: взрыв кандидата поджигает бомбы в своем
+// кресте, те - следующие и т.д. Считает все разрушенные препятствия, задетых врагов, мобов
+// и своих бомберов, укорачивает фитиль, если раньше взорвется чужая бомба, чей крест накрывает
+// место, и проверяет, успеет ли бомбер уйти. Правила взрыва - как на сервере (и в MockGameEngine): стена гасит
+// взрыв, препятствие разрушается и гасит его, бомба взрыв пропускает и взрывается сама.
+// Буферы переиспользуются между вызовами (метки эпохи вместо очистки), поэтому сотни
+// кандидатов за тик не выделяют памяти. Места без чужих бомб, врагов и мобов рядом
+// кэшируются между тиками по хэшу Зобриста окна вокруг места (см. evaluateCached).
+// Не потокобезопасен - по экземпляру на стратегию.
+public class ChainReactionEvaluator {
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+    private static final int[] NO_COMPANIONS = new int[0];
+
+    private static final int CACHE_CAPACITY = 16384;
+    private static final long KEY_SEED = 0x9E3779B97F4A7C15L;
+    // Ставящий не в кресте своей бомбы - его клетка на итог не влияет
+    private static final int PLANTER_OUTSIDE = 0xFFFF;
+
+    // Упаковка закэшированного итога; остальное выводится из возможностей
+    private static final int OBSTACLES_MASK = 0xFF;
+    private static final int OWN_BOMBERS_SHIFT = 8;
+    private static final int OWN_BOMBERS_MASK = 0xFF;
+    private static final int ESCAPE_BIT = 1 << 16;
+
+    private final StrategyTuning tuning;
+    private final Result result = new Result();
+    private final EvaluationCache cache = new EvaluationCache(CACHE_CAPACITY);
+
+    private int width;
+    private int height;
+    private int epoch;
+    // Метки эпохи по клеткам: в кресте цепочки, препятствие уже разрушено, посещена BFS отхода
+    private int[] hitStamp = new int[0];
+    private int[] clearedStamp = new int[0];
+    private int[] visitStamp = new int[0];
+    private int[] bfsQueue = new int[0];
+    private int[] bfsDepth = new int[0];
+    private int[] bfsParent = new int[0];
+    // Клетка, до которой нашелся отход, и буфер для разворота пути к ней
+    private int escapeCell = -1;
+    private int[] pathScratch = new int[BomberCapabilities.MAX_ROUTE_STEPS + 1];
+    // Бомбы снимка в цепочке: метка эпохи по слоту и очередь слотов
+    private int[] bombStamp = new int[0];
+    private int[] bombQueue = new int[0];
+
+    // Клетки, чьих своих бомберов взрыв не задевает: место бомбы и текущая клетка ставящего
+    private int ownCell;
+    private int planterCell;
+    // Наши бомбы, которые ставятся в том же тике (клетки y * width + x): их кресты опасны,
+    // клетки непроходимы, а их бомберы уходят сами
+    private int[] companions = NO_COMPANIONS;
+    private int companionCount;
+
+    public ChainReactionEvaluator(StrategyTuning tuning) {
+        this.tuning = tuning;
+    }
+
+    // Бомба в (x, y), бомбер сейчас в (planterX, planterY) и уходит от нее после установки.
+    // Результат - общий объект, перезаписывается следующим вызовом.
+    public Result evaluate(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                           int x, int y, int planterX, int planterY) {
+        return evaluate(snapshot, grid, capabilities, x, y, planterX, planterY, NO_COMPANIONS, 0);
+    }
+
+    // То же вместе с первыми companionCount нашими бомбами companionCells, которые другие бомберы
+    // ставят в этом же тике (согласованная ловушка): отход ищется при всех бомбах сразу
+    public Result evaluate(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                           int x, int y, int planterX, int planterY, int[] companionCells, int companionCount) {
+        result.reset();
+        escapeCell = -1;
+        if (!snapshot.inBounds(x, y)) return result;
+        prepare(snapshot);
+        this.companions = companionCells;
+        this.companionCount = companionCount;
+
+        ownCell = y * width + x;
+        planterCell = snapshot.inBounds(planterX, planterY) ? planterY * width + planterX : ownCell;
+        result.fuseMillis = capabilities.getBombDelayMillis();
+
+        // Сначала своя бомба и парные ей, потом подожженные ими по очереди
+        int radius = capabilities.getBlastRadius();
+        explode(snapshot, grid, x, y, radius);
+        for (int i = 0; i < companionCount; i++) {
+            explode(snapshot, grid, companions[i] % width, companions[i] / width, radius);
+        }
+        for (int head = 0; head < result.chainBombs; head++) {
+            int slot = bombQueue[head];
+            explode(snapshot, grid, snapshot.bombX(slot), snapshot.bombY(slot), snapshot.bombRange(slot));
+        }
+
+        // Клетку уже накрывает чужая бомба - она подожжет и нашу, если взорвется раньше
+        if (snapshot.inDanger(x, y)) {
+            result.fuseMillis = Math.min(result.fuseMillis, earliestBombReaching(snapshot, grid, x, y));
+        }
+        // Так же раньше взорвется парная бомба, если ее подожгут, а ее крест накрывает нас
+        for (int i = 0; i < companionCount; i++) {
+            int cx = companions[i] % width;
+            int cy = companions[i] / width;
+            if (snapshot.inDanger(cx, cy) && reaches(grid, cx, cy, x, y, radius)) {
+                result.fuseMillis = Math.min(result.fuseMillis, earliestBombReaching(snapshot, grid, cx, cy));
+            }
+        }
+
+        result.escapeSteps = Math.min(BomberCapabilities.MAX_ROUTE_STEPS,
+                capabilities.getEscapeSteps(result.fuseMillis));
+        result.canEscape = result.escapeSteps > 0
+                && hasEscape(snapshot, grid, x, y, result.escapeSteps, capabilities.getMovementMask());
+        result.score = score();
+        return result;
+    }
+
+    // То же, что evaluate без напарников, но с кэшем. Если рядом нет чужих бомб, врагов и мобов,
+    // итог зависит только от флагов сетки в окне max(радиус взрыва, шаги отхода) вокруг места,
+    // клетки ставящего в кресте и возможностей - это и есть ключ. Окно хэшируется по Зобристу
+    // за O(1) (ArenaGrid.windowHash), поэтому между тиками пересчитываются только места,
+    // у которых в окне что-то поменялось. Путь отхода (copyEscapePath) после попадания в кэш пуст.
+    public Result evaluateCached(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                                 int x, int y, int planterX, int planterY) {
+        int fuseMillis = capabilities.getBombDelayMillis();
+        int escapeSteps = Math.min(BomberCapabilities.MAX_ROUTE_STEPS, capabilities.getEscapeSteps(fuseMillis));
+        int window = Math.max(capabilities.getBlastRadius(), escapeSteps);
+        if (!snapshot.inBounds(x, y) || !isQuiet(snapshot, x, y, window)) {
+            return evaluate(snapshot, grid, capabilities, x, y, planterX, planterY);
+        }
+
+        long key = cacheKey(grid, capabilities, x, y, planterX, planterY, window);
+        int cached = cache.get(key);
+        if (cached == EvaluationCache.MISS) {
+            evaluate(snapshot, grid, capabilities, x, y, planterX, planterY);
+            cache.put(key, (result.obstacles & OBSTACLES_MASK)
+                    | (Math.min(result.ownBombers, OWN_BOMBERS_MASK) << OWN_BOMBERS_SHIFT)
+                    | (result.canEscape ? ESCAPE_BIT : 0));
+            return result;
+        }
+
+        result.reset();
+        escapeCell = -1;
+        result.obstacles = cached & OBSTACLES_MASK;
+        result.ownBombers = (cached >>> OWN_BOMBERS_SHIFT) & OWN_BOMBERS_MASK;
+        result.fuseMillis = fuseMillis;
+        result.escapeSteps = escapeSteps;
+        result.canEscape = (cached & ESCAPE_BIT) != 0;
+        result.score = score();
+        return result;
+    }
+
+    public EvaluationCache getCache() {
+        return cache;
+    }
+
+    private int score() {
+        return result.obstacles * tuning.getChainObstacleWeight()
+                + result.enemies * tuning.getChainEnemyWeight()
+                + result.mobs * tuning.getChainMobWeight()
+                - result.ownBombers * tuning.getChainSelfPenalty();
+    }
+
+    // Ни одна бомба снимка не достает крестом до окна, врагов и мобов в окне нет:
+    // цепочки, чужих фитилей и опасных клеток у места нет
+    private static boolean isQuiet(ArenaSnapshot snapshot, int x, int y, int window) {
+        for (int slot = 0; slot < snapshot.getBombCount(); slot++) {
+            int reach = window + snapshot.bombRange(slot);
+            if (near(snapshot.bombX(slot), snapshot.bombY(slot), x, y, reach)) return false;
+        }
+        for (int slot = 0; slot < snapshot.getEnemyCount(); slot++) {
+            if (near(snapshot.enemyX(slot), snapshot.enemyY(slot), x, y, window)) return false;
+        }
+        for (int slot = 0; slot < snapshot.getMobCount(); slot++) {
+            if (near(snapshot.mobX(slot), snapshot.mobY(slot), x, y, window)) return false;
+        }
+        return true;
+    }
+
+    // Сущность без позиции (-1) не рядом ни с чем
+    private static boolean near(int ex, int ey, int x, int y, int distance) {
+        return ex >= 0 && Math.abs(ex - x) <= distance && Math.abs(ey - y) <= distance;
+    }
+
+    private static long cacheKey(ArenaGrid grid, BomberCapabilities capabilities,
+                                 int x, int y, int planterX, int planterY, int window) {
+        // Клетка ставящего важна, только если он стоит в кресте бомбы (не на ней самой):
+        // иначе ключ не зависит от того, откуда на место смотрят
+        int radius = capabilities.getBlastRadius();
+        int dx = planterX - x;
+        int dy = planterY - y;
+        boolean inCross = (dx == 0) != (dy == 0) && Math.abs(dx) + Math.abs(dy) <= radius;
+        int planter = inCross ? ((dx & 0xFF) << 8) | (dy & 0xFF) : PLANTER_OUTSIDE;
+
+        long position = ((long) x << 40) | ((long) (y & 0xFFFFFF) << 16) | planter;
+        return ArenaGrid.mix(KEY_SEED ^ position)
+                ^ ArenaGrid.mix(KEY_SEED + capabilities.getEvaluationKey())
+                ^ grid.windowHash(x, y, window);
+    }
+
+    private void prepare(ArenaSnapshot snapshot) {
+        int w = snapshot.getWidth();
+        int h = snapshot.getHeight();
+        if (w != width || h != height) {
+            width = w;
+            height = h;
+            int size = w * h;
+            hitStamp = new int[size];
+            clearedStamp = new int[size];
+            visitStamp = new int[size];
+            bfsQueue = new int[size];
+            bfsDepth = new int[size];
+            bfsParent = new int[size];
+            epoch = 0;
+        }
+        if (bombStamp.length < snapshot.getBombCount()) {
+            bombStamp = new int[snapshot.getBombCount()];
+            bombQueue = new int[snapshot.getBombCount()];
+            epoch = 0;
+        }
+
+        // Переполнение счетчика (или новые буферы) - метки обнуляются один раз
+        if (epoch == 0 || epoch == Integer.MAX_VALUE) {
+            Arrays.fill(hitStamp, 0);
+            Arrays.fill(clearedStamp, 0);
+            Arrays.fill(visitStamp, 0);
+            Arrays.fill(bombStamp, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+
+    private void explode(ArenaSnapshot snapshot, ArenaGrid grid, int bx, int by, int range) {
+        hit(snapshot, grid, bx, by);
+        for (int d = 0; d < 4; d++) {
+            for (int r = 1; r <= range; r++) {
+                int x = bx + DX[d] * r;
+                int y = by + DY[d] * r;
+                if (!grid.inBounds(x, y) || grid.has(x, y, ArenaGrid.WALL)) break;
+
+                // Препятствие гасит взрыв; уже разрушенное раньше в цепочке - пропускает
+                int cell = y * width + x;
+                if (grid.has(x, y, ArenaGrid.OBSTACLE) && clearedStamp[cell] != epoch) {
+                    clearedStamp[cell] = epoch;
+                    hitStamp[cell] = epoch;
+                    result.obstacles++;
+                    break;
+                }
+                hit(snapshot, grid, x, y);
+            }
+        }
+    }
+
+    private void hit(ArenaSnapshot snapshot, ArenaGrid grid, int x, int y) {
+        int cell = y * width + x;
+        if (hitStamp[cell] == epoch) return;
+        hitStamp[cell] = epoch;
+
+        if (grid.has(x, y, ArenaGrid.BOMB)) {
+            int slot = snapshot.slotAt(x, y, ArenaSnapshot.KIND_BOMB);
+            if (slot != ArenaSnapshot.NO_SLOT && bombStamp[slot] != epoch) {
+                bombStamp[slot] = epoch;
+                // Фитиль не трогаем: бомба в нашем кресте подожжет нашу, только если ее крест
+                // накрывает нашу клетку - это проверяет earliestBombReaching
+                bombQueue[result.chainBombs++] = slot;
+            }
+        }
+        if (snapshot.hasEntity(x, y, ArenaSnapshot.KIND_ENEMY)) result.enemies++;
+        if (snapshot.hasEntity(x, y, ArenaSnapshot.KIND_MOB)) result.mobs++;
+        if (cell != ownCell && cell != planterCell && !isCompanion(cell) && grid.has(x, y, ArenaGrid.BOMBER)) {
+            result.ownBombers++;
+        }
+    }
+
+    // Самый ранний взрыв бомбы снимка, крест которой накрывает (x, y)
+    private int earliestBombReaching(ArenaSnapshot snapshot, ArenaGrid grid, int x, int y) {
+        int earliest = Integer.MAX_VALUE;
+        for (int slot = 0; slot < snapshot.getBombCount(); slot++) {
+            if (reaches(grid, snapshot.bombX(slot), snapshot.bombY(slot), x, y, snapshot.bombRange(slot))) {
+                earliest = Math.min(earliest, timerMillis(snapshot, slot));
+            }
+        }
+        return earliest;
+    }
+
+    // Крест бомбы в (bx, by) с радиусом range доходит до (x, y): стены и препятствия между гасят взрыв
+    private static boolean reaches(ArenaGrid grid, int bx, int by, int x, int y, int range) {
+        if (bx != x && by != y) return false;
+        int dist = Math.abs(x - bx) + Math.abs(y - by);
+        if (dist > range) return false;
+
+        int stepX = Integer.signum(x - bx);
+        int stepY = Integer.signum(y - by);
+        for (int i = 1; i < dist; i++) {
+            if (grid.has(bx + stepX * i, by + stepY * i, (byte) (ArenaGrid.WALL | ArenaGrid.OBSTACLE))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isCompanion(int cell) {
+        for (int i = 0; i < companionCount; i++) {
+            if (companions[i] == cell) return true;
+        }
+        return false;
+    }
+
+    private static int timerMillis(ArenaSnapshot snapshot, int slot) {
+        return (int) Math.max(0, Math.round(snapshot.bombTimer(slot) * 1000));
+    }
+
+    // BFS от бомбы: есть ли за steps шагов клетка вне креста цепочки и вне чужих взрывов
+    private boolean hasEscape(ArenaSnapshot snapshot, ArenaGrid grid, int bx, int by, int steps, int mask) {
+        int head = 0;
+        int tail = 0;
+        int start = by * width + bx;
+        visitStamp[start] = epoch;
+        bfsDepth[start] = 0;
+        bfsParent[start] = -1;
+        bfsQueue[tail++] = start;
+
+        while (head < tail) {
+            int cell = bfsQueue[head++];
+            int cx = cell % width;
+            int cy = cell / width;
+            int depth = bfsDepth[cell];
+
+            if (hitStamp[cell] != epoch && !snapshot.inDanger(cx, cy)) {
+                escapeCell = cell;
+                return true;
+            }
+            if (depth == steps) continue;
+
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (grid.isBlocked(nx, ny, mask)) continue;
+                int next = ny * width + nx;
+                if (visitStamp[next] == epoch || isCompanion(next)) continue;
+                visitStamp[next] = epoch;
+                bfsDepth[next] = depth + 1;
+                bfsParent[next] = cell;
+                bfsQueue[tail++] = next;
+            }
+        }
+        return false;
+    }
+
+    // Кратчайший путь отхода последней оценки (от места бомбы до безопасной клетки) -
+    // добавляется в path; без отхода path не меняется
+    public void copyEscapePath(PackedPath path) {
+        if (!result.canEscape || escapeCell < 0) return;
+        int length = 0;
+        for (int cell = escapeCell; cell >= 0; cell = bfsParent[cell]) {
+            pathScratch[length++] = cell;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            path.add(pathScratch[i] % width, pathScratch[i] / width);
+        }
+    }
+
+    // Итог оценки одного места
+    public static class Result {
+        private int obstacles;
+        private int enemies;
+        private int mobs;
+        private int ownBombers;
+        private int chainBombs;
+        private int fuseMillis;
+        private int escapeSteps;
+        private boolean canEscape;
+        private int score;
+
+        private void reset() {
+            obstacles = 0;
+            enemies = 0;
+            mobs = 0;
+            ownBombers = 0;
+            chainBombs = 0;
+            fuseMillis = 0;
+            escapeSteps = 0;
+            canEscape = false;
+            score = 0;
+        }
+
+        // Препятствий разрушит вся цепочка
+        public int getObstacles() {
+            return obstacles;
+        }
+
+        public int getEnemies() {
+            return enemies;
+        }
+
+        public int getMobs() {
+            return mobs;
+        }
+
+        // Своих бомберов в кресте цепочки (кроме ставящего)
+        public int getOwnBombers() {
+            return ownBombers;
+        }
+
+        // Бомб снимка, подожженных цепочкой
+        public int getChainBombs() {
+            return chainBombs;
+        }
+
+        // Через сколько миллисекунд взорвется своя бомба с учетом цепочки
+        public int getFuseMillis() {
+            return fuseMillis;
+        }
+
+        public int getEscapeSteps() {
+            return escapeSteps;
+        }
+
+        public boolean canEscape() {
+            return canEscape;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        // Ставить можно: бомбер успевает уйти и своих не задевает
+        public boolean isSafe() {
+            return canEscape && ownBombers == 0;
+        }
+
+        @Override
+        public String toString() {
+            return "score=" + score + " (obstacles=" + obstacles + ", enemies=" + enemies + ", mobs=" + mobs
+                    + ", own=" + ownBombers + ", chain=" + chainBombs + ", fuse=" + fuseMillis + "ms"
+                    + ", escape=" + (canEscape ? escapeSteps : "no") + ")";
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package backend.datsjinglebang.strategy;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Отказы сервера по нашим командам (ArenaResponse.errors и GET /logs) для планировщика.
+// Сообщения приходят из любых потоков (submit), разбираются сразу, а применяются
+// стратегией в начале тика (apply), поэтому состояние стратегии меняет только ее поток.
+// Что делаем с отказами:
+//  - клетка, на которой сервер обрезал путь, на BLOCKED_TTL_TICKS тиков считается непроходимой;
+//  - бомбер, чью команду отклонили или обрезали, строит маршрут заново;
+//  - "path clipped to N cells" - запоминаем серверный предел длины пути.
+public class CommandFeedback {
+    public static final int BLOCKED_TTL_TICKS = 20;
+    private static final int MAX_QUEUED = 256;
+
+    public enum Kind {
+        BLOCKED_CELL,     // путь обрезан на непроходимой клетке
+        NOT_ADJACENT,     // соседние клетки пути не смежны
+        PATH_TOO_LONG,    // путь длиннее предела сервера
+        BOMB_OFF_PATH,    // бомба не на маршруте
+        UNKNOWN_BOMBER,   // бомбер не найден или мертв
+        OTHER
+    }
+
+    private static final Pattern BOMBER_ID = Pattern.compile("bomber\\s+([\\w-]+)");
+    private static final Pattern CELL = Pattern.compile("(-?\\d+)\\s*,\\s*(-?\\d+)");
+    private static final Pattern PATH_LIMIT = Pattern.compile("clipped to (\\d+)");
+
+    private final ConcurrentLinkedQueue<Rejection> queue = new ConcurrentLinkedQueue<>();
+    private volatile List<String> lastArenaErrors = List.of();
+    private volatile int pathLimit = Integer.MAX_VALUE;
+
+    // Состояние потока стратегии
+    private final Map<Long, Integer> blockedUntil = new HashMap<>();
+    private final Set<String> replan = new HashSet<>();
+
+    // Статистика
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong unparsed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Ошибки из ответа /arena: сервер повторяет их до следующего хода, берем только новый список
+    public void submitArenaErrors(List<String> errors) {
+        if (errors == null || errors.isEmpty() || errors.equals(lastArenaErrors)) return;
+        lastArenaErrors = List.copyOf(errors);
+        for (String error : errors) {
+            submit(error);
+        }
+    }
+
+    public void submit(String message) {
+        received.incrementAndGet();
+        Rejection rejection = parse(message);
+        if (rejection.kind == Kind.OTHER) {
+            unparsed.incrementAndGet();
+            return;
+        }
+        if (rejection.kind == Kind.PATH_TOO_LONG && rejection.limit > 0) {
+            pathLimit = Math.min(pathLimit, rejection.limit);
+        }
+        // Очередь ограничена: если стратегия не успевает, старые отказы не важнее новых
+        if (queue.size() >= MAX_QUEUED) {
+            queue.poll();
+            dropped.incrementAndGet();
+        }
+        queue.add(rejection);
+    }
+
+    static Rejection parse(String message) {
+        if (message == null) return new Rejection(Kind.OTHER, null, 0, 0, 0);
+        String text = message.toLowerCase();
+
+        Matcher bomber = BOMBER_ID.matcher(message);
+        String bomberId = bomber.find() ? bomber.group(1) : null;
+        // Координаты ищем после id, чтобы цифры в id не приняли за клетку
+        Matcher cell = CELL.matcher(message);
+        boolean hasCell = cell.find(bomberId != null ? bomber.end() : 0);
+        int x = hasCell ? Integer.parseInt(cell.group(1)) : 0;
+        int y = hasCell ? Integer.parseInt(cell.group(2)) : 0;
+
+        if (text.contains("blocked") && hasCell) {
+            return new Rejection(Kind.BLOCKED_CELL, bomberId, x, y, 0);
+        }
+        if (text.contains("not adjacent")) {
+            return new Rejection(Kind.NOT_ADJACENT, bomberId, 0, 0, 0);
+        }
+        Matcher limit = PATH_LIMIT.matcher(text);
+        boolean hasLimit = limit.find();
+        if (hasLimit || text.contains("too long")) {
+            int cells = hasLimit ? Integer.parseInt(limit.group(1)) : 0;
+            return new Rejection(Kind.PATH_TOO_LONG, bomberId, 0, 0, cells);
+        }
+        if (text.contains("bomb") && text.contains("not on the path") && hasCell) {
+            return new Rejection(Kind.BOMB_OFF_PATH, bomberId, x, y, 0);
+        }
+        if (bomberId != null && (text.contains("not found") || text.contains("dead"))) {
+            return new Rejection(Kind.UNKNOWN_BOMBER, bomberId, 0, 0, 0);
+        }
+        return new Rejection(Kind.OTHER, bomberId, 0, 0, 0);
+    }
+
+    // Вызывается стратегией в начале тика: переносит отказы в свое состояние
+    public void apply(int tick) {
+        Rejection rejection;
+        while ((rejection = queue.poll()) != null) {
+            if (rejection.kind == Kind.BLOCKED_CELL) {
+                blockedUntil.put(pack(rejection.x, rejection.y), tick + BLOCKED_TTL_TICKS);
+            }
+            if (rejection.bomberId != null && rejection.kind != Kind.UNKNOWN_BOMBER) {
+                replan.add(rejection.bomberId);
+            }
+        }
+
+        Iterator<Integer> it = blockedUntil.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() <= tick) it.remove();
+        }
+    }
+
+    // Отмечает отклоненные клетки на сетке тика (после ArenaGrid.build)
+    public void markBlocked(ArenaGrid grid) {
+        for (long cell : blockedUntil.keySet()) {
+            grid.markRejected((int) (cell >> 32), (int) cell);
+        }
+    }
+
+    // Бомберы, которым надо перестроить маршрут; список очищается
+    public Set<String> takeReplans() {
+        if (replan.isEmpty()) return Set.of();
+        Set<String> ids = new HashSet<>(replan);
+        replan.clear();
+        return ids;
+    }
+
+    // Предел длины пути: меньший из нашего и выученного у сервера
+    public int pathLimit(int configured) {
+        return Math.min(configured, pathLimit);
+    }
+
+    public int getBlockedCells() {
+        return blockedUntil.size();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getUnparsed() {
+        return unparsed.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    static final class Rejection {
+        final Kind kind;
+        final String bomberId;
+        final int x;
+        final int y;
+        final int limit;
+
+        Rejection(Kind kind, String bomberId, int x, int y, int limit) {
+            this.kind = kind;
+            this.bomberId = bomberId;
+            this.x = x;
+            this.y = y;
+            this.limit = limit;
+        }
+    }
+}
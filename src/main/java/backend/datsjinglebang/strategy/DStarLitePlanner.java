@@ -0,0 +1,304 @@
+package backend.datsjinglebang.strategy;
+
+import java.util.Arrays;
+
+// Инкрементальный планировщик маршрута (D* Lite) для одного бомбера.
+// Поиск идет от цели к бомберу, состояние (g, rhs, очередь) сохраняется между тиками.
+// Когда меняются стоимости клеток, чинится только затронутая часть; при смене цели
+// или размеров карты - полный перезапуск поиска.
+public class DStarLitePlanner {
+    private static final int INF = TraversalCostMap.BLOCKED;
+    private static final int MAX_EXPANSIONS = 50_000;
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private int width;
+    private int height;
+    private int[] g = new int[0];
+    private int[] rhs = new int[0];
+
+    // Двоичная куча с поддержкой удаления/изменения ключа
+    private int[] heapCells = new int[0];
+    private long[] heapKeys = new long[0];
+    private int[] heapPos = new int[0];
+    private int heapSize;
+
+    private int goal = -1;
+    private int start = -1;
+    private int km;
+    private int costVersion = -1;
+    private boolean initialized;
+
+    private TraversalCostMap costs;
+
+    // Строит маршрут от start до goal и пишет до maxSteps клеток (без стартовой) в out
+    // парами x, y. Возвращает число записанных клеток, 0 - маршрута нет.
+    public int plan(TraversalCostMap costMap, int startX, int startY, int goalX, int goalY,
+                    int[] out, int maxSteps) {
+        costs = costMap;
+        int w = costMap.getWidth();
+        int h = costMap.getHeight();
+        if (!inBounds(startX, startY, w, h) || !inBounds(goalX, goalY, w, h)) return 0;
+
+        int newStart = startY * w + startX;
+        int newGoal = goalY * w + goalX;
+
+        if (!initialized || w != width || h != height || newGoal != goal ||
+                !costMap.canApplyDiffFrom(costVersion) && costVersion != costMap.getVersion()) {
+            reinitialize(w, h, newStart, newGoal);
+        } else if (costVersion != costMap.getVersion()) {
+            // Бомбер сдвинулся - поправка эвристики, затем чиним вершины рядом с изменившимися клетками
+            km += heuristic(start, newStart);
+            start = newStart;
+            int[] changed = costMap.getChangedCells();
+            for (int i = 0; i < costMap.getChangedCount(); i++) {
+                int cell = changed[i];
+                int cx = cell % width;
+                int cy = cell / width;
+                for (int d = 0; d < 4; d++) {
+                    int px = cx + DX[d];
+                    int py = cy + DY[d];
+                    if (inBounds(px, py, width, height)) {
+                        updateVertex(py * width + px);
+                    }
+                }
+            }
+        } else if (newStart != start) {
+            km += heuristic(start, newStart);
+            start = newStart;
+        }
+        costVersion = costMap.getVersion();
+
+        if (!computeShortestPath() || g[start] >= INF) {
+            return 0;
+        }
+
+        return extractPath(out, maxSteps);
+    }
+
+    private void reinitialize(int w, int h, int newStart, int newGoal) {
+        if (w != width || h != height || g.length != w * h) {
+            width = w;
+            height = h;
+            g = new int[w * h];
+            rhs = new int[w * h];
+            heapCells = new int[w * h];
+            heapKeys = new long[w * h];
+            heapPos = new int[w * h];
+        }
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        Arrays.fill(heapPos, -1);
+        heapSize = 0;
+        km = 0;
+        start = newStart;
+        goal = newGoal;
+        rhs[goal] = 0;
+        heapInsert(goal, calculateKey(goal));
+        initialized = true;
+    }
+
+    private boolean computeShortestPath() {
+        int expansions = 0;
+        while (heapSize > 0 &&
+                (heapKeys[0] < calculateKey(start) || rhs[start] != g[start])) {
+            if (++expansions > MAX_EXPANSIONS) {
+                return false;
+            }
+
+            int u = heapCells[0];
+            long oldKey = heapKeys[0];
+            long newKey = calculateKey(u);
+
+            if (oldKey < newKey) {
+                heapUpdate(u, newKey);
+            } else if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                heapRemove(u);
+                int enterCost = edgeCost(u);
+                int ux = u % width;
+                int uy = u / width;
+                for (int d = 0; d < 4; d++) {
+                    int px = ux + DX[d];
+                    int py = uy + DY[d];
+                    if (!inBounds(px, py, width, height)) continue;
+                    int p = py * width + px;
+                    if (p != goal && enterCost < INF) {
+                        rhs[p] = Math.min(rhs[p], add(enterCost, g[u]));
+                    }
+                    updateMembership(p);
+                }
+            } else {
+                g[u] = INF;
+                int ux = u % width;
+                int uy = u / width;
+                for (int d = 0; d < 4; d++) {
+                    int px = ux + DX[d];
+                    int py = uy + DY[d];
+                    if (inBounds(px, py, width, height)) {
+                        updateVertex(py * width + px);
+                    }
+                }
+                updateVertex(u);
+            }
+        }
+        return true;
+    }
+
+    // rhs(u) = min по соседям v: стоимость входа в v + g(v)
+    private void updateVertex(int u) {
+        if (u != goal) {
+            int best = INF;
+            int ux = u % width;
+            int uy = u / width;
+            for (int d = 0; d < 4; d++) {
+                int vx = ux + DX[d];
+                int vy = uy + DY[d];
+                if (!inBounds(vx, vy, width, height)) continue;
+                int v = vy * width + vx;
+                best = Math.min(best, add(edgeCost(v), g[v]));
+            }
+            rhs[u] = best;
+        }
+        updateMembership(u);
+    }
+
+    private void updateMembership(int u) {
+        if (g[u] != rhs[u]) {
+            long key = calculateKey(u);
+            if (heapPos[u] >= 0) {
+                heapUpdate(u, key);
+            } else {
+                heapInsert(u, key);
+            }
+        } else if (heapPos[u] >= 0) {
+            heapRemove(u);
+        }
+    }
+
+    private int extractPath(int[] out, int maxSteps) {
+        int current = start;
+        int steps = 0;
+        while (current != goal && steps < maxSteps && steps * 2 + 1 < out.length) {
+            int cx = current % width;
+            int cy = current / width;
+            int bestNext = -1;
+            int bestValue = INF;
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (!inBounds(nx, ny, width, height)) continue;
+                int n = ny * width + nx;
+                int value = add(edgeCost(n), g[n]);
+                if (value < bestValue) {
+                    bestValue = value;
+                    bestNext = n;
+                }
+            }
+            if (bestNext < 0) break;
+
+            out[steps * 2] = bestNext % width;
+            out[steps * 2 + 1] = bestNext / width;
+            steps++;
+            current = bestNext;
+        }
+        return steps;
+    }
+
+    // В клетку цели всегда можно "войти": цель часто сама является препятствием (стена для подрыва)
+    private int edgeCost(int v) {
+        return v == goal ? MobThreatField.STEP_COST : costs.cost(v);
+    }
+
+    private long calculateKey(int s) {
+        int m = Math.min(g[s], rhs[s]);
+        if (m >= INF) {
+            return ((long) INF << 32) | INF;
+        }
+        int k1 = add(add(m, heuristic(start, s)), km);
+        return ((long) k1 << 32) | m;
+    }
+
+    private int heuristic(int a, int b) {
+        int ax = a % width;
+        int ay = a / width;
+        int bx = b % width;
+        int by = b / width;
+        return (Math.abs(ax - bx) + Math.abs(ay - by)) * MobThreatField.STEP_COST;
+    }
+
+    private static int add(int a, int b) {
+        return a >= INF || b >= INF ? INF : Math.min(INF, a + b);
+    }
+
+    private static boolean inBounds(int x, int y, int w, int h) {
+        return x >= 0 && x < w && y >= 0 && y < h;
+    }
+
+    // --- Куча ---
+
+    private void heapInsert(int cell, long key) {
+        int i = heapSize++;
+        heapCells[i] = cell;
+        heapKeys[i] = key;
+        heapPos[cell] = i;
+        siftUp(i);
+    }
+
+    private void heapUpdate(int cell, long key) {
+        int i = heapPos[cell];
+        long old = heapKeys[i];
+        heapKeys[i] = key;
+        if (key < old) {
+            siftUp(i);
+        } else {
+            siftDown(i);
+        }
+    }
+
+    private void heapRemove(int cell) {
+        int i = heapPos[cell];
+        heapPos[cell] = -1;
+        int last = --heapSize;
+        if (i == last) return;
+
+        int moved = heapCells[last];
+        heapCells[i] = moved;
+        heapKeys[i] = heapKeys[last];
+        heapPos[moved] = i;
+        siftUp(i);
+        siftDown(heapPos[moved]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapKeys[parent] <= heapKeys[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= heapSize) break;
+            int right = left + 1;
+            int smallest = right < heapSize && heapKeys[right] < heapKeys[left] ? right : left;
+            if (heapKeys[i] <= heapKeys[smallest]) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int cell = heapCells[a];
+        long key = heapKeys[a];
+        heapCells[a] = heapCells[b];
+        heapKeys[a] = heapKeys[b];
+        heapCells[b] = cell;
+        heapKeys[b] = key;
+        heapPos[heapCells[a]] = a;
+        heapPos[heapCells[b]] = b;
+    }
+}
@@ -0,0 +1,102 @@
+package backend.datsjinglebang.strategy;
+
+// Ограниченный кэш long -> int без упаковки в объекты.
+// 4-канальный ассоциативный: ключ попадает в свой набор из WAYS ячеек,
+// при переполнении набора вытесняем по алгоритму "часы" (бит обращения).
+public class EvaluationCache {
+    public static final int MISS = -1;
+
+    private static final int WAYS = 4;
+    private static final long EMPTY_KEY = 0L;
+
+    private final long[] keys;
+    private final int[] values;
+    private final boolean[] referenced;
+    private final byte[] clockHands;
+    private final int setMask;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // capacity округляется вверх до степени двойки, кратной WAYS
+    public EvaluationCache(int capacity) {
+        int sets = Integer.highestOneBit(Math.max(1, (capacity + WAYS - 1) / WAYS - 1)) << 1;
+        keys = new long[sets * WAYS];
+        values = new int[sets * WAYS];
+        referenced = new boolean[sets * WAYS];
+        clockHands = new byte[sets];
+        setMask = sets - 1;
+    }
+
+    public int get(long key) {
+        key = normalize(key);
+        int base = setIndex(key) * WAYS;
+        for (int i = base; i < base + WAYS; i++) {
+            if (keys[i] == key) {
+                referenced[i] = true;
+                hits++;
+                return values[i];
+            }
+        }
+        misses++;
+        return MISS;
+    }
+
+    public void put(long key, int value) {
+        key = normalize(key);
+        int set = setIndex(key);
+        int base = set * WAYS;
+
+        for (int i = base; i < base + WAYS; i++) {
+            if (keys[i] == key || keys[i] == EMPTY_KEY) {
+                keys[i] = key;
+                values[i] = value;
+                referenced[i] = true;
+                return;
+            }
+        }
+
+        // Набор заполнен: крутим "часы", снимая бит обращения, пока не найдем жертву
+        int hand = clockHands[set];
+        while (referenced[base + hand]) {
+            referenced[base + hand] = false;
+            hand = (hand + 1) & (WAYS - 1);
+        }
+        int victim = base + hand;
+        keys[victim] = key;
+        values[victim] = value;
+        referenced[victim] = true;
+        clockHands[set] = (byte) ((hand + 1) & (WAYS - 1));
+        evictions++;
+    }
+
+    private int setIndex(long key) {
+        return (int) (key ^ (key >>> 32)) & setMask;
+    }
+
+    private static long normalize(long key) {
+        return key == EMPTY_KEY ? 1L : key;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
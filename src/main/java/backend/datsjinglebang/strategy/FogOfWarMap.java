@@ -0,0 +1,246 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomber;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Память карты на весь раунд: что мы уже видели, где стены и препятствия, когда видели клетку.
+// Каждый ответ /arena показывает только клетки в радиусе обзора наших бомберов,
+// поэтому без этой памяти стратегия забывает все, что вне текущего снимка.
+public class FogOfWarMap {
+    private static final int NEVER_SEEN = -1;
+
+    // Параметры выбора цели для разведки
+    private static final int MAX_EXPLORE_DISTANCE = 30;
+    private static final int OBSTACLE_SCAN_RADIUS = 2;
+    private static final int OBSTACLE_WEIGHT = 10;
+    private static final int UNKNOWN_WEIGHT = 5;
+    private static final int DISTANCE_WEIGHT = 2;
+
+    private int width;
+    private int height;
+    private String round;
+
+    // Битовые плоскости: бит на клетку, индекс = y * width + x
+    private long[] seen;
+    private long[] walls;       // неразрушаемые стены (arena.walls)
+    private long[] obstacles;   // разрушаемые препятствия (arena.obstacles)
+    private int[] lastSeenTick;
+
+    // Граница разведки пересчитывается лениво, только когда карта изменилась
+    private int[] frontier = new int[0];
+    private int frontierSize;
+    private boolean frontierDirty = true;
+
+    public void update(ArenaResponse arena, int viewRadius, int tick) {
+        if (arena == null || arena.map_size == null || arena.map_size.length < 2) return;
+
+        int w = arena.map_size[0];
+        int h = arena.map_size[1];
+        if (w != width || h != height || seen == null ||
+                (arena.round != null && !arena.round.equals(round))) {
+            reset(w, h);
+            round = arena.round;
+        }
+
+        // 1. Все, что в радиусе обзора живых бомберов, считаем увиденным и пока свободным
+        if (arena.bombers != null) {
+            for (Bomber bomber : arena.bombers) {
+                if (!bomber.alive || bomber.pos == null || bomber.pos.length < 2) continue;
+                markVisible(bomber.pos[0], bomber.pos[1], viewRadius, tick);
+            }
+        }
+
+        // 2. Накладываем то, что сервер реально прислал
+        if (arena.arena != null) {
+            markCells(arena.arena.walls, walls, tick);
+            markCells(arena.arena.obstacles, obstacles, tick);
+        }
+
+        frontierDirty = true;
+    }
+
+    private void reset(int w, int h) {
+        width = w;
+        height = h;
+        int words = (w * h + 63) >>> 6;
+        seen = new long[words];
+        walls = new long[words];
+        obstacles = new long[words];
+        lastSeenTick = new int[w * h];
+        Arrays.fill(lastSeenTick, NEVER_SEEN);
+        if (frontier.length < w * h) {
+            frontier = new int[w * h];
+        }
+        frontierSize = 0;
+        frontierDirty = true;
+    }
+
+    private void markVisible(int cx, int cy, int radius, int tick) {
+        int minY = Math.max(0, cy - radius);
+        int maxY = Math.min(height - 1, cy + radius);
+        for (int y = minY; y <= maxY; y++) {
+            int span = radius - Math.abs(y - cy);
+            int minX = Math.max(0, cx - span);
+            int maxX = Math.min(width - 1, cx + span);
+            for (int x = minX; x <= maxX; x++) {
+                int idx = y * width + x;
+                set(seen, idx);
+                clear(walls, idx);
+                clear(obstacles, idx);
+                lastSeenTick[idx] = tick;
+            }
+        }
+    }
+
+    private void markCells(List<List<Integer>> cells, long[] plane, int tick) {
+        if (cells == null) return;
+        for (List<Integer> cell : cells) {
+            if (cell.size() < 2) continue;
+            int x = cell.get(0);
+            int y = cell.get(1);
+            if (!inBounds(x, y)) continue;
+            int idx = y * width + x;
+            set(seen, idx);
+            set(plane, idx);
+            lastSeenTick[idx] = tick;
+        }
+    }
+
+    public boolean isKnown(int x, int y) {
+        return inBounds(x, y) && get(seen, y * width + x);
+    }
+
+    public boolean isKnownWall(int x, int y) {
+        return inBounds(x, y) && get(walls, y * width + x);
+    }
+
+    public boolean isKnownObstacle(int x, int y) {
+        return inBounds(x, y) && get(obstacles, y * width + x);
+    }
+
+    public boolean isKnownEmpty(int x, int y) {
+        if (!inBounds(x, y)) return false;
+        int idx = y * width + x;
+        return get(seen, idx) && !get(walls, idx) && !get(obstacles, idx);
+    }
+
+    // Клетка заведомо непроходима (по последним данным)
+    public boolean isBlocked(int x, int y) {
+        if (!inBounds(x, y)) return true;
+        int idx = y * width + x;
+        return get(walls, idx) || get(obstacles, idx);
+    }
+
+    public int getLastSeenTick(int x, int y) {
+        return inBounds(x, y) ? lastSeenTick[y * width + x] : NEVER_SEEN;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // Граница разведки: известные свободные клетки, у которых есть неизвестный сосед.
+    // Возвращает количество клеток; индексы лежат в getFrontierCells()[0..size)
+    public int getFrontierSize() {
+        rebuildFrontierIfDirty();
+        return frontierSize;
+    }
+
+    public int[] getFrontierCells() {
+        rebuildFrontierIfDirty();
+        return frontier;
+    }
+
+    private void rebuildFrontierIfDirty() {
+        if (!frontierDirty || seen == null) return;
+
+        frontierSize = 0;
+        for (int word = 0; word < seen.length; word++) {
+            long known = seen[word] & ~walls[word] & ~obstacles[word];
+            while (known != 0) {
+                int idx = (word << 6) + Long.numberOfTrailingZeros(known);
+                known &= known - 1;
+                if (countUnknownNeighbors(idx % width, idx / width) > 0) {
+                    frontier[frontierSize++] = idx;
+                }
+            }
+        }
+        frontierDirty = false;
+    }
+
+    // Цель для разведки: клетка границы рядом с неизвестной территорией,
+    // где уже замечено много препятствий. Возвращает null, если все разведано.
+    public int[] findExplorationTarget(int[] from) {
+        if (from == null || seen == null) return null;
+        rebuildFrontierIfDirty();
+
+        int bestIdx = -1;
+        int bestScore = Integer.MIN_VALUE;
+
+        for (int i = 0; i < frontierSize; i++) {
+            int idx = frontier[i];
+            int x = idx % width;
+            int y = idx / width;
+
+            int dist = Math.abs(x - from[0]) + Math.abs(y - from[1]);
+            if (dist == 0 || dist > MAX_EXPLORE_DISTANCE) continue;
+
+            int score = countObstaclesAround(x, y) * OBSTACLE_WEIGHT
+                    + countUnknownNeighbors(x, y) * UNKNOWN_WEIGHT
+                    - dist * DISTANCE_WEIGHT;
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestIdx = idx;
+            }
+        }
+
+        return bestIdx < 0 ? null : new int[]{bestIdx % width, bestIdx / width};
+    }
+
+    private int countUnknownNeighbors(int x, int y) {
+        int count = 0;
+        if (x + 1 < width && !get(seen, y * width + x + 1)) count++;
+        if (x > 0 && !get(seen, y * width + x - 1)) count++;
+        if (y + 1 < height && !get(seen, (y + 1) * width + x)) count++;
+        if (y > 0 && !get(seen, (y - 1) * width + x)) count++;
+        return count;
+    }
+
+    private int countObstaclesAround(int cx, int cy) {
+        int count = 0;
+        int minY = Math.max(0, cy - OBSTACLE_SCAN_RADIUS);
+        int maxY = Math.min(height - 1, cy + OBSTACLE_SCAN_RADIUS);
+        int minX = Math.max(0, cx - OBSTACLE_SCAN_RADIUS);
+        int maxX = Math.min(width - 1, cx + OBSTACLE_SCAN_RADIUS);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (get(obstacles, y * width + x)) count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return seen != null && x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    private static boolean get(long[] bits, int idx) {
+        return (bits[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    private static void set(long[] bits, int idx) {
+        bits[idx >>> 6] |= 1L << idx;
+    }
+
+    private static void clear(long[] bits, int idx) {
+        bits[idx >>> 6] &= ~(1L << idx);
+    }
+}
@@ -0,0 +1,120 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Mob;
+
+import java.util.Arrays;
+
+// Поле угрозы от мобов: стоимость клетки, которая прибавляется к стоимости пути и штрафует цели.
+// Строится за один проход по сетке: сначала в клетки мобов кладутся начальные веса,
+// затем прямой и обратный проход (манхэттенская дистанционная развертка) распространяют
+// угрозу с затуханием на каждый шаг. Никаких циклов по мобам для каждой клетки.
+public class MobThreatField {
+    // Единицы стоимости: один шаг пути = STEP_COST
+    public static final int STEP_COST = 10;
+    public static final int LETHAL_THREAT = 80;  // С такой угрозой в клетку лучше не заходить
+
+    private static final int DECAY_PER_CELL = 25;
+    private static final int DEFAULT_MOB_WEIGHT = 100;
+    private static final int GHOST_MOB_WEIGHT = 120;    // Ходит сквозь стены - опаснее
+    private static final int PATROL_MOB_WEIGHT = 90;
+    private static final int SAFE_TIME_FADE_MS = 5000;  // Пока safe_time > 0 моб безвреден
+    private static final int MIN_SAFE_WEIGHT_PERCENT = 20;
+
+    private int width;
+    private int height;
+    private int[] threat = new int[0];
+    private boolean empty = true;
+
+    public void build(ArenaResponse arena) {
+        if (arena == null || arena.map_size == null || arena.map_size.length < 2) return;
+
+        int w = arena.map_size[0];
+        int h = arena.map_size[1];
+        if (w != width || h != height) {
+            width = w;
+            height = h;
+            threat = new int[w * h];
+        } else if (!empty) {
+            Arrays.fill(threat, 0);
+        }
+        empty = true;
+
+        if (arena.mobs == null || arena.mobs.isEmpty()) return;
+
+        // 1. Начальные веса в клетках мобов
+        for (Mob mob : arena.mobs) {
+            if (mob.pos == null || mob.pos.length < 2) continue;
+            int x = mob.pos[0];
+            int y = mob.pos[1];
+            if (x < 0 || x >= w || y < 0 || y >= h) continue;
+
+            int idx = y * w + x;
+            threat[idx] = Math.max(threat[idx], getMobWeight(mob));
+            empty = false;
+        }
+
+        if (empty) return;
+
+        // 2. Прямой проход: сверху-слева
+        for (int y = 0; y < h; y++) {
+            int row = y * w;
+            for (int x = 0; x < w; x++) {
+                int idx = row + x;
+                int value = threat[idx];
+                if (x > 0) value = Math.max(value, threat[idx - 1] - DECAY_PER_CELL);
+                if (y > 0) value = Math.max(value, threat[idx - w] - DECAY_PER_CELL);
+                threat[idx] = value;
+            }
+        }
+
+        // 3. Обратный проход: снизу-справа
+        for (int y = h - 1; y >= 0; y--) {
+            int row = y * w;
+            for (int x = w - 1; x >= 0; x--) {
+                int idx = row + x;
+                int value = threat[idx];
+                if (x < w - 1) value = Math.max(value, threat[idx + 1] - DECAY_PER_CELL);
+                if (y < h - 1) value = Math.max(value, threat[idx + w] - DECAY_PER_CELL);
+                threat[idx] = value;
+            }
+        }
+    }
+
+    private int getMobWeight(Mob mob) {
+        int weight;
+        if (mob.type == null) {
+            weight = DEFAULT_MOB_WEIGHT;
+        } else {
+            switch (mob.type.toLowerCase()) {
+                case "ghost":
+                    weight = GHOST_MOB_WEIGHT;
+                    break;
+                case "patrol":
+                    weight = PATROL_MOB_WEIGHT;
+                    break;
+                default:
+                    weight = DEFAULT_MOB_WEIGHT;
+            }
+        }
+
+        // Моб в защитном времени пока не опасен, но скоро станет
+        if (mob.safe_time > 0) {
+            int remaining = Math.min(mob.safe_time, SAFE_TIME_FADE_MS);
+            int percent = 100 - remaining * (100 - MIN_SAFE_WEIGHT_PERCENT) / SAFE_TIME_FADE_MS;
+            weight = weight * percent / 100;
+        }
+
+        return weight;
+    }
+
+    // Аддитивная стоимость клетки (0 - угрозы нет)
+    public int threatAt(int x, int y) {
+        if (empty || x < 0 || x >= width || y < 0 || y >= height) return 0;
+        return threat[y * width + x];
+    }
+
+    public boolean isLethal(int x, int y) {
+        return threatAt(x, y) >= LETHAL_THREAT;
+    }
+}
@@ -0,0 +1,248 @@
+package backend.datsjinglebang.strategy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Отслеживание движущихся сущностей (врагов, мобов) между тиками по id.
+// По истории перемещений оценивает направление движения и строит карту
+// вероятности занятости клеток на несколько тиков вперед.
+// Все данные хранятся в массивах по слотам, чтобы не создавать объекты каждый тик.
+public class MotionTracker {
+    public static final int HORIZON = 3;            // На сколько тиков вперед строим прогноз
+    private static final int EXPIRE_TICKS = 10;     // Через сколько тиков без наблюдений забываем сущность
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Модель движения
+    private static final float P_CONTINUE = 0.6f;       // Движется - скорее всего продолжит в ту же сторону
+    private static final float P_STAY_MOVING = 0.1f;
+    private static final float P_STAY_STILL = 0.6f;     // Стоит - скорее всего продолжит стоять
+
+    private static final int WINDOW_RADIUS = HORIZON;
+    private static final int WINDOW_SIDE = 2 * WINDOW_RADIUS + 1;
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    // Состояние по слотам
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private int[] posX = new int[INITIAL_CAPACITY];
+    private int[] posY = new int[INITIAL_CAPACITY];
+    private int[] dirIndex = new int[INITIAL_CAPACITY];   // -1 = стоит, иначе индекс в DX/DY
+    private int[] stillTicks = new int[INITIAL_CAPACITY];
+    private int[] lastSeenTick = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int highWater;
+
+    // Карта занятости: heat[k][idx] - вероятность занятости клетки через k + 1 тиков
+    private float[][] heat = new float[HORIZON][0];
+    private int width;
+    private int height;
+    private int currentTick;
+
+    // Индексы клеток, тронутых при построении прогноза (чтобы очищать только их)
+    private int[] dirty = new int[256];
+    private int dirtyCount;
+
+    // Рабочие буферы локальной диффузии вокруг одной сущности
+    private final float[] window = new float[WINDOW_SIDE * WINDOW_SIDE];
+    private final float[] nextWindow = new float[WINDOW_SIDE * WINDOW_SIDE];
+
+    public void beginTick(int tick, int mapWidth, int mapHeight) {
+        currentTick = tick;
+        if (mapWidth != width || mapHeight != height) {
+            width = mapWidth;
+            height = mapHeight;
+            heat = new float[HORIZON][mapWidth * mapHeight];
+            dirtyCount = 0;
+        } else {
+            for (int i = 0; i < dirtyCount; i++) {
+                int idx = dirty[i];
+                for (int k = 0; k < HORIZON; k++) {
+                    heat[k][idx] = 0f;
+                }
+            }
+            dirtyCount = 0;
+        }
+    }
+
+    public void observe(String id, int[] pos) {
+        if (id == null || pos == null || pos.length < 2) return;
+
+        Integer existing = slotById.get(id);
+        if (existing == null) {
+            int slot = allocateSlot();
+            slotById.put(id, slot);
+            ids[slot] = id;
+            posX[slot] = pos[0];
+            posY[slot] = pos[1];
+            dirIndex[slot] = -1;
+            stillTicks[slot] = 0;
+            lastSeenTick[slot] = currentTick;
+            return;
+        }
+
+        int slot = existing;
+        int moveX = pos[0] - posX[slot];
+        int moveY = pos[1] - posY[slot];
+
+        if (moveX == 0 && moveY == 0) {
+            stillTicks[slot]++;
+            if (stillTicks[slot] > 1) {
+                dirIndex[slot] = -1;
+            }
+        } else {
+            // Берем доминирующую ось: за тик сущность могла сдвинуться больше чем на клетку
+            stillTicks[slot] = 0;
+            if (Math.abs(moveX) >= Math.abs(moveY)) {
+                dirIndex[slot] = moveX > 0 ? 0 : 1;
+            } else {
+                dirIndex[slot] = moveY > 0 ? 2 : 3;
+            }
+        }
+
+        posX[slot] = pos[0];
+        posY[slot] = pos[1];
+        lastSeenTick[slot] = currentTick;
+    }
+
+    // Завершает тик: забывает давно не виденные сущности и строит прогноз занятости
+    public void endTick(FogOfWarMap map) {
+        for (int slot = 0; slot < highWater; slot++) {
+            if (ids[slot] == null) continue;
+
+            if (currentTick - lastSeenTick[slot] > EXPIRE_TICKS) {
+                slotById.remove(ids[slot]);
+                ids[slot] = null;
+                pushFreeSlot(slot);
+                continue;
+            }
+
+            // Прогноз строим только для тех, кого видим сейчас
+            if (lastSeenTick[slot] == currentTick) {
+                diffuse(slot, map);
+            }
+        }
+    }
+
+    private void diffuse(int slot, FogOfWarMap map) {
+        Arrays.fill(window, 0f);
+        int originX = posX[slot] - WINDOW_RADIUS;
+        int originY = posY[slot] - WINDOW_RADIUS;
+        window[WINDOW_RADIUS * WINDOW_SIDE + WINDOW_RADIUS] = 1f;
+
+        int dir = dirIndex[slot];
+        float pStay = dir < 0 ? P_STAY_STILL : P_STAY_MOVING;
+
+        for (int step = 0; step < HORIZON; step++) {
+            Arrays.fill(nextWindow, 0f);
+
+            for (int wy = 0; wy < WINDOW_SIDE; wy++) {
+                for (int wx = 0; wx < WINDOW_SIDE; wx++) {
+                    float mass = window[wy * WINDOW_SIDE + wx];
+                    if (mass == 0f) continue;
+
+                    int cell = wy * WINDOW_SIDE + wx;
+                    nextWindow[cell] += mass * pStay;
+
+                    for (int d = 0; d < 4; d++) {
+                        float p = dir < 0
+                                ? (1f - P_STAY_STILL) / 4f
+                                : (d == dir ? P_CONTINUE : (1f - P_CONTINUE - P_STAY_MOVING) / 3f);
+
+                        int nx = wx + DX[d];
+                        int ny = wy + DY[d];
+                        int gx = originX + nx;
+                        int gy = originY + ny;
+                        boolean blocked = nx < 0 || nx >= WINDOW_SIDE || ny < 0 || ny >= WINDOW_SIDE ||
+                                gx < 0 || gx >= width || gy < 0 || gy >= height ||
+                                (map != null && map.isBlocked(gx, gy));
+
+                        // В заблокированную клетку не пройти - сущность остается на месте
+                        nextWindow[blocked ? cell : ny * WINDOW_SIDE + nx] += mass * p;
+                    }
+                }
+            }
+
+            System.arraycopy(nextWindow, 0, window, 0, window.length);
+            accumulate(step, originX, originY);
+        }
+    }
+
+    private void accumulate(int step, int originX, int originY) {
+        float[] plane = heat[step];
+        for (int wy = 0; wy < WINDOW_SIDE; wy++) {
+            int gy = originY + wy;
+            if (gy < 0 || gy >= height) continue;
+            for (int wx = 0; wx < WINDOW_SIDE; wx++) {
+                float mass = window[wy * WINDOW_SIDE + wx];
+                int gx = originX + wx;
+                if (mass == 0f || gx < 0 || gx >= width) continue;
+
+                int idx = gy * width + gx;
+                if (plane[idx] == 0f) {
+                    markDirty(idx);
+                }
+                plane[idx] = Math.min(1f, plane[idx] + mass);
+            }
+        }
+    }
+
+    // Вероятность того, что клетка будет занята через ticksAhead тиков (1..HORIZON)
+    public float occupancy(int x, int y, int ticksAhead) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return 0f;
+        int step = Math.max(1, Math.min(HORIZON, ticksAhead)) - 1;
+        return heat[step][y * width + x];
+    }
+
+    // Максимальная вероятность занятости клетки на всем горизонте прогноза
+    public float maxOccupancy(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return 0f;
+        int idx = y * width + x;
+        float max = 0f;
+        for (int k = 0; k < HORIZON; k++) {
+            max = Math.max(max, heat[k][idx]);
+        }
+        return max;
+    }
+
+    public int getTrackedCount() {
+        return slotById.size();
+    }
+
+    // Направление движения: -1 если сущность стоит или неизвестна, иначе индекс {+x, -x, +y, -y}
+    public int getDirection(String id) {
+        Integer slot = slotById.get(id);
+        return slot == null ? -1 : dirIndex[slot];
+    }
+
+    private void markDirty(int idx) {
+        if (dirtyCount == dirty.length) {
+            dirty = Arrays.copyOf(dirty, dirty.length * 2);
+        }
+        dirty[dirtyCount++] = idx;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            int newCapacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, newCapacity);
+            posX = Arrays.copyOf(posX, newCapacity);
+            posY = Arrays.copyOf(posY, newCapacity);
+            dirIndex = Arrays.copyOf(dirIndex, newCapacity);
+            stillTicks = Arrays.copyOf(stillTicks, newCapacity);
+            lastSeenTick = Arrays.copyOf(lastSeenTick, newCapacity);
+            freeSlots = Arrays.copyOf(freeSlots, newCapacity);
+        }
+        return highWater++;
+    }
+
+    private void pushFreeSlot(int slot) {
+        freeSlots[freeCount++] = slot;
+    }
+}
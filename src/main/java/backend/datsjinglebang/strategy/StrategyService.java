@@ -1,18 +1,23 @@
 package backend.datsjinglebang.strategy;
 
+import backend.datsjinglebang.jfr.BomberDecisionEvent;
+import backend.datsjinglebang.logging.TickEventLog;
+import backend.datsjinglebang.logging.TickEventLog.Category;
 import backend.datsjinglebang.model.*;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
+import org.slf4j.event.Level;
 
 import java.util.*;
 
-@Service
+// Состояние стратегии одной команды; в приложении - по экземпляру на игровую сессию (GameSessionFactory)
 public class StrategyService {
-    private static final Logger log = LoggerFactory.getLogger(StrategyService.class);
-
     private int tickCounter = 0;
-    private final Random random = new Random();
+    // Тик игрового цикла текущего вызова: по нему журнал делает выборку и метит события
+    private int loopTick = 0;
+    private TickEventLog eventLog = TickEventLog.DISABLED;
+    private String sessionName = "local";
+    private final long randomSeed;
+    private final Random random;
+    private final StrategyTuning tuning;
     private final Map<String, Integer> bombCooldown = new HashMap<>();
     private final Map<String, String> lastAction = new HashMap<>();
 
@@ -36,20 +41,125 @@ public class StrategyService {
     private final Map<String, int[]> lastPositions = new HashMap<>();
     private final Map<String, Integer> samePositionCounter = new HashMap<>();
 
-    // Константы
-    private static final int BOMB_RADIUS = 1;      // Радиус взрыва бомбы (только соседние клетки)
-    private static final int BOMBER_VISION = 5;    // Радиус обзора бомбера (5 клеток)
-    private static final int STUCK_THRESHOLD_TICKS = 10; // 5 секунд при 2 тика в секунду = 10 тиков
-    private static final int SAME_POSITION_THRESHOLD = 5; // 2.5 секунд на одном месте
+    // Память карты между тиками (туман войны)
+    private final FogOfWarMap fogMap = new FogOfWarMap();
+
+    // Отслеживание движения врагов и мобов с прогнозом занятости клеток
+    private final MotionTracker enemyTracker = new MotionTracker();
+    private final MotionTracker mobTracker = new MotionTracker();
+
+    // Поле угрозы от мобов (аддитивная стоимость клеток)
+    private final MobThreatField threatField = new MobThreatField();
+
+    // Неизменяемый снимок арены тика с решением; читается и из других потоков (getSnapshot)
+    private volatile ArenaSnapshot snapshot = ArenaSnapshot.EMPTY;
+
+    // Сетка текущего тика (копия флагов снимка плюс отказы сервера)
+    private final ArenaGrid arenaGrid = new ArenaGrid();
+
+    // Оценка мест для бомб по всей цепной реакции; буферы общие на все кандидаты тика,
+    // итоги для мест без чужих бомб рядом кэшируются между тиками
+    private final ChainReactionEvaluator chainEvaluator;
+    // Ловушки для врагов; бомберы, которым в этом тике ставить бомбу ловушки
+    private final TrapEvaluator trapEvaluator;
+    // Готовые команды ловушек тика: пара уходит целиком или не уходит вовсе
+    private final Map<String, MoveBomber> trapCommands = new HashMap<>();
+    private int[] readySlots = new int[0];
+    private int[] trapSlots = new int[0];
+    private final int[] trapPartner = new int[1];
+    private final int[] trapSpot = new int[2];
+
+    // Отказы сервера по нашим командам (ArenaResponse.errors и GET /logs)
+    private final CommandFeedback commandFeedback = new CommandFeedback();
+
+    // Возможности бомберов по бустерам текущего тика
+    private BomberCapabilities capabilities = BomberCapabilities.DEFAULTS;
+
+    // Инкрементальное планирование длинных маршрутов (D* Lite), состояние по бомберам
+    private final TraversalCostMap traversalCosts = new TraversalCostMap();
+    private final Map<String, DStarLitePlanner> routePlanners = new HashMap<>();
+    private final int[] routeBuffer = new int[2 * BomberCapabilities.MAX_ROUTE_STEPS];
+
+    // Направления - общие неизменяемые таблицы вместо новых массивов на каждый вызов
+    private static final int[][] DIRECTIONS = {{1,0},{-1,0},{0,1},{0,-1}};
+    private static final int[][][] OFFSET_DIRECTION_ORDERS = {
+            {{1,0},{0,1},{0,-1},{-1,0}},
+            {{-1,0},{0,1},{0,-1},{1,0}},
+            {{0,1},{1,0},{-1,0},{0,-1}},
+            {{0,-1},{1,0},{-1,0},{0,1}}
+    };
+    private static final int[][][] PATROL_DIRECTION_ORDERS = {
+            {{1,0},{0,1},{0,-1},{-1,0}},
+            {{-1,0},{0,-1},{0,1},{1,0}},
+            {{0,1},{1,0},{-1,0},{0,-1}},
+            {{0,-1},{-1,0},{1,0},{0,1}}
+    };
+
+    public StrategyService() {
+        this(System.nanoTime());
+    }
+
+    // Явное зерно - для воспроизводимого повтора записанных сессий
+    public StrategyService(long randomSeed) {
+        this(randomSeed, StrategyTuning.defaults());
+    }
+
+    // Свои пороги и веса - для турниров самоигры
+    public StrategyService(long randomSeed, StrategyTuning tuning) {
+        this.randomSeed = randomSeed;
+        this.random = new Random(randomSeed);
+        this.tuning = tuning;
+        this.chainEvaluator = new ChainReactionEvaluator(tuning);
+        this.trapEvaluator = new TrapEvaluator(chainEvaluator);
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    // Журнал и имя сессии задает игровая сессия; вне приложения (реплей, самоигра, тесты)
+    // журнал выключен
+    public void setEventLog(TickEventLog eventLog, String sessionName) {
+        this.eventLog = eventLog;
+        this.sessionName = sessionName;
+    }
 
+    // Вне игрового цикла (реплей, самоигра, прогрев) тик цикла - номер вызова
     public MoveRequest decideMove(ArenaResponse arena, BoosterResponse boosters) {
+        return decideMove(arena, boosters, tickCounter + 1);
+    }
+
+    // loopTick - номер тика GameLoopService. Вызовов стратегии может быть меньше, чем тиков
+    // цикла (тики без арены или бустеров), поэтому события бомберов выбираются по тику цикла -
+    // тогда они выводятся в тех же тиках, что и строки самого цикла
+    public MoveRequest decideMove(ArenaResponse arena, BoosterResponse boosters, int loopTick) {
         tickCounter++;
+        this.loopTick = loopTick;
+        updateCapabilities(boosters);
+        commandFeedback.submitArenaErrors(arena.errors);
+        commandFeedback.apply(tickCounter);
+
+        // Карту обновляем каждый тик, даже если команды в этом тике не отправляем
+        fogMap.update(arena, capabilities.getViewRadius(), tickCounter);
+        updateMotionTrackers(arena);
+        threatField.build(arena);
 
         if (tickCounter % 2 != 0) {
             return null;
         }
 
-        log.debug("=== Tick {} ===", tickCounter);
+        bomberEvent(Level.DEBUG, "[T{}][{}] === Tick {} ===").arg(tickCounter).publish();
+
+        snapshot = ArenaSnapshot.of(arena, capabilities.getBlastRadius(), snapshot);
+        arenaGrid.build(snapshot);
+        commandFeedback.markBlocked(arenaGrid);
+        for (String bomberId : commandFeedback.takeReplans()) {
+            // Прежний маршрут сервер отклонил - строим заново по обновленной сетке
+            routePlanners.remove(bomberId);
+            bomberEvent(Level.DEBUG, "[T{}][{}] ↩️ Bomber {} command rejected by server, replanning")
+                    .arg(bomberId).publish();
+        }
+        traversalCosts.update(arena, arenaGrid, threatField, capabilities);
 
         List<MoveBomber> commands = new ArrayList<>();
 
@@ -59,20 +169,40 @@ public class StrategyService {
         // Очистка данных о мертвых бомберах
         cleanupDeadBombers(arena);
 
+        // Враги, которых можно запереть бомбами прямо сейчас (в том числе вдвоем)
+        planTraps(arena);
+
         for (Bomber bomber : arena.bombers) {
             if (!bomber.alive || !bomber.can_move) {
                 continue;
             }
 
+            BomberDecisionEvent decision = null;
+            if (BomberDecisionEvent.isRecording()) {
+                decision = new BomberDecisionEvent();
+                decision.begin();
+            }
+
             updateCooldown(bomber.id);
 
+            MoveBomber trapBomb = trapCommands.get(bomber.id);
+            if (trapBomb != null) {
+                bomberEvent(Level.INFO, "[T{}][{}] 🪤 Bomber {}: Enemy can't walk out of the blast - trapping!")
+                        .arg(bomber.id).publish();
+                lastAction.put(bomber.id, "TRAP_BOMB");
+                markTrapBombPlanted(bomber.id);
+                commands.add(trapBomb);
+                logBomberAction(bomber, trapBomb, decision);
+                continue;
+            }
+
             // Проверяем, нужно ли продолжать убегать от бомбы
             if (shouldContinueEscaping(bomber.id, arena)) {
                 lastAction.put(bomber.id, "ESCAPE");
                 MoveBomber escapeCommand = continueBombEscape(bomber, arena);
                 if (escapeCommand != null) {
                     commands.add(escapeCommand);
-                    logBomberAction(bomber, escapeCommand);
+                    logBomberAction(bomber, escapeCommand, decision);
                 }
                 continue;
             }
@@ -83,18 +213,19 @@ public class StrategyService {
                 MoveBomber dangerEscape = escapeFromDanger(bomber, arena);
                 if (dangerEscape != null) {
                     commands.add(dangerEscape);
-                    logBomberAction(bomber, dangerEscape);
+                    logBomberAction(bomber, dangerEscape, decision);
                 }
                 continue;
             }
 
             // НОВАЯ ПРОВЕРКА: Если бомбер застрял в замкнутом пространстве
             if (isBomberStuckInEnclosedSpace(bomber, arena)) {
-                log.info("🚨 Bomber {} is STUCK in enclosed space! Forcing bomb placement", bomber.id);
+                bomberEvent(Level.INFO, "[T{}][{}] 🚨 Bomber {} is STUCK in enclosed space! Forcing bomb placement")
+                        .arg(bomber.id).publish();
                 MoveBomber forcedBomb = tryForceBombInEnclosedSpace(bomber, arena);
                 if (forcedBomb != null) {
                     commands.add(forcedBomb);
-                    logBomberAction(bomber, forcedBomb);
+                    logBomberAction(bomber, forcedBomb, decision);
                     continue;
                 }
             }
@@ -102,7 +233,7 @@ public class StrategyService {
             MoveBomber command = createSmartBombCommand(bomber, arena);
             if (command != null) {
                 commands.add(command);
-                logBomberAction(bomber, command);
+                logBomberAction(bomber, command, decision);
             }
         }
 
@@ -113,6 +244,144 @@ public class StrategyService {
         return new MoveRequest(commands);
     }
 
+    private void updateMotionTrackers(ArenaResponse arena) {
+        if (arena.map_size == null || arena.map_size.length < 2) return;
+
+        enemyTracker.beginTick(tickCounter, arena.map_size[0], arena.map_size[1]);
+        if (arena.enemies != null) {
+            for (Enemy enemy : arena.enemies) {
+                enemyTracker.observe(enemy.id, enemy.pos);
+            }
+        }
+        enemyTracker.endTick(fogMap);
+
+        mobTracker.beginTick(tickCounter, arena.map_size[0], arena.map_size[1]);
+        if (arena.mobs != null) {
+            for (Mob mob : arena.mobs) {
+                mobTracker.observe(mob.id, mob.pos);
+            }
+        }
+        mobTracker.endTick(fogMap);
+    }
+
+    // Вероятность задеть врага бомбой с позиции pos к моменту взрыва (по прогнозу трекера)
+    private float predictedEnemyHitChance(int x, int y, ArenaResponse arena) {
+        float chance = enemyTracker.occupancy(x, y, MotionTracker.HORIZON);
+        for (int[] dir : DIRECTIONS) {
+            for (int i = 1; i <= capabilities.getBlastRadius(); i++) {
+                int checkX = x + dir[0] * i;
+                int checkY = y + dir[1] * i;
+                if (!isValidCell(checkX, checkY, arena) || fogMap.isBlocked(checkX, checkY)) break;
+                chance += enemyTracker.occupancy(checkX, checkY, MotionTracker.HORIZON);
+            }
+        }
+        return Math.min(1f, chance);
+    }
+
+    // Кэш оценок мест для бомб; его счетчики - метрики сессии (GameSessionFactory)
+    public EvaluationCache getChainEvaluationCache() {
+        return chainEvaluator.getCache();
+    }
+
+    // Последнее выбранное действие бомбера (ESCAPE, STRATEGIC_BOMB, PATROL, ...) - для трассировки тиков
+    public String getLastAction(String bomberId) {
+        return lastAction.get(bomberId);
+    }
+
+    public CommandFeedback getCommandFeedback() {
+        return commandFeedback;
+    }
+
+    // Снимок последнего тика с решением; безопасно читать из любого потока
+    public ArenaSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public BomberCapabilities getCapabilities() {
+        return capabilities;
+    }
+
+    private void updateCapabilities(BoosterResponse boosters) {
+        BomberCapabilities next = BomberCapabilities.from(boosters);
+        if (next.equals(capabilities)) return;
+
+        bomberEvent(Level.INFO, "[T{}][{}] 🎒 Capabilities changed: {}").arg(next).publish();
+        capabilities = next;
+    }
+
+    // Бомберы, которые могут поставить бомбу в этом тике, - кандидаты в ловушки.
+    // Команды строятся сразу для всей ловушки: бомба на месте и путь отхода, найденный
+    // при бомбах всех ее участников; если хоть одному уйти некуда - ловушки нет ни у кого
+    private void planTraps(ArenaResponse arena) {
+        trapCommands.clear();
+        if (snapshot.getEnemyCount() == 0) return;
+        if (readySlots.length < snapshot.getBomberCount()) {
+            readySlots = new int[snapshot.getBomberCount()];
+            trapSlots = new int[2 * snapshot.getBomberCount()];
+        }
+
+        int ready = 0;
+        for (Bomber bomber : arena.bombers) {
+            if (!bomber.alive || !bomber.can_move || bomber.bombs_available <= 0 || bomber.pos == null) continue;
+            // Кулдаун уменьшится в этом же тике (updateCooldown)
+            if (bombCooldown.getOrDefault(bomber.id, 0) > 1 || escapeTicks.getOrDefault(bomber.id, 0) > 0) continue;
+            if (isOnBomb(bomber.pos, arena) || isInDangerZone(bomber.pos, arena)) continue;
+            int slot = snapshot.bomberSlot(bomber.id);
+            if (slot != ArenaSnapshot.NO_SLOT) {
+                readySlots[ready++] = slot;
+            }
+        }
+        if (ready == 0) return;
+
+        int planned = trapEvaluator.plan(snapshot, arenaGrid, capabilities, readySlots, ready, trapSlots);
+        for (int t = 0; t < planned; t++) {
+            int first = trapSlots[2 * t];
+            int second = trapSlots[2 * t + 1];
+            MoveBomber firstCommand = trapCommand(first, second);
+            MoveBomber secondCommand = second >= 0 ? trapCommand(second, first) : null;
+            if (firstCommand == null || (second >= 0 && secondCommand == null)) {
+                bomberEvent(Level.WARN, "[T{}][{}] ⚠️ Trap with bomber {} dropped: no escape with all trap bombs in place")
+                        .arg(snapshot.bomberId(first)).publish();
+                continue;
+            }
+            trapCommands.put(firstCommand.getId(), firstCommand);
+            if (secondCommand != null) {
+                trapCommands.put(secondCommand.getId(), secondCommand);
+            }
+        }
+    }
+
+    // Бомба на клетке бомбера и отход с учетом бомбы напарника (partner -1 - без него); null - уйти некуда
+    private MoveBomber trapCommand(int slot, int partner) {
+        int x = snapshot.bomberX(slot);
+        int y = snapshot.bomberY(slot);
+        int partners = 0;
+        if (partner >= 0) {
+            trapPartner[partners++] = snapshot.bomberY(partner) * snapshot.getWidth() + snapshot.bomberX(partner);
+        }
+        if (!chainEvaluator.evaluate(snapshot, arenaGrid, capabilities, x, y, x, y, trapPartner, partners).isSafe()) {
+            return null;
+        }
+        PackedPath path = new PackedPath();
+        chainEvaluator.copyEscapePath(path);
+        return new MoveBomber(snapshot.bomberId(slot), path, PackedPath.of(x, y));
+    }
+
+    // Бомба ловушки уходит в этом тике: кулдаун и счетчики как у обычной постановки.
+    // Отход дальше ведет проверка опасности по снимку, а не прямолинейный continueBombEscape
+    private void markTrapBombPlanted(String bomberId) {
+        lastBombTick.put(bomberId, tickCounter);
+        bombCooldown.put(bomberId, 6);
+        lastSuccessfulBombTick.put(bomberId, tickCounter);
+        stuckCounter.put(bomberId, 0);
+        samePositionCounter.put(bomberId, 0);
+    }
+
+    // Клетка, куда бомбер может шагнуть с текущими бустерами (сетка тика уже построена)
+    private boolean canStep(int x, int y) {
+        return !arenaGrid.isBlocked(x, y, capabilities.getMovementMask());
+    }
+
     // НОВЫЙ МЕТОД: Проверяет, застрял ли бомбер в замкнутом пространстве
     private boolean isBomberStuckInEnclosedSpace(Bomber bomber, ArenaResponse arena) {
         String bomberId = bomber.id;
@@ -126,12 +395,12 @@ public class StrategyService {
             samePositionCounter.put(bomberId, samePosCount);
 
             // Если стоит на одном месте дольше порога
-            if (samePosCount > SAME_POSITION_THRESHOLD) {
+            if (samePosCount > tuning.getSamePositionThreshold()) {
                 // Проверяем, мало ли доступных направлений
                 int availableDirections = countAvailableDirections(currentPos, arena);
                 if (availableDirections <= 2) { // В замкнутом пространстве обычно 1-2 выхода
-                    log.debug("Bomber {} stuck in same position for {} ticks with {} available directions",
-                            bomberId, samePosCount, availableDirections);
+                    bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} stuck in same position for {} ticks with {} available directions")
+                            .arg(bomberId).arg(samePosCount).arg(availableDirections).publish();
                     return true;
                 }
             }
@@ -145,7 +414,7 @@ public class StrategyService {
         int lastBombTime = lastSuccessfulBombTick.getOrDefault(bomberId, 0);
         int ticksSinceLastBomb = tickCounter - lastBombTime;
 
-        if (ticksSinceLastBomb > STUCK_THRESHOLD_TICKS) {
+        if (ticksSinceLastBomb > tuning.getStuckThresholdTicks()) {
             // Проверяем окружение
             int availableDirections = countAvailableDirections(currentPos, arena);
             boolean isEnclosed = availableDirections <= 1; // Тупик
@@ -154,8 +423,8 @@ public class StrategyService {
                 int stuckCount = stuckCounter.getOrDefault(bomberId, 0);
                 stuckCounter.put(bomberId, stuckCount + 1);
 
-                log.info("⚠️ Bomber {} in enclosed space for {} ticks (available directions: {})",
-                        bomberId, ticksSinceLastBomb, availableDirections);
+                bomberEvent(Level.INFO, "[T{}][{}] ⚠️ Bomber {} in enclosed space for {} ticks (available directions: {})")
+                        .arg(bomberId).arg(ticksSinceLastBomb).arg(availableDirections).publish();
                 return true;
             } else {
                 stuckCounter.put(bomberId, 0);
@@ -167,20 +436,11 @@ public class StrategyService {
 
     // НОВЫЙ МЕТОД: Считает доступные направления для движения
     private int countAvailableDirections(int[] pos, ArenaResponse arena) {
+        int mask = capabilities.getMovementMask();
         int count = 0;
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-
-        for (int[] dir : directions) {
-            int newX = pos[0] + dir[0];
-            int newY = pos[1] + dir[1];
-
-            if (isValidCell(newX, newY, arena) &&
-                    !isObstacle(newX, newY, arena) &&
-                    !isOnBomb(new int[]{newX, newY}, arena)) {
-                count++;
-            }
+        for (int[] dir : DIRECTIONS) {
+            if (!arenaGrid.isBlocked(pos[0] + dir[0], pos[1] + dir[1], mask)) count++;
         }
-
         return count;
     }
 
@@ -190,33 +450,34 @@ public class StrategyService {
 
         // Проверяем базовые условия
         if (bombCooldown.containsKey(bomber.id) && bombCooldown.get(bomber.id) > 0) {
-            log.debug("Bomber {}: Cooldown active, cannot force bomb", bomber.id);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {}: Cooldown active, cannot force bomb")
+                    .arg(bomber.id).publish();
             return tryFindEscapeRoute(bomber, arena);
         }
         if (bomber.bombs_available <= 0) {
-            log.debug("Bomber {}: No bombs available, trying to escape", bomber.id);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {}: No bombs available, trying to escape")
+                    .arg(bomber.id).publish();
             return tryFindEscapeRoute(bomber, arena);
         }
         if (isOnBomb(currentPos, arena)) {
-            log.debug("Bomber {}: Already on bomb, trying to escape", bomber.id);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {}: Already on bomb, trying to escape").arg(bomber.id).publish();
             return tryFindEscapeRoute(bomber, arena);
         }
         if (isNextToBomb(currentPos, arena)) {
-            log.debug("Bomber {}: Next to bomb, trying to escape", bomber.id);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {}: Next to bomb, trying to escape").arg(bomber.id).publish();
             return tryFindEscapeRoute(bomber, arena);
         }
 
         // В замкнутом пространстве ищем любую стену для разрушения
         // Проверяем, есть ли стены рядом
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int checkX = currentPos[0] + dir[0];
             int checkY = currentPos[1] + dir[1];
 
             if (isWall(checkX, checkY, arena)) {
                 // Нашли стену рядом - ставим бомбу
-                log.info("💥 Bomber {} FORCING BOMB in enclosed space next to wall at ({},{})",
-                        bomber.id, checkX, checkY);
+                bomberEvent(Level.INFO, "[T{}][{}] 💥 Bomber {} FORCING BOMB in enclosed space next to wall at ({},{})")
+                        .arg(bomber.id).arg(checkX).arg(checkY).publish();
                 lastSuccessfulBombTick.put(bomber.id, tickCounter);
                 stuckCounter.put(bomber.id, 0);
                 samePositionCounter.put(bomber.id, 0);
@@ -228,8 +489,8 @@ public class StrategyService {
         // Если стен нет рядом, ищем ближайшую стену
         int[] nearestWall = findNearestWallInEnclosedSpace(currentPos, arena);
         if (nearestWall != null) {
-            log.info("🚶 Bomber {} moving to nearest wall in enclosed space at ({},{})",
-                    bomber.id, nearestWall[0], nearestWall[1]);
+            bomberEvent(Level.INFO, "[T{}][{}] 🚶 Bomber {} moving to nearest wall in enclosed space at ({},{})")
+                    .arg(bomber.id).arg(nearestWall[0]).arg(nearestWall[1]).publish();
             return moveToTarget(bomber, nearestWall, arena);
         }
 
@@ -269,15 +530,13 @@ public class StrategyService {
         int[] currentPos = bomber.pos;
 
         // Ищем любое доступное направление
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
         List<int[]> availableMoves = new ArrayList<>();
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) &&
-                    !isObstacle(newX, newY, arena) &&
+            if (canStep(newX, newY) &&
                     !isOnBomb(new int[]{newX, newY}, arena)) {
                 availableMoves.add(new int[]{newX, newY});
             }
@@ -286,16 +545,17 @@ public class StrategyService {
         if (!availableMoves.isEmpty()) {
             // Выбираем случайное направление
             int[] target = availableMoves.get(random.nextInt(availableMoves.size()));
-            log.info("🧭 Bomber {} trying to escape enclosed space to ({},{})",
-                    bomber.id, target[0], target[1]);
+            bomberEvent(Level.INFO, "[T{}][{}] 🧭 Bomber {} trying to escape enclosed space to ({},{})")
+                    .arg(bomber.id).arg(target[0]).arg(target[1]).publish();
             return moveToTarget(bomber, target, arena);
         }
 
         // Если нет доступных ходов, остаемся на месте
-        log.warn("⚠️ Bomber {} completely trapped in enclosed space!", bomber.id);
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        bomberEvent(Level.WARN, "[T{}][{}] ⚠️ Bomber {} completely trapped in enclosed space!")
+                .arg(bomber.id).publish();
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     private void updateCooldown(String bomberId) {
@@ -303,7 +563,7 @@ public class StrategyService {
             int cooldown = bombCooldown.get(bomberId);
             if (cooldown > 0) {
                 bombCooldown.put(bomberId, cooldown - 1);
-                log.debug("Bomber {} cooldown: {}", bomberId, cooldown - 1);
+                bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} cooldown: {}").arg(bomberId).arg(cooldown - 1).publish();
             } else {
                 bombCooldown.put(bomberId, 0);
             }
@@ -325,9 +585,8 @@ public class StrategyService {
                 stuckCounter.put(bomber.id, 0); // Инициализация
                 samePositionCounter.put(bomber.id, 0); // Инициализация
 
-                log.info("🎯 Bomber {} assigned to group {}, direction {}",
-                        bomber.id, bomberGroup.get(bomber.id),
-                        preferredDirection.get(bomber.id));
+                bomberEvent(Level.INFO, "[T{}][{}] 🎯 Bomber {} assigned to group {}, direction {}")
+                        .arg(bomber.id).arg(bomberGroup.get(bomber.id)).arg(preferredDirection.get(bomber.id)).publish();
             }
         }
     }
@@ -426,10 +685,10 @@ public class StrategyService {
     // НОВЫЙ МЕТОД: Убегание от опасной зоны
     private MoveBomber escapeFromDanger(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
-        log.info("🚨 Bomber {} in DANGER ZONE! Escaping immediately!", bomber.id);
+        bomberEvent(Level.INFO, "[T{}][{}] 🚨 Bomber {} in DANGER ZONE! Escaping immediately!").arg(bomber.id).publish();
 
         // Ищем самое безопасное направление (подальше от бомб)
         int[] safeDirection = findSafestEscapeDirection(currentPos, arena);
@@ -437,41 +696,39 @@ public class StrategyService {
             int newX = currentPos[0] + safeDirection[0];
             int newY = currentPos[1] + safeDirection[1];
 
-            if (isValidCell(newX, newY, arena) && !isObstacle(newX, newY, arena)) {
-                path.add(Arrays.asList(newX, newY));
+            if (canStep(newX, newY)) {
+                path.add(newX, newY);
 
                 // Пробуем убежать на 2 клетки
                 int nextX = newX + safeDirection[0];
                 int nextY = newY + safeDirection[1];
-                if (isValidCell(nextX, nextY, arena) && !isObstacle(nextX, nextY, arena)) {
-                    path.add(Arrays.asList(nextX, nextY));
+                if (canStep(nextX, nextY)) {
+                    path.add(nextX, nextY);
                 }
             }
         }
 
         // Если не нашли безопасного направления, идем в любую сторону
         if (path.size() == 1) {
-            int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-            for (int[] dir : directions) {
+            for (int[] dir : DIRECTIONS) {
                 int newX = currentPos[0] + dir[0];
                 int newY = currentPos[1] + dir[1];
-                if (isValidCell(newX, newY, arena) && !isObstacle(newX, newY, arena)) {
-                    path.add(Arrays.asList(newX, newY));
+                if (canStep(newX, newY)) {
+                    path.add(newX, newY);
                     break;
                 }
             }
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     // НОВЫЙ МЕТОД: Находит самое безопасное направление для убегания
     private int[] findSafestEscapeDirection(int[] from, ArenaResponse arena) {
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
         int[] safestDir = null;
         int maxSafetyScore = -1000;
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int safetyScore = 0;
 
             // Проверяем 3 клетки в этом направлении
@@ -505,6 +762,9 @@ public class StrategyService {
                 if (!isObstacle(checkX, checkY, arena)) {
                     safetyScore += 5;
                 }
+
+                // Штраф за близость мобов
+                safetyScore -= threatField.threatAt(checkX, checkY);
             }
 
             if (safetyScore > maxSafetyScore) {
@@ -550,81 +810,39 @@ public class StrategyService {
         return false;
     }
 
-    // ИСПРАВЛЕННЫЙ МЕТОД: Проверяет, находимся ли в опасной зоне (в радиусе взрыва бомбы по кресту)
-    private boolean isInDangerZone(int[] pos, ArenaResponse arena) {
-        if (arena.arena == null || arena.arena.bombs == null) return false;
-
-        for (Bomb bomb : arena.arena.bombs) {
-            if (bomb.pos == null || bomb.pos.length < 2) continue;
-
-            // Проверяем только по кресту (вертикаль и горизонталь)
-            if (bomb.pos[0] == pos[0]) { // Одинаковая X координата - вертикальная линия
-                int minY = Math.min(bomb.pos[1], pos[1]);
-                int maxY = Math.max(bomb.pos[1], pos[1]);
-                boolean clearPath = true;
-
-                // Проверяем клетки между бомбой и позицией
-                for (int y = minY + 1; y < maxY; y++) {
-                    if (isWall(bomb.pos[0], y, arena) || isObstacle(bomb.pos[0], y, arena)) {
-                        clearPath = false;
-                        break;
-                    }
-                }
-
-                if (clearPath && Math.abs(bomb.pos[1] - pos[1]) <= BOMB_RADIUS) {
-                    return true;
-                }
-            }
-
-            if (bomb.pos[1] == pos[1]) { // Одинаковая Y координата - горизонтальная линия
-                int minX = Math.min(bomb.pos[0], pos[0]);
-                int maxX = Math.max(bomb.pos[0], pos[0]);
-                boolean clearPath = true;
-
-                // Проверяем клетки между бомбой и позицией
-                for (int x = minX + 1; x < maxX; x++) {
-                    if (isWall(x, bomb.pos[1], arena) || isObstacle(x, bomb.pos[1], arena)) {
-                        clearPath = false;
-                        break;
-                    }
-                }
-
-                if (clearPath && Math.abs(bomb.pos[0] - pos[0]) <= BOMB_RADIUS) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    // Проверяет, находимся ли в опасной зоне (в кресте взрыва бомбы) - по карте опасности снимка
+    // Пакетная видимость - для бенчмарков
+    boolean isInDangerZone(int[] pos, ArenaResponse arena) {
+        return snapshot.inDanger(pos[0], pos[1]);
     }
 
     // НОВЫЙ МЕТОД: Немедленно убегает от бомбы
     private MoveBomber escapeFromBombImmediately(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
-        log.warn("💥 Bomber {} ON or NEXT TO BOMB! Emergency escape!", bomber.id);
+        bomberEvent(Level.WARN, "[T{}][{}] 💥 Bomber {} ON or NEXT TO BOMB! Emergency escape!").arg(bomber.id).publish();
 
         // Ищем любое направление для побега
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) && !isObstacle(newX, newY, arena)) {
-                path.add(Arrays.asList(newX, newY));
+            if (canStep(newX, newY)) {
+                path.add(newX, newY);
 
                 // Пробуем убежать на 2 клетки
                 int nextX = newX + dir[0];
                 int nextY = newY + dir[1];
-                if (isValidCell(nextX, nextY, arena) && !isObstacle(nextX, nextY, arena)) {
-                    path.add(Arrays.asList(nextX, nextY));
+                if (canStep(nextX, nextY)) {
+                    path.add(nextX, nextY);
                 }
                 break;
             }
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     // НОВЫЙ МЕТОД: Ставит бомбу и безопасно убегает
@@ -632,18 +850,19 @@ public class StrategyService {
         int[] currentPos = bomber.pos;
 
         // Проверяем, есть ли безопасный путь для отступления
-        List<List<Integer>> escapePath = findSafeEscapePathFromBomb(currentPos, arena);
+        PackedPath escapePath = findSafeEscapePathFromBomb(currentPos, arena);
 
         if (escapePath.size() <= 1) {
             // Нет безопасного пути - не ставим бомбу
-            log.warn("⚠️ Bomber {}: No safe escape path, skipping bomb", bomber.id);
+            bomberEvent(Level.WARN, "[T{}][{}] ⚠️ Bomber {}: No safe escape path, skipping bomb")
+                    .arg(bomber.id).publish();
             lastAction.put(bomber.id, "ABORT_BOMB");
             return patrolInZone(bomber, arena);
         }
 
         // Ставим бомбу
-        List<List<Integer>> bombs = new ArrayList<>();
-        bombs.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath bombs = new PackedPath(1);
+        bombs.add(currentPos[0], currentPos[1]);
         bombCooldown.put(bomber.id, 6);
 
         // Запоминаем, что мы убегаем от бомбы
@@ -657,14 +876,13 @@ public class StrategyService {
 
         // Определяем направление убегания (первый шаг пути)
         if (escapePath.size() > 1) {
-            List<Integer> firstStep = escapePath.get(1);
-            int dx = firstStep.get(0) - currentPos[0];
-            int dy = firstStep.get(1) - currentPos[1];
+            int dx = escapePath.x(1) - currentPos[0];
+            int dy = escapePath.y(1) - currentPos[1];
             escapeDirection.put(bomber.id, new int[]{dx, dy});
         }
 
-        log.info("💣💣💣 Bomber {} PLANTING STRATEGIC BOMB at ({},{}) - ESCAPING SAFELY!",
-                bomber.id, currentPos[0], currentPos[1]);
+        bomberEvent(Level.INFO, "[T{}][{}] 💣💣💣 Bomber {} PLANTING STRATEGIC BOMB at ({},{}) - ESCAPING SAFELY!")
+                .arg(bomber.id).arg(currentPos[0]).arg(currentPos[1]).publish();
 
         return new MoveBomber(bomber.id, escapePath, bombs);
     }
@@ -672,8 +890,8 @@ public class StrategyService {
     // НОВЫЙ МЕТОД: Продолжает убегать от бомбы
     private MoveBomber continueBombEscape(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
         // Продолжаем двигаться в том же направлении
         int[] escapeDir = escapeDirection.get(bomber.id);
@@ -681,14 +899,14 @@ public class StrategyService {
             int newX = currentPos[0] + escapeDir[0];
             int newY = currentPos[1] + escapeDir[1];
 
-            if (isValidCell(newX, newY, arena) && !isObstacle(newX, newY, arena)) {
-                path.add(Arrays.asList(newX, newY));
+            if (canStep(newX, newY)) {
+                path.add(newX, newY);
 
                 // Если можем, идем еще на одну клетку
                 int nextX = newX + escapeDir[0];
                 int nextY = newY + escapeDir[1];
-                if (isValidCell(nextX, nextY, arena) && !isObstacle(nextX, nextY, arena)) {
-                    path.add(Arrays.asList(nextX, nextY));
+                if (canStep(nextX, nextY)) {
+                    path.add(nextX, nextY);
                 }
             } else {
                 // Если не можем идти в том же направлении, ищем новое
@@ -699,41 +917,38 @@ public class StrategyService {
             return findAlternativeEscapePath(bomber, arena);
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     // НОВЫЙ МЕТОД: Находит альтернативный путь для убегания
     private MoveBomber findAlternativeEscapePath(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
         // Ищем любое безопасное направление
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) && !isObstacle(newX, newY, arena)) {
-                path.add(Arrays.asList(newX, newY));
+            if (canStep(newX, newY)) {
+                path.add(newX, newY);
                 break;
             }
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     // НОВЫЙ МЕТОД: Находит безопасный путь для отступления от бомбы
-    private List<List<Integer>> findSafeEscapePathFromBomb(int[] from, ArenaResponse arena) {
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(from[0], from[1]));
-
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
+    private PackedPath findSafeEscapePathFromBomb(int[] from, ArenaResponse arena) {
+        PackedPath path = new PackedPath();
+        path.add(from[0], from[1]);
 
         // Оцениваем каждое направление по безопасности
         List<int[]> safeDirections = new ArrayList<>();
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             boolean isSafe = true;
             List<int[]> escapeCells = new ArrayList<>();
 
@@ -742,7 +957,7 @@ public class StrategyService {
                 int checkX = from[0] + dir[0] * i;
                 int checkY = from[1] + dir[1] * i;
 
-                if (!isValidCell(checkX, checkY, arena) || isObstacle(checkX, checkY, arena)) {
+                if (!canStep(checkX, checkY)) {
                     isSafe = false;
                     break;
                 }
@@ -782,40 +997,40 @@ public class StrategyService {
             for (int i = 1; i <= 3; i++) {
                 int newX = from[0] + bestDir[0] * i;
                 int newY = from[1] + bestDir[1] * i;
-                path.add(Arrays.asList(newX, newY));
+                path.add(newX, newY);
             }
             return path;
         }
 
         // Если нет полностью безопасного пути, ищем на 2 клетки
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int step1X = from[0] + dir[0];
             int step1Y = from[1] + dir[1];
             int step2X = step1X + dir[0];
             int step2Y = step1Y + dir[1];
 
-            if (isValidCell(step1X, step1Y, arena) && !isObstacle(step1X, step1Y, arena) &&
-                    isValidCell(step2X, step2Y, arena) && !isObstacle(step2X, step2Y, arena) &&
+            if (canStep(step1X, step1Y) &&
+                    canStep(step2X, step2Y) &&
                     !isOnBomb(new int[]{step1X, step1Y}, arena) && !isOnBomb(new int[]{step2X, step2Y}, arena)) {
-                path.add(Arrays.asList(step1X, step1Y));
-                path.add(Arrays.asList(step2X, step2Y));
+                path.add(step1X, step1Y);
+                path.add(step2X, step2Y);
                 return path;
             }
         }
 
         // Если нет на 2 клетки, ищем на 1 клетку
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = from[0] + dir[0];
             int newY = from[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) && !isObstacle(newX, newY, arena) &&
+            if (canStep(newX, newY) &&
                     !isOnBomb(new int[]{newX, newY}, arena)) {
-                path.add(Arrays.asList(newX, newY));
+                path.add(newX, newY);
                 return path;
             }
         }
 
-        log.warn("⚠️ No safe escape path found from bomb!");
+        bomberEvent(Level.WARN, "[T{}][{}] ⚠️ No safe escape path found from bomb!").publish();
         return path; // Остаемся на месте
     }
 
@@ -853,54 +1068,51 @@ public class StrategyService {
 
         // ПРОВЕРЯЕМ ТОЛЬКО СТРАТЕГИЧЕСКИ ВЫГОДНЫЕ ПОЗИЦИИ:
 
-        // 1. Может ли бомба разрушить несколько стен за раз
-        if (canDestroyMultipleWalls(currentPos, arena)) {
-            log.info("🎯 Bomber {}: Can destroy multiple walls!", bomber.id);
+        // 1. Бомба со всей цепной реакцией разрушит несколько стен (или заденет врага), и от нее можно уйти
+        ChainReactionEvaluator.Result chain = evaluateChain(currentPos[0], currentPos[1], currentPos);
+        if (chain.isSafe() && chain.getScore() >= tuning.getBombSpotMinScore()) {
+            // Результат оценки переиспользуется - в асинхронный журнал идут числа, а не он сам
+            bomberEvent(Level.INFO,
+                            "[T{}][{}] 🎯 Bomber {}: Chain blast pays off: score={} (obstacles={}, enemies={}, chain={}, escape={})")
+                    .arg(bomber.id).arg(chain.getScore())
+                    .arg(chain.getObstacles()).arg(chain.getEnemies()).arg(chain.getChainBombs()).arg(chain.getEscapeSteps())
+                    .publish();
             return true;
         }
 
         // 2. Бомба у стены и враг в радиусе взрыва
         if (isWallWithEnemyInRange(currentPos, arena)) {
-            log.info("🎯 Bomber {}: Wall with enemy in range!", bomber.id);
+            bomberEvent(Level.INFO, "[T{}][{}] 🎯 Bomber {}: Wall with enemy in range!").arg(bomber.id).publish();
             return true;
         }
 
         // 3. Прямо рядом с врагом
         if (isDirectlyNextToEnemy(currentPos, arena)) {
-            log.info("🎯 Bomber {}: Enemy right next to us!", bomber.id);
+            bomberEvent(Level.INFO, "[T{}][{}] 🎯 Bomber {}: Enemy right next to us!").arg(bomber.id).publish();
+            return true;
+        }
+
+        // 4. Враг, судя по траектории, окажется в зоне взрыва к моменту детонации
+        if (predictedEnemyHitChance(currentPos[0], currentPos[1], arena) >= tuning.getPredictedHitThreshold()) {
+            bomberEvent(Level.INFO, "[T{}][{}] 🎯 Bomber {}: Enemy predicted to walk into blast!")
+                    .arg(bomber.id).publish();
             return true;
         }
 
         return false;
     }
 
-    // НОВЫЙ МЕТОД: Проверяет, может ли бомба разрушить несколько стен
-    private boolean canDestroyMultipleWalls(int[] pos, ArenaResponse arena) {
-        int wallCount = 0;
-
-        // Проверяем только соседние клетки по горизонтали и вертикали
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-
-        for (int[] dir : directions) {
-            int checkX = pos[0] + dir[0];
-            int checkY = pos[1] + dir[1];
-
-            if (isWall(checkX, checkY, arena)) {
-                wallCount++;
-            }
-        }
-
-        // Если рядом 2 или более стен - стратегическая позиция
-        return wallCount >= 2;
+    // Цепная реакция от бомбы в (x, y), которую ставит бомбер из planterPos
+    private ChainReactionEvaluator.Result evaluateChain(int x, int y, int[] planterPos) {
+        return chainEvaluator.evaluateCached(snapshot, arenaGrid, capabilities, x, y, planterPos[0], planterPos[1]);
     }
 
     // ИСПРАВЛЕННЫЙ МЕТОД: Проверяет, есть ли стена и враг в радиусе взрыва
     private boolean isWallWithEnemyInRange(int[] pos, ArenaResponse arena) {
         // Проверяем, есть ли хотя бы одна стена рядом
         boolean hasWall = false;
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int checkX = pos[0] + dir[0];
             int checkY = pos[1] + dir[1];
 
@@ -920,7 +1132,7 @@ public class StrategyService {
                 // Проверяем только по кресту (горизонталь/вертикаль)
                 if (enemy.pos[0] == pos[0]) { // Одинаковая X - вертикальная линия
                     int distance = Math.abs(enemy.pos[1] - pos[1]);
-                    if (distance <= BOMB_RADIUS && distance > 0) {
+                    if (distance <= capabilities.getBlastRadius() && distance > 0) {
                         int minY = Math.min(enemy.pos[1], pos[1]);
                         int maxY = Math.max(enemy.pos[1], pos[1]);
                         boolean clearPath = true;
@@ -940,7 +1152,7 @@ public class StrategyService {
 
                 if (enemy.pos[1] == pos[1]) { // Одинаковая Y - горизонтальная линия
                     int distance = Math.abs(enemy.pos[0] - pos[0]);
-                    if (distance <= BOMB_RADIUS && distance > 0) {
+                    if (distance <= capabilities.getBlastRadius() && distance > 0) {
                         int minX = Math.min(enemy.pos[0], pos[0]);
                         int maxX = Math.max(enemy.pos[0], pos[0]);
                         boolean clearPath = true;
@@ -988,10 +1200,10 @@ public class StrategyService {
             return multiWallSpot;
         }
 
-        // 2. Ищем врагов рядом со стенами
-        int[] enemyNearWall = findEnemyNearWall(currentPos, arena);
-        if (enemyNearWall != null) {
-            return enemyNearWall;
+        // 2. Ищем, где запереть врага: из креста бомбы ему некуда уйти
+        int[] enemyTrap = findEnemyTrapSpot(currentPos, arena);
+        if (enemyTrap != null) {
+            return enemyTrap;
         }
 
         // 3. Ищем просто стену для разрушения
@@ -1004,48 +1216,50 @@ public class StrategyService {
     }
 
     // НОВЫЙ МЕТОД: Ищет место для бомбы, которая разрушит несколько стен
-    private int[] findMultiWallBombSpot(Bomber bomber, ArenaResponse arena) {
+    // Пакетная видимость - для бенчмарков
+    int[] findMultiWallBombSpot(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
 
         // Ищем клетки в радиусе обзора (5 клеток)
-        for (int radius = 1; radius <= BOMBER_VISION; radius++) {
-            for (int dx = -radius; dx <= radius; dx++) {
-                for (int dy = -radius; dy <= radius; dy++) {
-                    if (Math.abs(dx) + Math.abs(dy) <= radius) {
-                        int checkX = currentPos[0] + dx;
-                        int checkY = currentPos[1] + dy;
-
-                        if (!isValidCell(checkX, checkY, arena) ||
-                                isObstacle(checkX, checkY, arena) ||
-                                isOnBomb(new int[]{checkX, checkY}, arena)) {
-                            continue;
-                        }
-
-                        // Проверяем, сколько стен можно разрушить с этой позиции
-                        int wallCount = 0;
-                        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-
-                        for (int[] dir : directions) {
-                            int wallX = checkX + dir[0];
-                            int wallY = checkY + dir[1];
+        // Кольца ромба обзора от ближних клеток к дальним - заранее посчитанные смещения;
+        // лучшее место - по оценке цепочки за вычетом штрафа за расстояние
+        int[] offsets = capabilities.getSearchOffsets();
+        int bestValue = Integer.MIN_VALUE;
+        int bestX = 0;
+        int bestY = 0;
+        int bestScore = 0;
+        for (int i = 0; i < offsets.length; i += 2) {
+            int checkX = currentPos[0] + offsets[i];
+            int checkY = currentPos[1] + offsets[i + 1];
+
+            if (!isValidCell(checkX, checkY, arena) ||
+                    isObstacle(checkX, checkY, arena) ||
+                    isOnBomb(new int[]{checkX, checkY}, arena)) {
+                continue;
+            }
 
-                            if (isWall(wallX, wallY, arena)) {
-                                wallCount++;
-                            }
-                        }
+            // Вся цепочка от бомбы здесь: сколько разрушит и заденет, успеем ли уйти
+            ChainReactionEvaluator.Result chain = evaluateChain(checkX, checkY, currentPos);
+            if (!chain.isSafe() || chain.getScore() < tuning.getBombSpotMinScore()) {
+                continue;
+            }
 
-                        // Если можно разрушить 2 или более стен - стратегическая позиция
-                        if (wallCount >= 2) {
-                            log.info("Found multi-wall bomb spot at ({},{}) with {} walls",
-                                    checkX, checkY, wallCount);
-                            return new int[]{checkX, checkY};
-                        }
-                    }
-                }
+            int distance = Math.abs(offsets[i]) + Math.abs(offsets[i + 1]);
+            int value = chain.getScore() - distance * tuning.getBombSpotDistancePenalty();
+            if (value > bestValue) {
+                bestValue = value;
+                bestX = checkX;
+                bestY = checkY;
+                bestScore = chain.getScore();
             }
         }
 
-        return null;
+        if (bestValue == Integer.MIN_VALUE) {
+            return null;
+        }
+        bomberEvent(Level.DEBUG, "[T{}][{}] Found chain bomb spot at ({},{}) with score {}")
+                .arg(bestX).arg(bestY).arg(bestScore).publish();
+        return new int[]{bestX, bestY};
     }
 
     // НОВЫЙ МЕТОД: Ищет просто стену для разрушения
@@ -1066,7 +1280,7 @@ public class StrategyService {
                 int distance = Math.abs(wallX - currentPos[0]) + Math.abs(wallY - currentPos[1]);
 
                 // Проверяем только стены в радиусе обзора
-                if (distance <= BOMBER_VISION && distance < minDistance) {
+                if (distance <= capabilities.getViewRadius() && distance < minDistance) {
                     // Проверяем, есть ли путь к стене
                     if (hasPathToWall(currentPos, new int[]{wallX, wallY}, arena)) {
                         minDistance = distance;
@@ -1079,61 +1293,20 @@ public class StrategyService {
         return nearestWall;
     }
 
-    // ИСПРАВЛЕННЫЙ МЕТОД: Находит врага рядом со стеной
-    private int[] findEnemyNearWall(int[] from, ArenaResponse arena) {
-        if (arena.enemies == null) return null;
-
-        for (Enemy enemy : arena.enemies) {
-            if (enemy.pos == null) continue;
-
-            int distance = Math.abs(enemy.pos[0] - from[0]) + Math.abs(enemy.pos[1] - from[1]);
+    // Место для бомбы, после которой враг в радиусе обзора не успеет уйти из взрыва
+    private int[] findEnemyTrapSpot(int[] from, ArenaResponse arena) {
+        for (int enemy = 0; enemy < snapshot.getEnemyCount(); enemy++) {
+            int ex = snapshot.enemyX(enemy);
+            if (ex < 0) continue;
 
             // Проверяем только врагов в радиусе ОБЗОРА
-            if (distance > BOMBER_VISION) continue;
-
-            // Проверяем, есть ли стены рядом с врагом
-            if (isNextToAnyWall(enemy.pos, arena)) {
-                // Ищем позицию для бомбы, которая достанет врага и стену
-                int[][] bombPositions = {
-                        {enemy.pos[0] + 1, enemy.pos[1]},
-                        {enemy.pos[0] - 1, enemy.pos[1]},
-                        {enemy.pos[0], enemy.pos[1] + 1},
-                        {enemy.pos[0], enemy.pos[1] - 1}
-                };
-
-                for (int[] bombPos : bombPositions) {
-                    if (isValidCell(bombPos[0], bombPos[1], arena) &&
-                            !isObstacle(bombPos[0], bombPos[1], arena) &&
-                            !isOnBomb(new int[]{bombPos[0], bombPos[1]}, arena)) {
-
-                        // Проверяем, что бомба достанет и врага и стену
-                        boolean hitsEnemy = false;
-                        boolean hitsWall = false;
-
-                        // Проверяем соседние клетки по кресту от позиции бомбы
-                        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-                        for (int[] dir : directions) {
-                            int checkX = bombPos[0] + dir[0];
-                            int checkY = bombPos[1] + dir[1];
-
-                            if (!isValidCell(checkX, checkY, arena)) continue;
-
-                            // Проверяем, есть ли враг в соседней клетке
-                            if (checkX == enemy.pos[0] && checkY == enemy.pos[1]) {
-                                hitsEnemy = true;
-                            }
+            int distance = Math.abs(ex - from[0]) + Math.abs(snapshot.enemyY(enemy) - from[1]);
+            if (distance > capabilities.getViewRadius()) continue;
 
-                            // Проверяем, есть ли стена в соседней клетке
-                            if (isWall(checkX, checkY, arena)) {
-                                hitsWall = true;
-                            }
-                        }
-
-                        if (hitsEnemy && hitsWall) {
-                            return bombPos;
-                        }
-                    }
-                }
+            if (trapEvaluator.findSpot(snapshot, arenaGrid, capabilities, enemy, from[0], from[1], trapSpot)) {
+                bomberEvent(Level.DEBUG, "[T{}][{}] Found trap spot at ({},{}) for enemy {}")
+                        .arg(trapSpot[0]).arg(trapSpot[1]).arg(snapshot.enemyId(enemy)).publish();
+                return new int[]{trapSpot[0], trapSpot[1]};
             }
         }
 
@@ -1145,11 +1318,11 @@ public class StrategyService {
         lastTarget.put(bomber.id, target);
 
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
-        log.debug("Bomber {} moving to bomb placement at ({},{})",
-                bomber.id, target[0], target[1]);
+        bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} moving to bomb placement at ({},{})")
+                .arg(bomber.id).arg(target[0]).arg(target[1]).publish();
 
         // Используем обычную логику движения к цели
         return moveToTarget(bomber, target, arena);
@@ -1169,20 +1342,29 @@ public class StrategyService {
         // Ищем стратегическую позицию для бомбы
         int[] strategicSpot = findStrategicBombPlacement(bomber, arena);
         if (strategicSpot != null) {
-            log.debug("Bomber {} patrolling to strategic spot at ({},{})",
-                    bomber.id, strategicSpot[0], strategicSpot[1]);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} patrolling to strategic spot at ({},{})")
+                    .arg(bomber.id).arg(strategicSpot[0]).arg(strategicSpot[1]).publish();
             return moveToTarget(bomber, strategicSpot, arena);
         }
 
         // Если стратегических позиций нет, ищем просто стену
         int[] wallSpot = findWallForDestruction(bomber, arena);
         if (wallSpot != null) {
-            log.debug("Bomber {} patrolling to wall at ({},{})",
-                    bomber.id, wallSpot[0], wallSpot[1]);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} patrolling to wall at ({},{})")
+                    .arg(bomber.id).arg(wallSpot[0]).arg(wallSpot[1]).publish();
             return moveToTarget(bomber, wallSpot, arena);
         }
 
-        // Если стен нет, используем обычное патрулирование
+        // Если стен нет, идем разведывать неизвестную территорию
+        int[] exploreTarget = fogMap.findExplorationTarget(currentPos);
+        if (exploreTarget != null) {
+            lastAction.put(bomber.id, "EXPLORE");
+            bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} exploring towards frontier at ({},{})")
+                    .arg(bomber.id).arg(exploreTarget[0]).arg(exploreTarget[1]).publish();
+            return moveToTarget(bomber, exploreTarget, arena);
+        }
+
+        // Если разведывать нечего, используем обычное патрулирование
         return patrolInZone(bomber, arena);
     }
 
@@ -1205,8 +1387,8 @@ public class StrategyService {
             if (distance < minDistance) {
                 tooCloseCount++;
                 if (tooCloseCount >= 2) {
-                    log.debug("🚷 Bomber {} too close to others (distance: {})",
-                            currentBomber.id, distance);
+                    bomberEvent(Level.DEBUG, "[T{}][{}] 🚷 Bomber {} too close to others (distance: {})")
+                            .arg(currentBomber.id).arg(distance).publish();
                     return true;
                 }
             }
@@ -1217,17 +1399,16 @@ public class StrategyService {
 
     private MoveBomber spreadOut(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
         List<int[]> bestDirections = new ArrayList<>();
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (!isValidCell(newX, newY, arena) || isObstacle(newX, newY, arena)) {
+            if (!canStep(newX, newY)) {
                 continue;
             }
 
@@ -1241,19 +1422,19 @@ public class StrategyService {
         if (!bestDirections.isEmpty()) {
             bestDirections.sort((a, b) -> Integer.compare(b[2], a[2]));
             int[] bestDir = bestDirections.get(0);
-            path.add(Arrays.asList(bestDir[0], bestDir[1]));
+            path.add(bestDir[0], bestDir[1]);
 
             int nextX = bestDir[0] + (bestDir[0] - currentPos[0]);
             int nextY = bestDir[1] + (bestDir[1] - currentPos[1]);
-            if (isValidCell(nextX, nextY, arena) && !isObstacle(nextX, nextY, arena)) {
-                path.add(Arrays.asList(nextX, nextY));
+            if (canStep(nextX, nextY)) {
+                path.add(nextX, nextY);
             }
         } else {
             return patrolInZone(bomber, arena);
         }
 
-        log.debug("📈 Bomber {} spreading out from others", bomber.id);
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        bomberEvent(Level.DEBUG, "[T{}][{}] 📈 Bomber {} spreading out from others").arg(bomber.id).publish();
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     private int calculateAverageDistanceToOthers(int x, int y, Bomber currentBomber, ArenaResponse arena) {
@@ -1321,13 +1502,14 @@ public class StrategyService {
                 int dist = Math.abs(enemy.pos[0] - currentPos[0]) +
                         Math.abs(enemy.pos[1] - currentPos[1]);
 
-                if (dist > BOMBER_VISION) continue; // Враг вне радиуса обзора
+                if (dist > capabilities.getViewRadius()) continue; // Враг вне радиуса обзора
 
                 if (enemy.pos[0] >= zoneStartX && enemy.pos[0] < zoneEndX &&
                         enemy.pos[1] >= zoneStartY && enemy.pos[1] < zoneEndY) {
 
-                    int score = 150 - dist * 5;
-                    score += 50; // Бонус за врага в своей зоне
+                    int score = tuning.getEnemyTargetBase() - dist * tuning.getEnemyTargetDistancePenalty();
+                    score += tuning.getEnemyInZoneBonus(); // Бонус за врага в своей зоне
+                    score -= threatField.threatAt(enemy.pos[0], enemy.pos[1]) / 2; // Рядом мобы - хуже
 
                     if (score > bestScore) {
                         bestScore = score;
@@ -1344,8 +1526,8 @@ public class StrategyService {
 
         // 3. Если нашли цель, проверяем, не преследует ли ее другой бомбер
         if (bestTarget != null && isTargetBeingPursued(bestTarget, bomber.id, arena)) {
-            log.debug("Target at ({},{}) already pursued, finding alternative",
-                    bestTarget[0], bestTarget[1]);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Target at ({},{}) already pursued, finding alternative")
+                    .arg(bestTarget[0]).arg(bestTarget[1]).publish();
 
             return findAlternativeTargetInVision(bomber, arena, bestTarget);
         }
@@ -1369,12 +1551,13 @@ public class StrategyService {
                 int dist = Math.abs(wallX - currentPos[0]) + Math.abs(wallY - currentPos[1]);
 
                 // Проверяем только стены в радиусе обзора
-                if (dist <= BOMBER_VISION) {
-                    int score = 100 - dist * 10;
+                if (dist <= capabilities.getViewRadius()) {
+                    int score = tuning.getWallTargetBase() - dist * tuning.getWallTargetDistancePenalty();
+                    score -= threatField.threatAt(wallX, wallY) / 2; // Рядом мобы - хуже
 
                     // Бонус за стены, рядом с которыми могут быть враги
                     if (isEnemyNearWall(new int[]{wallX, wallY}, arena)) {
-                        score += 50;
+                        score += tuning.getWallNearEnemyBonus();
                     }
 
                     if (score > bestScore) {
@@ -1386,8 +1569,8 @@ public class StrategyService {
         }
 
         if (bestTarget != null) {
-            log.debug("Found wall target in vision at ({},{}) with score {}",
-                    bestTarget[0], bestTarget[1], bestScore);
+            bomberEvent(Level.DEBUG, "[T{}][{}] Found wall target in vision at ({},{}) with score {}")
+                    .arg(bestTarget[0]).arg(bestTarget[1]).arg(bestScore).publish();
         }
 
         return bestTarget;
@@ -1416,8 +1599,7 @@ public class StrategyService {
         int bestScore = -1;
 
         int preferredDir = preferredDirection.get(bomber.id);
-        int[][] directionOffsets = {{1,0},{-1,0},{0,1},{0,-1}};
-        int[] mainDir = directionOffsets[preferredDir % 4];
+        int[] mainDir = DIRECTIONS[preferredDir % 4];
 
         if (arena.enemies != null) {
             for (Enemy enemy : arena.enemies) {
@@ -1433,7 +1615,7 @@ public class StrategyService {
                         Math.abs(enemy.pos[1] - currentPos[1]);
 
                 // Проверяем только врагов в радиусе обзора
-                if (dist <= BOMBER_VISION) {
+                if (dist <= capabilities.getViewRadius()) {
                     int dirBonus = 0;
                     int dx = Integer.compare(enemy.pos[0], currentPos[0]);
                     int dy = Integer.compare(enemy.pos[1], currentPos[1]);
@@ -1481,51 +1663,61 @@ public class StrategyService {
         lastTarget.put(bomber.id, target);
 
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
         if (isTargetBeingPursued(target, bomber.id, arena)) {
             return moveToTargetWithOffset(bomber, target, arena);
         }
 
+        // Для дальних целей идем по маршруту инкрементального планировщика
+        int targetDistance = Math.abs(target[0] - currentPos[0]) + Math.abs(target[1] - currentPos[1]);
+        if (targetDistance >= tuning.getLongRouteDistance()) {
+            MoveBomber routed = followPlannedRoute(bomber, target, arena);
+            if (routed != null) {
+                return routed;
+            }
+        }
+
         int dx = Integer.compare(target[0], currentPos[0]);
         int dy = Integer.compare(target[1], currentPos[1]);
 
         if (dx != 0) {
             int newX = currentPos[0] + dx;
-            if (isValidCell(newX, currentPos[1], arena) &&
-                    !isObstacle(newX, currentPos[1], arena) &&
+            if (canStep(newX, currentPos[1]) &&
+                    !threatField.isLethal(newX, currentPos[1]) &&
                     !isTooCloseToCell(new int[]{newX, currentPos[1]}, bomber, arena)) {
-                path.add(Arrays.asList(newX, currentPos[1]));
+                path.add(newX, currentPos[1]);
             }
         } else if (dy != 0) {
             int newY = currentPos[1] + dy;
-            if (isValidCell(currentPos[0], newY, arena) &&
-                    !isObstacle(currentPos[0], newY, arena) &&
+            if (canStep(currentPos[0], newY) &&
+                    !threatField.isLethal(currentPos[0], newY) &&
                     !isTooCloseToCell(new int[]{currentPos[0], newY}, bomber, arena)) {
-                path.add(Arrays.asList(currentPos[0], newY));
+                path.add(currentPos[0], newY);
             }
         }
 
         if (path.size() == 1) {
-            int[][] dirs = {{1,0},{-1,0},{0,1},{0,-1}};
             List<int[]> possibleMoves = new ArrayList<>();
 
-            for (int[] dir : dirs) {
+            for (int[] dir : DIRECTIONS) {
                 int newX = currentPos[0] + dir[0];
                 int newY = currentPos[1] + dir[1];
-                if (isValidCell(newX, newY, arena) &&
-                        !isObstacle(newX, newY, arena) &&
+                if (canStep(newX, newY) &&
                         !isTooCloseToCell(new int[]{newX, newY}, bomber, arena)) {
 
                     int newDist = Math.abs(target[0] - newX) + Math.abs(target[1] - newY);
                     int currentDist = Math.abs(target[0] - currentPos[0]) +
                             Math.abs(target[1] - currentPos[1]);
 
+                    // Стоимость шага: расстояние до цели плюс угроза от мобов в клетке
+                    int moveCost = newDist * MobThreatField.STEP_COST + threatField.threatAt(newX, newY);
+
                     if (newDist < currentDist) {
-                        possibleMoves.add(0, new int[]{newX, newY, newDist});
+                        possibleMoves.add(0, new int[]{newX, newY, moveCost});
                     } else {
-                        possibleMoves.add(new int[]{newX, newY, newDist});
+                        possibleMoves.add(new int[]{newX, newY, moveCost});
                     }
                 }
             }
@@ -1533,96 +1725,96 @@ public class StrategyService {
             if (!possibleMoves.isEmpty()) {
                 possibleMoves.sort((a, b) -> Integer.compare(a[2], b[2]));
                 int[] bestMove = possibleMoves.get(0);
-                path.add(Arrays.asList(bestMove[0], bestMove[1]));
+                path.add(bestMove[0], bestMove[1]);
             }
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
+    }
+
+    // НОВЫЙ МЕТОД: Несколько шагов по маршруту D* Lite; null - маршрута нет, идем по-старому
+    private MoveBomber followPlannedRoute(Bomber bomber, int[] target, ArenaResponse arena) {
+        DStarLitePlanner planner = routePlanners.computeIfAbsent(bomber.id, id -> new DStarLitePlanner());
+        int steps = planner.plan(traversalCosts, bomber.pos[0], bomber.pos[1], target[0], target[1],
+                routeBuffer, capabilities.getRouteSteps());
+        if (steps == 0) {
+            return null;
+        }
+
+        PackedPath path = new PackedPath();
+        path.add(bomber.pos[0], bomber.pos[1]);
+        for (int i = 0; i < steps; i++) {
+            int x = routeBuffer[i * 2];
+            int y = routeBuffer[i * 2 + 1];
+            // Останавливаемся перед занятой клеткой (другой бомбер, сама цель-стена), перед мобами
+            // и перед крестом бомбы: для D* Lite опасность - только цена, он через нее проложит
+            if (!canStep(x, y) || threatField.isLethal(x, y) || snapshot.inDanger(x, y)) {
+                break;
+            }
+            path.add(x, y);
+        }
+
+        if (path.size() == 1) {
+            return null;
+        }
+
+        bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} following planned route to ({},{}), {} steps")
+                .arg(bomber.id).arg(target[0]).arg(target[1]).arg(path.size() - 1).publish();
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     private MoveBomber moveToTargetWithOffset(Bomber bomber, int[] target, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
         int preferredDir = preferredDirection.get(bomber.id);
 
-        int[][] dirs;
-        switch (preferredDir % 4) {
-            case 0:
-                dirs = new int[][]{{1,0},{0,1},{0,-1},{-1,0}};
-                break;
-            case 1:
-                dirs = new int[][]{{-1,0},{0,1},{0,-1},{1,0}};
-                break;
-            case 2:
-                dirs = new int[][]{{0,1},{1,0},{-1,0},{0,-1}};
-                break;
-            case 3:
-                dirs = new int[][]{{0,-1},{1,0},{-1,0},{0,1}};
-                break;
-            default:
-                dirs = new int[][]{{1,0},{-1,0},{0,1},{0,-1}};
-        }
+        int[][] dirs = OFFSET_DIRECTION_ORDERS[preferredDir % 4];
 
         for (int[] dir : dirs) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) &&
-                    !isObstacle(newX, newY, arena) &&
+            if (canStep(newX, newY) &&
                     !isTooCloseToCell(new int[]{newX, newY}, bomber, arena)) {
 
-                path.add(Arrays.asList(newX, newY));
+                path.add(newX, newY);
 
                 int nextX = newX + dir[0];
                 int nextY = newY + dir[1];
-                if (isValidCell(nextX, nextY, arena) &&
-                        !isObstacle(nextX, nextY, arena)) {
-                    path.add(Arrays.asList(nextX, nextY));
+                if (canStep(nextX, nextY)) {
+                    path.add(nextX, nextY);
                 }
 
                 break;
             }
         }
 
-        log.debug("Bomber {} taking offset route to avoid others", bomber.id);
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} taking offset route to avoid others").arg(bomber.id).publish();
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     private MoveBomber patrolInZone(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
         int preferredDir = preferredDirection.get(bomber.id);
         int groupId = bomberGroup.get(bomber.id);
 
-        int[][] dirs;
-        switch (groupId % 4) {
-            case 0:
-                dirs = new int[][]{{1,0},{0,1},{0,-1},{-1,0}};
-                break;
-            case 1:
-                dirs = new int[][]{{-1,0},{0,-1},{0,1},{1,0}};
-                break;
-            case 2:
-                dirs = new int[][]{{0,1},{1,0},{-1,0},{0,-1}};
-                break;
-            default:
-                dirs = new int[][]{{0,-1},{-1,0},{1,0},{0,1}};
-        }
+        int[][] dirs = PATROL_DIRECTION_ORDERS[groupId % 4];
 
         for (int[] dir : dirs) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) &&
-                    !isObstacle(newX, newY, arena) &&
+            if (canStep(newX, newY) &&
                     !isOnBomb(new int[]{newX, newY}, arena) &&
+                    !threatField.isLethal(newX, newY) &&
                     !isTooCloseToCell(new int[]{newX, newY}, bomber, arena)) {
 
-                path.add(Arrays.asList(newX, newY));
+                path.add(newX, newY);
                 break;
             }
         }
@@ -1631,7 +1823,7 @@ public class StrategyService {
             return safePatrol(bomber, arena);
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     private boolean isTooCloseToCell(int[] cell, Bomber currentBomber, ArenaResponse arena) {
@@ -1653,29 +1845,42 @@ public class StrategyService {
 
     private MoveBomber safePatrol(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
         List<int[]> safeDirections = new ArrayList<>();
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) &&
-                    !isObstacle(newX, newY, arena) &&
+            if (canStep(newX, newY) &&
                     !isOnBomb(new int[]{newX, newY}, arena)) {
                 safeDirections.add(new int[]{newX, newY});
             }
         }
 
         if (!safeDirections.isEmpty()) {
-            int[] chosenDir = safeDirections.get(random.nextInt(safeDirections.size()));
-            path.add(Arrays.asList(chosenDir[0], chosenDir[1]));
+            // Предпочитаем шаг в сторону границы разведки, случайный шаг - только если ее нет
+            int[] chosenDir = null;
+            int[] exploreTarget = fogMap.findExplorationTarget(currentPos);
+            if (exploreTarget != null) {
+                int bestDist = Integer.MAX_VALUE;
+                for (int[] candidate : safeDirections) {
+                    int dist = Math.abs(exploreTarget[0] - candidate[0]) + Math.abs(exploreTarget[1] - candidate[1]);
+                    if (dist < bestDist) {
+                        bestDist = dist;
+                        chosenDir = candidate;
+                    }
+                }
+            }
+            if (chosenDir == null) {
+                chosenDir = safeDirections.get(random.nextInt(safeDirections.size()));
+            }
+            path.add(chosenDir[0], chosenDir[1]);
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
     private boolean isNextToEnemy(int[] pos, ArenaResponse arena) {
@@ -1686,7 +1891,8 @@ public class StrategyService {
 
             int dist = Math.abs(enemy.pos[0] - pos[0]) + Math.abs(enemy.pos[1] - pos[1]);
             if (dist == 1) {
-                log.info("✅ Enemy RIGHT NEXT to us at ({},{})", enemy.pos[0], enemy.pos[1]);
+                bomberEvent(Level.DEBUG, "[T{}][{}] ✅ Enemy RIGHT NEXT to us at ({},{})")
+                        .arg(enemy.pos[0]).arg(enemy.pos[1]).publish();
                 return true;
             }
 
@@ -1694,7 +1900,8 @@ public class StrategyService {
             if (dist == 2 && (enemy.pos[0] == pos[0] || enemy.pos[1] == pos[1])) {
                 // Проверяем, что между нами нет стены и нет препятствий
                 if (isClearPathForBomb(pos, enemy.pos, arena)) {
-                    log.info("✅ Enemy 2 cells away at ({},{})", enemy.pos[0], enemy.pos[1]);
+                    bomberEvent(Level.DEBUG, "[T{}][{}] ✅ Enemy 2 cells away at ({},{})")
+                            .arg(enemy.pos[0]).arg(enemy.pos[1]).publish();
                     return true;
                 }
             }
@@ -1706,14 +1913,14 @@ public class StrategyService {
     private boolean isNextToWall(int[] pos, ArenaResponse arena) {
         if (arena.arena == null || arena.arena.obstacles == null) return false;
 
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int checkX = pos[0] + dir[0];
             int checkY = pos[1] + dir[1];
 
             if (isWall(checkX, checkY, arena)) {
-                log.info("✅ Wall RIGHT NEXT to us at ({},{})", checkX, checkY);
+                bomberEvent(Level.DEBUG, "[T{}][{}] ✅ Wall RIGHT NEXT to us at ({},{})")
+                        .arg(checkX).arg(checkY).publish();
                 return true;
             }
 
@@ -1721,7 +1928,8 @@ public class StrategyService {
             int checkX2 = pos[0] + dir[0] * 2;
             int checkY2 = pos[1] + dir[1] * 2;
             if (isWall(checkX2, checkY2, arena) && !isObstacle(checkX, checkY, arena)) {
-                log.info("✅ Wall 2 cells away at ({},{})", checkX2, checkY2);
+                bomberEvent(Level.DEBUG, "[T{}][{}] ✅ Wall 2 cells away at ({},{})")
+                        .arg(checkX2).arg(checkY2).publish();
                 return true;
             }
         }
@@ -1731,19 +1939,18 @@ public class StrategyService {
 
     private MoveBomber continueEscaping(Bomber bomber, ArenaResponse arena) {
         int[] currentPos = bomber.pos;
-        List<List<Integer>> path = new ArrayList<>();
-        path.add(Arrays.asList(currentPos[0], currentPos[1]));
+        PackedPath path = new PackedPath();
+        path.add(currentPos[0], currentPos[1]);
 
-        log.debug("Bomber {} continuing escape", bomber.id);
+        bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} continuing escape").arg(bomber.id).publish();
 
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = currentPos[0] + dir[0];
             int newY = currentPos[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) && !isObstacle(newX, newY, arena)) {
-                path.add(Arrays.asList(newX, newY));
+            if (canStep(newX, newY)) {
+                path.add(newX, newY);
                 break;
             }
         }
@@ -1752,87 +1959,69 @@ public class StrategyService {
             lastAction.put(bomber.id, "PATROL");
         }
 
-        return new MoveBomber(bomber.id, path, new ArrayList<>());
+        return new MoveBomber(bomber.id, path, PackedPath.empty());
     }
 
+    // Разрушаемое препятствие (arena.obstacles)
     private boolean isWall(int x, int y, ArenaResponse arena) {
-        if (arena.arena == null || arena.arena.obstacles == null) return false;
-
-        for (List<Integer> wall : arena.arena.obstacles) {
-            if (wall.size() >= 2 && wall.get(0) == x && wall.get(1) == y) {
-                return true;
-            }
-        }
-
-        return false;
+        return snapshot.has(x, y, ArenaGrid.OBSTACLE);
     }
 
     private boolean isOnBomb(int[] pos, ArenaResponse arena) {
-        if (arena.arena == null || arena.arena.bombs == null) return false;
-
-        for (Bomb bomb : arena.arena.bombs) {
-            if (bomb.pos == null || bomb.pos.length < 2) continue;
-            if (bomb.pos[0] == pos[0] && bomb.pos[1] == pos[1]) {
-                return true;
-            }
-        }
-        return false;
+        return snapshot.has(pos[0], pos[1], ArenaGrid.BOMB);
     }
 
-    private boolean isObstacle(int x, int y, ArenaResponse arena) {
-        if (arena.arena == null) return false;
-
-        if (arena.arena.walls != null) {
-            for (List<Integer> wall : arena.arena.walls) {
-                if (wall.size() >= 2 && wall.get(0) == x && wall.get(1) == y) {
-                    return true;
-                }
-            }
-        }
-
-        if (arena.arena.obstacles != null) {
-            for (List<Integer> obstacle : arena.arena.obstacles) {
-                if (obstacle.size() >= 2 && obstacle.get(0) == x && obstacle.get(1) == y) {
-                    return true;
-                }
-            }
-        }
-
-        if (arena.bombers != null) {
-            for (Bomber other : arena.bombers) {
-                if (other.alive && other.pos[0] == x && other.pos[1] == y) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+    // Стена, препятствие или живой свой бомбер
+    // Пакетная видимость - для бенчмарков
+    boolean isObstacle(int x, int y, ArenaResponse arena) {
+        return snapshot.has(x, y, ArenaGrid.WALL | ArenaGrid.OBSTACLE | ArenaGrid.BOMBER);
     }
 
     private boolean isValidCell(int x, int y, ArenaResponse arena) {
         return x >= 0 && x < arena.map_size[0] && y >= 0 && y < arena.map_size[1];
     }
 
-    private void logBomberAction(Bomber bomber, MoveBomber command) {
+    private void logBomberAction(Bomber bomber, MoveBomber command, BomberDecisionEvent decision) {
+        if (decision != null) {
+            decision.end();
+            if (decision.shouldCommit()) {
+                decision.tick = loopTick;
+                decision.bomberId = bomber.id;
+                decision.action = lastAction.getOrDefault(bomber.id, "UNKNOWN");
+                decision.pathLength = command.getPath() != null ? command.getPath().size() : 0;
+                decision.bombs = command.getBombs() != null ? command.getBombs().size() : 0;
+                decision.commit();
+            }
+        }
+
         if (command.getBombs() != null && !command.getBombs().isEmpty()) {
-            log.info("🔥 Bomber {} (group {}): PLANTED STRATEGIC BOMB and moving {} cells (Escape ticks: {})",
-                    bomber.id, bomberGroup.get(bomber.id),
-                    command.getPath().size() - 1,
-                    escapeTicks.getOrDefault(bomber.id, 0));
+            bomberEvent(Level.INFO,
+                            "[T{}][{}] 🔥 Bomber {} (group {}): PLANTED STRATEGIC BOMB and moving {} cells (Escape ticks: {})")
+                    .arg(bomber.id).arg(bomberGroup.get(bomber.id))
+                    .arg(command.getPath().size() - 1)
+                    .arg(escapeTicks.getOrDefault(bomber.id, 0))
+                    .publish();
         } else {
             String action = lastAction.getOrDefault(bomber.id, "UNKNOWN");
             if (action.equals("ESCAPE") || action.equals("DANGER_ESCAPE") || action.equals("ESCAPE_BOMB")) {
-                log.info("🏃‍♂️ Bomber {} (group {}): ESCAPING {} cells (action: {})",
-                        bomber.id, bomberGroup.get(bomber.id),
-                        command.getPath().size() - 1, action);
+                bomberEvent(Level.INFO, "[T{}][{}] 🏃‍♂️ Bomber {} (group {}): ESCAPING {} cells (action: {})")
+                        .arg(bomber.id).arg(bomberGroup.get(bomber.id))
+                        .arg(command.getPath().size() - 1).arg(action)
+                        .publish();
             } else {
-                log.debug("Bomber {} (group {}): Moving {} cells (action: {})",
-                        bomber.id, bomberGroup.get(bomber.id),
-                        command.getPath().size() - 1, action);
+                bomberEvent(Level.DEBUG, "[T{}][{}] Bomber {} (group {}): Moving {} cells (action: {})")
+                        .arg(bomber.id).arg(bomberGroup.get(bomber.id))
+                        .arg(command.getPath().size() - 1).arg(action)
+                        .publish();
             }
         }
     }
 
+    // Событие журнала бомберов по тику цикла, имя сессии - второй аргумент (шаблоны "[T{}][{}] ...")
+    private TickEventLog.Event bomberEvent(Level level, String template) {
+        return eventLog.claim(Category.BOMBER, level, loopTick, template).arg(sessionName);
+    }
+
     // ДОПОЛНЕНИЕ: Метод для очистки устаревших данных о мертвых бомберах
     private void cleanupDeadBombers(ArenaResponse arena) {
         Set<String> aliveBomberIds = new HashSet<>();
@@ -1855,6 +2044,7 @@ public class StrategyService {
         stuckCounter.keySet().removeIf(id -> !aliveBomberIds.contains(id));
         lastPositions.keySet().removeIf(id -> !aliveBomberIds.contains(id));
         samePositionCounter.keySet().removeIf(id -> !aliveBomberIds.contains(id));
+        routePlanners.keySet().removeIf(id -> !aliveBomberIds.contains(id));
     }
 
     // ДОПОЛНЕНИЕ: Метод для обновления предпочтительного направления
@@ -1892,14 +2082,12 @@ public class StrategyService {
 
     // ДОПОЛНЕНИЕ: Метод для поиска ближайшего безопасного места
     private int[] findNearestSafeSpot(int[] from, ArenaResponse arena) {
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
 
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int newX = from[0] + dir[0];
             int newY = from[1] + dir[1];
 
-            if (isValidCell(newX, newY, arena) &&
-                    !isObstacle(newX, newY, arena) &&
+            if (canStep(newX, newY) &&
                     !isOnBomb(new int[]{newX, newY}, arena)) {
                 return new int[]{newX, newY};
             }
@@ -1912,8 +2100,7 @@ public class StrategyService {
                         int newX = from[0] + dx;
                         int newY = from[1] + dy;
 
-                        if (isValidCell(newX, newY, arena) &&
-                                !isObstacle(newX, newY, arena) &&
+                        if (canStep(newX, newY) &&
                                 !isOnBomb(new int[]{newX, newY}, arena)) {
                             return new int[]{newX, newY};
                         }
@@ -1953,13 +2140,11 @@ public class StrategyService {
         }
 
         // Если нельзя по прямой, проверяем соседние клетки
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] dir : directions) {
+        for (int[] dir : DIRECTIONS) {
             int checkX = to[0] + dir[0];
             int checkY = to[1] + dir[1];
 
-            if (isValidCell(checkX, checkY, arena) &&
-                    !isObstacle(checkX, checkY, arena) &&
+            if (canStep(checkX, checkY) &&
                     isClearPathForMovement(from, new int[]{checkX, checkY}, arena)) {
                 return true;
             }
@@ -1977,27 +2162,11 @@ public class StrategyService {
             int checkX = Math.round(from[0] + (to[0] - from[0]) * t);
             int checkY = Math.round(from[1] + (to[1] - from[1]) * t);
 
-            if (!isValidCell(checkX, checkY, arena) || isObstacle(checkX, checkY, arena)) {
+            if (!canStep(checkX, checkY)) {
                 return false;
             }
         }
 
         return true;
     }
-
-    // НОВЫЙ МЕТОД: Проверяет, рядом ли любая стена
-    private boolean isNextToAnyWall(int[] pos, ArenaResponse arena) {
-        if (arena.arena == null || arena.arena.obstacles == null) return false;
-
-        int[][] directions = {{1,0},{-1,0},{0,1},{0,-1}};
-        for (int[] dir : directions) {
-            int checkX = pos[0] + dir[0];
-            int checkY = pos[1] + dir[1];
-
-            if (isWall(checkX, checkY, arena)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
\ No newline at end of file
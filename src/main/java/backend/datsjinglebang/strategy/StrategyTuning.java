@@ -0,0 +1,222 @@
+package backend.datsjinglebang.strategy;
+
+import java.util.Random;
+
+// Настраиваемые пороги и веса эвристик StrategyService.
+// Значения по умолчанию совпадают с прежними константами; турнир самоигры
+// (SelfPlayTournament) сравнивает варианты с измененными значениями.
+public class StrategyTuning {
+    private int stuckThresholdTicks = 10;      // 5 секунд при 2 тика в секунду
+    private int samePositionThreshold = 5;     // 2.5 секунд на одном месте
+    private float predictedHitThreshold = 0.5f; // Вероятность, что враг окажется в зоне взрыва
+    private int longRouteDistance = 5;         // С какого расстояния до цели планируем маршрут
+
+    // Оценка целей: база - расстояние * штраф + бонусы
+    private int enemyTargetBase = 150;
+    private int enemyTargetDistancePenalty = 5;
+    private int enemyInZoneBonus = 50;
+    private int wallTargetBase = 100;
+    private int wallTargetDistancePenalty = 10;
+    private int wallNearEnemyBonus = 50;
+
+    // Оценка места для бомбы по всей цепной реакции (ChainReactionEvaluator)
+    private int chainObstacleWeight = 10;
+    private int chainEnemyWeight = 40;
+    private int chainMobWeight = 10;
+    private int chainSelfPenalty = 100;        // За каждого своего бомбера в кресте цепочки
+    private int bombSpotMinScore = 20;         // Как прежний порог "два препятствия за раз"
+    private int bombSpotDistancePenalty = 2;   // За шаг до места при поиске
+
+    public static StrategyTuning defaults() {
+        return new StrategyTuning();
+    }
+
+    public StrategyTuning copy() {
+        StrategyTuning copy = new StrategyTuning();
+        copy.stuckThresholdTicks = stuckThresholdTicks;
+        copy.samePositionThreshold = samePositionThreshold;
+        copy.predictedHitThreshold = predictedHitThreshold;
+        copy.longRouteDistance = longRouteDistance;
+        copy.enemyTargetBase = enemyTargetBase;
+        copy.enemyTargetDistancePenalty = enemyTargetDistancePenalty;
+        copy.enemyInZoneBonus = enemyInZoneBonus;
+        copy.wallTargetBase = wallTargetBase;
+        copy.wallTargetDistancePenalty = wallTargetDistancePenalty;
+        copy.wallNearEnemyBonus = wallNearEnemyBonus;
+        copy.chainObstacleWeight = chainObstacleWeight;
+        copy.chainEnemyWeight = chainEnemyWeight;
+        copy.chainMobWeight = chainMobWeight;
+        copy.chainSelfPenalty = chainSelfPenalty;
+        copy.bombSpotMinScore = bombSpotMinScore;
+        copy.bombSpotDistancePenalty = bombSpotDistancePenalty;
+        return copy;
+    }
+
+    // Случайный вариант: каждое значение сдвигается не более чем на spread (доля, 0.3 = +-30%)
+    public StrategyTuning perturb(Random random, double spread) {
+        StrategyTuning variant = copy();
+        variant.stuckThresholdTicks = perturb(random, stuckThresholdTicks, spread, 1);
+        variant.samePositionThreshold = perturb(random, samePositionThreshold, spread, 1);
+        variant.predictedHitThreshold = (float) Math.min(1.0,
+                predictedHitThreshold * (1 + (random.nextDouble() * 2 - 1) * spread));
+        variant.longRouteDistance = perturb(random, longRouteDistance, spread, 2);
+        variant.enemyTargetBase = perturb(random, enemyTargetBase, spread, 0);
+        variant.enemyTargetDistancePenalty = perturb(random, enemyTargetDistancePenalty, spread, 0);
+        variant.enemyInZoneBonus = perturb(random, enemyInZoneBonus, spread, 0);
+        variant.wallTargetBase = perturb(random, wallTargetBase, spread, 0);
+        variant.wallTargetDistancePenalty = perturb(random, wallTargetDistancePenalty, spread, 0);
+        variant.wallNearEnemyBonus = perturb(random, wallNearEnemyBonus, spread, 0);
+        variant.chainObstacleWeight = perturb(random, chainObstacleWeight, spread, 1);
+        variant.chainEnemyWeight = perturb(random, chainEnemyWeight, spread, 0);
+        variant.chainMobWeight = perturb(random, chainMobWeight, spread, 0);
+        variant.chainSelfPenalty = perturb(random, chainSelfPenalty, spread, 0);
+        variant.bombSpotMinScore = perturb(random, bombSpotMinScore, spread, 1);
+        variant.bombSpotDistancePenalty = perturb(random, bombSpotDistancePenalty, spread, 0);
+        return variant;
+    }
+
+    private static int perturb(Random random, int value, double spread, int min) {
+        int delta = (int) Math.round(value * spread * (random.nextDouble() * 2 - 1));
+        return Math.max(min, value + delta);
+    }
+
+    public int getStuckThresholdTicks() {
+        return stuckThresholdTicks;
+    }
+
+    public void setStuckThresholdTicks(int stuckThresholdTicks) {
+        this.stuckThresholdTicks = stuckThresholdTicks;
+    }
+
+    public int getSamePositionThreshold() {
+        return samePositionThreshold;
+    }
+
+    public void setSamePositionThreshold(int samePositionThreshold) {
+        this.samePositionThreshold = samePositionThreshold;
+    }
+
+    public float getPredictedHitThreshold() {
+        return predictedHitThreshold;
+    }
+
+    public void setPredictedHitThreshold(float predictedHitThreshold) {
+        this.predictedHitThreshold = predictedHitThreshold;
+    }
+
+    public int getLongRouteDistance() {
+        return longRouteDistance;
+    }
+
+    public void setLongRouteDistance(int longRouteDistance) {
+        this.longRouteDistance = longRouteDistance;
+    }
+
+    public int getEnemyTargetBase() {
+        return enemyTargetBase;
+    }
+
+    public void setEnemyTargetBase(int enemyTargetBase) {
+        this.enemyTargetBase = enemyTargetBase;
+    }
+
+    public int getEnemyTargetDistancePenalty() {
+        return enemyTargetDistancePenalty;
+    }
+
+    public void setEnemyTargetDistancePenalty(int enemyTargetDistancePenalty) {
+        this.enemyTargetDistancePenalty = enemyTargetDistancePenalty;
+    }
+
+    public int getEnemyInZoneBonus() {
+        return enemyInZoneBonus;
+    }
+
+    public void setEnemyInZoneBonus(int enemyInZoneBonus) {
+        this.enemyInZoneBonus = enemyInZoneBonus;
+    }
+
+    public int getWallTargetBase() {
+        return wallTargetBase;
+    }
+
+    public void setWallTargetBase(int wallTargetBase) {
+        this.wallTargetBase = wallTargetBase;
+    }
+
+    public int getWallTargetDistancePenalty() {
+        return wallTargetDistancePenalty;
+    }
+
+    public void setWallTargetDistancePenalty(int wallTargetDistancePenalty) {
+        this.wallTargetDistancePenalty = wallTargetDistancePenalty;
+    }
+
+    public int getWallNearEnemyBonus() {
+        return wallNearEnemyBonus;
+    }
+
+    public void setWallNearEnemyBonus(int wallNearEnemyBonus) {
+        this.wallNearEnemyBonus = wallNearEnemyBonus;
+    }
+
+    public int getChainObstacleWeight() {
+        return chainObstacleWeight;
+    }
+
+    public void setChainObstacleWeight(int chainObstacleWeight) {
+        this.chainObstacleWeight = chainObstacleWeight;
+    }
+
+    public int getChainEnemyWeight() {
+        return chainEnemyWeight;
+    }
+
+    public void setChainEnemyWeight(int chainEnemyWeight) {
+        this.chainEnemyWeight = chainEnemyWeight;
+    }
+
+    public int getChainMobWeight() {
+        return chainMobWeight;
+    }
+
+    public void setChainMobWeight(int chainMobWeight) {
+        this.chainMobWeight = chainMobWeight;
+    }
+
+    public int getChainSelfPenalty() {
+        return chainSelfPenalty;
+    }
+
+    public void setChainSelfPenalty(int chainSelfPenalty) {
+        this.chainSelfPenalty = chainSelfPenalty;
+    }
+
+    public int getBombSpotMinScore() {
+        return bombSpotMinScore;
+    }
+
+    public void setBombSpotMinScore(int bombSpotMinScore) {
+        this.bombSpotMinScore = bombSpotMinScore;
+    }
+
+    public int getBombSpotDistancePenalty() {
+        return bombSpotDistancePenalty;
+    }
+
+    public void setBombSpotDistancePenalty(int bombSpotDistancePenalty) {
+        this.bombSpotDistancePenalty = bombSpotDistancePenalty;
+    }
+
+    @Override
+    public String toString() {
+        return "stuck=" + stuckThresholdTicks +
+                ", samePos=" + samePositionThreshold +
+                ", hit=" + String.format("%.2f", predictedHitThreshold) +
+                ", route=" + longRouteDistance +
+                ", enemy=" + enemyTargetBase + "-" + enemyTargetDistancePenalty + "*d+" + enemyInZoneBonus +
+                ", wall=" + wallTargetBase + "-" + wallTargetDistancePenalty + "*d+" + wallNearEnemyBonus +
+                ", chain=" + chainObstacleWeight + "/" + chainEnemyWeight + "/" + chainMobWeight + "-" + chainSelfPenalty +
+                ", spot>=" + bombSpotMinScore + "-" + bombSpotDistancePenalty + "*d";
+    }
+}
@@ -0,0 +1,281 @@
+package backend.datsjinglebang.strategy;
+
+import java.util.Arrays;
+
+// Ловушки для врагов: бомба (или две от разных наших бомберов) так, чтобы враг до взрыва
+// не успел дойти ни до одной безопасной клетки. Для каждого врага - BFS, ограниченный
+// тем, сколько он пройдет за время фитиля; новые бомбы перекрывают проходы, их кресты
+// (и взрывы уже стоящих бомб) - небезопасные клетки. Ловушка есть, когда безопасных клеток
+// в досягаемости не осталось. Буферы переиспользуются между вызовами, как в ChainReactionEvaluator;
+// безопасность своих бомберов проверяет он же - для пары с обеими бомбами сразу.
+// Не потокобезопасен - по экземпляру на стратегию.
+public class TrapEvaluator {
+    // Скорость врагов не видна - считаем как у команды без бустеров
+    public static final int ENEMY_SPEED = BomberCapabilities.DEFAULT_SPEED;
+    // Предел BFS: дальше враг точно уйдет, ловушки там не строим
+    public static final int MAX_ENEMY_STEPS = 8;
+    // Бомб в одной ловушке - согласованно ставят разные бомберы
+    public static final int MAX_TRAP_BOMBS = 2;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+    private static final int ENEMY_BLOCK = ArenaGrid.WALL | ArenaGrid.OBSTACLE | ArenaGrid.BOMB;
+    private static final int BLAST_STOP = ArenaGrid.WALL | ArenaGrid.OBSTACLE;
+
+    private final ChainReactionEvaluator chainEvaluator;
+
+    private int width;
+    private int height;
+    private int epoch;
+    // Метки эпохи по клеткам: в кресте новых бомб, посещена BFS врага
+    private int[] blastStamp = new int[0];
+    private int[] visitStamp = new int[0];
+    private int[] bfsQueue = new int[0];
+    private int[] bfsDepth = new int[0];
+
+    // Клетки новых бомб проверяемой ловушки
+    private final int[] trapCells = new int[MAX_TRAP_BOMBS];
+    private int trapSize;
+
+    // По слоту бомбера: занят ловушкой в этом плане; безопасно ли ставить на своей клетке (0 - не проверяли)
+    private boolean[] bomberUsed = new boolean[0];
+    private byte[] bomberSafety = new byte[0];
+    private int[] candidates = new int[0];
+    private final int[] companion = new int[1];
+
+    public TrapEvaluator(ChainReactionEvaluator chainEvaluator) {
+        this.chainEvaluator = chainEvaluator;
+    }
+
+    // Сколько клеток пройдет враг до взрыва через fuseMillis
+    public static int enemySteps(int fuseMillis) {
+        return Math.min(MAX_ENEMY_STEPS, (int) ((long) ENEMY_SPEED * fuseMillis / 1000));
+    }
+
+    // Согласованные ловушки тика: готовые бомберы (слоты снимка, могут ставить бомбу прямо сейчас)
+    // ставят бомбы на своих клетках. Для каждого врага - сначала один бомбер, потом пара,
+    // где отход есть у обоих при обеих бомбах. Ловушка t пишется в out[2t] и out[2t + 1]
+    // (второй -1 для одиночной), out - не меньше двух на бомбера; возвращает число ловушек.
+    public int plan(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                    int[] readySlots, int readyCount, int[] out) {
+        prepareBombers(snapshot.getBomberCount());
+        int steps = enemySteps(capabilities.getBombDelayMillis());
+        int reach = steps + capabilities.getBlastRadius();
+        int planned = 0;
+
+        for (int enemy = 0; enemy < snapshot.getEnemyCount(); enemy++) {
+            int ex = snapshot.enemyX(enemy);
+            int ey = snapshot.enemyY(enemy);
+            if (ex < 0 || snapshot.enemySafeTime(enemy) >= capabilities.getBombDelayMillis()) continue;
+
+            // Бомберы, чей взрыв может достать хоть одну клетку, куда успеет враг
+            int count = 0;
+            for (int i = 0; i < readyCount; i++) {
+                int slot = readySlots[i];
+                if (bomberUsed[slot]) continue;
+                int dist = Math.abs(snapshot.bomberX(slot) - ex) + Math.abs(snapshot.bomberY(slot) - ey);
+                if (dist <= reach) candidates[count++] = slot;
+            }
+
+            int first = -1;
+            int second = -1;
+            for (int a = 0; a < count && first < 0; a++) {
+                if (isSafeToPlant(snapshot, grid, capabilities, candidates[a])
+                        && isTrapped(snapshot, grid, capabilities, ex, ey, steps, candidates[a], -1)) {
+                    first = candidates[a];
+                }
+            }
+            for (int a = 0; a < count && first < 0; a++) {
+                for (int b = a + 1; b < count && first < 0; b++) {
+                    if (isTrapped(snapshot, grid, capabilities, ex, ey, steps, candidates[a], candidates[b])
+                            && isPairSafe(snapshot, grid, capabilities, candidates[a], candidates[b])) {
+                        first = candidates[a];
+                        second = candidates[b];
+                    }
+                }
+            }
+
+            if (first < 0) continue;
+            bomberUsed[first] = true;
+            if (second >= 0) bomberUsed[second] = true;
+            out[2 * planned] = first;
+            out[2 * planned + 1] = second;
+            planned++;
+        }
+        return planned;
+    }
+
+    // Куда идти одному бомберу из (planterX, planterY), чтобы бомбой запереть врага:
+    // клетки креста врага в пределах взрыва, куда можно встать и откуда можно уйти.
+    // Пишет клетку в out (x, y) и возвращает true, если нашлась.
+    public boolean findSpot(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                            int enemy, int planterX, int planterY, int[] out) {
+        int ex = snapshot.enemyX(enemy);
+        int ey = snapshot.enemyY(enemy);
+        if (ex < 0 || snapshot.enemySafeTime(enemy) >= capabilities.getBombDelayMillis()) return false;
+        int steps = enemySteps(capabilities.getBombDelayMillis());
+        int mask = capabilities.getMovementMask();
+
+        for (int r = 1; r <= capabilities.getBlastRadius(); r++) {
+            for (int d = 0; d < 4; d++) {
+                int x = ex + DX[d] * r;
+                int y = ey + DY[d] * r;
+                boolean planterCell = x == planterX && y == planterY;
+                if ((!planterCell && grid.isBlocked(x, y, mask)) || grid.has(x, y, ArenaGrid.BOMB)
+                        || !isLineClear(grid, ex, ey, x, y)) continue;
+                if (!chainEvaluator.evaluate(snapshot, grid, capabilities, x, y, planterX, planterY).isSafe()) continue;
+
+                trapCells[0] = y * snapshot.getWidth() + x;
+                trapSize = 1;
+                if (isTrapped(snapshot, grid, capabilities, ex, ey, steps)) {
+                    out[0] = x;
+                    out[1] = y;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isTrapped(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                              int ex, int ey, int steps, int slotA, int slotB) {
+        trapSize = 0;
+        trapCells[trapSize++] = snapshot.bomberY(slotA) * snapshot.getWidth() + snapshot.bomberX(slotA);
+        if (slotB >= 0) {
+            trapCells[trapSize++] = snapshot.bomberY(slotB) * snapshot.getWidth() + snapshot.bomberX(slotB);
+        }
+        return isTrapped(snapshot, grid, capabilities, ex, ey, steps);
+    }
+
+    // BFS врага от (ex, ey) на steps шагов: новые бомбы trapCells непроходимы,
+    // безопасная клетка - вне их крестов и вне взрывов бомб снимка
+    private boolean isTrapped(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                              int ex, int ey, int steps) {
+        prepare(snapshot);
+        for (int i = 0; i < trapSize; i++) {
+            markBlast(grid, trapCells[i] % width, trapCells[i] / width, capabilities.getBlastRadius());
+        }
+
+        int start = ey * width + ex;
+        if (isTrapCell(start)) return false;
+
+        int head = 0;
+        int tail = 0;
+        visitStamp[start] = epoch;
+        bfsDepth[start] = 0;
+        bfsQueue[tail++] = start;
+
+        while (head < tail) {
+            int cell = bfsQueue[head++];
+            int cx = cell % width;
+            int cy = cell / width;
+            if (blastStamp[cell] != epoch && !snapshot.inDanger(cx, cy)) {
+                return false;
+            }
+            int depth = bfsDepth[cell];
+            if (depth == steps) continue;
+
+            for (int d = 0; d < 4; d++) {
+                int nx = cx + DX[d];
+                int ny = cy + DY[d];
+                if (grid.isBlocked(nx, ny, ENEMY_BLOCK)) continue;
+                int next = ny * width + nx;
+                if (visitStamp[next] == epoch || isTrapCell(next)) continue;
+                visitStamp[next] = epoch;
+                bfsDepth[next] = depth + 1;
+                bfsQueue[tail++] = next;
+            }
+        }
+        return true;
+    }
+
+    private boolean isTrapCell(int cell) {
+        for (int i = 0; i < trapSize; i++) {
+            if (trapCells[i] == cell) return true;
+        }
+        return false;
+    }
+
+    // Крест взрыва: стена гасит его до себя, препятствие - на себе
+    private void markBlast(ArenaGrid grid, int bx, int by, int range) {
+        blastStamp[by * width + bx] = epoch;
+        for (int d = 0; d < 4; d++) {
+            for (int r = 1; r <= range; r++) {
+                int x = bx + DX[d] * r;
+                int y = by + DY[d] * r;
+                if (!grid.inBounds(x, y) || grid.has(x, y, ArenaGrid.WALL)) break;
+                blastStamp[y * width + x] = epoch;
+                if (grid.has(x, y, ArenaGrid.OBSTACLE)) break;
+            }
+        }
+    }
+
+    // Между клетками одной линии нет стен и препятствий - взрыв из (x, y) дойдет до (ex, ey)
+    private static boolean isLineClear(ArenaGrid grid, int ex, int ey, int x, int y) {
+        int dist = Math.abs(x - ex) + Math.abs(y - ey);
+        int stepX = Integer.signum(ex - x);
+        int stepY = Integer.signum(ey - y);
+        for (int i = 1; i < dist; i++) {
+            if ((grid.flags(x + stepX * i, y + stepY * i) & BLAST_STOP) != 0) return false;
+        }
+        return true;
+    }
+
+    // Ставить на своей клетке безопасно: запоминается на весь план
+    private boolean isSafeToPlant(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities, int slot) {
+        if (bomberSafety[slot] == 0) {
+            int x = snapshot.bomberX(slot);
+            int y = snapshot.bomberY(slot);
+            boolean safe = chainEvaluator.evaluate(snapshot, grid, capabilities, x, y, x, y).isSafe();
+            bomberSafety[slot] = (byte) (safe ? 1 : -1);
+        }
+        return bomberSafety[slot] > 0;
+    }
+
+    // Оба бомбера пары уходят, когда стоят обе бомбы: кресты вместе, чужая бомба на пути непроходима
+    private boolean isPairSafe(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                               int slotA, int slotB) {
+        return isSafeWith(snapshot, grid, capabilities, slotA, slotB)
+                && isSafeWith(snapshot, grid, capabilities, slotB, slotA);
+    }
+
+    private boolean isSafeWith(ArenaSnapshot snapshot, ArenaGrid grid, BomberCapabilities capabilities,
+                               int slot, int partner) {
+        int x = snapshot.bomberX(slot);
+        int y = snapshot.bomberY(slot);
+        companion[0] = snapshot.bomberY(partner) * snapshot.getWidth() + snapshot.bomberX(partner);
+        return chainEvaluator.evaluate(snapshot, grid, capabilities, x, y, x, y, companion, 1).isSafe();
+    }
+
+    private void prepareBombers(int count) {
+        if (bomberUsed.length < count) {
+            bomberUsed = new boolean[count];
+            bomberSafety = new byte[count];
+            candidates = new int[count];
+        } else {
+            Arrays.fill(bomberUsed, false);
+            Arrays.fill(bomberSafety, (byte) 0);
+        }
+    }
+
+    private void prepare(ArenaSnapshot snapshot) {
+        int w = snapshot.getWidth();
+        int h = snapshot.getHeight();
+        if (w != width || h != height) {
+            width = w;
+            height = h;
+            int size = w * h;
+            blastStamp = new int[size];
+            visitStamp = new int[size];
+            bfsQueue = new int[size];
+            bfsDepth = new int[size];
+            epoch = 0;
+        }
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(blastStamp, 0);
+            Arrays.fill(visitStamp, 0);
+            epoch = 0;
+        }
+        epoch++;
+    }
+}
@@ -0,0 +1,127 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomb;
+
+import java.util.Arrays;
+
+// Стоимость входа в каждую клетку для планировщика маршрутов, плюс список клеток,
+// чья стоимость изменилась с прошлого обновления. Планировщики чинят свои маршруты
+// только по этому списку вместо полного пересчета.
+public class TraversalCostMap {
+    public static final int BLOCKED = Integer.MAX_VALUE / 4;
+
+    private static final int DANGER_COST = 60; // Клетка в кресте взрыва существующей бомбы
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private int width;
+    private int height;
+    private int[] cost = new int[0];
+    private int[] previous = new int[0];
+
+    private int[] changed = new int[256];
+    private int changedCount;
+
+    // Версия растет при каждом обновлении; при смене размеров карты дифф недействителен
+    private int version;
+    private int resetVersion;
+
+    public void update(ArenaResponse arena, ArenaGrid grid, MobThreatField threatField,
+                       BomberCapabilities capabilities) {
+        if (arena == null || arena.map_size == null || arena.map_size.length < 2) return;
+
+        int w = grid.getWidth();
+        int h = grid.getHeight();
+        boolean resized = w != width || h != height;
+        int terrainMask = capabilities.getTerrainMask();
+
+        if (resized) {
+            width = w;
+            height = h;
+            cost = new int[w * h];
+            previous = new int[w * h];
+        } else {
+            int[] tmp = previous;
+            previous = cost;
+            cost = tmp;
+        }
+
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int flags = grid.flags(x, y);
+                cost[y * w + x] = (flags & terrainMask) != 0
+                        ? BLOCKED
+                        : MobThreatField.STEP_COST + threatField.threatAt(x, y);
+            }
+        }
+
+        // Кресты взрывов существующих бомб - дорого, но проходимо
+        if (arena.arena != null && arena.arena.bombs != null) {
+            for (Bomb bomb : arena.arena.bombs) {
+                if (bomb.pos == null || bomb.pos.length < 2) continue;
+                int range = bomb.range > 0 ? bomb.range : capabilities.getBlastRadius();
+                addBlastCost(grid, bomb.pos[0], bomb.pos[1], range);
+            }
+        }
+
+        version++;
+        changedCount = 0;
+        if (resized) {
+            resetVersion = version;
+            return;
+        }
+
+        for (int i = 0; i < cost.length; i++) {
+            if (cost[i] != previous[i]) {
+                if (changedCount == changed.length) {
+                    changed = Arrays.copyOf(changed, changed.length * 2);
+                }
+                changed[changedCount++] = i;
+            }
+        }
+    }
+
+    private void addBlastCost(ArenaGrid grid, int bx, int by, int range) {
+        for (int d = 0; d < 4; d++) {
+            for (int i = 1; i <= range; i++) {
+                int x = bx + DX[d] * i;
+                int y = by + DY[d] * i;
+                if (!grid.inBounds(x, y) || grid.has(x, y, ArenaGrid.WALL) || grid.has(x, y, ArenaGrid.OBSTACLE)) break;
+                int idx = y * width + x;
+                if (cost[idx] < BLOCKED) {
+                    cost[idx] += DANGER_COST;
+                }
+            }
+        }
+    }
+
+    public int cost(int idx) {
+        return cost[idx];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    // Можно ли перейти от версии fromVersion к текущей по списку изменений
+    public boolean canApplyDiffFrom(int fromVersion) {
+        return fromVersion == version - 1 && resetVersion != version;
+    }
+
+    public int getChangedCount() {
+        return changedCount;
+    }
+
+    public int[] getChangedCells() {
+        return changed;
+    }
+}
@@ -0,0 +1,266 @@
+package backend.datsjinglebang.trace;
+
+import backend.datsjinglebang.model.*;
+import backend.datsjinglebang.strategy.StrategyService;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кольцевой буфер трасс последних тиков: тайминги фаз, отпечаток арены,
+// действие и отправленный путь каждого бомбера.
+// Все слоты выделены заранее, запись не блокирует и не выделяет память:
+// строки (id бомбера, действие) хранятся ссылками, координаты - в int-массивах.
+// Каждый слот защищен seqlock'ом: нечетная версия - идет запись. Читатель
+// (эндпоинт /actuator/ticktrace) копирует слот и отбрасывает его, если версия изменилась.
+public class TickTraceBuffer {
+    public static final int CAPACITY = 1024;
+    public static final int MAX_BOMBERS = 32;
+    public static final int MAX_PATH = 30;
+
+    public enum Phase {
+        ARENA,
+        BOOSTERS,
+        DECIDE,
+        MOVE
+    }
+
+    private static final int PHASES = Phase.values().length;
+
+    private final Slot[] slots = new Slot[CAPACITY];
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public TickTraceBuffer() {
+        for (int i = 0; i < CAPACITY; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    // Начинает трассу тика; возвращает номер записи для остальных вызовов
+    public long begin(int tickNumber) {
+        long sequence = nextSequence.getAndIncrement();
+        Slot slot = slot(sequence);
+        slot.version = sequence * 2 + 1;
+        VarHandle.storeStoreFence();
+
+        slot.sequence = sequence;
+        slot.tickNumber = tickNumber;
+        slot.startedAtMillis = System.currentTimeMillis();
+        slot.startNanos = System.nanoTime();
+        slot.totalNanos = 0;
+        slot.failed = false;
+        slot.fingerprint = 0;
+        slot.round = null;
+        slot.score = 0;
+        slot.bomberCount = 0;
+        for (int i = 0; i < PHASES; i++) {
+            slot.phaseNanos[i] = 0;
+        }
+        return sequence;
+    }
+
+    public void phaseStart(long sequence, Phase phase) {
+        Slot slot = writable(sequence);
+        if (slot != null) {
+            slot.phaseNanos[phase.ordinal()] = -System.nanoTime();
+        }
+    }
+
+    public void phaseEnd(long sequence, Phase phase) {
+        Slot slot = writable(sequence);
+        if (slot != null && slot.phaseNanos[phase.ordinal()] < 0) {
+            slot.phaseNanos[phase.ordinal()] += System.nanoTime();
+        }
+    }
+
+    public void arena(long sequence, ArenaResponse arena) {
+        Slot slot = writable(sequence);
+        if (slot == null || arena == null) return;
+        slot.fingerprint = fingerprint(arena);
+        slot.round = arena.round;
+        slot.score = arena.raw_score;
+    }
+
+    public void decisions(long sequence, MoveRequest move, StrategyService strategy) {
+        Slot slot = writable(sequence);
+        if (slot == null || move == null || move.getBombers() == null) return;
+
+        int count = 0;
+        List<MoveBomber> bombers = move.getBombers();
+        for (int b = 0; b < bombers.size() && count < MAX_BOMBERS; b++) {
+            MoveBomber command = bombers.get(b);
+            if (command == null) continue;
+
+            slot.bomberIds[count] = command.getId();
+            slot.actions[count] = strategy.getLastAction(command.getId());
+            slot.bombs[count] = command.getBombs() != null ? command.getBombs().size() : 0;
+
+            int length = 0;
+            PackedPath path = command.getPath();
+            if (path != null) {
+                int base = count * MAX_PATH;
+                for (int i = 0; i < path.size() && length < MAX_PATH; i++) {
+                    slot.path[base + length++] = (path.x(i) << 16) | (path.y(i) & 0xFFFF);
+                }
+            }
+            slot.pathLength[count] = length;
+            count++;
+        }
+        slot.bomberCount = count;
+    }
+
+    public void markFailed(long sequence) {
+        Slot slot = writable(sequence);
+        if (slot != null) {
+            slot.failed = true;
+        }
+    }
+
+    // Завершает запись - после этого слот виден читателям
+    public void commit(long sequence) {
+        Slot slot = writable(sequence);
+        if (slot == null) return;
+        slot.totalNanos = System.nanoTime() - slot.startNanos;
+        slot.version = sequence * 2 + 2;
+    }
+
+    // Последние n завершенных тиков, от новых к старым
+    public List<TickTraceEntry> last(int n) {
+        long newest = nextSequence.get() - 1;
+        int limit = Math.max(0, Math.min(n, CAPACITY));
+        List<TickTraceEntry> result = new ArrayList<>(limit);
+
+        for (long sequence = newest; sequence >= 0 && sequence > newest - limit; sequence--) {
+            Slot slot = slot(sequence);
+            long version = slot.version;
+            if (version != sequence * 2 + 2) continue; // Еще пишется или уже перезаписан
+
+            TickTraceEntry entry = slot.copy();
+            VarHandle.loadLoadFence();
+            if (slot.version == version) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private Slot slot(long sequence) {
+        return slots[(int) (sequence % CAPACITY)];
+    }
+
+    // Слот, если он все еще принадлежит этой записи (буфер мог уйти на следующий круг)
+    private Slot writable(long sequence) {
+        Slot slot = slot(sequence);
+        return slot.version == sequence * 2 + 1 ? slot : null;
+    }
+
+    // Отпечаток арены: FNV-подобное смешивание размеров и координат всех объектов
+    private static long fingerprint(ArenaResponse arena) {
+        long hash = 0xCBF29CE484222325L;
+        if (arena.map_size != null && arena.map_size.length >= 2) {
+            hash = mix(hash, arena.map_size[0]);
+            hash = mix(hash, arena.map_size[1]);
+        }
+        if (arena.arena != null) {
+            hash = mixCells(hash, arena.arena.walls);
+            hash = mixCells(hash, arena.arena.obstacles);
+            if (arena.arena.bombs != null) {
+                for (int i = 0; i < arena.arena.bombs.size(); i++) {
+                    hash = mixPos(hash, arena.arena.bombs.get(i).pos);
+                }
+            }
+        }
+        if (arena.bombers != null) {
+            for (int i = 0; i < arena.bombers.size(); i++) {
+                Bomber bomber = arena.bombers.get(i);
+                hash = mixPos(hash, bomber.alive ? bomber.pos : null);
+            }
+        }
+        if (arena.enemies != null) {
+            for (int i = 0; i < arena.enemies.size(); i++) {
+                hash = mixPos(hash, arena.enemies.get(i).pos);
+            }
+        }
+        if (arena.mobs != null) {
+            for (int i = 0; i < arena.mobs.size(); i++) {
+                hash = mixPos(hash, arena.mobs.get(i).pos);
+            }
+        }
+        return hash;
+    }
+
+    private static long mixCells(long hash, List<List<Integer>> cells) {
+        if (cells == null) return mix(hash, -1);
+        for (int i = 0; i < cells.size(); i++) {
+            List<Integer> cell = cells.get(i);
+            if (cell.size() >= 2) {
+                hash = mix(hash, (cell.get(0) << 16) | (cell.get(1) & 0xFFFF));
+            }
+        }
+        return mix(hash, cells.size());
+    }
+
+    private static long mixPos(long hash, int[] pos) {
+        return pos != null && pos.length >= 2 ? mix(hash, (pos[0] << 16) | (pos[1] & 0xFFFF)) : mix(hash, -1);
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * 0x100000001B3L;
+    }
+
+    private static final class Slot {
+        volatile long version;
+
+        long sequence;
+        int tickNumber;
+        long startedAtMillis;
+        long startNanos;
+        long totalNanos;
+        boolean failed;
+        long fingerprint;
+        String round;
+        int score;
+        final long[] phaseNanos = new long[PHASES];
+
+        int bomberCount;
+        final String[] bomberIds = new String[MAX_BOMBERS];
+        final String[] actions = new String[MAX_BOMBERS];
+        final int[] bombs = new int[MAX_BOMBERS];
+        final int[] pathLength = new int[MAX_BOMBERS];
+        final int[] path = new int[MAX_BOMBERS * MAX_PATH];
+
+        TickTraceEntry copy() {
+            TickTraceEntry entry = new TickTraceEntry();
+            entry.sequence = sequence;
+            entry.tick = tickNumber;
+            entry.startedAt = startedAtMillis;
+            entry.totalMicros = totalNanos / 1000;
+            entry.arenaMicros = Math.max(0, phaseNanos[Phase.ARENA.ordinal()]) / 1000;
+            entry.boostersMicros = Math.max(0, phaseNanos[Phase.BOOSTERS.ordinal()]) / 1000;
+            entry.decideMicros = Math.max(0, phaseNanos[Phase.DECIDE.ordinal()]) / 1000;
+            entry.moveMicros = Math.max(0, phaseNanos[Phase.MOVE.ordinal()]) / 1000;
+            entry.failed = failed;
+            entry.fingerprint = Long.toHexString(fingerprint);
+            entry.round = round;
+            entry.score = score;
+
+            int count = Math.min(bomberCount, MAX_BOMBERS);
+            entry.bombers = new ArrayList<>(count);
+            for (int b = 0; b < count; b++) {
+                TickTraceEntry.BomberTrace bomber = new TickTraceEntry.BomberTrace();
+                bomber.id = bomberIds[b];
+                bomber.action = actions[b];
+                bomber.bombs = bombs[b];
+                int length = Math.min(pathLength[b], MAX_PATH);
+                bomber.path = new int[length][];
+                for (int i = 0; i < length; i++) {
+                    int packed = path[b * MAX_PATH + i];
+                    bomber.path[i] = new int[]{packed >> 16, (short) packed};
+                }
+                entry.bombers.add(bomber);
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package backend.datsjinglebang.trace;
+
+import backend.datsjinglebang.session.GameSession;
+import backend.datsjinglebang.session.GameSessions;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/ticktrace?last=N&session=S - последние N тиков из кольцевого буфера сессии
+// (по умолчанию 50 тиков основной сессии)
+@Component
+@Endpoint(id = "ticktrace")
+public class TickTraceEndpoint {
+    private static final int DEFAULT_LAST = 50;
+
+    private final GameSessions sessions;
+
+    public TickTraceEndpoint(GameSessions sessions) {
+        this.sessions = sessions;
+    }
+
+    @ReadOperation
+    public List<TickTraceEntry> ticks(@Nullable Integer last, @Nullable String session) {
+        GameSession target = sessions.get(session);
+        if (target == null) return List.of();
+        return target.getTickTrace().last(last != null ? last : DEFAULT_LAST);
+    }
+}
@@ -0,0 +1,27 @@
+package backend.datsjinglebang.trace;
+
+import java.util.List;
+
+// Копия одного слота TickTraceBuffer для выдачи наружу
+public class TickTraceEntry {
+    public long sequence;
+    public int tick;
+    public long startedAt;
+    public long totalMicros;
+    public long arenaMicros;
+    public long boostersMicros;
+    public long decideMicros;
+    public long moveMicros;
+    public boolean failed;
+    public String fingerprint;
+    public String round;
+    public int score;
+    public List<BomberTrace> bombers;
+
+    public static class BomberTrace {
+        public String id;
+        public String action;
+        public int bombs;
+        public int[][] path;
+    }
+}
@@ -0,0 +1,159 @@
+package backend.datsjinglebang.warmup;
+
+import backend.datsjinglebang.mock.MockGameEngine;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.BoosterResponse;
+import backend.datsjinglebang.model.MoveRequest;
+import backend.datsjinglebang.recording.SessionLogReader;
+import backend.datsjinglebang.selfplay.ScriptedPlayers;
+import backend.datsjinglebang.selfplay.SelfPlayPlayer;
+import backend.datsjinglebang.strategy.StrategyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Instant;
+
+// Прогрев JIT вне боевого состояния: отдельные StrategyService играют синтетические
+// матчи на MockGameEngine, а арена, бустеры и ход каждого тика проходят через Jackson
+// туда и обратно - как в живом цикле. Записанные сессии прогоняются первыми.
+// Пачки повторяются, пока JIT не перестанет компилировать (или не выйдет время).
+public class JitWarmup {
+    private static final String TEAM = "warmup";
+    private static final String SPARRING = "sparring";
+
+    private final ObjectMapper objectMapper;
+    private final WarmupProperties properties;
+
+    public JitWarmup(ObjectMapper objectMapper, WarmupProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public Report run() throws IOException {
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean canMeasure = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long deadline = System.nanoTime() + properties.getMaxDuration().toNanos();
+        Report report = new Report();
+        long started = System.nanoTime();
+
+        for (String recording : properties.getRecordings()) {
+            report.recordedTicks += replayRecording(Path.of(recording));
+        }
+
+        long lastCompileMillis = canMeasure ? compiler.getTotalCompilationTime() : 0;
+        int quietBatches = 0;
+        while (System.nanoTime() < deadline) {
+            report.syntheticTicks += playBatch(report.batches);
+            report.batches++;
+
+            if (!canMeasure) continue;
+            long compileMillis = compiler.getTotalCompilationTime();
+            quietBatches = compileMillis - lastCompileMillis < properties.getSettleCompileMillis() ? quietBatches + 1 : 0;
+            lastCompileMillis = compileMillis;
+            if (quietBatches >= properties.getSettleBatches()) {
+                report.settled = true;
+                break;
+            }
+        }
+
+        report.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        report.compileMillis = canMeasure ? compiler.getTotalCompilationTime() : -1;
+        return report;
+    }
+
+    // Один матч длиной batchTicks против случайного бомбера; возвращает число решений
+    private int playBatch(int batch) throws IOException {
+        long seed = 0x5EEDL + batch;
+        MockGameEngine engine = new MockGameEngine(properties.getMapSize(), 0.3, properties.getBombersPerTeam(), 4,
+                properties.getBatchTicks(), seed, "warmup-" + batch, Instant.EPOCH);
+        engine.addTeam(TEAM);
+        engine.addTeam(SPARRING);
+        StrategyService strategy = new StrategyService(seed);
+        SelfPlayPlayer sparring = ScriptedPlayers.randomBomber(seed);
+
+        int decisions = 0;
+        while (!engine.isFinished() && engine.getAliveBombers(TEAM) > 0) {
+            ArenaResponse arena = roundTrip(engine.arenaFor(TEAM), ArenaResponse.class);
+            BoosterResponse boosters = roundTrip(engine.boostersFor(TEAM), BoosterResponse.class);
+            MoveRequest move = strategy.decideMove(arena, boosters);
+            decisions++;
+            if (move != null && !move.getBombers().isEmpty()) {
+                objectMapper.writeValueAsBytes(move);
+                engine.submitMove(TEAM, move);
+            }
+
+            MoveRequest sparringMove = sparring.decide(engine.arenaFor(SPARRING), engine.boostersFor(SPARRING));
+            if (sparringMove != null && sparringMove.getBombers() != null && !sparringMove.getBombers().isEmpty()) {
+                engine.submitMove(SPARRING, sparringMove);
+            }
+            engine.tick();
+        }
+        return decisions;
+    }
+
+    private int replayRecording(Path file) throws IOException {
+        try (SessionLogReader reader = new SessionLogReader(file)) {
+            StrategyService strategy = new StrategyService(reader.getRandomSeed());
+            ArenaResponse arena = null;
+            BoosterResponse boosters = null;
+            int decisions = 0;
+            while (reader.next()) {
+                switch (reader.getType()) {
+                    case ARENA -> arena = objectMapper.readValue(reader.getPayload(), ArenaResponse.class);
+                    case BOOSTERS -> boosters = objectMapper.readValue(reader.getPayload(), BoosterResponse.class);
+                    case MOVE -> {
+                        objectMapper.writeValueAsBytes(strategy.decideMove(arena, boosters));
+                        decisions++;
+                    }
+                }
+            }
+            return decisions;
+        }
+    }
+
+    private <T> T roundTrip(T value, Class<T> type) throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsBytes(value), type);
+    }
+
+    public static final class Report {
+        private int batches;
+        private int syntheticTicks;
+        private int recordedTicks;
+        private boolean settled;
+        private long elapsedMillis;
+        private long compileMillis;
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public int getSyntheticTicks() {
+            return syntheticTicks;
+        }
+
+        public int getRecordedTicks() {
+            return recordedTicks;
+        }
+
+        public boolean isSettled() {
+            return settled;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public long getCompileMillis() {
+            return compileMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("batches=%d, synthetic ticks=%d, recorded ticks=%d, settled=%s, elapsed=%d ms, total JIT time=%d ms",
+                    batches, syntheticTicks, recordedTicks, settled, elapsedMillis, compileMillis);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package backend.datsjinglebang.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Настройки прогрева перед первым живым тиком (game.warmup.*)
+@ConfigurationProperties(prefix = "game.warmup")
+public class WarmupProperties {
+    private boolean enabled = true;
+
+    // Синтетические матчи на MockGameEngine
+    private int mapSize = 100;
+    private int bombersPerTeam = 6;
+    private int batchTicks = 100;
+
+    // Компиляция "успокоилась": settleBatches пачек подряд JIT тратит меньше settleCompileMillis
+    private int settleBatches = 3;
+    private long settleCompileMillis = 5;
+    private Duration maxDuration = Duration.ofSeconds(20);
+
+    // Записанные сессии (.djbr) - настоящий JSON сервера для прогрева Jackson
+    private List<String> recordings = new ArrayList<>();
+
+    // GET /arena + GET /booster через боевой клиент: соединение, TLS, кодеки WebClient
+    private int httpRequests = 2;
+
+    // Выйти после прогрева, не запуская цикл - тренировочный прогон для AppCDS
+    private boolean exitAfterWarmup = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMapSize() {
+        return mapSize;
+    }
+
+    public void setMapSize(int mapSize) {
+        this.mapSize = mapSize;
+    }
+
+    public int getBombersPerTeam() {
+        return bombersPerTeam;
+    }
+
+    public void setBombersPerTeam(int bombersPerTeam) {
+        this.bombersPerTeam = bombersPerTeam;
+    }
+
+    public int getBatchTicks() {
+        return batchTicks;
+    }
+
+    public void setBatchTicks(int batchTicks) {
+        this.batchTicks = batchTicks;
+    }
+
+    public int getSettleBatches() {
+        return settleBatches;
+    }
+
+    public void setSettleBatches(int settleBatches) {
+        this.settleBatches = settleBatches;
+    }
+
+    public long getSettleCompileMillis() {
+        return settleCompileMillis;
+    }
+
+    public void setSettleCompileMillis(long settleCompileMillis) {
+        this.settleCompileMillis = settleCompileMillis;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public List<String> getRecordings() {
+        return recordings;
+    }
+
+    public void setRecordings(List<String> recordings) {
+        this.recordings = recordings;
+    }
+
+    public int getHttpRequests() {
+        return httpRequests;
+    }
+
+    public void setHttpRequests(int httpRequests) {
+        this.httpRequests = httpRequests;
+    }
+
+    public boolean isExitAfterWarmup() {
+        return exitAfterWarmup;
+    }
+
+    public void setExitAfterWarmup(boolean exitAfterWarmup) {
+        this.exitAfterWarmup = exitAfterWarmup;
+    }
+}
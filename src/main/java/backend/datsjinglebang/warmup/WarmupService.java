@@ -0,0 +1,117 @@
+package backend.datsjinglebang.warmup;
+
+import backend.datsjinglebang.client.GameApiClient;
+import backend.datsjinglebang.session.GameSessionFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// Прогрев перед первым живым тиком: JIT (стратегия + Jackson) на синтетических и
+// записанных аренах, затем несколько запросов клиентом основной сессии (соединения греются
+// в общем пуле всех сессий). Игровые циклы ждут whenReady(), поэтому первый тик раунда
+// идет уже по скомпилированному коду.
+@Service
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupService {
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+    private static final Duration HTTP_TIMEOUT = Duration.ofSeconds(5);
+    // Стратегия подробно логирует каждый ход; на время прогрева оставляем только предупреждения
+    private static final String STRATEGY_LOGGER = "backend.datsjinglebang.strategy";
+
+    private final WarmupProperties properties;
+    private final ObjectMapper objectMapper;
+    private final GameApiClient api;
+    private final ApplicationContext context;
+    private final LoggingSystem loggingSystem;
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    public WarmupService(WarmupProperties properties, ObjectMapper objectMapper, GameSessionFactory sessions,
+                         ApplicationContext context, LoggingSystem loggingSystem) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.api = sessions.primaryClient();
+        this.context = context;
+        this.loggingSystem = loggingSystem;
+    }
+
+    public CompletableFuture<Void> whenReady() {
+        return ready;
+    }
+
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    // После старта веб-сервера: мок-сервер (профиль mock) к этому моменту уже отвечает
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            log.info("Warm-up disabled, game loop starts immediately");
+            ready.complete(null);
+            return;
+        }
+
+        Thread thread = new Thread(this::warmUp, "warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void warmUp() {
+        try {
+            log.info("JIT warm-up finished: {}", warmUpJit());
+            warmUpHttp();
+        } catch (Exception e) {
+            // Прогрев - оптимизация; без него цикл все равно должен стартовать
+            log.warn("Warm-up failed, starting game loop anyway: {}", e.getMessage());
+        }
+
+        if (properties.isExitAfterWarmup()) {
+            log.info("Warm-up training run complete, exiting");
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+        ready.complete(null);
+    }
+
+    private JitWarmup.Report warmUpJit() throws Exception {
+        LogLevel strategyLevel = loggingSystem.getLoggerConfiguration(STRATEGY_LOGGER).getConfiguredLevel();
+        loggingSystem.setLogLevel(STRATEGY_LOGGER, LogLevel.WARN);
+        try {
+            return new JitWarmup(objectMapper, properties).run();
+        } finally {
+            loggingSystem.setLogLevel(STRATEGY_LOGGER, strategyLevel);
+        }
+    }
+
+    // Запросы с тем же интервалом, что и в цикле, и пауза в конце - чтобы не съесть лимит первого тика
+    private void warmUpHttp() {
+        for (int i = 0; i < properties.getHttpRequests(); i++) {
+            warmUpRequest(api.getArena().then());
+            warmUpRequest(api.getBoosters().then());
+        }
+        if (properties.getHttpRequests() > 0) {
+            Mono.delay(GameApiClient.REQUEST_SPACING).block();
+        }
+    }
+
+    private void warmUpRequest(Mono<Void> request) {
+        request.delaySubscription(GameApiClient.REQUEST_SPACING)
+                .timeout(HTTP_TIMEOUT)
+                .onErrorResume(e -> {
+                    log.debug("Warm-up request failed: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+}
@@ -0,0 +1,44 @@
+package backend.datsjinglebang.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameApiClientTest {
+
+    @Test
+    void requestCancelledByOuterTimeoutIsTimed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // Сервер не отвечает вовсе
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost")
+                .exchangeFunction(request -> Mono.<ClientResponse>never())
+                .build();
+        GameApiClient client = new GameApiClient(webClient, registry);
+
+        // Тайм-аут стоит снаружи, как в игровом цикле: запрос видит только отмену
+        assertNull(client.getRounds()
+                .timeout(Duration.ofMillis(50))
+                .onErrorResume(TimeoutException.class, e -> Mono.empty())
+                .block());
+
+        Timer cancelled = timer(registry, "GET /rounds", "cancelled");
+        assertEquals(1, cancelled.count());
+        assertTrue(cancelled.totalTime(TimeUnit.MILLISECONDS) >= 40);
+        assertEquals(0, timer(registry, "GET /rounds", "success").count());
+        assertEquals(0, timer(registry, "GET /rounds", "error").count());
+    }
+
+    private static Timer timer(SimpleMeterRegistry registry, String endpoint, String outcome) {
+        return registry.get("game.api.requests").tag("endpoint", endpoint).tag("outcome", outcome).timer();
+    }
+}
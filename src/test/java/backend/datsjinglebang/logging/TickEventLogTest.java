@@ -0,0 +1,145 @@
+package backend.datsjinglebang.logging;
+
+import backend.datsjinglebang.logging.TickEventLog.Category;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickEventLogTest {
+    private final Logger tickLogger = (Logger) LoggerFactory.getLogger("backend.datsjinglebang.tick.tick");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private TickEventLog eventLog;
+
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        tickLogger.addAppender(appender);
+        tickLogger.setLevel(Level.INFO);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        if (eventLog != null) {
+            eventLog.close();
+        }
+        tickLogger.detachAndStopAllAppenders();
+        tickLogger.setLevel(null);
+    }
+
+    @Test
+    void ringWrapsAroundAndKeepsOrder() throws InterruptedException {
+        eventLog = new TickEventLog(4, Map.of());
+        eventLog.start();
+
+        // В кольце 4 слота, событий в пять раз больше: каждый слот используется повторно
+        for (int tick = 1; tick <= 20; tick++) {
+            eventLog.info(Category.TICK, tick, "[T{}] {} {}").arg("event").arg((long) tick * 10).publish();
+            awaitEmitted(tick);
+        }
+
+        List<String> messages = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(20, messages.size());
+        assertEquals("[T1] event 10", messages.get(0));
+        assertEquals("[T20] event 200", messages.get(19));
+        assertEquals(0, eventLog.getDropped());
+    }
+
+    @Test
+    void fullRingDropsNewEvents() throws InterruptedException {
+        BlockingAppender blocking = new BlockingAppender();
+        blocking.start();
+        tickLogger.addAppender(blocking);
+        eventLog = new TickEventLog(4, Map.of());
+        eventLog.start();
+
+        // Писатель взял первое событие и висит в аппендере - кольцо больше не освобождается
+        eventLog.info(Category.TICK, 0, "[T{}] first").publish();
+        assertTrue(blocking.entered.await(5, TimeUnit.SECONDS));
+        for (int tick = 1; tick <= 4; tick++) {
+            eventLog.info(Category.TICK, tick, "[T{}] queued").publish();
+        }
+        eventLog.info(Category.TICK, 5, "[T{}] overflow").publish();
+        assertEquals(1, eventLog.getDropped());
+
+        blocking.release.countDown();
+        awaitEmitted(5);
+        assertTrue(appender.list.stream().noneMatch(e -> e.getFormattedMessage().contains("overflow")));
+    }
+
+    @Test
+    void abandonedSlotIsSkipped() throws InterruptedException {
+        eventLog = new TickEventLog(8, Map.of());
+        eventLog.start();
+
+        // Захваченное, но так и не опубликованное событие не задерживает следующие навсегда
+        eventLog.info(Category.TICK, 1, "[T{}] never published");
+        eventLog.info(Category.TICK, 2, "[T{}] published").publish();
+        awaitEmitted(1);
+
+        assertEquals(1, eventLog.getDropped());
+        assertEquals(List.of("[T2] published"),
+                appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    @Test
+    void claimReturnsSharedNoopWhenEventIsFilteredOut() throws InterruptedException {
+        eventLog = new TickEventLog(8, Map.of(Category.TICK, 3));
+        eventLog.start();
+
+        // Выборка: тик 4 не кратен 3
+        TickEventLog.Event sampled = eventLog.info(Category.TICK, 4, "[T{}] sampled");
+        // Уровень: DEBUG при логгере категории на INFO
+        TickEventLog.Event gated = eventLog.debug(Category.TICK, 3, "[T{}] gated");
+        assertSame(sampled, gated);
+        // Выключенный журнал (без потока) тоже отдает только пустое событие
+        assertSame(TickEventLog.DISABLED.info(Category.TICK, 3, "[T{}] disabled"),
+                TickEventLog.DISABLED.info(Category.TICK, 6, "[T{}] disabled"));
+        sampled.arg(1L).arg("ignored").publish();
+        gated.publish();
+        assertEquals(1, eventLog.getSampledOut());
+
+        TickEventLog.Event accepted = eventLog.info(Category.TICK, 3, "[T{}] accepted");
+        assertNotSame(sampled, accepted);
+        accepted.publish();
+        awaitEmitted(1);
+        assertEquals(List.of("[T3] accepted"),
+                appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList());
+    }
+
+    private void awaitEmitted(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (eventLog.getEmitted() < count) {
+            assertTrue(System.nanoTime() < deadline, "emitted " + eventLog.getEmitted() + " of " + count);
+            Thread.sleep(1);
+        }
+    }
+
+    // Аппендер, который держит поток писателя, пока тест его не отпустит
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package backend.datsjinglebang.mock;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.MoveBomber;
+import backend.datsjinglebang.model.MoveRequest;
+import backend.datsjinglebang.model.PackedPath;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockGameEngineTest {
+
+    @Test
+    void blastStopsAtWallsAndFirstObstacleAndScoresIt() {
+        // Карта целиком из препятствий: свободна только расчищенная вокруг спавна (0, 0) область
+        MockGameEngine engine = new MockGameEngine(7, 1.0, 1, 0, 100, 1L, "r1", Instant.EPOCH);
+        engine.addTeam("a");
+        engine.stateOf("a").setBombRange(2);
+        assertArrayEquals(new int[]{0, 0}, engine.arenaFor("a").bombers.get(0).pos);
+
+        // Шаг на (1, 0) и бомба там; фитиль 3 с = 6 тиков
+        List<String> errors = engine.submitMove("a", new MoveRequest(List.of(
+                new MoveBomber("a-0", PackedPath.of(1, 0), PackedPath.of(1, 0)))));
+        assertTrue(errors.isEmpty());
+        for (int i = 0; i < 5; i++) {
+            engine.tick();
+        }
+        assertEquals(1, engine.arenaFor("a").arena.bombs.size());
+        assertEquals(0, engine.getScore("a"));
+
+        engine.tick();
+        ArenaResponse arena = engine.arenaFor("a");
+        assertTrue(arena.arena.bombs.isEmpty());
+        // +x: (2, 0) разрушено, за ним (3, 0) цело; +y: стена (1, 1) закрывает (1, 2)
+        assertFalse(arena.arena.obstacles.contains(List.of(2, 0)));
+        assertTrue(arena.arena.obstacles.contains(List.of(3, 0)));
+        assertTrue(arena.arena.obstacles.contains(List.of(1, 2)));
+        assertTrue(arena.arena.walls.contains(List.of(1, 1)));
+        assertEquals(1, engine.getScore("a"));
+        // Взрыв накрыл своего бомбера, но он еще под защитой после спавна
+        assertEquals(1, engine.getAliveBombers("a"));
+    }
+
+    @Test
+    void pathThroughObstacleIsClippedAndLogged() {
+        MockGameEngine engine = new MockGameEngine(7, 1.0, 1, 0, 100, 1L, "r1", Instant.EPOCH);
+        engine.addTeam("a");
+
+        PackedPath path = PackedPath.of(1, 0).add(2, 0);
+        List<String> errors = engine.submitMove("a", new MoveRequest(List.of(
+                new MoveBomber("a-0", path, null))));
+        assertEquals(1, errors.size());
+        assertTrue(errors.get(0).contains("blocked cell 2,0"));
+        assertEquals(1, engine.logsFor("a").size());
+
+        engine.tick();
+        engine.tick();
+        assertArrayEquals(new int[]{1, 0}, engine.arenaFor("a").bombers.get(0).pos);
+    }
+}
@@ -0,0 +1,32 @@
+package backend.datsjinglebang.mock;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void burstIsLimitedAndTokensRefillEvenly() {
+        TokenBucket bucket = new TokenBucket(3, 0L);
+
+        // Полная корзина пропускает три запроса подряд, четвертый получает 429
+        assertTrue(bucket.tryAcquire(0L));
+        assertTrue(bucket.tryAcquire(0L));
+        assertTrue(bucket.tryAcquire(0L));
+        assertFalse(bucket.tryAcquire(0L));
+
+        // Один токен набирается за 1/3 с
+        assertFalse(bucket.tryAcquire(330 * MS));
+        assertTrue(bucket.tryAcquire(340 * MS));
+        assertFalse(bucket.tryAcquire(340 * MS));
+
+        // Долгий простой не копит больше емкости
+        long later = 10_000 * MS;
+        for (int i = 0; i < 3; i++) {
+            assertTrue(bucket.tryAcquire(later));
+        }
+        assertFalse(bucket.tryAcquire(later));
+    }
+}
@@ -0,0 +1,50 @@
+package backend.datsjinglebang.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedPathTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void writesSameWireFormatAsNestedLists() throws Exception {
+        PackedPath path = PackedPath.of(3, 4).add(4, 4).add(4, 5);
+        MoveRequest request = new MoveRequest(List.of(new MoveBomber("b1", path, PackedPath.empty())));
+
+        Map<String, Object> expected = Map.of("bombers", List.of(Map.of(
+                "id", "b1",
+                "path", List.of(List.of(3, 4), List.of(4, 4), List.of(4, 5)),
+                "bombs", List.of())));
+        assertEquals(mapper.writeValueAsString(expected).length(), mapper.writeValueAsString(request).length());
+        assertEquals(mapper.readTree(mapper.writeValueAsString(expected)),
+                mapper.readTree(mapper.writeValueAsString(request)));
+    }
+
+    @Test
+    void readsBackAndTruncates() throws Exception {
+        String json = "{\"id\":\"b1\",\"path\":[[1,1],[1,2],[1,3]],\"bombs\":[[1,1]]}";
+        MoveBomber command = mapper.readValue(json, MoveBomber.class);
+
+        assertEquals(PackedPath.fromLists(List.of(List.of(1, 1), List.of(1, 2), List.of(1, 3))), command.getPath());
+        assertEquals(1, command.getBombs().size());
+
+        command.getPath().truncate(2);
+        assertEquals(2, command.getPath().size());
+        assertEquals("[[1,1],[1,2]]", mapper.writeValueAsString(command.getPath()));
+        assertThrows(IndexOutOfBoundsException.class, () -> command.getPath().x(2));
+    }
+
+    @Test
+    void rejectsMalformedCells() {
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("[[1,2],[3]]", PackedPath.class));
+        assertThrows(MismatchedInputException.class,
+                () -> mapper.readValue("[[1,2,3]]", PackedPath.class));
+    }
+}
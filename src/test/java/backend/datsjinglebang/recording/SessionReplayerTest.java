@@ -0,0 +1,174 @@
+package backend.datsjinglebang.recording;
+
+import backend.datsjinglebang.mock.MockGameEngine;
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.BoosterResponse;
+import backend.datsjinglebang.model.MoveRequest;
+import backend.datsjinglebang.strategy.StrategyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionReplayerTest {
+    private static final long SEED = 12345;
+    private static final int TICKS = 120;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replayReproducesRecordedMoves() throws Exception {
+        Path file = tempDir.resolve("session.djbr");
+        record(file);
+
+        SessionReplayer.ReplayResult result = new SessionReplayer(objectMapper).replay(file);
+
+        assertEquals(TICKS, result.getTicks());
+        assertEquals(0, result.getMismatches(), result.toString());
+    }
+
+    @Test
+    void replayFeedsRecordedServerRejectionsBack() throws Exception {
+        Path file = tempDir.resolve("session.djbr");
+        record(file, true);
+
+        // Отказы действительно меняют решения: стратегия без них ходит иначе
+        assertTrue(divergedWithoutFeedback > 0, "feedback did not change any move");
+
+        SessionReplayer.ReplayResult result = new SessionReplayer(objectMapper).replay(file);
+        assertEquals(TICKS, result.getTicks());
+        assertEquals(0, result.getMismatches(), result.toString());
+    }
+
+    @Test
+    void deltaEncodingShrinksRecording() throws Exception {
+        Path file = tempDir.resolve("session.djbr");
+        long rawBytes = record(file);
+
+        assertTrue(Files.size(file) * 5 < rawBytes,
+                "recording " + Files.size(file) + " bytes for " + rawBytes + " raw bytes");
+    }
+
+    @Test
+    void largeArenaIsStoredAsDeltaBeyondDeflateWindow() throws Exception {
+        Path file = tempDir.resolve("large.djbr");
+        Random random = new Random(SEED);
+        ArenaResponse arena = new ArenaResponse();
+        arena.map_size = new int[]{120, 120};
+        arena.arena = new Arena();
+        arena.arena.walls = new ArrayList<>();
+        arena.arena.obstacles = new ArrayList<>();
+        arena.arena.bombs = new ArrayList<>();
+        for (int y = 0; y < 120; y++) {
+            for (int x = 0; x < 120; x++) {
+                if (x % 2 == 1 && y % 2 == 1) {
+                    arena.arena.walls.add(List.of(x, y));
+                } else if (random.nextDouble() < 0.3) {
+                    arena.arena.obstacles.add(List.of(x, y));
+                }
+            }
+        }
+
+        // Каждый тик взрывы убирают несколько препятствий в случайных местах карты
+        List<byte[]> payloads = new ArrayList<>();
+        long rawBytes = 0;
+        try (SessionLogWriter writer = new SessionLogWriter(file, SEED)) {
+            for (int tick = 1; tick <= 40; tick++) {
+                for (int i = 0; i < 3; i++) {
+                    arena.arena.obstacles.remove(random.nextInt(arena.arena.obstacles.size()));
+                }
+                byte[] payload = objectMapper.writeValueAsBytes(arena);
+                payloads.add(payload);
+                rawBytes += payload.length;
+                writer.append(RecordType.ARENA, tick, payload);
+            }
+        }
+
+        // Запись больше окна deflate (32 КБ): словарь из предыдущей записи тут уже не помогал,
+        // сжатие было ~3.5x, как у deflate без словаря; дельта дает больше 50x
+        assertTrue(payloads.get(0).length > 32 * 1024);
+        assertTrue(Files.size(file) * 50 < rawBytes,
+                "recording " + Files.size(file) + " bytes for " + rawBytes + " raw bytes");
+
+        try (SessionLogReader reader = new SessionLogReader(file)) {
+            for (byte[] expected : payloads) {
+                assertTrue(reader.next());
+                assertArrayEquals(expected, reader.getPayload());
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    private int divergedWithoutFeedback;
+
+    private long record(Path file) throws Exception {
+        return record(file, false);
+    }
+
+    // Прогоняет стратегию против мок-движка и пишет сессию; возвращает объем несжатых данных.
+    // С feedback каждые 10 тиков "сервер" отклоняет следующую клетку пути первого бомбера,
+    // как это делает LogPoller; параллельно идет стратегия, которая отказов не видит.
+    private long record(Path file, boolean feedback) throws Exception {
+        MockGameEngine engine = new MockGameEngine(40, 0.3, 4, 2, TICKS * 2, SEED, "replay", Instant.EPOCH);
+        engine.addTeam("us");
+        engine.addTeam("them");
+        StrategyService strategy = new StrategyService(SEED);
+        StrategyService blind = new StrategyService(SEED);
+        divergedWithoutFeedback = 0;
+
+        try (SessionLogWriter writer = new SessionLogWriter(file, strategy.getRandomSeed())) {
+            for (int tick = 1; tick <= TICKS; tick++) {
+                ArenaResponse arena = engine.arenaFor("us");
+                BoosterResponse boosters = engine.boostersFor("us");
+                MoveRequest move = strategy.decideMove(arena, boosters);
+
+                writer.append(RecordType.ARENA, tick, objectMapper.writeValueAsBytes(arena));
+                writer.append(RecordType.BOOSTERS, tick, objectMapper.writeValueAsBytes(boosters));
+                writer.append(RecordType.MOVE, tick, objectMapper.writeValueAsBytes(move));
+
+                if (feedback) {
+                    byte[] blindMove = objectMapper.writeValueAsBytes(blind.decideMove(arena, boosters));
+                    if (!Arrays.equals(blindMove, objectMapper.writeValueAsBytes(move))) {
+                        divergedWithoutFeedback++;
+                    }
+                    if (tick % 10 == 0 && move != null) {
+                        String rejection = rejectNextStep(move);
+                        if (rejection != null) {
+                            writer.append(RecordType.FEEDBACK, tick, objectMapper.writeValueAsBytes(rejection));
+                            strategy.getCommandFeedback().submit(rejection);
+                        }
+                    }
+                }
+
+                if (move != null) {
+                    engine.submitMove("us", move);
+                }
+                engine.tick();
+            }
+            return writer.getRawBytes();
+        }
+    }
+
+    private static String rejectNextStep(MoveRequest move) {
+        for (var bomber : move.getBombers()) {
+            if (bomber.getPath() != null && bomber.getPath().size() > 1) {
+                return "bomber " + bomber.getId() + ": path clipped at step 1 (blocked cell "
+                        + bomber.getPath().x(1) + "," + bomber.getPath().y(1) + ")";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package backend.datsjinglebang.selfplay;
+
+import backend.datsjinglebang.strategy.StrategyTuning;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayTournamentTest {
+
+    @Test
+    void playsEveryGameOnSmallMap() throws InterruptedException {
+        SelfPlayTournament tournament = new SelfPlayTournament(new SelfPlayMatch(15, 0.3, 2, 1, 100), 4);
+        tournament.addVariant("default", StrategyTuning.defaults());
+        tournament.addVariant("variant", StrategyTuning.defaults().perturb(new Random(1), 0.3));
+
+        SelfPlayTournament.TournamentResult result = tournament.run(20, 1);
+
+        assertEquals(20, result.getGames());
+        assertEquals(0, result.getFailedGames());
+        // Оба варианта играют в каждом матче, заскриптованный соперник чередуется
+        assertEquals(20, result.getScores("default").size());
+        assertEquals(20, result.getScores("variant").size());
+        assertEquals(7, result.getScores("idle").size());
+        assertEquals(13, result.getScores("random-bomber").size());
+    }
+
+    @Test
+    void failedGamesAreCountedAndSkipped() throws InterruptedException {
+        // С seed = 0 сид матча равен его номеру: падает каждый пятый
+        SelfPlayMatch flaky = new SelfPlayMatch(15, 0.3, 2, 1, 50) {
+            @Override
+            public Map<String, Integer> play(Map<String, SelfPlayPlayer> players, long seed) {
+                if (seed % 5 == 0) {
+                    throw new IllegalStateException("game " + seed + " crashed");
+                }
+                return super.play(players, seed);
+            }
+        };
+        SelfPlayTournament tournament = new SelfPlayTournament(flaky, 2);
+        tournament.addVariant("a", StrategyTuning.defaults());
+        tournament.addVariant("b", StrategyTuning.defaults());
+
+        SelfPlayTournament.TournamentResult result = tournament.run(20, 0);
+
+        assertEquals(16, result.getGames());
+        assertEquals(4, result.getFailedGames());
+        assertEquals(16, result.getScores("a").size());
+    }
+}
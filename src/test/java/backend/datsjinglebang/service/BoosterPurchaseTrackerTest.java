@@ -0,0 +1,54 @@
+package backend.datsjinglebang.service;
+
+import backend.datsjinglebang.model.Booster;
+import backend.datsjinglebang.model.BoosterState;
+import backend.datsjinglebang.service.BoosterPurchaseTracker.Outcome;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoosterPurchaseTrackerTest {
+    private static final Booster BOMBS = new Booster(5, "bombs");
+
+    @Test
+    void secondPurchaseWaitsUntilFirstIsApplied() {
+        BoosterPurchaseTracker tracker = new BoosterPurchaseTracker();
+        BoosterState before = state(1, 10);
+
+        assertTrue(tracker.begin(BOMBS, before, 0));
+        assertFalse(tracker.begin(BOMBS, before, 100));
+        // Сервер еще не применил покупку - очки и уровень прежние
+        assertEquals(Outcome.PENDING, tracker.reconcile(before, 500));
+
+        assertEquals(Outcome.CONFIRMED, tracker.reconcile(state(2, 5), 1000));
+        assertEquals(1, tracker.getConfirmed());
+        assertTrue(tracker.begin(BOMBS, state(2, 5), 1100));
+    }
+
+    @Test
+    void unconfirmedPurchaseExpires() {
+        BoosterPurchaseTracker tracker = new BoosterPurchaseTracker();
+        tracker.begin(BOMBS, state(1, 10), 0);
+
+        assertEquals(Outcome.EXPIRED, tracker.reconcile(state(1, 12), BoosterPurchaseTracker.PENDING_TIMEOUT_MS + 1));
+        assertEquals(0, tracker.getConfirmed());
+        assertEquals(Outcome.NONE, tracker.reconcile(state(1, 12), BoosterPurchaseTracker.PENDING_TIMEOUT_MS + 2));
+    }
+
+    @Test
+    void rejectedPurchaseFreesSlot() {
+        BoosterPurchaseTracker tracker = new BoosterPurchaseTracker();
+        tracker.begin(BOMBS, state(1, 10), 0);
+        tracker.rejected();
+
+        assertNull(tracker.getPending());
+        assertTrue(tracker.begin(BOMBS, state(1, 10), 10));
+    }
+
+    private static BoosterState state(int bombs, int points) {
+        BoosterState state = new BoosterState();
+        state.setBombs(bombs);
+        state.setPoints(points);
+        return state;
+    }
+}
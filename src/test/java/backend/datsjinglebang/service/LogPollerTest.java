@@ -0,0 +1,44 @@
+package backend.datsjinglebang.service;
+
+import backend.datsjinglebang.model.LogEntry;
+import backend.datsjinglebang.recording.SessionRecorder;
+import backend.datsjinglebang.strategy.StrategyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogPollerTest {
+
+    @Test
+    void readsOnlyEntriesAfterCursor() {
+        StrategyService strategy = new StrategyService(1);
+        SessionRecorder recorder = new SessionRecorder(null, strategy, false, null, "test");
+        LogPoller poller = new LogPoller("test", null, strategy, recorder, new SimpleMeterRegistry(), true, 10);
+
+        List<LogEntry> log = new ArrayList<>();
+        log.add(entry("2026-01-01T12:00:00Z", "bomber b1: path clipped at step 1 (blocked cell 1,1)"));
+        // Первое чтение только ставит курсор
+        assertEquals(0, poller.ingest(log));
+
+        log.add(entry("2026-01-01T12:00:01Z", "bomber b1: path clipped at step 1 (blocked cell 2,1)"));
+        log.add(entry("2026-01-01T12:00:01Z", "bomber b2: path clipped at step 1 (blocked cell 3,1)"));
+        assertEquals(2, poller.ingest(log));
+        assertEquals(0, poller.ingest(log));
+
+        // Еще одна запись с тем же временем, что и курсор
+        log.add(entry("2026-01-01T12:00:01Z", "bomber b3: path clipped to 30 cells"));
+        assertEquals(1, poller.ingest(log));
+        assertEquals(3, strategy.getCommandFeedback().getReceived());
+    }
+
+    private static LogEntry entry(String time, String message) {
+        LogEntry entry = new LogEntry();
+        entry.setTime(time);
+        entry.setMessage(message);
+        return entry;
+    }
+}
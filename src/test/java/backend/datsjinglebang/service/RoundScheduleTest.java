@@ -0,0 +1,83 @@
+package backend.datsjinglebang.service;
+
+import backend.datsjinglebang.model.RoundsResponse;
+import backend.datsjinglebang.model.RoundsResponse.RoundInfo;
+import backend.datsjinglebang.service.RoundSchedule.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundScheduleTest {
+    private static final long T0 = Instant.parse("2026-01-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void waitsForNearestFutureRoundUsingServerClock() {
+        RoundSchedule schedule = new RoundSchedule();
+        // Часы сервера впереди наших на 2 с; запрос занял 100 мс
+        RoundsResponse response = rounds(T0 + 2000,
+                round("old", T0 - 60_000, T0 - 30_000),
+                round("later", T0 + 120_000, T0 + 180_000),
+                round("next", T0 + 32_000, T0 + 92_000));
+
+        assertEquals(State.WAITING, schedule.update(response, T0 - 50, T0 + 50));
+        assertEquals("next", schedule.getRoundName());
+        assertEquals(2000, schedule.getOffsetMillis());
+        assertEquals(30_000, schedule.millisUntilStart(T0));
+        assertFalse(schedule.isActiveAt(T0));
+        assertTrue(schedule.isActiveAt(T0 + 30_000));
+        assertFalse(schedule.isActiveAt(T0 + 90_000));
+    }
+
+    @Test
+    void activeRoundWinsAndInvalidateForgetsIt() {
+        RoundSchedule schedule = new RoundSchedule();
+        RoundsResponse response = rounds(T0,
+                round("current", T0 - 10_000, T0 + 50_000),
+                round("next", T0 + 60_000, T0 + 120_000));
+
+        assertEquals(State.ACTIVE, schedule.update(response, T0, T0));
+        assertEquals("current", schedule.getRoundName());
+        assertTrue(schedule.isActiveAt(T0 + 1000));
+
+        schedule.invalidate();
+        assertEquals(State.UNKNOWN, schedule.getState());
+        assertFalse(schedule.isActiveAt(T0 + 1000));
+    }
+
+    @Test
+    void offsetComesFromFastestSample() {
+        RoundSchedule schedule = new RoundSchedule();
+        RoundsResponse empty = rounds(T0 + 1000);
+
+        // Медленный ответ: середина интервала смещена, оценка 900 мс
+        schedule.update(empty, T0 - 100, T0 + 300);
+        // Быстрый ответ: оценка 1000 мс, ей и верим
+        schedule.update(rounds(T0 + 11_000), T0 + 9_990, T0 + 10_010);
+        schedule.update(rounds(T0 + 21_500), T0 + 20_000, T0 + 20_600);
+
+        assertEquals(1000, schedule.getOffsetMillis());
+        assertEquals(3, schedule.getSampleCount());
+        assertEquals(State.UNKNOWN, schedule.getState());
+    }
+
+    private static RoundsResponse rounds(long serverNow, RoundInfo... rounds) {
+        RoundsResponse response = new RoundsResponse();
+        response.setNow(Instant.ofEpochMilli(serverNow).toString());
+        response.setRounds(new ArrayList<>(List.of(rounds)));
+        return response;
+    }
+
+    private static RoundInfo round(String name, long start, long end) {
+        RoundInfo info = new RoundInfo();
+        info.setName(name);
+        info.setStartAt(Instant.ofEpochMilli(start).toString());
+        info.setEndAt(Instant.ofEpochMilli(end).toString());
+        info.setDuration((int) ((end - start) / 1000));
+        info.setStatus("pending");
+        return info;
+    }
+}
@@ -0,0 +1,51 @@
+package backend.datsjinglebang.session;
+
+import backend.datsjinglebang.session.SessionProperties.Account;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionPropertiesTest {
+    private static final String BASE_URL = "https://games.example/api";
+
+    @Test
+    void withoutAccountsRunsSingleDefaultSession() {
+        List<Account> accounts = new SessionProperties().resolveAccounts(BASE_URL, "token-1");
+
+        assertEquals(1, accounts.size());
+        assertEquals(SessionProperties.DEFAULT_SESSION, accounts.get(0).getName());
+        assertEquals("token-1", accounts.get(0).getAuthToken());
+        assertEquals(BASE_URL, accounts.get(0).getBaseUrl());
+        assertThrows(IllegalStateException.class, () -> new SessionProperties().resolveAccounts(BASE_URL, ""));
+    }
+
+    @Test
+    void accountsInheritBaseUrlAndGetNames() {
+        SessionProperties properties = new SessionProperties();
+        properties.setAccounts(new ArrayList<>(List.of(
+                new Account("team-a", "a", null),
+                new Account(null, "b", "http://localhost:9000/api"))));
+
+        List<Account> accounts = properties.resolveAccounts(BASE_URL, "ignored");
+
+        assertEquals("team-a", accounts.get(0).getName());
+        assertEquals(BASE_URL, accounts.get(0).getBaseUrl());
+        assertEquals("session-2", accounts.get(1).getName());
+        assertEquals("http://localhost:9000/api", accounts.get(1).getBaseUrl());
+        assertEquals(1, properties.resolvePlanningThreads(1));
+    }
+
+    @Test
+    void rejectsDuplicateNamesAndMissingTokens() {
+        SessionProperties duplicate = new SessionProperties();
+        duplicate.setAccounts(new ArrayList<>(List.of(new Account("x", "a", null), new Account("x", "b", null))));
+        assertThrows(IllegalStateException.class, () -> duplicate.resolveAccounts(BASE_URL, null));
+
+        SessionProperties noToken = new SessionProperties();
+        noToken.setAccounts(new ArrayList<>(List.of(new Account("x", " ", null))));
+        assertThrows(IllegalStateException.class, () -> noToken.resolveAccounts(BASE_URL, null));
+    }
+}
@@ -0,0 +1,84 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.BoosterResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Бюджет выделения памяти на один вызов decideMove.
+// Считаем байты, выделенные текущим потоком (ThreadMXBean), на прогретой стратегии.
+// Арена меняется от вызова к вызову (шаги бомберов, таймеры бомб), как в игре: тики
+// заранее сгенерированы и идут по кругу, их создание в замер не входит.
+// Бюджеты - в allocation-budgets.properties; превышение = регрессия по нагрузке на GC.
+class AllocationBudgetTest {
+    private static final int WARMUP_CALLS = 200;
+    private static final int MEASURED_CALLS = 200;
+    private static final int TICKS = 32;
+
+    private static com.sun.management.ThreadMXBean threadBean;
+    private static Properties budgets;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        // Логирование не входит в бюджет стратегии
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger("backend.datsjinglebang"))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            threadBean = bean;
+        }
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            budgets.load(in);
+        }
+    }
+
+    @ParameterizedTest(name = "map={0}, density={1}, bombs={2}, bombers={3}")
+    @CsvSource({
+            "50, 0.3, 10, 5",
+            "100, 0.3, 100, 20",
+            "200, 0.1, 100, 20"
+    })
+    void decideMoveStaysWithinBudget(int mapSize, double density, int bombCount, int bomberCount) {
+        assumeTrue(threadBean != null, "Thread allocation accounting is not supported by this JVM");
+
+        String key = "decideMove." + mapSize + "." + bomberCount;
+        long budget = Long.parseLong(budgets.getProperty(key));
+
+        ArenaResponse[] ticks = new ArenaResponse[TICKS];
+        ticks[0] = SyntheticArenas.arena(mapSize, density, bombCount, bomberCount, 42);
+        Random random = new Random(42);
+        for (int i = 1; i < TICKS; i++) {
+            ticks[i] = SyntheticArenas.nextTick(ticks[i - 1], random);
+        }
+        BoosterResponse boosters = SyntheticArenas.boosters();
+        StrategyService strategy = new StrategyService(42);
+
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            strategy.decideMove(ticks[i % TICKS], boosters);
+        }
+
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            strategy.decideMove(ticks[i % TICKS], boosters);
+        }
+        long perCall = (threadBean.getCurrentThreadAllocatedBytes() - before) / MEASURED_CALLS;
+
+        assertTrue(perCall <= budget,
+                key + " allocates " + perCall + " bytes per decideMove, budget is " + budget);
+    }
+}
@@ -0,0 +1,50 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArenaGridTest {
+
+    @Test
+    void windowHashFollowsCellsInsideWindowOnly() {
+        ArenaResponse arena = SyntheticArenas.arena(20, 0.3, 5, 3, 11L);
+        ArenaGrid grid = new ArenaGrid();
+        grid.build(arena);
+
+        long center = grid.windowHash(10, 10, 3);
+        long far = grid.windowHash(2, 2, 3);
+
+        // Отказ сервера внутри окна меняет его хэш, окно вдали остается прежним
+        grid.markRejected(12, 9);
+        assertNotEquals(center, grid.windowHash(10, 10, 3));
+        assertEquals(far, grid.windowHash(2, 2, 3));
+
+        // Та же сетка, построенная заново, дает те же хэши
+        ArenaGrid rebuilt = new ArenaGrid();
+        rebuilt.build(arena);
+        rebuilt.markRejected(12, 9);
+        assertEquals(grid.windowHash(10, 10, 3), rebuilt.windowHash(10, 10, 3));
+
+        // Окно целиком за картой пустое, а у края учитывается только часть внутри
+        assertEquals(0L, grid.windowHash(-10, -10, 3));
+        assertEquals(grid.windowHash(0, 0, 3), grid.windowHash(-1, -1, 4));
+    }
+
+    @Test
+    void windowHashIsXorOfItsCells() {
+        ArenaResponse arena = SyntheticArenas.arena(12, 0.4, 3, 2, 5L);
+        ArenaGrid grid = new ArenaGrid();
+        grid.build(arena);
+
+        // Хэш окна 3x3 равен XOR хэшей его клеток (окна радиуса 0)
+        long expected = 0L;
+        for (int y = 4; y <= 6; y++) {
+            for (int x = 4; x <= 6; x++) {
+                expected ^= grid.windowHash(x, y, 0);
+            }
+        }
+        assertEquals(expected, grid.windowHash(5, 5, 1));
+    }
+}
@@ -0,0 +1,119 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomb;
+import backend.datsjinglebang.model.Bomber;
+import backend.datsjinglebang.model.Enemy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArenaSnapshotTest {
+
+    @Test
+    void indexesCellsAndEntities() {
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena(), 1);
+
+        assertEquals(7, snapshot.getWidth());
+        assertEquals(5, snapshot.getHeight());
+        assertTrue(snapshot.has(3, 0, ArenaGrid.WALL));
+        assertTrue(snapshot.has(2, 2, ArenaGrid.OBSTACLE));
+        assertTrue(snapshot.has(4, 2, ArenaGrid.BOMB));
+        assertTrue(snapshot.has(1, 1, ArenaGrid.BOMBER));
+        // Мертвый бомбер клетку не занимает
+        assertFalse(snapshot.has(6, 4, ArenaGrid.BOMBER));
+        assertTrue(snapshot.isBlocked(-1, 0, 0));
+
+        assertEquals(1, snapshot.bomberSlot("dead"));
+        assertEquals(ArenaSnapshot.NO_SLOT, snapshot.bomberSlot("missing"));
+        assertEquals(0, snapshot.slotAt(1, 1, ArenaSnapshot.KIND_BOMBER));
+        assertEquals(0, snapshot.slotAt(5, 3, ArenaSnapshot.KIND_ENEMY));
+        assertEquals(ArenaSnapshot.NO_SLOT, snapshot.slotAt(5, 3, ArenaSnapshot.KIND_MOB));
+        assertEquals(5, snapshot.enemyX(snapshot.enemySlot("e1")));
+        assertEquals(2, snapshot.bombRange(0));
+
+        ArenaGrid grid = new ArenaGrid();
+        grid.build(snapshot);
+        assertEquals(ArenaGrid.BOMB, grid.flags(4, 2));
+        assertEquals(ArenaGrid.BOMBER, grid.flags(1, 1));
+        assertEquals(ArenaGrid.WALL, grid.flags(3, 0));
+    }
+
+    @Test
+    void dangerMapStopsAtObstaclesAndDistancesAreMemoized() {
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena(), 1);
+
+        // Бомба (4, 2) с радиусом 2: на запад взрыв доходит до препятствия (2, 2) и гаснет
+        assertTrue(snapshot.inDanger(4, 2));
+        assertTrue(snapshot.inDanger(6, 2));
+        assertTrue(snapshot.inDanger(2, 2));
+        assertFalse(snapshot.inDanger(1, 2));
+        assertTrue(snapshot.inDanger(4, 0));
+        assertFalse(snapshot.inDanger(5, 3));
+
+        int mask = ArenaGrid.WALL | ArenaGrid.OBSTACLE | ArenaGrid.BOMB;
+        ArenaSnapshot.DistanceField field = snapshot.distancesFrom(1, 1, mask);
+        assertEquals(0, field.get(1, 1));
+        assertEquals(2, field.get(2, 0));
+        // (3, 0) - стена; обход через (3, 1)
+        assertEquals(ArenaSnapshot.UNREACHABLE, field.get(3, 0));
+        assertEquals(3, field.get(4, 1));
+        assertSame(field, snapshot.distancesFrom(1, 1, mask));
+    }
+
+    @Test
+    void sharesTerrainWhileWallsAndObstaclesAreUnchanged() {
+        ArenaResponse arena = arena();
+        ArenaSnapshot first = ArenaSnapshot.of(arena, 1);
+
+        arena.bombers.get(0).pos = new int[]{0, 1};
+        ArenaSnapshot second = ArenaSnapshot.of(arena, 1, first);
+        assertTrue(second.sharesTerrainWith(first));
+        assertTrue(second.has(0, 1, ArenaGrid.BOMBER));
+        assertFalse(first.has(0, 1, ArenaGrid.BOMBER));
+
+        // Взрыв разрушил препятствие - плоскость строится заново, старый снимок не меняется
+        arena.arena.obstacles = new ArrayList<>();
+        ArenaSnapshot third = ArenaSnapshot.of(arena, 1, second);
+        assertFalse(third.sharesTerrainWith(second));
+        assertFalse(third.has(2, 2, ArenaGrid.OBSTACLE));
+        assertTrue(second.has(2, 2, ArenaGrid.OBSTACLE));
+    }
+
+    private static ArenaResponse arena() {
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = new int[]{7, 5};
+        response.arena = new Arena();
+        response.arena.walls = new ArrayList<>(List.of(List.of(3, 0)));
+        response.arena.obstacles = new ArrayList<>(List.of(List.of(2, 2)));
+        response.arena.bombs = new ArrayList<>();
+
+        Bomb bomb = new Bomb();
+        bomb.pos = new int[]{4, 2};
+        bomb.range = 2;
+        bomb.timer = 1.5;
+        response.arena.bombs.add(bomb);
+
+        response.bombers = new ArrayList<>();
+        response.bombers.add(bomber("b1", 1, 1, true));
+        response.bombers.add(bomber("dead", 6, 4, false));
+
+        Enemy enemy = new Enemy();
+        enemy.id = "e1";
+        enemy.pos = new int[]{5, 3};
+        response.enemies = new ArrayList<>(List.of(enemy));
+        return response;
+    }
+
+    private static Bomber bomber(String id, int x, int y, boolean alive) {
+        Bomber bomber = new Bomber();
+        bomber.id = id;
+        bomber.pos = new int[]{x, y};
+        bomber.alive = alive;
+        return bomber;
+    }
+}
@@ -0,0 +1,58 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.BoosterResponse;
+import backend.datsjinglebang.model.BoosterState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BomberCapabilitiesTest {
+
+    @Test
+    void defaultsWhenStateMissingOrEmpty() {
+        assertSame(BomberCapabilities.DEFAULTS, BomberCapabilities.from(null));
+        assertSame(BomberCapabilities.DEFAULTS, BomberCapabilities.from(new BoosterResponse(List.of(), new BoosterState())));
+
+        // Как было с константами: взрыв 1, обзор 5, три клетки маршрута за тик
+        assertEquals(1, BomberCapabilities.DEFAULTS.getBlastRadius());
+        assertEquals(5, BomberCapabilities.DEFAULTS.getViewRadius());
+        assertEquals(3, BomberCapabilities.DEFAULTS.getRouteSteps());
+        assertEquals(3, BomberCapabilities.DEFAULTS.getEscapeSteps(BomberCapabilities.DEFAULTS.getBombDelayMillis()));
+    }
+
+    @Test
+    void upgradesChangeReachAndPassability() {
+        BoosterState state = new BoosterState();
+        state.setBombRange(3);
+        state.setView(7);
+        state.setSpeed(4);
+        state.setBombDelay(1000);
+        state.setCanPassObstacles(true);
+        BomberCapabilities capabilities = BomberCapabilities.from(new BoosterResponse(List.of(), state));
+
+        assertEquals(3, capabilities.getBlastRadius());
+        assertEquals(7, capabilities.getViewRadius());
+        assertEquals(5, capabilities.getRouteSteps());
+        assertEquals(2, capabilities.getEscapeSteps(capabilities.getBombDelayMillis()));
+        assertEquals(0, capabilities.getMovementMask() & ArenaGrid.OBSTACLE);
+        assertNotEquals(0, capabilities.getMovementMask() & ArenaGrid.WALL);
+        assertNotEquals(BomberCapabilities.DEFAULTS.getEvaluationKey(), capabilities.getEvaluationKey());
+    }
+
+    @Test
+    void searchOffsetsGoRingByRingAndAreShared() {
+        int[] offsets = BomberCapabilities.DEFAULTS.getSearchOffsets();
+
+        // Ромб радиуса 5 без центра: 2 * 5 * 6 клеток
+        assertEquals(2 * 60, offsets.length);
+        int previous = 1;
+        for (int i = 0; i < offsets.length; i += 2) {
+            int distance = Math.abs(offsets[i]) + Math.abs(offsets[i + 1]);
+            assertTrue(distance >= previous && distance <= 5);
+            previous = distance;
+        }
+        assertSame(offsets, new BomberCapabilities(2, 5, 3, 2000, 2, false, false, false).getSearchOffsets());
+    }
+}
@@ -0,0 +1,120 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoosterPlannerTest {
+    private static final double HORIZON = 300;
+
+    @Test
+    void savesForBetterBoosterInsteadOfBuyingCheapOne() {
+        BoosterPlanner planner = new BoosterPlanner(HORIZON);
+        planner.observe(arena("r1", 0), 0);
+
+        // Хватает только на обзор, а вторая бомба удваивает темп и стоит чуть дороже
+        BoosterState state = state(4);
+        BoosterPlan plan = planner.plan(boosters(state, new Booster(4, "view"), new Booster(5, "bombs")), 1000);
+
+        assertNull(plan.getBuyNow());
+        assertEquals("bombs", plan.getTarget().getType());
+        assertTrue(plan.getEtaSeconds() > 0);
+    }
+
+    @Test
+    void buysBestAffordableBooster() {
+        BoosterPlanner planner = new BoosterPlanner(HORIZON);
+        planner.observe(arena("r1", 0), 0);
+
+        BoosterPlan plan = planner.plan(boosters(state(10), new Booster(4, "view"), new Booster(5, "bombs")), 1000);
+
+        assertNotNull(plan.getBuyNow());
+        assertEquals("bombs", plan.getBuyNow().getType());
+    }
+
+    @Test
+    void ownedAbilityHasNoValue() {
+        BoosterPlanner planner = new BoosterPlanner(HORIZON);
+        planner.observe(arena("r1", 0), 0);
+
+        BoosterState state = state(50);
+        state.setCanPassWalls(true);
+        BoosterPlan plan = planner.plan(boosters(state, new Booster(20, "can_pass_walls")), 1000);
+
+        assertNull(plan.getTarget());
+        assertEquals(0.0, plan.getGain("can_pass_walls"));
+    }
+
+    @Test
+    void learnsScoreRateAndResetsOnNewRound() {
+        BoosterPlanner planner = new BoosterPlanner(HORIZON);
+        planner.observe(arena("r1", 0), 0);
+        for (int second = 1; second <= 20; second++) {
+            planner.observe(arena("r1", second * 10), second * 1000L);
+        }
+        BoosterResponse boosters = boosters(state(0), new Booster(5, "bombs"));
+        assertTrue(planner.plan(boosters, 20_000).getScoreRate() > 5);
+
+        planner.observe(arena("r2", 0), 30_000);
+        assertTrue(planner.plan(boosters, 30_000).getScoreRate() < 1);
+    }
+
+    @Test
+    void obstacleDensityComesFromSnapshotWindows() {
+        BoosterPlanner planner = new BoosterPlanner(HORIZON);
+        ArenaResponse sparse = arena("r1", 0);
+        planner.observe(sparse, 0);
+        BoosterResponse boosters = boosters(state(0), new Booster(5, "can_pass_obstacles"));
+
+        // Окно 11x11 у края карты обрезается до 8x8: 2 препятствия из 64 клеток
+        double sparseGain = planner.plan(boosters, ArenaSnapshot.of(sparse, 1), 1000).getGain("can_pass_obstacles");
+
+        ArenaResponse dense = arena("r1", 0);
+        for (int x = 0; x < 8; x++) {
+            dense.arena.obstacles.add(List.of(x, 6));
+        }
+        ArenaSnapshot denseSnapshot = ArenaSnapshot.of(dense, 1);
+        double denseGain = planner.plan(boosters, denseSnapshot, 1000).getGain("can_pass_obstacles");
+        assertTrue(denseGain > sparseGain);
+
+        // Без нового снимка остается последняя оценка
+        assertEquals(denseGain, planner.plan(boosters, 1000).getGain("can_pass_obstacles"), 1e-9);
+    }
+
+    private static ArenaResponse arena(String round, int score) {
+        ArenaResponse arena = new ArenaResponse();
+        arena.round = round;
+        arena.raw_score = score;
+        arena.map_size = new int[]{20, 20};
+        arena.arena = new Arena();
+        arena.arena.obstacles = new ArrayList<>();
+        arena.arena.obstacles.add(List.of(3, 2));
+        arena.arena.obstacles.add(List.of(2, 4));
+        arena.bombers = new ArrayList<>();
+        Bomber bomber = new Bomber();
+        bomber.id = "b1";
+        bomber.alive = true;
+        bomber.pos = new int[]{2, 2};
+        arena.bombers.add(bomber);
+        return arena;
+    }
+
+    private static BoosterState state(int points) {
+        BoosterState state = new BoosterState();
+        state.setPoints(points);
+        state.setBombs(1);
+        state.setBombRange(1);
+        state.setSpeed(1);
+        state.setView(5);
+        state.setBombDelay(3000);
+        return state;
+    }
+
+    private static BoosterResponse boosters(BoosterState state, Booster... available) {
+        return new BoosterResponse(List.of(available), state);
+    }
+}
@@ -0,0 +1,168 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomb;
+import backend.datsjinglebang.model.Bomber;
+import backend.datsjinglebang.model.Enemy;
+import backend.datsjinglebang.model.PackedPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainReactionEvaluatorTest {
+
+    @Test
+    void countsWholeChainAndShortensFuse() {
+        ChainReactionEvaluator evaluator = new ChainReactionEvaluator(StrategyTuning.defaults());
+        ArenaResponse arena = arena(3.0);
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+        ArenaGrid grid = grid(snapshot);
+
+        ChainReactionEvaluator.Result result = evaluator.evaluate(
+                snapshot, grid, BomberCapabilities.DEFAULTS, 1, 2, 1, 2);
+
+        // Своя бомба: препятствие (1, 1); подожженная (2, 2): препятствие (4, 2) и враг (2, 4)
+        assertEquals(2, result.getObstacles());
+        assertEquals(1, result.getEnemies());
+        assertEquals(1, result.getChainBombs());
+        assertEquals(0, result.getOwnBombers());
+        assertEquals(2 * 10 + 40, result.getScore());
+        assertEquals(3000, result.getFuseMillis());
+        assertTrue(result.isSafe());
+
+        // Чужая бомба взорвется через секунду и подожжет нашу - за один шаг из креста не уйти
+        ArenaSnapshot hurried = ArenaSnapshot.of(arena(1.0), 1);
+        result = evaluator.evaluate(hurried, grid(hurried), BomberCapabilities.DEFAULTS, 1, 2, 1, 2);
+        assertEquals(1000, result.getFuseMillis());
+        assertEquals(1, result.getEscapeSteps());
+        assertFalse(result.canEscape());
+        assertFalse(result.isSafe());
+    }
+
+    @Test
+    void bombThatDoesNotReachUsKeepsOwnFuse() {
+        // Радиус взрыва 2: наш крест доходит до бомбы (3, 2), а ее радиус 1 до нас не достает
+        BomberCapabilities caps = new BomberCapabilities(2, 5, 2, 3000, 1, false, false, false);
+        ArenaResponse arena = arena(0.5);
+        arena.arena.obstacles = new ArrayList<>();
+        arena.enemies = new ArrayList<>();
+        Bomb bomb = arena.arena.bombs.get(0);
+        bomb.pos = new int[]{3, 2};
+        bomb.range = 1;
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+
+        ChainReactionEvaluator.Result result = new ChainReactionEvaluator(StrategyTuning.defaults())
+                .evaluate(snapshot, grid(snapshot), caps, 1, 2, 1, 2);
+
+        assertEquals(1, result.getChainBombs());
+        assertEquals(3000, result.getFuseMillis());
+        assertEquals(3, result.getEscapeSteps());
+        assertTrue(result.isSafe());
+    }
+
+    @Test
+    void companionBombBlocksEscapeAndPathLeadsOutOfBlast() {
+        ArenaResponse arena = arena(3.0);
+        arena.arena.bombs = new ArrayList<>();
+        arena.arena.obstacles = new ArrayList<>();
+        arena.enemies = new ArrayList<>();
+        for (int x = 0; x < 9; x++) {
+            arena.arena.walls.add(List.of(x, 1));
+            arena.arena.walls.add(List.of(x, 3));
+        }
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+        ArenaGrid grid = grid(snapshot);
+        ChainReactionEvaluator evaluator = new ChainReactionEvaluator(StrategyTuning.defaults());
+
+        // Коридор (1, 2), радиус 1: отход вправо за крест, в (3, 2)
+        ChainReactionEvaluator.Result result = evaluator.evaluate(
+                snapshot, grid, BomberCapabilities.DEFAULTS, 1, 2, 1, 2);
+        assertTrue(result.isSafe());
+        PackedPath path = new PackedPath();
+        evaluator.copyEscapePath(path);
+        assertEquals(3, path.size());
+        assertEquals(1, path.x(0));
+        assertEquals(3, path.x(2));
+
+        // Напарник ставит бомбу в (3, 2) в том же тике: клетка занята, а (2, 2) под обоими крестами
+        result = evaluator.evaluate(snapshot, grid, BomberCapabilities.DEFAULTS, 1, 2, 1, 2,
+                new int[]{2 * 9 + 3}, 1);
+        assertFalse(result.canEscape());
+        assertFalse(result.isSafe());
+    }
+
+    @Test
+    void wallStopsBlastAndOwnBombersAreSelfRisk() {
+        ChainReactionEvaluator evaluator = new ChainReactionEvaluator(StrategyTuning.defaults());
+        ArenaResponse arena = arena(3.0);
+        arena.arena.walls.add(List.of(2, 3));
+        arena.bombers.add(bomber("b2", 2, 1));
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+
+        ChainReactionEvaluator.Result result = evaluator.evaluate(
+                snapshot, grid(snapshot), BomberCapabilities.DEFAULTS, 1, 2, 1, 2);
+
+        // Стена (2, 3) закрыла врага, свой бомбер (2, 1) под подожженной бомбой
+        assertEquals(0, result.getEnemies());
+        assertEquals(1, result.getOwnBombers());
+        assertFalse(result.isSafe());
+        assertEquals(2 * 10 - 100, result.getScore());
+    }
+
+    @Test
+    void buffersAreReusedWithoutLeakingBetweenCalls() {
+        ChainReactionEvaluator evaluator = new ChainReactionEvaluator(StrategyTuning.defaults());
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena(3.0), 1);
+        ArenaGrid grid = grid(snapshot);
+
+        String first = evaluator.evaluate(snapshot, grid, BomberCapabilities.DEFAULTS, 1, 2, 1, 2).toString();
+        // Между ними - место без бомб в кресте
+        ChainReactionEvaluator.Result other = evaluator.evaluate(snapshot, grid, BomberCapabilities.DEFAULTS, 7, 0, 7, 0);
+        assertEquals(0, other.getChainBombs());
+        assertEquals(0, other.getObstacles());
+        assertEquals(first, evaluator.evaluate(snapshot, grid, BomberCapabilities.DEFAULTS, 1, 2, 1, 2).toString());
+    }
+
+    private static ArenaGrid grid(ArenaSnapshot snapshot) {
+        ArenaGrid grid = new ArenaGrid();
+        grid.build(snapshot);
+        return grid;
+    }
+
+    // Карта 9x5: кандидат (1, 2), рядом чужая бомба (2, 2) с радиусом 2
+    private static ArenaResponse arena(double bombTimer) {
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = new int[]{9, 5};
+        response.arena = new Arena();
+        response.arena.walls = new ArrayList<>();
+        response.arena.obstacles = new ArrayList<>(List.of(List.of(1, 1), List.of(4, 2)));
+        response.arena.bombs = new ArrayList<>();
+
+        Bomb bomb = new Bomb();
+        bomb.pos = new int[]{2, 2};
+        bomb.range = 2;
+        bomb.timer = bombTimer;
+        response.arena.bombs.add(bomb);
+
+        response.bombers = new ArrayList<>();
+        response.bombers.add(bomber("b1", 1, 2));
+
+        Enemy enemy = new Enemy();
+        enemy.id = "e1";
+        enemy.pos = new int[]{2, 4};
+        response.enemies = new ArrayList<>(List.of(enemy));
+        return response;
+    }
+
+    private static Bomber bomber(String id, int x, int y) {
+        Bomber bomber = new Bomber();
+        bomber.id = id;
+        bomber.pos = new int[]{x, y};
+        bomber.alive = true;
+        return bomber;
+    }
+}
@@ -0,0 +1,67 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.strategy.CommandFeedback.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandFeedbackTest {
+
+    @Test
+    void parsesRejectionMessages() {
+        CommandFeedback.Rejection blocked = CommandFeedback.parse("bomber b-12: path clipped at step 2 (blocked cell 7,3)");
+        assertEquals(Kind.BLOCKED_CELL, blocked.kind);
+        assertEquals("b-12", blocked.bomberId);
+        assertEquals(7, blocked.x);
+        assertEquals(3, blocked.y);
+
+        assertEquals(Kind.NOT_ADJACENT, CommandFeedback.parse("bomber b1: path clipped at step 4 (not adjacent)").kind);
+        CommandFeedback.Rejection tooLong = CommandFeedback.parse("bomber b1: path clipped to 30 cells");
+        assertEquals(Kind.PATH_TOO_LONG, tooLong.kind);
+        assertEquals(30, tooLong.limit);
+        assertEquals(Kind.BOMB_OFF_PATH, CommandFeedback.parse("bomber b1: bomb at 4,5 is not on the path").kind);
+        assertEquals(Kind.UNKNOWN_BOMBER, CommandFeedback.parse("bomber b9 is dead").kind);
+        assertEquals(Kind.OTHER, CommandFeedback.parse("empty move request").kind);
+    }
+
+    @Test
+    void blockedCellsExpireAndBombersReplanOnce() {
+        CommandFeedback feedback = new CommandFeedback();
+        feedback.submit("bomber b1: path clipped at step 1 (blocked cell 2,1)");
+        feedback.submit("bomber b2: path clipped to 20 cells");
+        feedback.apply(10);
+
+        ArenaGrid grid = grid();
+        feedback.markBlocked(grid);
+        assertTrue(grid.has(2, 1, ArenaGrid.REJECTED));
+        assertTrue(grid.isBlocked(2, 1, BomberCapabilities.DEFAULTS.getMovementMask()));
+        assertEquals(Set.of("b1", "b2"), feedback.takeReplans());
+        assertTrue(feedback.takeReplans().isEmpty());
+        assertEquals(20, feedback.pathLimit(30));
+
+        feedback.apply(10 + CommandFeedback.BLOCKED_TTL_TICKS);
+        assertEquals(0, feedback.getBlockedCells());
+    }
+
+    @Test
+    void repeatedArenaErrorsCountOnce() {
+        CommandFeedback feedback = new CommandFeedback();
+        List<String> errors = List.of("bomber b1: path clipped at step 1 (blocked cell 2,1)");
+        feedback.submitArenaErrors(errors);
+        feedback.submitArenaErrors(List.copyOf(errors));
+
+        assertEquals(1, feedback.getReceived());
+    }
+
+    private static ArenaGrid grid() {
+        ArenaResponse arena = new ArenaResponse();
+        arena.map_size = new int[]{5, 5};
+        ArenaGrid grid = new ArenaGrid();
+        grid.build(arena);
+        return grid;
+    }
+}
@@ -0,0 +1,98 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomb;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DStarLitePlannerTest {
+    private static final int MAX_STEPS = 20;
+
+    private final ArenaGrid grid = new ArenaGrid();
+    private final MobThreatField threatField = new MobThreatField();
+    private final TraversalCostMap costs = new TraversalCostMap();
+    private final int[] route = new int[2 * MAX_STEPS];
+
+    @Test
+    void replansAroundCellBlockedOnRoute() {
+        ArenaResponse arena = arena(7, 5);
+        DStarLitePlanner planner = new DStarLitePlanner();
+
+        update(arena);
+        int steps = planner.plan(costs, 0, 2, 6, 2, route, MAX_STEPS);
+        assertEquals(6, steps);
+        assertEndsAt(steps, 6, 2);
+
+        // Бомбер прошел шаг, а на маршруте появилось препятствие: дифф стоимостей применяется к старому поиску
+        int blockedX = route[4];
+        int blockedY = route[5];
+        arena.arena.obstacles.add(List.of(blockedX, blockedY));
+        update(arena);
+        assertTrue(costs.canApplyDiffFrom(costs.getVersion() - 1));
+
+        steps = planner.plan(costs, route[0], route[1], 6, 2, route, MAX_STEPS);
+        assertEquals(7, steps);
+        assertEndsAt(steps, 6, 2);
+        for (int i = 0; i < steps; i++) {
+            assertFalse(route[2 * i] == blockedX && route[2 * i + 1] == blockedY, "route goes through blocked cell");
+        }
+    }
+
+    @Test
+    void noRouteWhenGoalIsWalledOff() {
+        ArenaResponse arena = arena(7, 5);
+        for (int y = 0; y < 5; y++) {
+            arena.arena.walls.add(List.of(3, y));
+        }
+        update(arena);
+
+        assertEquals(0, new DStarLitePlanner().plan(costs, 0, 2, 6, 2, route, MAX_STEPS));
+    }
+
+    @Test
+    void dangerIsOnlyCostAndRouteStillCrossesBlast() {
+        // Коридор y = 0; единственный проход (3, 0) под крестом бомбы (3, 1)
+        ArenaResponse arena = arena(7, 2);
+        for (int x = 0; x < 7; x++) {
+            if (x != 3) arena.arena.walls.add(List.of(x, 1));
+        }
+        Bomb bomb = new Bomb();
+        bomb.pos = new int[]{3, 1};
+        bomb.range = 1;
+        bomb.timer = 1.0;
+        arena.arena.bombs.add(bomb);
+        update(arena);
+
+        int steps = new DStarLitePlanner().plan(costs, 0, 0, 6, 0, route, MAX_STEPS);
+        assertEquals(6, steps);
+        assertEquals(3, route[4]);
+        assertEquals(0, route[5]);
+    }
+
+    private void update(ArenaResponse arena) {
+        grid.build(arena);
+        threatField.build(arena);
+        costs.update(arena, grid, threatField, BomberCapabilities.DEFAULTS);
+    }
+
+    private void assertEndsAt(int steps, int x, int y) {
+        assertEquals(x, route[2 * (steps - 1)]);
+        assertEquals(y, route[2 * (steps - 1) + 1]);
+    }
+
+    private static ArenaResponse arena(int width, int height) {
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = new int[]{width, height};
+        response.arena = new Arena();
+        response.arena.walls = new ArrayList<>();
+        response.arena.obstacles = new ArrayList<>();
+        response.arena.bombs = new ArrayList<>();
+        response.bombers = new ArrayList<>();
+        return response;
+    }
+}
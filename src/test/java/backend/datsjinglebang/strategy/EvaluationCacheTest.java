@@ -0,0 +1,97 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Enemy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EvaluationCacheTest {
+
+    @Test
+    void storesValuesAndTreatsZeroKeyAsOrdinary() {
+        EvaluationCache cache = new EvaluationCache(16);
+        assertEquals(16, cache.capacity());
+        assertEquals(EvaluationCache.MISS, cache.get(42L));
+
+        cache.put(42L, 7);
+        cache.put(0L, 3);
+        assertEquals(7, cache.get(42L));
+        assertEquals(3, cache.get(0L));
+        cache.put(42L, 9);
+        assertEquals(9, cache.get(42L));
+
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.75, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void clockEvictionSparesRecentlyUsedKey() {
+        // Два набора по 4 ячейки; четные ключи попадают в один набор
+        EvaluationCache cache = new EvaluationCache(8);
+        for (long key = 2; key <= 8; key += 2) {
+            cache.put(key, (int) key);
+        }
+
+        // Все помечены обращением: "часы" снимают метки по кругу и вытесняют первый ключ
+        cache.put(10L, 10);
+        assertEquals(EvaluationCache.MISS, cache.get(2L));
+        assertEquals(1, cache.getEvictions());
+
+        // Ключ 4 прочитан после прохода часов - вытесняется следующий за ним 6
+        assertEquals(4, cache.get(4L));
+        cache.put(12L, 12);
+        assertEquals(4, cache.get(4L));
+        assertEquals(EvaluationCache.MISS, cache.get(6L));
+        assertEquals(8, cache.get(8L));
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    void chainEvaluationIsReusedUntilWindowChanges() {
+        ArenaResponse arena = new ArenaResponse();
+        arena.map_size = new int[]{30, 30};
+        arena.arena = new Arena();
+        arena.arena.walls = new ArrayList<>();
+        arena.arena.obstacles = new ArrayList<>(List.of(List.of(11, 10), List.of(10, 12)));
+        arena.arena.bombs = new ArrayList<>();
+        arena.enemies = new ArrayList<>();
+        ChainReactionEvaluator evaluator = new ChainReactionEvaluator(StrategyTuning.defaults());
+        EvaluationCache cache = evaluator.getCache();
+
+        String first = evaluate(evaluator, arena).toString();
+        assertEquals(first, evaluate(evaluator, arena).toString());
+        assertEquals(1, cache.getHits());
+
+        // Изменение вдали от окна кэш не сбрасывает, изменение в окне - пересчет
+        arena.arena.obstacles.add(List.of(25, 25));
+        assertEquals(first, evaluate(evaluator, arena).toString());
+        assertEquals(2, cache.getHits());
+
+        arena.arena.obstacles.add(List.of(9, 10));
+        assertEquals(2, evaluate(evaluator, arena).getObstacles());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        // Враг рядом - итог зависит не только от сетки, кэш не трогаем
+        Enemy enemy = new Enemy();
+        enemy.id = "e1";
+        enemy.pos = new int[]{10, 11};
+        arena.enemies.add(enemy);
+        assertEquals(1, evaluate(evaluator, arena).getEnemies());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    private static ChainReactionEvaluator.Result evaluate(ChainReactionEvaluator evaluator, ArenaResponse arena) {
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+        ArenaGrid grid = new ArenaGrid();
+        grid.build(snapshot);
+        return evaluator.evaluateCached(snapshot, grid, BomberCapabilities.DEFAULTS, 10, 10, 10, 10);
+    }
+}
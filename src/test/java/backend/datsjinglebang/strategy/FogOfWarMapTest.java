@@ -0,0 +1,87 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomber;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FogOfWarMapTest {
+
+    @Test
+    void frontierIsRimOfRevealedArea() {
+        FogOfWarMap map = new FogOfWarMap();
+        ArenaResponse arena = arena("r1", 2, 5);
+        arena.arena.obstacles.add(List.of(4, 5));
+        map.update(arena, 2, 1);
+
+        // Ромб обзора радиуса 2: 13 клеток, из них 8 на краю; препятствие (4, 5) в границу не входит
+        assertTrue(map.isKnownEmpty(2, 5));
+        assertTrue(map.isKnownObstacle(4, 5));
+        assertFalse(map.isKnown(5, 5));
+        assertEquals(7, map.getFrontierSize());
+        assertTrue(frontierContains(map, 0, 5));
+        assertTrue(frontierContains(map, 2, 3));
+        assertFalse(frontierContains(map, 2, 5));
+        assertFalse(frontierContains(map, 4, 5));
+    }
+
+    @Test
+    void revealMovesFrontierAndKeepsMemoryOutOfView() {
+        FogOfWarMap map = new FogOfWarMap();
+        ArenaResponse first = arena("r1", 2, 5);
+        first.arena.walls.add(List.of(0, 5));
+        map.update(first, 2, 1);
+        assertTrue(frontierContains(map, 4, 5));
+
+        // Бомбер отошел вправо: (4, 5) теперь внутри увиденного, граница ушла дальше
+        map.update(arena("r1", 5, 5), 2, 2);
+        assertFalse(frontierContains(map, 4, 5));
+        assertTrue(frontierContains(map, 7, 5));
+        assertFalse(frontierContains(map, 5, 5));
+
+        // Вне обзора карта помнит стену и тик, когда клетку видели
+        assertTrue(map.isKnownWall(0, 5));
+        assertEquals(1, map.getLastSeenTick(1, 5));
+        assertEquals(2, map.getLastSeenTick(5, 5));
+
+        int[] target = map.findExplorationTarget(new int[]{5, 5});
+        assertNotNull(target);
+        assertTrue(frontierContains(map, target[0], target[1]));
+
+        // Новый раунд - память с нуля
+        map.update(arena("r2", 5, 5), 2, 3);
+        assertFalse(map.isKnown(0, 5));
+        assertFalse(map.isKnownWall(0, 5));
+    }
+
+    private static boolean frontierContains(FogOfWarMap map, int x, int y) {
+        int[] cells = map.getFrontierCells();
+        for (int i = 0; i < map.getFrontierSize(); i++) {
+            if (cells[i] == y * map.getWidth() + x) return true;
+        }
+        return false;
+    }
+
+    // Пустая карта 11x11 с одним бомбером в (x, y)
+    private static ArenaResponse arena(String round, int x, int y) {
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = new int[]{11, 11};
+        response.round = round;
+        response.arena = new Arena();
+        response.arena.walls = new ArrayList<>();
+        response.arena.obstacles = new ArrayList<>();
+        response.arena.bombs = new ArrayList<>();
+
+        Bomber bomber = new Bomber();
+        bomber.id = "b1";
+        bomber.pos = new int[]{x, y};
+        bomber.alive = true;
+        response.bombers = new ArrayList<>(List.of(bomber));
+        return response;
+    }
+}
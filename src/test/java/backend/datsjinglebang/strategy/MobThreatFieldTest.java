@@ -0,0 +1,65 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Mob;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MobThreatFieldTest {
+
+    @Test
+    void threatDecaysWithManhattanDistance() {
+        MobThreatField field = new MobThreatField();
+        field.build(arena(mob("ghost", 5, 5, 0)));
+
+        // Вес призрака 120, минус 25 за каждую клетку манхэттенского расстояния - во все стороны
+        assertEquals(120, field.threatAt(5, 5));
+        assertEquals(95, field.threatAt(6, 5));
+        assertEquals(95, field.threatAt(5, 4));
+        assertEquals(45, field.threatAt(7, 6));
+        assertEquals(45, field.threatAt(3, 4));
+        assertEquals(20, field.threatAt(1, 5));
+        assertEquals(0, field.threatAt(0, 5));
+        assertEquals(0, field.threatAt(10, 10));
+
+        assertTrue(field.isLethal(6, 5));
+        assertFalse(field.isLethal(7, 5));
+    }
+
+    @Test
+    void overlappingMobsTakeMaximumAndSafeTimeFades() {
+        MobThreatField field = new MobThreatField();
+        // Обычный моб (100) и моб в защитном времени: 5 с и больше - 20% веса
+        field.build(arena(mob(null, 2, 2, 0), mob(null, 4, 2, 5000)));
+
+        assertEquals(100, field.threatAt(2, 2));
+        assertEquals(75, field.threatAt(3, 2));
+        assertEquals(50, field.threatAt(4, 2));
+        assertEquals(0, field.threatAt(8, 8));
+
+        // Следующий тик без мобов - поле пустое
+        field.build(arena());
+        assertEquals(0, field.threatAt(2, 2));
+        assertFalse(field.isLethal(2, 2));
+    }
+
+    private static ArenaResponse arena(Mob... mobs) {
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = new int[]{11, 11};
+        response.mobs = new ArrayList<>(List.of(mobs));
+        return response;
+    }
+
+    private static Mob mob(String type, int x, int y, int safeTime) {
+        Mob mob = new Mob();
+        mob.id = "m" + x + y;
+        mob.type = type;
+        mob.pos = new int[]{x, y};
+        mob.safe_time = safeTime;
+        return mob;
+    }
+}
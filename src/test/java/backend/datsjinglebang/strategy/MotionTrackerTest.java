@@ -0,0 +1,73 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotionTrackerTest {
+    private static final float EPS = 1e-4f;
+
+    @Test
+    void predictsCellAheadOfMovingEntity() {
+        MotionTracker tracker = new MotionTracker();
+        observe(tracker, 1, 5, 5, null);
+        observe(tracker, 2, 6, 5, null);
+
+        // Сдвинулся на +x: через тик скорее всего на (7, 5), реже остался или свернул
+        assertEquals(0, tracker.getDirection("e1"));
+        assertEquals(0.6f, tracker.occupancy(7, 5, 1), EPS);
+        assertEquals(0.1f, tracker.occupancy(6, 5, 1), EPS);
+        assertEquals(0.1f, tracker.occupancy(5, 5, 1), EPS);
+        assertEquals(0f, tracker.occupancy(8, 5, 1), EPS);
+        // Через два тика основная масса еще на клетку дальше
+        assertTrue(tracker.occupancy(8, 5, 2) > tracker.occupancy(7, 5, 2));
+        assertEquals(tracker.occupancy(7, 5, 1), tracker.maxOccupancy(7, 5), EPS);
+    }
+
+    @Test
+    void blockedCellAheadKeepsEntityInPlace() {
+        FogOfWarMap map = new FogOfWarMap();
+        ArenaResponse arena = new ArenaResponse();
+        arena.map_size = new int[]{11, 11};
+        arena.arena = new Arena();
+        arena.arena.walls = new ArrayList<>(List.of(List.of(7, 5)));
+        map.update(arena, 0, 1);
+
+        MotionTracker tracker = new MotionTracker();
+        observe(tracker, 1, 5, 5, map);
+        observe(tracker, 2, 6, 5, map);
+
+        assertEquals(0f, tracker.occupancy(7, 5, 1), EPS);
+        assertEquals(0.7f, tracker.occupancy(6, 5, 1), EPS);
+    }
+
+    @Test
+    void forecastIsClearedAndLostEntitiesExpire() {
+        MotionTracker tracker = new MotionTracker();
+        observe(tracker, 1, 5, 5, null);
+        observe(tracker, 2, 6, 5, null);
+        assertEquals(1, tracker.getTrackedCount());
+
+        // Тик без наблюдения: прогноза нет, но сущность пока помним
+        tracker.beginTick(3, 11, 11);
+        tracker.endTick(null);
+        assertEquals(0f, tracker.maxOccupancy(7, 5), EPS);
+        assertEquals(1, tracker.getTrackedCount());
+
+        tracker.beginTick(20, 11, 11);
+        tracker.endTick(null);
+        assertEquals(0, tracker.getTrackedCount());
+        assertEquals(-1, tracker.getDirection("e1"));
+    }
+
+    private static void observe(MotionTracker tracker, int tick, int x, int y, FogOfWarMap map) {
+        tracker.beginTick(tick, 11, 11);
+        tracker.observe("e1", new int[]{x, y});
+        tracker.endTick(map);
+    }
+}
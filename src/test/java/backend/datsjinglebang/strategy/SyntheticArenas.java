@@ -0,0 +1,196 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Генератор синтетических арен для бенчмарков и тестов стратегии.
+// Карта в стиле бомбермена: неразрушаемые столбы на нечетных клетках,
+// разрушаемые препятствия с заданной плотностью, бомбы, бомберы, враги и мобы на свободных клетках.
+final class SyntheticArenas {
+
+    private SyntheticArenas() {
+    }
+
+    static ArenaResponse arena(int mapSize, double obstacleDensity, int bombCount, int bomberCount, long seed) {
+        Random random = new Random(seed);
+        boolean[] occupied = new boolean[mapSize * mapSize];
+
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = new int[]{mapSize, mapSize};
+        response.code = 0;
+        response.player = "synthetic";
+        response.round = "synthetic-" + seed;
+        response.errors = new ArrayList<>();
+
+        Arena arena = new Arena();
+        arena.walls = new ArrayList<>();
+        arena.obstacles = new ArrayList<>();
+        arena.bombs = new ArrayList<>();
+        response.arena = arena;
+
+        for (int y = 0; y < mapSize; y++) {
+            for (int x = 0; x < mapSize; x++) {
+                if (x % 2 == 1 && y % 2 == 1) {
+                    arena.walls.add(Arrays.asList(x, y));
+                    occupied[y * mapSize + x] = true;
+                } else if (random.nextDouble() < obstacleDensity) {
+                    arena.obstacles.add(Arrays.asList(x, y));
+                    occupied[y * mapSize + x] = true;
+                }
+            }
+        }
+
+        response.bombers = new ArrayList<>();
+        for (int i = 0; i < bomberCount; i++) {
+            Bomber bomber = new Bomber();
+            bomber.id = "bomber-" + i;
+            bomber.alive = true;
+            bomber.can_move = true;
+            bomber.bombs_available = 1;
+            bomber.armor = 0;
+            bomber.pos = freeCell(random, occupied, mapSize);
+            response.bombers.add(bomber);
+        }
+
+        for (int i = 0; i < bombCount; i++) {
+            Bomb bomb = new Bomb();
+            bomb.pos = freeCell(random, occupied, mapSize);
+            bomb.range = 1;
+            bomb.timer = 1 + random.nextInt(8);
+            arena.bombs.add(bomb);
+        }
+
+        response.enemies = new ArrayList<>();
+        for (int i = 0; i < bomberCount; i++) {
+            Enemy enemy = new Enemy();
+            enemy.id = "enemy-" + i;
+            enemy.pos = freeCell(random, occupied, mapSize);
+            response.enemies.add(enemy);
+        }
+
+        response.mobs = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, bomberCount / 4); i++) {
+            Mob mob = new Mob();
+            mob.id = "mob-" + i;
+            mob.type = i % 2 == 0 ? "ghost" : "patrol";
+            mob.pos = freeCell(random, occupied, mapSize);
+            response.mobs.add(mob);
+        }
+
+        return response;
+    }
+
+    // Следующий тик той же арены: бомберы, враги и мобы делают шаг в случайную свободную
+    // сторону, таймеры бомб уменьшаются на полсекунды, взорвавшиеся бомбы ставятся заново
+    // в другом месте (число бомб не меняется). Стены и препятствия общие с предыдущим тиком.
+    static ArenaResponse nextTick(ArenaResponse previous, Random random) {
+        int mapSize = previous.map_size[0];
+        boolean[] blocked = new boolean[mapSize * mapSize];
+        markCells(blocked, previous.arena.walls, mapSize);
+        markCells(blocked, previous.arena.obstacles, mapSize);
+        for (Bomb bomb : previous.arena.bombs) {
+            blocked[bomb.pos[1] * mapSize + bomb.pos[0]] = true;
+        }
+
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = previous.map_size;
+        response.code = previous.code;
+        response.player = previous.player;
+        response.round = previous.round;
+        response.errors = previous.errors;
+
+        Arena arena = new Arena();
+        arena.walls = previous.arena.walls;
+        arena.obstacles = previous.arena.obstacles;
+        arena.bombs = new ArrayList<>();
+        response.arena = arena;
+        for (Bomb old : previous.arena.bombs) {
+            Bomb bomb = new Bomb();
+            bomb.range = old.range;
+            bomb.timer = old.timer - 0.5;
+            bomb.pos = old.pos;
+            if (bomb.timer <= 0) {
+                bomb.timer = 1 + random.nextInt(8);
+                bomb.pos = freeCell(random, blocked, mapSize);
+            }
+            arena.bombs.add(bomb);
+        }
+
+        response.bombers = new ArrayList<>();
+        for (Bomber old : previous.bombers) {
+            Bomber bomber = new Bomber();
+            bomber.id = old.id;
+            bomber.alive = old.alive;
+            bomber.can_move = old.can_move;
+            bomber.bombs_available = old.bombs_available;
+            bomber.armor = old.armor;
+            bomber.pos = step(old.pos, random, blocked, mapSize);
+            response.bombers.add(bomber);
+        }
+
+        response.enemies = new ArrayList<>();
+        for (Enemy old : previous.enemies) {
+            Enemy enemy = new Enemy();
+            enemy.id = old.id;
+            enemy.pos = step(old.pos, random, blocked, mapSize);
+            response.enemies.add(enemy);
+        }
+
+        response.mobs = new ArrayList<>();
+        for (Mob old : previous.mobs) {
+            Mob mob = new Mob();
+            mob.id = old.id;
+            mob.type = old.type;
+            mob.pos = step(old.pos, random, blocked, mapSize);
+            response.mobs.add(mob);
+        }
+        return response;
+    }
+
+    static BoosterResponse boosters() {
+        BoosterState state = new BoosterState();
+        state.setBombRange(1);
+        state.setBombs(1);
+        state.setSpeed(2);
+        state.setView(5);
+        state.setBombDelay(8000);
+        state.setPoints(0);
+
+        List<Booster> available = new ArrayList<>();
+        available.add(new Booster(1, "speed"));
+        available.add(new Booster(1, "bomb_range"));
+        return new BoosterResponse(available, state);
+    }
+
+    private static int[] step(int[] pos, Random random, boolean[] blocked, int mapSize) {
+        int dir = random.nextInt(4);
+        int x = pos[0] + (dir == 0 ? 1 : dir == 1 ? -1 : 0);
+        int y = pos[1] + (dir == 2 ? 1 : dir == 3 ? -1 : 0);
+        if (x < 0 || x >= mapSize || y < 0 || y >= mapSize || blocked[y * mapSize + x]) {
+            return pos;
+        }
+        return new int[]{x, y};
+    }
+
+    private static void markCells(boolean[] blocked, List<List<Integer>> cells, int mapSize) {
+        for (List<Integer> cell : cells) {
+            blocked[cell.get(1) * mapSize + cell.get(0)] = true;
+        }
+    }
+
+    private static int[] freeCell(Random random, boolean[] occupied, int mapSize) {
+        for (int attempt = 0; attempt < 1000; attempt++) {
+            int x = random.nextInt(mapSize);
+            int y = random.nextInt(mapSize);
+            if (!occupied[y * mapSize + x]) {
+                occupied[y * mapSize + x] = true;
+                return new int[]{x, y};
+            }
+        }
+        return new int[]{0, 0};
+    }
+}
@@ -0,0 +1,116 @@
+package backend.datsjinglebang.strategy;
+
+import backend.datsjinglebang.model.Arena;
+import backend.datsjinglebang.model.ArenaResponse;
+import backend.datsjinglebang.model.Bomber;
+import backend.datsjinglebang.model.Enemy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrapEvaluatorTest {
+    // Радиус взрыва 2, остальное по умолчанию: враг успевает пройти 6 клеток
+    private static final BomberCapabilities CAPS = new BomberCapabilities(
+            2, 5, 2, 3000, 1, false, false, false);
+
+    @Test
+    void singleBombClosesDeadEnd() {
+        ArenaResponse arena = corridor(1);
+        arena.arena.walls.add(List.of(0, 1));
+        arena.bombers.add(bomber("b1", 3, 1));
+        arena.bombers.add(bomber("far", 11, 1));
+
+        int[] out = plan(arena, 0, 1);
+        assertArrayEquals(new int[]{0, -1}, out);
+    }
+
+    @Test
+    void twoBombersCloseCorridorFromBothSides() {
+        ArenaResponse arena = corridor(6);
+        arena.bombers.add(bomber("left", 4, 1));
+        arena.bombers.add(bomber("right", 8, 1));
+
+        // Поодиночке враг уходит в другую сторону коридора
+        assertEquals(0, plan(arena, 0).length);
+        assertEquals(0, plan(arena, 1).length);
+        assertArrayEquals(new int[]{0, 1}, plan(arena, 0, 1));
+    }
+
+    @Test
+    void pairIsRejectedWhenPartnerBombCutsOffEscape() {
+        ArenaResponse arena = corridor(6);
+        arena.arena.walls.add(List.of(2, 1));
+        arena.bombers.add(bomber("left", 4, 1));
+        arena.bombers.add(bomber("right", 8, 1));
+
+        // Одному левому можно уйти в (7, 1), но там крест правой бомбы, а дальше - она сама
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+        assertTrue(new ChainReactionEvaluator(StrategyTuning.defaults())
+                .evaluate(snapshot, grid(snapshot), CAPS, 4, 1, 4, 1).isSafe());
+        assertEquals(0, plan(arena, 0, 1).length);
+    }
+
+    @Test
+    void findsSpotToWalkToAndSkipsInvulnerableEnemies() {
+        ArenaResponse arena = corridor(1);
+        arena.arena.walls.add(List.of(0, 1));
+        arena.bombers.add(bomber("b1", 8, 1));
+        TrapEvaluator evaluator = new TrapEvaluator(new ChainReactionEvaluator(StrategyTuning.defaults()));
+
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+        int[] spot = new int[2];
+        assertTrue(evaluator.findSpot(snapshot, grid(snapshot), CAPS, 0, 8, 1, spot));
+        assertArrayEquals(new int[]{2, 1}, spot);
+
+        arena.enemies.get(0).safe_time = 5000;
+        snapshot = ArenaSnapshot.of(arena, 1);
+        assertFalse(evaluator.findSpot(snapshot, grid(snapshot), CAPS, 0, 8, 1, spot));
+    }
+
+    private static int[] plan(ArenaResponse arena, int... ready) {
+        TrapEvaluator evaluator = new TrapEvaluator(new ChainReactionEvaluator(StrategyTuning.defaults()));
+        ArenaSnapshot snapshot = ArenaSnapshot.of(arena, 1);
+        int[] out = new int[2 * snapshot.getBomberCount()];
+        int planned = evaluator.plan(snapshot, grid(snapshot), CAPS, ready, ready.length, out);
+        return Arrays.copyOf(out, 2 * planned);
+    }
+
+    private static ArenaGrid grid(ArenaSnapshot snapshot) {
+        ArenaGrid grid = new ArenaGrid();
+        grid.build(snapshot);
+        return grid;
+    }
+
+    // Коридор 13x3: стены сверху и снизу, враг в (enemyX, 1)
+    private static ArenaResponse corridor(int enemyX) {
+        ArenaResponse response = new ArenaResponse();
+        response.map_size = new int[]{13, 3};
+        response.arena = new Arena();
+        response.arena.walls = new ArrayList<>();
+        for (int x = 0; x < 13; x++) {
+            response.arena.walls.add(List.of(x, 0));
+            response.arena.walls.add(List.of(x, 2));
+        }
+        response.arena.obstacles = new ArrayList<>();
+        response.arena.bombs = new ArrayList<>();
+        response.bombers = new ArrayList<>();
+
+        Enemy enemy = new Enemy();
+        enemy.id = "e1";
+        enemy.pos = new int[]{enemyX, 1};
+        response.enemies = new ArrayList<>(List.of(enemy));
+        return response;
+    }
+
+    private static Bomber bomber(String id, int x, int y) {
+        Bomber bomber = new Bomber();
+        bomber.id = id;
+        bomber.pos = new int[]{x, y};
+        bomber.alive = true;
+        return bomber;
+    }
+}
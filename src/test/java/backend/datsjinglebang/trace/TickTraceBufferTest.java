@@ -0,0 +1,56 @@
+package backend.datsjinglebang.trace;
+
+import backend.datsjinglebang.model.ArenaResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickTraceBufferTest {
+
+    @Test
+    void lastSkipsSlotStillBeingWritten() {
+        TickTraceBuffer buffer = new TickTraceBuffer();
+        buffer.commit(buffer.begin(1));
+        long writing = buffer.begin(2);
+        buffer.commit(buffer.begin(3));
+
+        // Тик 2 еще пишется - читатель его пропускает, остальные от новых к старым
+        List<TickTraceEntry> entries = buffer.last(10);
+        assertEquals(2, entries.size());
+        assertEquals(3, entries.get(0).tick);
+        assertEquals(1, entries.get(1).tick);
+
+        buffer.commit(writing);
+        assertEquals(List.of(3, 2, 1), buffer.last(10).stream().map(e -> e.tick).toList());
+    }
+
+    @Test
+    void wrappedSlotDropsWritesOfPreviousOwner() {
+        TickTraceBuffer buffer = new TickTraceBuffer();
+        long stale = buffer.begin(0);
+
+        // Медленная запись тика 0 отстала на целый круг: ее слот занял тик CAPACITY
+        for (int tick = 1; tick <= TickTraceBuffer.CAPACITY; tick++) {
+            buffer.commit(buffer.begin(tick));
+        }
+        ArenaResponse arena = new ArenaResponse();
+        arena.round = "stale";
+        buffer.arena(stale, arena);
+        buffer.markFailed(stale);
+        buffer.commit(stale);
+
+        TickTraceEntry newest = buffer.last(1).get(0);
+        assertEquals(TickTraceBuffer.CAPACITY, newest.tick);
+        assertEquals(TickTraceBuffer.CAPACITY, newest.sequence);
+        assertFalse(newest.failed);
+        assertNull(newest.round);
+
+        // Окно чтения не больше емкости, перезаписанный тик 0 в него не попадает
+        List<TickTraceEntry> entries = buffer.last(TickTraceBuffer.CAPACITY + 10);
+        assertEquals(TickTraceBuffer.CAPACITY, entries.size());
+        assertEquals(1, entries.get(entries.size() - 1).tick);
+        assertTrue(entries.stream().noneMatch(e -> e.failed));
+    }
+}